@@ -10,10 +10,16 @@ import net.blwsmartware.booking.entity.Role;
 import net.blwsmartware.booking.entity.User;
 import net.blwsmartware.booking.repository.RoleRepository;
 import net.blwsmartware.booking.repository.UserRepository;
+import net.blwsmartware.booking.service.AmenityService;
+import net.blwsmartware.booking.service.HotelService;
+import net.blwsmartware.booking.service.HotelStatsService;
+import net.blwsmartware.booking.service.RevenueRollupService;
+import net.blwsmartware.booking.service.RoomInventoryService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
@@ -40,6 +46,10 @@ public class InitialApplicationConfig {
 
     PasswordEncoder passwordEncoder;
 
+    // Backfill bằng UPDATE hàng loạt không cập nhật chỉ mục trong bộ nhớ: phải chạy trước khi dựng chỉ mục
+    static final int BACKFILL_ORDER = 1;
+    static final int WARM_UP_ORDER = 2;
+
     @Bean
     ApplicationRunner applicationRunner(UserRepository userRepository , RoleRepository roleRepository){
         log.info("********** Initializing application...");
@@ -72,4 +82,48 @@ public class InitialApplicationConfig {
             log.info("********** Application initialization completed before...");
         };
     }
+
+    @Bean
+    @Order(WARM_UP_ORDER)
+    ApplicationRunner availabilityCalendarWarmUp(RoomInventoryService roomInventoryService) {
+        return args -> {
+            log.info("********** Warming up availability calendar...");
+            roomInventoryService.warmUpCalendar();
+        };
+    }
+
+    @Bean
+    @Order(WARM_UP_ORDER)
+    ApplicationRunner hotelSearchIndexWarmUp(HotelService hotelService) {
+        return args -> {
+            log.info("********** Building hotel search index...");
+            hotelService.warmUpSearchIndex();
+        };
+    }
+
+    @Bean
+    @Order(BACKFILL_ORDER)
+    ApplicationRunner amenityMaskBackfill(AmenityService amenityService) {
+        return args -> {
+            log.info("********** Building amenity dictionary...");
+            amenityService.backfillHotelMasks();
+        };
+    }
+
+    @Bean
+    @Order(BACKFILL_ORDER)
+    ApplicationRunner roomPriceRangeBackfill(HotelStatsService hotelStatsService) {
+        return args -> {
+            log.info("********** Backfilling hotel room price ranges...");
+            hotelStatsService.backfillRoomPriceRanges();
+        };
+    }
+
+    @Bean
+    ApplicationRunner revenueRollupBackfill(RevenueRollupService revenueRollupService) {
+        return args -> {
+            log.info("********** Backfilling daily hotel revenue rollup...");
+            revenueRollupService.backfillIfEmpty();
+        };
+    }
 }
@@ -40,7 +40,8 @@ public class SecurityConfig {
             "/auth/**",
             "/oauth2/**", // Add OAuth2 endpoints
             "/login/oauth2/**", // Add OAuth2 login endpoints
-            "/api/payment/vnpay/ipn" // VNPay IPN callback - không cần authentication
+            "/api/payment/vnpay/ipn", // VNPay IPN callback - không cần authentication
+            "/bookings/check-availability/batch" // Batch availability check for guest users
     };
 
     private static final String[] PUBLIC_GET_ENDPOINTS = {
@@ -52,9 +53,14 @@ public class SecurityConfig {
             "/hotels/active",
             "/hotels/featured",
             "/hotels/search/filters",
+            "/hotels/search/available",
             "/hotels/amenities",
+            "/hotels/nearby",
+            "/hotels/within",
+            "/hotels/autocomplete",
             "/room-types/hotel/**",
             "/bookings/check-availability", // Only keep availability check as public
+            "/bookings/check-availability/calendar", // Month-view availability grid
             "/api/upload/test", // Allow test endpoint for upload service verification
             "/api/payment/vnpay/return", // VNPay return URL - không cần authentication
             "/oauth2/**", // Add OAuth2 GET endpoints
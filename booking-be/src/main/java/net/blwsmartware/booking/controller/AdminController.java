@@ -59,6 +59,8 @@ public class AdminController {
     BookingRepository bookingRepository;
     UserRepository userRepository;
     HotelRepository hotelRepository;
+    AvailabilityReconcileService availabilityReconcileService;
+    RevenueRollupService revenueRollupService;
     
     @GetMapping("/dashboard")
     @IsAdmin
@@ -363,4 +365,56 @@ public class AdminController {
         User user = getCurrentUser();
         return user != null ? user.getId() : null;
     }
-} 
\ No newline at end of file
+    
+    @PostMapping("/availability/reconcile")
+    @IsAdmin
+    public ResponseEntity<MessageResponse<AvailabilityReconcileResponse>> reconcileAvailability(
+            @RequestParam(value = "fix", defaultValue = "false") boolean fix) {
+        
+        log.info("Admin requested availability reconcile (fix = {})", fix);
+        
+        AvailabilityReconcileResponse response = availabilityReconcileService.reconcile(fix);
+        
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(MessageResponse.<AvailabilityReconcileResponse>builder()
+                    .message(fix ? "Availability reconciled successfully" : "Availability drift report generated")
+                    .result(response)
+                    .build()
+                );
+    }
+    
+    @PostMapping("/revenue-rollup/backfill")
+    @IsAdmin
+    public ResponseEntity<MessageResponse<Integer>> backfillRevenueRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        
+        log.info("Admin requested revenue rollup backfill from {} to {}", startDate, endDate);
+        
+        if (startDate.isAfter(endDate)) {
+            throw new AppRuntimeException(ErrorResponse.DATE_RANGE_INVALID);
+        }
+        int rows = revenueRollupService.backfill(startDate, endDate);
+        
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(MessageResponse.<Integer>builder()
+                    .message("Revenue rollup backfilled successfully")
+                    .result(rows)
+                    .build()
+                );
+    }
+    
+    @GetMapping("/cache-stats")
+    @IsAdmin
+    public ResponseEntity<MessageResponse<List<CacheStatsResponse>>> getCacheStats() {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(MessageResponse.<List<CacheStatsResponse>>builder()
+                    .message("Cache statistics retrieved successfully")
+                    .result(hotelService.getCacheStats())
+                    .build()
+                );
+    }
+}
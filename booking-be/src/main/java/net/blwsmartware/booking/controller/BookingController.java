@@ -6,12 +6,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import net.blwsmartware.booking.constant.PagePrepare;
+import net.blwsmartware.booking.dto.request.AvailabilityBatchRequest;
 import net.blwsmartware.booking.dto.request.BookingCreateRequest;
 import net.blwsmartware.booking.dto.request.BookingUpdateRequest;
 import net.blwsmartware.booking.dto.request.CancellationRequest;
+import net.blwsmartware.booking.dto.request.GroupBookingCreateRequest;
+import net.blwsmartware.booking.dto.response.AvailabilityBatchResponse;
 import net.blwsmartware.booking.dto.response.BookingResponse;
 import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.dto.response.GroupBookingResponse;
 import net.blwsmartware.booking.dto.response.MessageResponse;
+import net.blwsmartware.booking.dto.response.MonthAvailabilityResponse;
 import net.blwsmartware.booking.service.BookingService;
 import net.blwsmartware.booking.validator.IsAdmin;
 import net.blwsmartware.booking.validator.IsHost;
@@ -68,6 +73,21 @@ public class BookingController {
                         .build());
     }
     
+    @PostMapping("/group")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<MessageResponse<GroupBookingResponse>> createGroupBooking(
+            @Valid @RequestBody GroupBookingCreateRequest request) {
+        log.info("Creating group booking for authenticated user");
+        GroupBookingResponse response = bookingService.createGroupBooking(request);
+        
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponse.<GroupBookingResponse>builder()
+                        .message("Group booking created successfully")
+                        .result(response)
+                        .build());
+    }
+    
     @PostMapping("/scan-qr")
     public ResponseEntity<?> scanQrCode(@RequestBody Map<String, Object> payload) {
         String qrJson = (String) payload.get("qrCode");
@@ -311,10 +331,13 @@ public class BookingController {
             @RequestParam(required = false) String paymentStatus,
             @RequestParam(defaultValue = PagePrepare.PAGE_NUMBER) Integer pageNumber,
             @RequestParam(defaultValue = PagePrepare.PAGE_SIZE) Integer pageSize,
-            @RequestParam(defaultValue = "createdAt") String sortBy) {
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(required = false) String after) {
         
-        DataResponse<BookingResponse> response = bookingService.getAllBookings(
-                status, paymentStatus, pageNumber, pageSize, sortBy);
+        // Có tham số after (kể cả rỗng cho trang đầu) → phân trang cursor, bỏ qua pageNumber
+        DataResponse<BookingResponse> response = after != null
+                ? bookingService.getAllBookingsAfter(status, paymentStatus, after, pageSize, sortBy)
+                : bookingService.getAllBookings(status, paymentStatus, pageNumber, pageSize, sortBy);
         
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
@@ -464,4 +487,36 @@ public class BookingController {
                         .result(isAvailable)
                         .build());
     }
-} 
\ No newline at end of file
+    
+    @GetMapping("/check-availability/calendar")
+    // Lưới số phòng trống theo đêm cho UI dạng lịch tháng (tối đa 62 đêm)
+    public ResponseEntity<MessageResponse<MonthAvailabilityResponse>> getMonthAvailability(
+            @RequestParam UUID hotelId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(defaultValue = "31") Integer days) {
+        
+        MonthAvailabilityResponse response = bookingService.getMonthAvailability(hotelId, startDate, days);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponse.<MonthAvailabilityResponse>builder()
+                        .message("Room availability calendar retrieved successfully")
+                        .result(response)
+                        .build());
+    }
+    
+    @PostMapping("/check-availability/batch")
+    // Public như check-availability: trả lời nhiều loại phòng và nhiều khoảng ngày của 1 khách sạn trong 1 request
+    public ResponseEntity<MessageResponse<AvailabilityBatchResponse>> checkRoomAvailabilityBatch(
+            @Valid @RequestBody AvailabilityBatchRequest request) {
+        
+        AvailabilityBatchResponse response = bookingService.checkAvailabilityBatch(request);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponse.<AvailabilityBatchResponse>builder()
+                        .message("Room availability checked successfully")
+                        .result(response)
+                        .build());
+    }
+} 
@@ -8,9 +8,7 @@ import net.blwsmartware.booking.dto.response.HostDashboardResponse;
 import net.blwsmartware.booking.dto.response.MessageResponse;
 import net.blwsmartware.booking.service.AnalyticsService;
 import net.blwsmartware.booking.service.BookingService;
-import net.blwsmartware.booking.service.HotelService;
-import net.blwsmartware.booking.service.ReviewService;
-import net.blwsmartware.booking.service.RoomTypeService;
+import net.blwsmartware.booking.service.HostDashboardService;
 import net.blwsmartware.booking.validator.IsHost;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
@@ -34,11 +32,9 @@ import java.util.UUID;
 @Slf4j
 public class HostController {
     
-    HotelService hotelService;
-    RoomTypeService roomTypeService;
     BookingService bookingService;
-    ReviewService reviewService;
     AnalyticsService analyticsService;
+    HostDashboardService hostDashboardService;
     
     @GetMapping("/dashboard")
     @IsHost
@@ -49,73 +45,11 @@ public class HostController {
         log.info("Getting host dashboard statistics for host: {}", hostId);
         
         try {
-            // Basic hotel statistics
-            Long totalHotels = hotelService.getMyHotelsCount();
-            Long activeHotels = hotelService.getMyActiveHotelsCount();
-            Long totalRoomTypes = roomTypeService.getMyRoomTypesCount();
+            HostDashboardResponse dashboardResponse = hostDashboardService.getDashboard(hostId);
             
-            // Booking statistics
-            Long totalBookings = bookingService.getHostBookingsCount();
-            Long pendingBookings = bookingService.getHostBookingsCountByStatus(
-                net.blwsmartware.booking.enums.BookingStatus.PENDING);
-            Long confirmedBookings = bookingService.getHostBookingsCountByStatus(
-                net.blwsmartware.booking.enums.BookingStatus.CONFIRMED);
-            Long cancelledBookings = bookingService.getHostBookingsCountByStatus(
-                net.blwsmartware.booking.enums.BookingStatus.CANCELLED);
-            Long completedBookings = bookingService.getHostBookingsCountByStatus(
-                net.blwsmartware.booking.enums.BookingStatus.COMPLETED);
-            
-            // Revenue statistics
-            BigDecimal totalRevenue = bookingService.getHostTotalRevenue();
-            BigDecimal monthlyRevenue = bookingService.getHostMonthlyRevenue();
-            BigDecimal totalCommission = bookingService.getHostTotalCommission();
-            BigDecimal averageBookingValue = totalBookings > 0 ? 
-                totalRevenue.divide(BigDecimal.valueOf(totalBookings), 2, RoundingMode.HALF_UP) : 
-                BigDecimal.ZERO;
-            
-            // Performance metrics
-            Double averageRating = reviewService.getHostAverageRating(hostId);
-            Double occupancyRate = bookingService.getHostOccupancyRate();
-            Long totalReviews = reviewService.getHostReviewsCount(hostId);
-            
-            // Recent bookings
-            List<HostDashboardResponse.RecentBooking> recentBookings = 
-                bookingService.getHostRecentBookings(hostId, 5);
-            
-            // Monthly data for charts
-            List<HostDashboardResponse.MonthlyData> monthlyRevenueData = 
-                bookingService.getHostMonthlyRevenueData(hostId, 12);
-            List<HostDashboardResponse.MonthlyData> monthlyBookingData = 
-                bookingService.getHostMonthlyBookingData(hostId, 12);
-            
-            // Top performing hotels
-            List<HostDashboardResponse.HotelPerformance> topPerformingHotels = 
-                hotelService.getHostTopPerformingHotels(hostId, 5);
-            
-            HostDashboardResponse dashboardResponse = HostDashboardResponse.builder()
-                    .totalHotels(totalHotels)
-                    .activeHotels(activeHotels)
-                    .totalRoomTypes(totalRoomTypes)
-                    .totalBookings(totalBookings)
-                    .pendingBookings(pendingBookings)
-                    .confirmedBookings(confirmedBookings)
-                    .cancelledBookings(cancelledBookings)
-                    .completedBookings(completedBookings)
-                    .monthlyRevenue(monthlyRevenue)
-                    .totalRevenue(totalRevenue)
-                    .averageBookingValue(averageBookingValue)
-                    .totalCommission(totalCommission)
-                    .averageRating(averageRating != null ? averageRating : 0.0)
-                    .occupancyRate(occupancyRate != null ? occupancyRate : 0.0)
-                    .totalReviews(totalReviews)
-                    .recentBookings(recentBookings)
-                    .monthlyRevenueData(monthlyRevenueData)
-                    .monthlyBookingData(monthlyBookingData)
-                    .topPerformingHotels(topPerformingHotels)
-                    .build();
-            
-            log.info("Host dashboard statistics collected successfully - Hotels: {}, Bookings: {}, Revenue: {}", 
-                    totalHotels, totalBookings, totalRevenue);
+            log.info("Host dashboard statistics collected successfully - Hotels: {}, Bookings: {}, Revenue: {}, Unavailable: {}", 
+                    dashboardResponse.getTotalHotels(), dashboardResponse.getTotalBookings(),
+                    dashboardResponse.getTotalRevenue(), dashboardResponse.getUnavailableSections());
             
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
@@ -11,9 +11,12 @@ import io.swagger.v3.oas.annotations.Operation;
 import net.blwsmartware.booking.constant.PagePrepare;
 import net.blwsmartware.booking.dto.request.HotelCreateRequest;
 import net.blwsmartware.booking.dto.request.HotelUpdateRequest;
+import net.blwsmartware.booking.dto.response.AutocompleteSuggestionResponse;
 import net.blwsmartware.booking.dto.response.CityStatsResponse;
 import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.dto.response.HotelGeoResponse;
 import net.blwsmartware.booking.dto.response.HotelResponse;
+import net.blwsmartware.booking.dto.response.HotelSearchResponse;
 import net.blwsmartware.booking.dto.response.MessageResponse;
 import net.blwsmartware.booking.dto.response.UploadResponse;
 import net.blwsmartware.booking.service.CloudinaryService;
@@ -646,9 +649,13 @@ public class HotelController {
     public ResponseEntity<MessageResponse<DataResponse<HotelResponse>>> getActiveHotels(
             @RequestParam(defaultValue = PagePrepare.PAGE_NUMBER) Integer pageNumber,
             @RequestParam(defaultValue = PagePrepare.PAGE_SIZE) Integer pageSize,
-            @RequestParam(defaultValue = "name") String sortBy) {
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(required = false) String after) {
         
-        DataResponse<HotelResponse> response = hotelService.getActiveHotels(pageNumber, pageSize, sortBy);
+        // Có tham số after (kể cả rỗng cho trang đầu) → phân trang cursor, bỏ qua pageNumber
+        DataResponse<HotelResponse> response = after != null
+                ? hotelService.getActiveHotelsAfter(after, pageSize, sortBy)
+                : hotelService.getActiveHotels(pageNumber, pageSize, sortBy);
         
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
@@ -675,28 +682,53 @@ public class HotelController {
     }
 
     @GetMapping("/search/filters")
-    public ResponseEntity<MessageResponse<DataResponse<HotelResponse>>> searchHotelsWithFilters(
+    public ResponseEntity<MessageResponse<HotelSearchResponse>> searchHotelsWithFilters(
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String country,
             @RequestParam(required = false) Integer starRating,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) String amenities,
+            @RequestParam(defaultValue = "all") String amenityMatch,
+            @RequestParam(defaultValue = "false") boolean includeFacets,
             @RequestParam(defaultValue = PagePrepare.PAGE_NUMBER) Integer pageNumber,
             @RequestParam(defaultValue = PagePrepare.PAGE_SIZE) Integer pageSize,
             @RequestParam(defaultValue = "name") String sortBy) {
         
-        DataResponse<HotelResponse> response = hotelService.searchHotelsWithFilters(
-                city, country, starRating, minPrice, maxPrice, amenities, pageNumber, pageSize, sortBy);
+        boolean matchAllAmenities = !"any".equalsIgnoreCase(amenityMatch);
+        HotelSearchResponse response = hotelService.searchHotelsWithFilters(
+                city, country, starRating, minPrice, maxPrice, amenities, matchAllAmenities,
+                includeFacets, pageNumber, pageSize, sortBy);
         
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(MessageResponse.<DataResponse<HotelResponse>>builder()
+                .body(MessageResponse.<HotelSearchResponse>builder()
                         .message("Hotels search with filters completed successfully")
                         .result(response)
                         .build());
     }
 
+    @GetMapping("/search/available")
+    public ResponseEntity<MessageResponse<DataResponse<HotelResponse>>> searchAvailableHotels(
+            @RequestParam String city,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+            @RequestParam(defaultValue = "1") Integer guests,
+            @RequestParam(defaultValue = PagePrepare.PAGE_NUMBER) Integer pageNumber,
+            @RequestParam(defaultValue = PagePrepare.PAGE_SIZE) Integer pageSize,
+            @RequestParam(defaultValue = "name") String sortBy) {
+        
+        DataResponse<HotelResponse> response = hotelService.searchAvailableHotels(
+                city, checkInDate, checkOutDate, guests, pageNumber, pageSize, sortBy);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponse.<DataResponse<HotelResponse>>builder()
+                        .message("Available hotels retrieved successfully")
+                        .result(response)
+                        .build());
+    }
+
     @GetMapping("/amenities")
     public ResponseEntity<MessageResponse<List<String>>> getAvailableAmenities() {
         List<String> amenities = hotelService.getAvailableAmenities();
@@ -709,6 +741,63 @@ public class HotelController {
                         .build());
     }
 
+    @GetMapping("/autocomplete")
+    public ResponseEntity<MessageResponse<List<AutocompleteSuggestionResponse>>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        List<AutocompleteSuggestionResponse> suggestions = hotelService.autocomplete(q, limit);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponse.<List<AutocompleteSuggestionResponse>>builder()
+                        .message("Suggestions retrieved successfully")
+                        .result(suggestions)
+                        .build());
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<MessageResponse<List<HotelGeoResponse>>> getNearbyHotels(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Integer starRating,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        List<HotelGeoResponse> hotels = hotelService.findNearbyHotels(
+                lat, lng, limit, radiusKm, city, starRating, minPrice, maxPrice);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponse.<List<HotelGeoResponse>>builder()
+                        .message("Nearby hotels retrieved successfully")
+                        .result(hotels)
+                        .build());
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<MessageResponse<List<HotelGeoResponse>>> getHotelsWithinBounds(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(defaultValue = "200") int limit,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Integer starRating,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        List<HotelGeoResponse> hotels = hotelService.findHotelsInBounds(
+                minLat, minLng, maxLat, maxLng, limit, city, starRating, minPrice, maxPrice);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponse.<List<HotelGeoResponse>>builder()
+                        .message("Hotels within map bounds retrieved successfully")
+                        .result(hotels)
+                        .build());
+    }
+
     @GetMapping("/top-cities")
     public ResponseEntity<MessageResponse<List<CityStatsResponse>>> getTopCities(
             @RequestParam(defaultValue = "4") int limit) {
@@ -69,9 +69,20 @@ public class WalletController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<MessageResponse<DataResponse<WalletTransactionResponse>>> getTransactionHistory(
             @RequestParam(value = "pageNumber", defaultValue = PagePrepare.PAGE_NUMBER, required = false) Integer pageNumber,
-            @RequestParam(value = "pageSize", defaultValue = PagePrepare.PAGE_SIZE, required = false) Integer pageSize) {
+            @RequestParam(value = "pageSize", defaultValue = PagePrepare.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(value = "after", required = false) String after) {
         
-        log.info("GET /wallet/transactions called with pageNumber={}, pageSize={}", pageNumber, pageSize);
+        log.info("GET /wallet/transactions called with pageNumber={}, pageSize={}, after={}", pageNumber, pageSize, after);
+        
+        if (after != null) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(MessageResponse.<DataResponse<WalletTransactionResponse>>builder()
+                        .message("Transaction history retrieved successfully")
+                        .result(walletService.getTransactionHistoryAfter(after, pageSize))
+                        .build()
+                    );
+        }
         
         Page<WalletTransactionResponse> transactions = walletService.getTransactionHistory(pageNumber, pageSize);
         
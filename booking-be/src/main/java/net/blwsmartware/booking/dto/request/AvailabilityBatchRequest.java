@@ -0,0 +1,44 @@
+package net.blwsmartware.booking.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AvailabilityBatchRequest {
+
+    @NotNull(message = "Hotel ID is required")
+    UUID hotelId;
+
+    @NotEmpty(message = "At least one date range is required")
+    @Size(max = 100, message = "Cannot check more than 100 date ranges at once")
+    @Valid
+    List<RangeQuery> queries;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RangeQuery {
+        // null = tất cả loại phòng của khách sạn
+        UUID roomTypeId;
+
+        @NotNull(message = "Check-in date is required")
+        LocalDate checkInDate;
+
+        @NotNull(message = "Check-out date is required")
+        LocalDate checkOutDate;
+    }
+}
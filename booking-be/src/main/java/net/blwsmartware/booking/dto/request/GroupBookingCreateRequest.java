@@ -0,0 +1,72 @@
+package net.blwsmartware.booking.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GroupBookingCreateRequest {
+
+    @NotNull(message = "Hotel ID is required")
+    UUID hotelId;
+
+    @NotNull(message = "Check-in date is required")
+    @FutureOrPresent(message = "Check-in date cannot be in the past")
+    LocalDate checkInDate;
+
+    @NotNull(message = "Check-out date is required")
+    @Future(message = "Check-out date must be in the future")
+    LocalDate checkOutDate;
+
+    @NotEmpty(message = "At least one room type is required")
+    @Size(max = 20, message = "Cannot book more than 20 room types at once")
+    @Valid
+    List<RoomLine> rooms;
+
+    @Size(max = 50, message = "Payment method cannot exceed 50 characters")
+    String paymentMethod;
+
+    @Size(max = 1000, message = "Special requests cannot exceed 1000 characters")
+    String specialRequests;
+
+    @Size(max = 50, message = "Voucher code cannot exceed 50 characters")
+    String voucherCode;
+
+    @AssertTrue(message = "Check-out date must be after check-in date")
+    public boolean isCheckOutAfterCheckIn() {
+        if (checkInDate == null || checkOutDate == null) {
+            return true; // Let @NotNull handle null validation
+        }
+        return checkOutDate.isAfter(checkInDate);
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RoomLine {
+        @NotNull(message = "Room type ID is required")
+        UUID roomTypeId;
+
+        @NotNull(message = "Number of rooms is required")
+        @Min(value = 1, message = "Number of rooms must be at least 1")
+        @Max(value = 50, message = "Number of rooms cannot exceed 50")
+        Integer quantity;
+
+        // Số khách mỗi phòng
+        @NotNull(message = "Number of guests is required")
+        @Min(value = 1, message = "Number of guests must be at least 1")
+        @Max(value = 10, message = "Number of guests cannot exceed 10")
+        Integer guestsPerRoom;
+    }
+}
@@ -57,6 +57,14 @@ public class HotelUpdateRequest {
 
     String amenities; // JSON string or comma-separated values
 
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    Double longitude;
+
     @Size(max = 1000, message = "Cancellation policy cannot exceed 1000 characters")
     String cancellationPolicy;
 
@@ -0,0 +1,24 @@
+package net.blwsmartware.booking.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.UUID;
+
+/**
+ * Gợi ý khi gõ ô tìm kiếm: thành phố (type = CITY) hoặc khách sạn (type = HOTEL)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AutocompleteSuggestionResponse {
+    String type;
+    String label;
+    UUID hotelId; // null với gợi ý thành phố
+    String city;
+    Integer hotelCount; // số khách sạn đang hoạt động, chỉ có với gợi ý thành phố
+}
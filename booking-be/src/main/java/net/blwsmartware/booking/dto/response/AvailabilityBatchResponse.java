@@ -0,0 +1,44 @@
+package net.blwsmartware.booking.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AvailabilityBatchResponse {
+
+    UUID hotelId;
+    List<RangeAvailability> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RangeAvailability {
+        UUID roomTypeId;
+        LocalDate checkInDate;
+        LocalDate checkOutDate;
+        List<RoomTypeAvailability> roomTypes;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RoomTypeAvailability {
+        UUID roomTypeId;
+        String roomTypeName;
+        Integer totalRooms;
+        Integer remainingRooms;
+        Boolean available;
+    }
+}
@@ -0,0 +1,39 @@
+package net.blwsmartware.booking.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AvailabilityReconcileResponse {
+
+    LocalDateTime startedAt;
+    Long durationMs;
+    boolean fixApplied;
+    Integer roomTypesChecked;
+    Integer driftCount;
+    Integer fixedCount;
+    // Chỉ trả về tối đa 500 loại phòng bị lệch để response không quá lớn
+    List<RoomTypeDrift> drifts;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RoomTypeDrift {
+        UUID roomTypeId;
+        UUID hotelId;
+        String roomTypeName;
+        Integer totalRooms;
+        Integer storedAvailableRooms;
+        Integer actualAvailableRooms;
+    }
+}
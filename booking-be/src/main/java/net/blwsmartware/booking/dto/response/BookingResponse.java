@@ -47,6 +47,7 @@ public class BookingResponse {
     PaymentStatus paymentStatus;
     String paymentMethod;
     String bookingReference;
+    String groupReference;
     String specialRequests;
     
     // Calculated fields
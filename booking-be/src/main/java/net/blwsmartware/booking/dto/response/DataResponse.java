@@ -17,4 +17,6 @@ public class DataResponse<T> {
     int totalPages;
     boolean isLastPage;
     List<T> content;
+    // Chỉ có ở chế độ cursor: token truyền vào tham số after để lấy trang tiếp theo, null nếu đã hết
+    String nextCursor;
 }
@@ -0,0 +1,26 @@
+package net.blwsmartware.booking.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GroupBookingResponse {
+    String groupReference;
+    UUID hotelId;
+    LocalDate checkInDate;
+    LocalDate checkOutDate;
+    Integer totalRooms;
+    BigDecimal subtotalAmount;
+    BigDecimal discountAmount;
+    BigDecimal totalAmount;
+    List<BookingResponse> bookings;
+}
@@ -43,6 +43,9 @@ public class HostDashboardResponse {
     List<MonthlyData> monthlyBookingData;
     List<HotelPerformance> topPerformingHotels;
     
+    // Các phần không lấy được kịp thời hạn (giữ giá trị mặc định), rỗng khi dashboard đầy đủ
+    List<String> unavailableSections;
+    
     @Data
     @Builder
     @NoArgsConstructor
@@ -0,0 +1,43 @@
+package net.blwsmartware.booking.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Số khách sạn theo thành phố, hạng sao và khoảng giá trong tập kết quả của bộ lọc hiện tại
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HotelFacetsResponse {
+    
+    List<FacetCount> cities;
+    List<FacetCount> starRatings;
+    List<PriceRangeCount> priceRanges;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class FacetCount {
+        String value;
+        long count;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class PriceRangeCount {
+        BigDecimal minPrice; // inclusive
+        BigDecimal maxPrice; // exclusive, null = không giới hạn
+        long count;
+    }
+}
@@ -0,0 +1,28 @@
+package net.blwsmartware.booking.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Khách sạn trên bản đồ, đọc hoàn toàn từ chỉ mục không gian trong bộ nhớ
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HotelGeoResponse {
+    UUID id;
+    String name;
+    String address;
+    String city;
+    String imageUrl;
+    Integer starRating;
+    BigDecimal pricePerNight;
+    double latitude;
+    double longitude;
+    double distanceKm;
+}
@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -21,6 +21,8 @@ public class HotelResponse {
     String city;
     String country;
     String location; // Combined location string
+    Double latitude;
+    Double longitude;
     String phone;
     String email;
     String website;
@@ -31,6 +33,8 @@ public class HotelResponse {
     boolean isActive;
     boolean isFeatured;
     BigDecimal pricePerNight;
+    BigDecimal minRoomPrice; // Giá loại phòng rẻ nhất, null nếu chưa có loại phòng
+    BigDecimal maxRoomPrice;
     String amenities;
     String cancellationPolicy;
     String petPolicy;
@@ -0,0 +1,24 @@
+package net.blwsmartware.booking.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Trang kết quả tìm kiếm khách sạn, kèm facet khi được yêu cầu (cùng cấu trúc JSON với DataResponse)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HotelSearchResponse extends DataResponse<HotelResponse> {
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    HotelFacetsResponse facets;
+    
+    public HotelSearchResponse(DataResponse<HotelResponse> page, HotelFacetsResponse facets) {
+        super(page.getPageNumber(), page.getPageSize(), page.getTotalElements(), page.getTotalPages(),
+                page.isLastPage(), page.getContent(), page.getNextCursor());
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,34 @@
+package net.blwsmartware.booking.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MonthAvailabilityResponse {
+
+    UUID hotelId;
+    LocalDate startDate;
+    Integer days;
+    List<RoomTypeNights> roomTypes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RoomTypeNights {
+        UUID roomTypeId;
+        String roomTypeName;
+        Integer totalRooms;
+        // remaining[i] = số phòng còn trống đêm startDate + i
+        int[] remaining;
+    }
+}
@@ -0,0 +1,29 @@
+package net.blwsmartware.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Từ điển tiện ích dùng chung cho mọi khách sạn. Mỗi tiện ích chiếm một bit cố định (0..63)
+ * trong Hotel.amenityMask để lọc nhiều tiện ích bằng phép AND/OR bit thay vì LIKE trên chuỗi.
+ * Code là tên đã bỏ dấu, chữ thường ("Hồ bơi" và "ho boi" là cùng một tiện ích).
+ */
+@Entity
+@Table(name = "amenities")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class Amenity {
+    @Id
+    @Column(name = "bit_index")
+    Integer bitIndex;
+
+    @Column(nullable = false, unique = true, length = 100)
+    String code;
+
+    @Column(nullable = false, length = 100)
+    String name;
+}
@@ -14,7 +14,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_hold_expires_at", columnList = "hold_expires_at"),
+        @Index(name = "idx_bookings_group_reference", columnList = "group_reference")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -72,6 +75,10 @@ public class Booking {
     @Column(name = "booking_reference", length = 50, unique = true)
     String bookingReference;
 
+    // Mã đoàn khi booking được tạo qua đặt phòng theo đoàn, null = booking lẻ
+    @Column(name = "group_reference", length = 50)
+    String groupReference;
+
     @Column(name = "special_requests", columnDefinition = "TEXT")
     String specialRequests;
 
@@ -98,6 +105,10 @@ public class Booking {
     @Column(name = "updated_by")
     UUID updatedBy;
 
+    // Hạn giữ phòng khi chưa thanh toán, null = không tự động hủy
+    @Column(name = "hold_expires_at")
+    LocalDateTime holdExpiresAt;
+
     @Column(name = "qr_code_used")
     boolean qrCodeUsed = false;
 } 
\ No newline at end of file
@@ -3,6 +3,7 @@ package net.blwsmartware.booking.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,7 +13,9 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "hotels")
+@Table(name = "hotels", indexes = {
+        @Index(name = "idx_hotels_active_min_room_price", columnList = "is_active, min_room_price")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -37,6 +40,9 @@ public class Hotel {
 
     @Column(name = "location")
     String location;
+
+    Double latitude;
+    Double longitude;
     
     String phone;
     String email;
@@ -63,9 +69,20 @@ public class Hotel {
     @Column(name = "price_per_night", precision = 10, scale = 2)
     BigDecimal pricePerNight;
 
+    // Khoảng giá thật theo loại phòng, chỉ ghi qua HotelRepository.updateRoomPriceRange khi loại phòng thay đổi
+    @Column(name = "min_room_price", precision = 10, scale = 2, insertable = false, updatable = false)
+    BigDecimal minRoomPrice;
+
+    @Column(name = "max_room_price", precision = 10, scale = 2, insertable = false, updatable = false)
+    BigDecimal maxRoomPrice;
+
     @Column(columnDefinition = "TEXT")
     String amenities;
 
+    // Bit i bật nếu khách sạn có tiện ích Amenity.bitIndex = i, null nếu chưa được tính
+    @Column(name = "amenity_mask")
+    Long amenityMask;
+
     @Column(name = "cancellation_policy", columnDefinition = "TEXT")
     String cancellationPolicy;
 
@@ -89,9 +106,11 @@ public class Hotel {
     User owner; // HOST
 
     @OneToMany(mappedBy = "hotel", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     List<RoomType> roomTypes;
 
     @OneToMany(mappedBy = "hotel", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     List<Review> reviews;
 
     @CreationTimestamp
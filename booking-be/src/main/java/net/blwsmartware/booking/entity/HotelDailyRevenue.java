@@ -0,0 +1,58 @@
+package net.blwsmartware.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Bảng tổng hợp doanh thu theo khách sạn và ngày tạo booking (revenue_date = DATE(bookings.created_at)),
+ * chỉ tính booking đã thanh toán (PAID, REFUNDED, PARTIALLY_REFUNDED) giống các báo cáo doanh thu.
+ * Doanh thu = gross_amount - refund_amount; cancellations là số booking đã thanh toán sau đó bị hủy.
+ * Mỗi dòng được tính lại từ bookings khi một booking của ngày đó được thanh toán/hoàn tiền.
+ */
+@Entity
+@Table(name = "hotel_daily_revenue",
+        uniqueConstraints = @UniqueConstraint(name = "uk_hotel_daily_revenue_day",
+                columnNames = {"hotel_id", "revenue_date"}),
+        indexes = @Index(name = "idx_hotel_daily_revenue_date", columnList = "revenue_date"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HotelDailyRevenue {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    @Column(name = "hotel_id", nullable = false)
+    UUID hotelId;
+
+    @Column(name = "revenue_date", nullable = false)
+    LocalDate revenueDate;
+
+    @Column(name = "gross_amount", nullable = false, precision = 15, scale = 2)
+    BigDecimal grossAmount;
+
+    @Column(name = "refund_amount", nullable = false, precision = 15, scale = 2)
+    BigDecimal refundAmount;
+
+    @Column(name = "commission_amount", nullable = false, precision = 15, scale = 2)
+    BigDecimal commissionAmount;
+
+    @Column(name = "paid_bookings", nullable = false)
+    Long paidBookings;
+
+    @Column(nullable = false)
+    Long cancellations;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    LocalDateTime updatedAt;
+}
@@ -0,0 +1,57 @@
+package net.blwsmartware.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read model thống kê của khách sạn, được cập nhật tăng dần khi review, loại phòng
+ * hoặc trạng thái booking thay đổi để trang danh sách khách sạn không phải tính lại mỗi lần đọc.
+ * Lưu tổng điểm (ratingSum) thay vì điểm trung bình để cộng/trừ delta chính xác.
+ */
+@Entity
+@Table(name = "hotel_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HotelStats {
+    @Id
+    @Column(name = "hotel_id")
+    UUID hotelId;
+
+    @Column(name = "rating_sum", nullable = false)
+    Long ratingSum;
+
+    @Column(name = "review_count", nullable = false)
+    Long reviewCount;
+
+    @Column(name = "room_type_count", nullable = false)
+    Integer roomTypeCount;
+
+    @Column(name = "total_rooms", nullable = false)
+    Integer totalRooms;
+
+    @Column(name = "available_rooms", nullable = false)
+    Integer availableRooms;
+
+    @Column(name = "min_price", precision = 10, scale = 2)
+    BigDecimal minPrice;
+
+    @Column(name = "max_price", precision = 10, scale = 2)
+    BigDecimal maxPrice;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    LocalDateTime updatedAt;
+
+    public double getAverageRating() {
+        return reviewCount != null && reviewCount > 0 ? (double) ratingSum / reviewCount : 0.0;
+    }
+}
@@ -0,0 +1,46 @@
+package net.blwsmartware.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Sổ tồn kho theo đêm: mỗi dòng là một đêm (stay_date) của một loại phòng,
+ * lưu số phòng đã bán (sold) và sức chứa (capacity) của đêm đó.
+ * Một booking [checkIn, checkOut) chiếm các đêm checkIn .. checkOut - 1.
+ */
+@Entity
+@Table(name = "room_inventory",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_inventory_night",
+                columnNames = {"room_type_id", "stay_date"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RoomInventory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    @Column(name = "room_type_id", nullable = false)
+    UUID roomTypeId;
+
+    @Column(name = "stay_date", nullable = false)
+    LocalDate stayDate;
+
+    @Column(nullable = false)
+    Integer sold;
+
+    @Column(nullable = false)
+    Integer capacity;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    LocalDateTime updatedAt;
+}
@@ -33,6 +33,10 @@ public class VoucherUsage {
     @JoinColumn(name = "booking_id", nullable = false)
     Booking booking;
 
+    // Mã đoàn khi voucher áp cho cả đặt phòng theo đoàn; booking khi đó chỉ là booking neo của đoàn
+    @Column(name = "group_reference", length = 50)
+    String groupReference;
+
     @Column(name = "discount_amount", nullable = false, precision = 10, scale = 2)
     BigDecimal discountAmount;
 
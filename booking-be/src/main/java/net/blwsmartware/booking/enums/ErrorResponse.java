@@ -14,6 +14,8 @@ public enum ErrorResponse {
     UNIQUE_EXISTED(8002, "Data of unique field already exists!", HttpStatus.CONFLICT),
     NAME_EXISTED(8003, "Name already exists!", HttpStatus.CONFLICT),
     QUERY_KEY_INVALID(8004, "Your ID in the request has conflicted!", HttpStatus.CONFLICT),
+    CURSOR_INVALID(8010, "Invalid pagination cursor!", HttpStatus.BAD_REQUEST),
+    DATE_RANGE_INVALID(8011, "Start date must not be after end date!", HttpStatus.BAD_REQUEST),
 
     ROLE_NOT_EXISTED(3200, "Role not found in database!", HttpStatus.NOT_FOUND),
     ROLE_EXISTED(3201, "Name of role already exists!", HttpStatus.CONFLICT),
@@ -58,6 +60,7 @@ public enum ErrorResponse {
     HOTEL_HAS_BOOKINGS(2004, "Cannot delete hotel that has bookings!", HttpStatus.BAD_REQUEST),
     HOTEL_ACCESS_DENIED(2005, "You do not have permission to access this hotel!", HttpStatus.FORBIDDEN),
     HOTEL_NOT_AVAILABLE(2006, "Hotel is not available for booking!", HttpStatus.BAD_REQUEST),
+    INVALID_GEO_QUERY(2007, "Invalid coordinates or map bounds!", HttpStatus.BAD_REQUEST),
     
     // Room type-related errors
     ROOM_TYPE_NOT_FOUND(3001, "Room type not found!", HttpStatus.NOT_FOUND),
@@ -89,6 +92,8 @@ public enum ErrorResponse {
     BOOKING_CONFLICT_DETECTED(5016, "Booking conflict detected with existing reservations!", HttpStatus.CONFLICT),
     ROOM_UNDER_MAINTENANCE(5017, "Room is under maintenance during selected dates!", HttpStatus.BAD_REQUEST),
     BOOKING_ALREADY_CHECKED_IN(5018, "Guest has already checked in for this booking.", HttpStatus.BAD_REQUEST),
+    BOOKING_HOLD_EXPIRED(5019, "Booking hold has expired, please create a new booking!", HttpStatus.BAD_REQUEST),
+    RECONCILE_IN_PROGRESS(5020, "Availability reconciliation is already running!", HttpStatus.CONFLICT),
     
     // Enhanced errors
     PAYMENT_FAILED(1508, "Payment failed!", HttpStatus.BAD_REQUEST),
@@ -53,6 +53,9 @@ public interface HotelMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "amenityMask", ignore = true)
+    @Mapping(target = "minRoomPrice", ignore = true)
+    @Mapping(target = "maxRoomPrice", ignore = true)
     Hotel toEntity(HotelCreateRequest request);
     
     // Update Hotel entity from HotelUpdateRequest
@@ -65,6 +68,9 @@ public interface HotelMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "amenityMask", ignore = true)
+    @Mapping(target = "minRoomPrice", ignore = true)
+    @Mapping(target = "maxRoomPrice", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntity(@MappingTarget Hotel hotel, HotelUpdateRequest request);
     
@@ -0,0 +1,20 @@
+package net.blwsmartware.booking.repository;
+
+import net.blwsmartware.booking.entity.Amenity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AmenityRepository extends JpaRepository<Amenity, Integer> {
+
+    /**
+     * INSERT thuần (không merge) để bit hoặc code đã bị node khác chiếm gây lỗi duplicate key thay vì ghi đè
+     */
+    @Modifying
+    @Query(value = "INSERT INTO amenities (bit_index, code, name) VALUES (:bitIndex, :code, :name)",
+           nativeQuery = true)
+    int insert(@Param("bitIndex") int bitIndex, @Param("code") String code, @Param("name") String name);
+}
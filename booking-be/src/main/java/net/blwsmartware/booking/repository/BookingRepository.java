@@ -1,18 +1,26 @@
 package net.blwsmartware.booking.repository;
 
+import jakarta.persistence.QueryHint;
 import net.blwsmartware.booking.entity.Booking;
 import net.blwsmartware.booking.enums.BookingStatus;
 import net.blwsmartware.booking.enums.PaymentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -47,6 +55,16 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
     
     Page<Booking> findByStatusAndPaymentStatusOrderByCreatedAtDesc(BookingStatus status, PaymentStatus paymentStatus, Pageable pageable);
     
+    // Keyset pagination cho danh sách admin: seek theo khóa sắp xếp + id, không đếm tổng
+    Window<Booking> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<Booking> findByStatus(BookingStatus status, ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<Booking> findByPaymentStatus(PaymentStatus paymentStatus, ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<Booking> findByStatusAndPaymentStatus(BookingStatus status, PaymentStatus paymentStatus,
+                                                 ScrollPosition position, Sort sort, Limit limit);
+    
     // ===== HOTEL SPECIFIC QUERIES =====
     Page<Booking> findByHotelIdOrderByCreatedAtDesc(UUID hotelId, Pageable pageable);
     
@@ -78,6 +96,52 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
                                          @Param("checkInDate") LocalDate checkInDate, 
                                          @Param("checkOutDate") LocalDate checkOutDate);
     
+    /**
+     * Khoảng ngày của các booking đang giữ phòng còn chưa check-out (dùng để nạp lịch phòng trong bộ nhớ)
+     */
+    @Query("SELECT b.roomType.id, b.checkInDate, b.checkOutDate FROM Booking b " +
+           "WHERE b.status IN ('PENDING', 'CONFIRMED') AND b.checkOutDate > :fromDate")
+    List<Object[]> findActiveStayRanges(@Param("fromDate") LocalDate fromDate);
+    
+    /**
+     * Khoảng ngày của các booking đang giữ phòng giao với [fromDate, toDate) của một khách sạn
+     */
+    @Query("SELECT b.roomType.id, b.checkInDate, b.checkOutDate FROM Booking b " +
+           "WHERE b.hotel.id = :hotelId AND b.status IN ('PENDING', 'CONFIRMED') " +
+           "AND b.checkInDate < :toDate AND b.checkOutDate > :fromDate")
+    List<Object[]> findActiveStayRangesByHotel(@Param("hotelId") UUID hotelId,
+                                               @Param("fromDate") LocalDate fromDate,
+                                               @Param("toDate") LocalDate toDate);
+    
+    /**
+     * Id và khoảng ngày của các booking đang giữ phòng giao với [fromDate, toDate) của một loại phòng
+     */
+    @Query("SELECT b.id, b.checkInDate, b.checkOutDate FROM Booking b " +
+           "WHERE b.roomType.id = :roomTypeId AND b.status IN ('PENDING', 'CONFIRMED') " +
+           "AND b.checkInDate < :toDate AND b.checkOutDate > :fromDate")
+    List<Object[]> findActiveStayRangesByRoomType(@Param("roomTypeId") UUID roomTypeId,
+                                                  @Param("fromDate") LocalDate fromDate,
+                                                  @Param("toDate") LocalDate toDate);
+    
+    /**
+     * Số booking đang giữ phòng (chưa check-out) theo loại phòng, dùng cho job đối soát availableRooms
+     */
+    @Query("SELECT b.roomType.id, COUNT(b) FROM Booking b " +
+           "WHERE b.roomType.id IN :roomTypeIds AND b.status IN ('PENDING', 'CONFIRMED') " +
+           "AND b.checkOutDate > :today GROUP BY b.roomType.id")
+    List<Object[]> countActiveBookingsByRoomTypeIds(@Param("roomTypeIds") Collection<UUID> roomTypeIds,
+                                                    @Param("today") LocalDate today);
+    
+    /**
+     * Số booking không bị hủy tạo từ since theo khách sạn (tốc độ đặt phòng cho xếp hạng)
+     */
+    @Query("SELECT b.hotel.id, COUNT(b) FROM Booking b " +
+           "WHERE b.hotel.id IN :hotelIds AND b.status NOT IN ('CANCELLED', 'CANCELLED_BY_GUEST', 'CANCELLED_BY_HOST') " +
+           "AND b.createdAt >= :since " +
+           "GROUP BY b.hotel.id")
+    List<Object[]> countRecentBookingsByHotelIds(@Param("hotelIds") Collection<UUID> hotelIds,
+                                                 @Param("since") LocalDateTime since);
+    
     // ===== STATISTICS QUERIES =====
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.hotel.owner.id = :ownerId")
     Long countByHotelOwnerId(@Param("ownerId") UUID ownerId);
@@ -175,6 +239,22 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
            "AND b.paymentStatus IN ('PAID', 'REFUNDED', 'PARTIALLY_REFUNDED')")
     Long countPaidBookingsByHotel(@Param("hotelId") UUID hotelId);
 
+    /**
+     * Số liệu bảng doanh thu cho cả trang khách sạn trong một lần group by:
+     * [hotelId, paidBookings, revenue, commission, lastPaidBookingAt]. startDate/endDate = null là không giới hạn
+     */
+    @Query("SELECT b.hotel.id, COUNT(b), SUM(b.totalAmount - COALESCE(b.refundAmount, 0)), " +
+           "SUM((b.totalAmount - COALESCE(b.refundAmount, 0)) * COALESCE(b.commissionRateAtBooking, b.hotel.commissionRate) / 100), " +
+           "MAX(CASE WHEN b.paymentStatus = 'PAID' THEN b.createdAt END) " +
+           "FROM Booking b WHERE b.hotel.id IN :hotelIds " +
+           "AND b.paymentStatus IN ('PAID', 'REFUNDED', 'PARTIALLY_REFUNDED') " +
+           "AND (:startDate IS NULL OR b.createdAt >= :startDate) " +
+           "AND (:endDate IS NULL OR b.createdAt < :endDate) " +
+           "GROUP BY b.hotel.id")
+    List<Object[]> aggregateRevenueByHotels(@Param("hotelIds") Collection<UUID> hotelIds,
+                                            @Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+
     // ===== TOP PERFORMERS QUERIES =====
     @Query("SELECT b.hotel.id as hotelId, b.hotel.name as hotelName, b.hotel.address as location, " +
            "SUM(b.totalAmount - COALESCE(b.refundAmount, 0)) as totalRevenue, COUNT(b) as totalBookings " +
@@ -194,11 +274,46 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
            "ORDER BY totalRevenue DESC")
     List<Object[]> findTopLocationsByRevenue(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.paymentStatus IN ('PAID', 'REFUNDED', 'PARTIALLY_REFUNDED') " +
+    /**
+     * Tổng hợp doanh thu theo (khách sạn, ngày tạo booking) cho bảng hotel_daily_revenue:
+     * [hotelId, ngày, gross, refund, commission, paidBookings, cancellations]. hotelId = null là mọi khách sạn
+     */
+    @Query("SELECT b.hotel.id, CAST(b.createdAt AS LocalDate), SUM(b.totalAmount), SUM(COALESCE(b.refundAmount, 0)), " +
+           "SUM((b.totalAmount - COALESCE(b.refundAmount, 0)) * COALESCE(b.commissionRateAtBooking, b.hotel.commissionRate) / 100), " +
+           "COUNT(b), SUM(CASE WHEN b.status IN ('CANCELLED', 'CANCELLED_BY_GUEST', 'CANCELLED_BY_HOST') THEN 1 ELSE 0 END) " +
+           "FROM Booking b WHERE b.paymentStatus IN ('PAID', 'REFUNDED', 'PARTIALLY_REFUNDED') " +
+           "AND b.createdAt >= :startDate AND b.createdAt < :endDate " +
+           "AND (:hotelId IS NULL OR b.hotel.id = :hotelId) " +
+           "GROUP BY b.hotel.id, CAST(b.createdAt AS LocalDate)")
+    List<Object[]> aggregateDailyRevenue(@Param("hotelId") UUID hotelId,
+                                         @Param("startDate") LocalDateTime startDate,
+                                         @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT MIN(b.createdAt) FROM Booking b")
+    Optional<LocalDateTime> findEarliestCreatedAt();
+
+    // Hoa hồng trên số tiền thực thu (trừ hoàn tiền) theo tỷ lệ chốt lúc đặt; booking cũ chưa có tỷ lệ chốt thì dùng tỷ lệ hiện tại của khách sạn
+    @Query("SELECT COALESCE(SUM((b.totalAmount - COALESCE(b.refundAmount, 0)) * COALESCE(b.commissionRateAtBooking, h.commissionRate) / 100), 0) " +
+           "FROM Booking b JOIN b.hotel h WHERE b.paymentStatus IN ('PAID', 'REFUNDED', 'PARTIALLY_REFUNDED') " +
            "AND b.createdAt >= :startDate AND b.createdAt < :endDate")
-    List<Booking> findPaidBookingsByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    BigDecimal getCommissionByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // ===== HOST DASHBOARD QUERIES =====
+    // Timeout 3000 ms khớp booking.host-dashboard.timeout-ms: phần bị dashboard bỏ thì DB cũng dừng truy vấn
+    // [status, count]: tổng và số booking theo từng trạng thái của host trong một lần group by
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
+    @Query("SELECT b.status, COUNT(b) FROM Booking b WHERE b.hotel.owner.id = :hostId GROUP BY b.status")
+    List<Object[]> countByHotelOwnerIdGroupByStatus(@Param("hostId") UUID hostId);
+    
+    // [tổng doanh thu, doanh thu từ monthStart, tổng hoa hồng] của host trong một lần quét bookings đã thanh toán
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
+    @Query("SELECT COALESCE(SUM(b.totalAmount - COALESCE(b.refundAmount, 0)), 0), " +
+           "COALESCE(SUM(CASE WHEN b.createdAt >= :monthStart THEN b.totalAmount - COALESCE(b.refundAmount, 0) ELSE 0 END), 0), " +
+           "COALESCE(SUM((b.totalAmount - COALESCE(b.refundAmount, 0)) * COALESCE(b.commissionRateAtBooking, h.commissionRate) / 100), 0) " +
+           "FROM Booking b JOIN b.hotel h WHERE h.owner.id = :hostId " +
+           "AND b.paymentStatus IN ('PAID', 'REFUNDED', 'PARTIALLY_REFUNDED')")
+    List<Object[]> getRevenueSummaryByHost(@Param("hostId") UUID hostId, @Param("monthStart") LocalDateTime monthStart);
+    
     @Query("SELECT COALESCE(SUM(b.totalAmount - COALESCE(b.refundAmount, 0)), 0) FROM Booking b WHERE b.hotel.owner.id = :hostId " +
            "AND b.paymentStatus IN ('PAID', 'REFUNDED', 'PARTIALLY_REFUNDED')")
     BigDecimal getTotalRevenueByHost(@Param("hostId") UUID hostId);
@@ -216,11 +331,14 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
                                                @Param("startDate") LocalDateTime startDate, 
                                                @Param("endDate") LocalDateTime endDate);
     
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
     @Query("SELECT COUNT(DISTINCT b.roomType.id) FROM Booking b WHERE b.hotel.owner.id = :hostId " +
            "AND b.status IN ('CONFIRMED', 'COMPLETED') AND b.checkInDate <= CURRENT_DATE AND b.checkOutDate >= CURRENT_DATE")
     Long getOccupiedRoomsByHost(@Param("hostId") UUID hostId);
     
-    @Query("SELECT b FROM Booking b WHERE b.hotel.owner.id = :hostId ORDER BY b.createdAt DESC")
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.hotel h JOIN FETCH b.roomType LEFT JOIN FETCH b.user " +
+           "WHERE h.owner.id = :hostId ORDER BY b.createdAt DESC")
     List<Booking> findRecentBookingsByHost(@Param("hostId") UUID hostId, Pageable pageable);
     
     @Query("SELECT YEAR(b.createdAt), MONTH(b.createdAt), " +
@@ -234,6 +352,7 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
                                           @Param("startDate") LocalDateTime startDate, 
                                           @Param("endDate") LocalDateTime endDate);
     
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
     @Query("SELECT YEAR(b.createdAt), MONTH(b.createdAt), " +
            "COUNT(b) as bookings " +
            "FROM Booking b WHERE b.hotel.owner.id = :hostId " +
@@ -276,14 +395,92 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.refundAmount IS NOT NULL AND b.refundAmount > 0")
     Long countBookingsWithRefund();
     
+    // ===== HOLD EXPIRY QUERIES =====
+    
+    /**
+     * Booking chưa thanh toán đã hết hạn giữ phòng, quét theo index hold_expires_at (khôi phục sau khi restart).
+     * Trả về [id, holdExpiresAt] sắp theo (holdExpiresAt, id) để trang sau đi tiếp bằng keyset.
+     */
+    @Query("SELECT b.id, b.holdExpiresAt FROM Booking b WHERE b.holdExpiresAt <= :now " +
+           "AND b.status = 'PENDING' AND b.paymentStatus IN ('PENDING', 'FAILED') " +
+           "ORDER BY b.holdExpiresAt, b.id")
+    List<Object[]> findExpiredHolds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    /**
+     * Trang kế tiếp của findExpiredHolds, bắt đầu sau (afterExpiresAt, afterId)
+     */
+    @Query("SELECT b.id, b.holdExpiresAt FROM Booking b WHERE b.holdExpiresAt <= :now " +
+           "AND b.status = 'PENDING' AND b.paymentStatus IN ('PENDING', 'FAILED') " +
+           "AND (b.holdExpiresAt > :afterExpiresAt OR (b.holdExpiresAt = :afterExpiresAt AND b.id > :afterId)) " +
+           "ORDER BY b.holdExpiresAt, b.id")
+    List<Object[]> findExpiredHoldsAfter(@Param("now") LocalDateTime now,
+                                         @Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                         @Param("afterId") UUID afterId,
+                                         Pageable pageable);
+    
+    // Phần sau tiền tố (13 ký tự) của mã lớn nhất do một node sinh ra, để seed BookingReferenceGenerator lúc khởi động
+    @Query("SELECT MAX(SUBSTRING(b.bookingReference, 3)) FROM Booking b " +
+           "WHERE LENGTH(b.bookingReference) = 15 AND SUBSTRING(b.bookingReference, 6, 2) = :node")
+    Optional<String> findLatestBookingReferenceStamp(@Param("node") String node);
+    
+    @Query("SELECT MAX(SUBSTRING(b.groupReference, 3)) FROM Booking b " +
+           "WHERE LENGTH(b.groupReference) = 15 AND SUBSTRING(b.groupReference, 6, 2) = :node")
+    Optional<String> findLatestGroupReferenceStamp(@Param("node") String node);
+    
+    // Các booking cùng đoàn (đặt phòng theo đoàn)
+    List<Booking> findByGroupReference(String groupReference);
+    
+    List<Booking> findByGroupReferenceIn(Collection<String> groupReferences);
+    
+    /**
+     * Lùi hạn giữ phòng của mọi booking còn đang giữ trong đoàn để cả đoàn hết hạn cùng lúc
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.holdExpiresAt = :deadline WHERE b.groupReference = :groupReference " +
+           "AND b.holdExpiresAt IS NOT NULL AND b.holdExpiresAt < :deadline")
+    int extendGroupHold(@Param("groupReference") String groupReference, @Param("deadline") LocalDateTime deadline);
+    
+    /**
+     * Hủy booking hết hạn giữ phòng chỉ khi trạng thái chưa bị thay đổi bởi transaction khác
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :expiredStatus, b.paymentStatus = :newPaymentStatus, " +
+           "b.cancellationReason = :reason, b.holdExpiresAt = NULL, b.updatedAt = :now " +
+           "WHERE b.id = :bookingId AND b.status = 'PENDING' " +
+           "AND b.paymentStatus = :currentPaymentStatus AND b.holdExpiresAt <= :now")
+    int expireHold(@Param("bookingId") UUID bookingId,
+                   @Param("currentPaymentStatus") PaymentStatus currentPaymentStatus,
+                   @Param("newPaymentStatus") PaymentStatus newPaymentStatus,
+                   @Param("expiredStatus") BookingStatus expiredStatus,
+                   @Param("reason") String reason,
+                   @Param("now") LocalDateTime now);
+    
+    /**
+     * Ghi nhận thanh toán chỉ khi booking còn hiệu lực (PENDING/CONFIRMED) và hold chưa hết hạn, để không
+     * "hồi sinh" booking mà sweeper đã hủy và trả phòng. Trả về 0 nếu điều kiện không còn đúng.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.paymentStatus = 'PAID', b.holdExpiresAt = NULL, b.updatedAt = :now " +
+           "WHERE b.id = :bookingId AND b.status IN ('PENDING', 'CONFIRMED') AND b.paymentStatus IN ('PENDING', 'FAILED') " +
+           "AND (b.holdExpiresAt IS NULL OR b.holdExpiresAt > :now)")
+    int markPaidIfHoldActive(@Param("bookingId") UUID bookingId, @Param("now") LocalDateTime now);
+    
+    /**
+     * Tiền về sau khi hold đã hết hạn: booking giữ trạng thái hủy, khoản thanh toán chờ hoàn lại cho khách
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.paymentStatus = 'REFUND_PENDING', b.updatedAt = :now " +
+           "WHERE b.id = :bookingId AND b.paymentStatus IN ('PENDING', 'FAILED', 'NO_PAYMENT', 'CANCELLED')")
+    int flagLatePaymentForRefund(@Param("bookingId") UUID bookingId, @Param("now") LocalDateTime now);
+    
     // ===== PAYMENT FAILURE RECOVERY QUERIES =====
     List<Booking> findByPaymentStatusAndStatus(PaymentStatus paymentStatus, BookingStatus status);
     
     List<Booking> findByPaymentStatusAndStatusAndCreatedAtBefore(PaymentStatus paymentStatus, BookingStatus status, LocalDateTime cutoffTime);
 
     /**
-     * Đếm tổng số booking (không bị hủy) của tất cả RoomType thuộc 1 khách sạn trong khoảng ngày
+     * Đếm tổng số booking đang giữ phòng (PENDING, CONFIRMED) của tất cả RoomType thuộc 1 khách sạn trong khoảng ngày
      */
-    @Query("SELECT rt.id, COUNT(b) FROM RoomType rt LEFT JOIN Booking b ON b.roomType.id = rt.id AND b.status != 'CANCELLED' AND ((b.checkInDate <= :checkOutDate AND b.checkOutDate > :checkInDate)) WHERE rt.hotel.id = :hotelId GROUP BY rt.id")
+    @Query("SELECT rt.id, COUNT(b) FROM RoomType rt LEFT JOIN Booking b ON b.roomType.id = rt.id AND b.status IN ('PENDING', 'CONFIRMED') AND ((b.checkInDate < :checkOutDate AND b.checkOutDate > :checkInDate)) WHERE rt.hotel.id = :hotelId GROUP BY rt.id")
     List<Object[]> countActiveBookingsByHotelAndDateRange(@Param("hotelId") UUID hotelId, @Param("checkInDate") LocalDate checkInDate, @Param("checkOutDate") LocalDate checkOutDate);
 } 
\ No newline at end of file
@@ -0,0 +1,101 @@
+package net.blwsmartware.booking.repository;
+
+import jakarta.persistence.QueryHint;
+import net.blwsmartware.booking.entity.HotelDailyRevenue;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface HotelDailyRevenueRepository extends JpaRepository<HotelDailyRevenue, UUID> {
+
+    // ===== WRITES =====
+
+    /**
+     * Ghi đè dòng tổng hợp (hotel_id, revenue_date) bằng giá trị vừa tính lại từ bookings
+     */
+    @Modifying
+    @Query(value = "INSERT INTO hotel_daily_revenue (id, hotel_id, revenue_date, gross_amount, refund_amount, " +
+                   "commission_amount, paid_bookings, cancellations, updated_at) " +
+                   "VALUES (:id, :hotelId, :revenueDate, :grossAmount, :refundAmount, :commissionAmount, " +
+                   ":paidBookings, :cancellations, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE gross_amount = VALUES(gross_amount), refund_amount = VALUES(refund_amount), " +
+                   "commission_amount = VALUES(commission_amount), paid_bookings = VALUES(paid_bookings), " +
+                   "cancellations = VALUES(cancellations), updated_at = NOW()",
+           nativeQuery = true)
+    int upsert(@Param("id") UUID id,
+               @Param("hotelId") UUID hotelId,
+               @Param("revenueDate") LocalDate revenueDate,
+               @Param("grossAmount") BigDecimal grossAmount,
+               @Param("refundAmount") BigDecimal refundAmount,
+               @Param("commissionAmount") BigDecimal commissionAmount,
+               @Param("paidBookings") Long paidBookings,
+               @Param("cancellations") Long cancellations);
+
+    /**
+     * Tạo dòng rỗng nếu chưa có, để luôn có bản ghi cho lockDay khóa
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO hotel_daily_revenue (id, hotel_id, revenue_date, gross_amount, refund_amount, " +
+                   "commission_amount, paid_bookings, cancellations, updated_at) " +
+                   "VALUES (:id, :hotelId, :revenueDate, 0, 0, 0, 0, 0, NOW())",
+           nativeQuery = true)
+    int insertEmptyIfAbsent(@Param("id") UUID id,
+                            @Param("hotelId") UUID hotelId,
+                            @Param("revenueDate") LocalDate revenueDate);
+
+    /**
+     * Khóa dòng (hotel_id, revenue_date) tới cuối transaction: các lần tính lại cùng ngày chạy tuần tự
+     */
+    @Query(value = "SELECT paid_bookings FROM hotel_daily_revenue " +
+                   "WHERE hotel_id = :hotelId AND revenue_date = :revenueDate FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockDay(@Param("hotelId") UUID hotelId, @Param("revenueDate") LocalDate revenueDate);
+
+    @Modifying
+    @Query("DELETE FROM HotelDailyRevenue r WHERE r.hotelId = :hotelId AND r.revenueDate = :revenueDate")
+    int deleteByHotelAndDate(@Param("hotelId") UUID hotelId, @Param("revenueDate") LocalDate revenueDate);
+
+    @Modifying
+    @Query("DELETE FROM HotelDailyRevenue r WHERE r.revenueDate >= :startDate AND r.revenueDate <= :endDate")
+    int deleteByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // ===== READS =====
+
+    // [revenueDate, gross, refund, commission, paidBookings, cancellations] của toàn hệ thống theo ngày
+    @Query("SELECT r.revenueDate, SUM(r.grossAmount), SUM(r.refundAmount), SUM(r.commissionAmount), " +
+           "SUM(r.paidBookings), SUM(r.cancellations) FROM HotelDailyRevenue r " +
+           "WHERE r.revenueDate >= :startDate AND r.revenueDate <= :endDate " +
+           "GROUP BY r.revenueDate ORDER BY r.revenueDate")
+    List<Object[]> sumByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Như sumByDate nhưng chỉ các khách sạn của một host
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
+    @Query("SELECT r.revenueDate, SUM(r.grossAmount), SUM(r.refundAmount), SUM(r.commissionAmount), " +
+           "SUM(r.paidBookings), SUM(r.cancellations) FROM HotelDailyRevenue r, Hotel h " +
+           "WHERE h.id = r.hotelId AND h.owner.id = :hostId " +
+           "AND r.revenueDate >= :startDate AND r.revenueDate <= :endDate " +
+           "GROUP BY r.revenueDate ORDER BY r.revenueDate")
+    List<Object[]> sumByDateForHost(@Param("hostId") UUID hostId,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+
+    // [hotelId, name, address, revenue, paidBookings] xếp theo doanh thu giảm dần
+    @Query("SELECT h.id, h.name, h.address, SUM(r.grossAmount - r.refundAmount), SUM(r.paidBookings) " +
+           "FROM HotelDailyRevenue r, Hotel h WHERE h.id = r.hotelId " +
+           "AND r.revenueDate >= :startDate AND r.revenueDate <= :endDate " +
+           "GROUP BY h.id, h.name, h.address " +
+           "ORDER BY SUM(r.grossAmount - r.refundAmount) DESC")
+    List<Object[]> findTopHotelsByRevenue(@Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          Pageable pageable);
+}
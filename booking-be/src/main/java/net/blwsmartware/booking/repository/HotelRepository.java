@@ -1,15 +1,24 @@
 package net.blwsmartware.booking.repository;
 
+import jakarta.persistence.QueryHint;
 import net.blwsmartware.booking.entity.Hotel;
 import net.blwsmartware.booking.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,7 +33,12 @@ public interface HotelRepository extends JpaRepository<Hotel, UUID> {
     List<Hotel> findByOwnerId(UUID ownerId);
 
     Page<Hotel> findByIsActiveTrue(Pageable pageable);
+    // Keyset pagination: seek theo khóa sắp xếp + id, không đếm tổng
+    Window<Hotel> findByIsActiveTrue(ScrollPosition position, Sort sort, Limit limit);
     List<Hotel> findByIsActiveTrue();
+    // Id của các khách sạn đã khớp chỉ mục tìm kiếm, sắp theo sort (chỉ đọc cột id và cột sắp xếp)
+    @Query("SELECT h.id FROM Hotel h WHERE h.id IN :ids AND h.isActive = true")
+    List<UUID> findActiveIdsIn(@Param("ids") Collection<UUID> ids, Sort sort);
     
     // Find featured hotels - ADMIN ONLY (all featured regardless of status)
     Page<Hotel> findByIsFeaturedTrue(Pageable pageable);
@@ -86,8 +100,8 @@ public interface HotelRepository extends JpaRepository<Hotel, UUID> {
            "(:starRating IS NULL OR h.starRating = :starRating) AND " +
            "(:isActive IS NULL OR h.isActive = :isActive) AND " +
            "(:isFeatured IS NULL OR h.isFeatured = :isFeatured) AND " +
-           "(:minPrice IS NULL OR h.pricePerNight >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR h.pricePerNight <= :maxPrice)")
+           "(:minPrice IS NULL OR h.maxRoomPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR h.minRoomPrice <= :maxPrice)")
     Page<Hotel> findWithFilters(@Param("city") String city,
                                @Param("country") String country,
                                @Param("starRating") Integer starRating,
@@ -130,6 +144,12 @@ public interface HotelRepository extends JpaRepository<Hotel, UUID> {
     long countByOwnerId(UUID ownerId);
     long countByOwnerIdAndIsActiveTrue(UUID ownerId);
     
+    // [tổng số khách sạn, số khách sạn đang hoạt động] của một host trong một truy vấn
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
+    @Query("SELECT COUNT(h), COALESCE(SUM(CASE WHEN h.isActive = true THEN 1 ELSE 0 END), 0) " +
+           "FROM Hotel h WHERE h.owner.id = :ownerId")
+    List<Object[]> countHotelsByOwner(@Param("ownerId") UUID ownerId);
+    
     // Count active hotels
     long countByIsActiveTrue();
     
@@ -155,28 +175,137 @@ public interface HotelRepository extends JpaRepository<Hotel, UUID> {
 
     @Query("SELECT h FROM Hotel h WHERE " +
            "h.isActive = true AND " +
-           "(:city IS NULL OR LOWER(h.city) = LOWER(:city)) AND " +
+           "(:city IS NULL OR LOWER(TRIM(h.city)) = LOWER(TRIM(:city))) AND " +
            "(:country IS NULL OR LOWER(h.country) = LOWER(:country)) AND " +
            "(:starRating IS NULL OR h.starRating = :starRating) AND " +
            "(:isFeatured IS NULL OR h.isFeatured = :isFeatured) AND " +
-           "(:minPrice IS NULL OR h.pricePerNight >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR h.pricePerNight <= :maxPrice) AND " +
-           "(:amenities IS NULL OR :amenities = '' OR " +
-           " h.amenities IS NULL OR " +
-           " LOWER(h.amenities) LIKE LOWER(CONCAT('%', :amenities, '%')))")
+           "(:minPrice IS NULL OR h.maxRoomPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR h.minRoomPrice <= :maxPrice) AND " +
+           "(:amenityMask = 0 OR " +
+           " (:matchAll = true AND bitand(h.amenityMask, :amenityMask) = :amenityMask) OR " +
+           " (:matchAll = false AND bitand(h.amenityMask, :amenityMask) <> 0))")
     Page<Hotel> findActiveWithFiltersAndAmenities(@Param("city") String city,
                                            @Param("country") String country,
                                            @Param("starRating") Integer starRating,
                                            @Param("isFeatured") Boolean isFeatured,
                                            @Param("minPrice") BigDecimal minPrice,
                                            @Param("maxPrice") BigDecimal maxPrice,
-                                           @Param("amenities") String amenities,
+                                           @Param("amenityMask") long amenityMask,
+                                           @Param("matchAll") boolean matchAll,
                                            Pageable pageable);
 
-    // Get all unique amenities from hotels - simplified approach
-    @Query("SELECT DISTINCT h.amenities FROM Hotel h " +
-           "WHERE h.amenities IS NOT NULL AND h.amenities != '' AND h.isActive = true")
-    List<String> findAllAmenitiesRaw();
+    // Ứng viên cho bước xếp hạng trong bộ nhớ (HotelRanker): [hotelId, isFeatured, minRoomPrice]
+    @Query("SELECT h.id, h.isFeatured, h.minRoomPrice FROM Hotel h WHERE " +
+           "h.isActive = true AND " +
+           "(:city IS NULL OR LOWER(TRIM(h.city)) = LOWER(TRIM(:city))) AND " +
+           "(:country IS NULL OR LOWER(h.country) = LOWER(:country)) AND " +
+           "(:starRating IS NULL OR h.starRating = :starRating) AND " +
+           "(:minPrice IS NULL OR h.maxRoomPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR h.minRoomPrice <= :maxPrice) AND " +
+           "(:amenityMask = 0 OR " +
+           " (:matchAll = true AND bitand(h.amenityMask, :amenityMask) = :amenityMask) OR " +
+           " (:matchAll = false AND bitand(h.amenityMask, :amenityMask) <> 0))")
+    List<Object[]> findRankingCandidates(@Param("city") String city,
+                                         @Param("country") String country,
+                                         @Param("starRating") Integer starRating,
+                                         @Param("minPrice") BigDecimal minPrice,
+                                         @Param("maxPrice") BigDecimal maxPrice,
+                                         @Param("amenityMask") long amenityMask,
+                                         @Param("matchAll") boolean matchAll);
+
+    /**
+     * Facet: số khách sạn theo (thành phố, hạng sao, khoảng giá) với cùng điều kiện lọc như trên.
+     * Khoảng giá được tính bằng CASE ngay trong DB (mốc khớp HotelServiceImpl.PRICE_FACET_EDGES, -1 = chưa có giá)
+     * nên số dòng trả về chỉ phụ thuộc số thành phố x hạng sao x 5, không theo số mức giá khác nhau.
+     * Thành phố được gom theo LOWER(TRIM(city)), nhãn hiển thị là một cách viết của nhóm (MIN); bộ lọc city
+     * của tìm kiếm có lọc so sánh cùng cách nên chọn một facet trả về đúng nhóm khách sạn đã đếm.
+     * Cột: [khóa thành phố, nhãn thành phố, hạng sao, chỉ số khoảng giá, số khách sạn]
+     */
+    @Query("SELECT LOWER(TRIM(h.city)), MIN(TRIM(h.city)), h.starRating, " +
+           "CASE WHEN h.minRoomPrice IS NULL THEN -1 " +
+           " WHEN h.minRoomPrice < 500000 THEN 0 " +
+           " WHEN h.minRoomPrice < 1000000 THEN 1 " +
+           " WHEN h.minRoomPrice < 2000000 THEN 2 " +
+           " WHEN h.minRoomPrice < 5000000 THEN 3 " +
+           " ELSE 4 END, COUNT(h) FROM Hotel h WHERE " +
+           "h.isActive = true AND " +
+           "(:city IS NULL OR LOWER(TRIM(h.city)) = LOWER(TRIM(:city))) AND " +
+           "(:country IS NULL OR LOWER(h.country) = LOWER(:country)) AND " +
+           "(:starRating IS NULL OR h.starRating = :starRating) AND " +
+           "(:isFeatured IS NULL OR h.isFeatured = :isFeatured) AND " +
+           "(:minPrice IS NULL OR h.maxRoomPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR h.minRoomPrice <= :maxPrice) AND " +
+           "(:amenityMask = 0 OR " +
+           " (:matchAll = true AND bitand(h.amenityMask, :amenityMask) = :amenityMask) OR " +
+           " (:matchAll = false AND bitand(h.amenityMask, :amenityMask) <> 0)) " +
+           "GROUP BY LOWER(TRIM(h.city)), h.starRating, " +
+           "CASE WHEN h.minRoomPrice IS NULL THEN -1 " +
+           " WHEN h.minRoomPrice < 500000 THEN 0 " +
+           " WHEN h.minRoomPrice < 1000000 THEN 1 " +
+           " WHEN h.minRoomPrice < 2000000 THEN 2 " +
+           " WHEN h.minRoomPrice < 5000000 THEN 3 " +
+           " ELSE 4 END")
+    List<Object[]> countFacetsWithFiltersAndAmenities(@Param("city") String city,
+                                                      @Param("country") String country,
+                                                      @Param("starRating") Integer starRating,
+                                                      @Param("isFeatured") Boolean isFeatured,
+                                                      @Param("minPrice") BigDecimal minPrice,
+                                                      @Param("maxPrice") BigDecimal maxPrice,
+                                                      @Param("amenityMask") long amenityMask,
+                                                      @Param("matchAll") boolean matchAll);
+
+    // ===== AVAILABILITY SEARCH QUERIES =====
+    
+    /**
+     * Các cặp [hotelId, roomTypeId] của khách sạn đang hoạt động trong thành phố có loại phòng đủ sức chứa.
+     * Việc còn phòng theo ngày được kiểm tra trên lịch phòng trong bộ nhớ.
+     */
+    @Query("SELECT h.id, rt.id FROM Hotel h JOIN h.roomTypes rt WHERE " +
+           "h.isActive = true AND LOWER(h.city) = LOWER(:city) AND " +
+           "rt.maxOccupancy >= :guests AND rt.totalRooms > 0")
+    List<Object[]> findBookableRoomTypeCandidates(@Param("city") String city,
+                                                  @Param("guests") Integer guests,
+                                                  Sort sort);
+    
+    /**
+     * Khách sạn đang hoạt động trong thành phố có ít nhất 1 loại phòng đủ sức chứa còn trống trong khoảng ngày
+     * (dùng khi lịch phòng trong bộ nhớ chưa sẵn sàng)
+     */
+    @Query("SELECT h FROM Hotel h WHERE " +
+           "h.isActive = true AND LOWER(h.city) = LOWER(:city) AND " +
+           "EXISTS (SELECT rt.id FROM RoomType rt WHERE rt.hotel = h AND rt.maxOccupancy >= :guests AND " +
+           "rt.totalRooms > (SELECT COUNT(b) FROM Booking b WHERE b.roomType = rt " +
+           "AND b.status IN ('PENDING', 'CONFIRMED') " +
+           "AND b.checkInDate < :checkOutDate AND b.checkOutDate > :checkInDate))")
+    Page<Hotel> findActiveWithAvailableRooms(@Param("city") String city,
+                                             @Param("checkInDate") LocalDate checkInDate,
+                                             @Param("checkOutDate") LocalDate checkOutDate,
+                                             @Param("guests") Integer guests,
+                                             Pageable pageable);
+
+    // ===== AMENITY MASK =====
+
+    @Query("SELECT h.id, h.amenities FROM Hotel h WHERE h.amenityMask IS NULL")
+    List<Object[]> findAmenitiesWithoutMask();
+
+    @Modifying
+    @Query("UPDATE Hotel h SET h.amenityMask = :mask WHERE h.id = :hotelId")
+    int updateAmenityMask(@Param("hotelId") UUID hotelId, @Param("mask") long mask);
+
+    // Xóa persistence context sau khi ghi để Hotel đã nạp trong cùng transaction không giữ khoảng giá cũ
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Hotel h SET h.minRoomPrice = :minPrice, h.maxRoomPrice = :maxPrice WHERE h.id = :hotelId")
+    int updateRoomPriceRange(@Param("hotelId") UUID hotelId,
+                             @Param("minPrice") BigDecimal minPrice,
+                             @Param("maxPrice") BigDecimal maxPrice);
+
+    // Tính khoảng giá cho khách sạn cũ chưa có (chạy lúc khởi động)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Hotel h SET " +
+           "h.minRoomPrice = (SELECT MIN(rt.pricePerNight) FROM RoomType rt WHERE rt.hotel.id = h.id), " +
+           "h.maxRoomPrice = (SELECT MAX(rt.pricePerNight) FROM RoomType rt WHERE rt.hotel.id = h.id) " +
+           "WHERE h.minRoomPrice IS NULL")
+    int backfillRoomPriceRange();
 
     // Count active featured hotels
     long countByIsFeaturedTrueAndIsActiveTrue();
@@ -189,10 +318,18 @@ public interface HotelRepository extends JpaRepository<Hotel, UUID> {
     @Query("SELECT AVG(h.commissionRate) FROM Hotel h WHERE h.isActive = true")
     Optional<BigDecimal> getAverageCommissionRate();
 
-    @Query("SELECT h FROM Hotel h WHERE " +
+    // Nạp owner cùng trang khách sạn để bảng doanh thu không lazy-load từng dòng
+    @Query(value = "SELECT h FROM Hotel h JOIN FETCH h.owner o WHERE " +
+           "(:searchTerm IS NULL OR :searchTerm = '' OR " +
+           "LOWER(h.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(o.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(h.city) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(h.country) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
+           "(:isActive IS NULL OR h.isActive = :isActive)",
+           countQuery = "SELECT COUNT(h) FROM Hotel h JOIN h.owner o WHERE " +
            "(:searchTerm IS NULL OR :searchTerm = '' OR " +
            "LOWER(h.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(h.owner.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(o.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(h.city) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(h.country) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
            "(:isActive IS NULL OR h.isActive = :isActive)")
@@ -207,6 +344,7 @@ public interface HotelRepository extends JpaRepository<Hotel, UUID> {
     BigDecimal getTotalCommissionEarned();
     
     // Host specific queries
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
     List<Hotel> findByOwnerIdAndIsActiveTrueOrderByCreatedAtDesc(UUID ownerId);
     
     // ===== CITY STATISTICS QUERIES =====
@@ -0,0 +1,63 @@
+package net.blwsmartware.booking.repository;
+
+import net.blwsmartware.booking.entity.HotelStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Repository
+public interface HotelStatsRepository extends JpaRepository<HotelStats, UUID> {
+
+    // ===== REBUILD =====
+
+    /**
+     * Ghi đè toàn bộ thống kê của một khách sạn bằng giá trị tính lại từ dữ liệu gốc
+     */
+    @Modifying
+    @Query(value = "INSERT INTO hotel_stats (hotel_id, rating_sum, review_count, room_type_count, total_rooms, " +
+                   "available_rooms, min_price, max_price, updated_at) " +
+                   "VALUES (:hotelId, :ratingSum, :reviewCount, :roomTypeCount, :totalRooms, :availableRooms, " +
+                   ":minPrice, :maxPrice, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE rating_sum = VALUES(rating_sum), review_count = VALUES(review_count), " +
+                   "room_type_count = VALUES(room_type_count), total_rooms = VALUES(total_rooms), " +
+                   "available_rooms = VALUES(available_rooms), min_price = VALUES(min_price), " +
+                   "max_price = VALUES(max_price), updated_at = NOW()",
+           nativeQuery = true)
+    int upsert(@Param("hotelId") UUID hotelId,
+               @Param("ratingSum") Long ratingSum,
+               @Param("reviewCount") Long reviewCount,
+               @Param("roomTypeCount") Integer roomTypeCount,
+               @Param("totalRooms") Integer totalRooms,
+               @Param("availableRooms") Integer availableRooms,
+               @Param("minPrice") BigDecimal minPrice,
+               @Param("maxPrice") BigDecimal maxPrice);
+
+    // ===== INCREMENTAL UPDATES =====
+
+    @Modifying
+    @Query("UPDATE HotelStats hs SET hs.ratingSum = hs.ratingSum + :ratingDelta, " +
+           "hs.reviewCount = hs.reviewCount + :countDelta WHERE hs.hotelId = :hotelId")
+    int applyReviewDelta(@Param("hotelId") UUID hotelId,
+                         @Param("ratingDelta") Long ratingDelta,
+                         @Param("countDelta") Long countDelta);
+
+    @Modifying
+    @Query("UPDATE HotelStats hs SET hs.availableRooms = hs.availableRooms + :delta WHERE hs.hotelId = :hotelId")
+    int applyAvailableRoomsDelta(@Param("hotelId") UUID hotelId, @Param("delta") Integer delta);
+
+    @Modifying
+    @Query("UPDATE HotelStats hs SET hs.roomTypeCount = :roomTypeCount, hs.totalRooms = :totalRooms, " +
+           "hs.availableRooms = :availableRooms, hs.minPrice = :minPrice, hs.maxPrice = :maxPrice " +
+           "WHERE hs.hotelId = :hotelId")
+    int updateRoomStats(@Param("hotelId") UUID hotelId,
+                        @Param("roomTypeCount") Integer roomTypeCount,
+                        @Param("totalRooms") Integer totalRooms,
+                        @Param("availableRooms") Integer availableRooms,
+                        @Param("minPrice") BigDecimal minPrice,
+                        @Param("maxPrice") BigDecimal maxPrice);
+}
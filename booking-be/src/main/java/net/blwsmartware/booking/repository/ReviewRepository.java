@@ -1,5 +1,6 @@
 package net.blwsmartware.booking.repository;
 
+import jakarta.persistence.QueryHint;
 import net.blwsmartware.booking.entity.Hotel;
 import net.blwsmartware.booking.entity.Review;
 import net.blwsmartware.booking.entity.User;
@@ -7,9 +8,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -63,6 +66,11 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.hotel.id = :hotelId")
     Optional<Double> getAverageRatingByHotel(@Param("hotelId") UUID hotelId);
     
+    // Rating của nhiều khách sạn trong 1 query: [hotelId, avgRating, count, ratingSum]
+    @Query("SELECT r.hotel.id, AVG(r.rating), COUNT(r), SUM(r.rating) FROM Review r " +
+           "WHERE r.hotel.id IN :hotelIds GROUP BY r.hotel.id")
+    List<Object[]> getReviewStatsByHotelIds(@Param("hotelIds") Collection<UUID> hotelIds);
+    
     // Get recent reviews by hotel (limit 5)
     @Query("SELECT r FROM Review r WHERE r.hotel.id = :hotelId ORDER BY r.createdAt DESC")
     List<Review> findRecentReviewsByHotel(@Param("hotelId") UUID hotelId, Pageable pageable);
@@ -95,6 +103,11 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.hotel.owner.id = :hostId")
     Optional<Double> getAverageRatingByHostId(@Param("hostId") UUID hostId);
     
+    // [điểm trung bình, số review] của host trong một truy vấn
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
+    @Query("SELECT AVG(r.rating), COUNT(r) FROM Review r WHERE r.hotel.owner.id = :hostId")
+    List<Object[]> getRatingSummaryByHostId(@Param("hostId") UUID hostId);
+    
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.hotel.owner.id = :hostId AND r.hotel.id = :hotelId")
     Optional<Double> getAverageRatingByHostIdAndHotelId(@Param("hostId") UUID hostId, @Param("hotelId") UUID hotelId);
 } 
\ No newline at end of file
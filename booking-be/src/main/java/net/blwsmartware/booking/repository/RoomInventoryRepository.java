@@ -0,0 +1,110 @@
+package net.blwsmartware.booking.repository;
+
+import net.blwsmartware.booking.entity.RoomInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RoomInventoryRepository extends JpaRepository<RoomInventory, UUID> {
+
+    // ===== READ =====
+
+    List<RoomInventory> findByRoomTypeIdAndStayDateGreaterThanEqualAndStayDateLessThanOrderByStayDate(
+            UUID roomTypeId, LocalDate fromDate, LocalDate toDate);
+
+    @Query("SELECT ri.stayDate FROM RoomInventory ri WHERE ri.roomTypeId = :roomTypeId " +
+           "AND ri.stayDate >= :fromDate AND ri.stayDate < :toDate")
+    List<LocalDate> findExistingStayDates(@Param("roomTypeId") UUID roomTypeId,
+                                          @Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate);
+
+    // ===== SEEDING =====
+
+    /**
+     * Tạo dòng tồn kho cho một đêm nếu chưa có, sold được khởi tạo từ các booking
+     * đang giữ phòng (PENDING, CONFIRMED) để tương thích với dữ liệu cũ.
+     * INSERT IGNORE giúp nhiều request cùng seed một đêm không bị lỗi unique.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO room_inventory (id, room_type_id, stay_date, sold, capacity, updated_at) " +
+                   "SELECT :id, :roomTypeId, :stayDate, COUNT(b.id), :capacity, NOW() FROM bookings b " +
+                   "WHERE b.room_type_id = :roomTypeId AND b.status IN ('PENDING', 'CONFIRMED') " +
+                   "AND b.check_in_date <= :stayDate AND b.check_out_date > :stayDate",
+           nativeQuery = true)
+    int insertNightIfAbsent(@Param("id") UUID id,
+                            @Param("roomTypeId") UUID roomTypeId,
+                            @Param("stayDate") LocalDate stayDate,
+                            @Param("capacity") Integer capacity);
+
+    /**
+     * Như insertNightIfAbsent nhưng bỏ qua booking đang được xử lý và cộng heldOffset (0 hoặc 1)
+     * theo trạng thái trước thay đổi, nên kết quả không phụ thuộc việc booking đã được flush hay chưa.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO room_inventory (id, room_type_id, stay_date, sold, capacity, updated_at) " +
+                   "SELECT :id, :roomTypeId, :stayDate, COUNT(b.id) + :heldOffset, :capacity, NOW() FROM bookings b " +
+                   "WHERE b.room_type_id = :roomTypeId AND b.status IN ('PENDING', 'CONFIRMED') " +
+                   "AND b.check_in_date <= :stayDate AND b.check_out_date > :stayDate " +
+                   "AND b.id <> :bookingId",
+           nativeQuery = true)
+    int insertNightIfAbsentExcluding(@Param("id") UUID id,
+                                     @Param("roomTypeId") UUID roomTypeId,
+                                     @Param("stayDate") LocalDate stayDate,
+                                     @Param("capacity") Integer capacity,
+                                     @Param("bookingId") UUID bookingId,
+                                     @Param("heldOffset") Integer heldOffset);
+
+    // ===== RESERVATION =====
+
+    /**
+     * Giữ 1 phòng cho mọi đêm trong [fromDate, toDate) chỉ khi đêm đó còn chỗ.
+     * Trả về số đêm được cập nhật; nhỏ hơn số đêm của kỳ lưu trú nghĩa là có đêm đã hết phòng.
+     */
+    @Modifying
+    @Query("UPDATE RoomInventory ri SET ri.sold = ri.sold + 1 " +
+           "WHERE ri.roomTypeId = :roomTypeId AND ri.stayDate >= :fromDate AND ri.stayDate < :toDate " +
+           "AND ri.sold < ri.capacity")
+    int reserveNights(@Param("roomTypeId") UUID roomTypeId,
+                      @Param("fromDate") LocalDate fromDate,
+                      @Param("toDate") LocalDate toDate);
+
+    /**
+     * Như reserveNights nhưng giữ nhiều phòng cùng lúc (đặt phòng theo đoàn)
+     */
+    @Modifying
+    @Query("UPDATE RoomInventory ri SET ri.sold = ri.sold + :quantity " +
+           "WHERE ri.roomTypeId = :roomTypeId AND ri.stayDate >= :fromDate AND ri.stayDate < :toDate " +
+           "AND ri.sold + :quantity <= ri.capacity")
+    int reserveNightsQuantity(@Param("roomTypeId") UUID roomTypeId,
+                              @Param("fromDate") LocalDate fromDate,
+                              @Param("toDate") LocalDate toDate,
+                              @Param("quantity") Integer quantity);
+
+    @Modifying
+    @Query("UPDATE RoomInventory ri SET ri.sold = ri.sold - 1 " +
+           "WHERE ri.roomTypeId = :roomTypeId AND ri.stayDate >= :fromDate AND ri.stayDate < :toDate " +
+           "AND ri.sold > 0")
+    int releaseNights(@Param("roomTypeId") UUID roomTypeId,
+                      @Param("fromDate") LocalDate fromDate,
+                      @Param("toDate") LocalDate toDate);
+
+    // ===== MAINTENANCE =====
+
+    @Modifying
+    @Query("UPDATE RoomInventory ri SET ri.capacity = :capacity " +
+           "WHERE ri.roomTypeId = :roomTypeId AND ri.stayDate >= :fromDate")
+    int updateCapacityFrom(@Param("roomTypeId") UUID roomTypeId,
+                           @Param("fromDate") LocalDate fromDate,
+                           @Param("capacity") Integer capacity);
+
+    @Modifying
+    @Query("DELETE FROM RoomInventory ri WHERE ri.roomTypeId = :roomTypeId")
+    int deleteByRoomTypeId(@Param("roomTypeId") UUID roomTypeId);
+}
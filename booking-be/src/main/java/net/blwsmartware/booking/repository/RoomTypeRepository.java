@@ -1,15 +1,20 @@
 package net.blwsmartware.booking.repository;
 
+import jakarta.persistence.QueryHint;
 import net.blwsmartware.booking.entity.Hotel;
 import net.blwsmartware.booking.entity.RoomType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -78,6 +83,13 @@ public interface RoomTypeRepository extends JpaRepository<RoomType, UUID> {
     
     @Query("SELECT SUM(rt.availableRooms) FROM RoomType rt WHERE rt.hotel.id = :hotelId")
     Long getAvailableRoomsByHotel(@Param("hotelId") UUID hotelId);
+    
+    // Thống kê phòng của nhiều khách sạn trong 1 query:
+    // [hotelId, roomTypeCount, totalRooms, availableRooms, minPrice, maxPrice]
+    @Query("SELECT rt.hotel.id, COUNT(rt), SUM(rt.totalRooms), SUM(rt.availableRooms), " +
+           "MIN(rt.pricePerNight), MAX(rt.pricePerNight) FROM RoomType rt " +
+           "WHERE rt.hotel.id IN :hotelIds GROUP BY rt.hotel.id")
+    List<Object[]> getRoomStatsByHotelIds(@Param("hotelIds") Collection<UUID> hotelIds);
 
     @Query("SELECT MIN(rt.pricePerNight) FROM RoomType rt WHERE rt.hotel.id = :hotelId")
     BigDecimal getMinPriceByHotel(@Param("hotelId") UUID hotelId);
@@ -86,9 +98,49 @@ public interface RoomTypeRepository extends JpaRepository<RoomType, UUID> {
     BigDecimal getMaxPriceByHotel(@Param("hotelId") UUID hotelId);
     
     // Host statistics queries
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
     @Query("SELECT COUNT(rt) FROM RoomType rt WHERE rt.hotel.owner.id = :hostId")
     Long countByHostId(@Param("hostId") UUID hostId);
     
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "3000"))
     @Query("SELECT SUM(rt.totalRooms) FROM RoomType rt WHERE rt.hotel.owner.id = :hostId")
     Long getTotalRoomsByHost(@Param("hostId") UUID hostId);
-} 
\ No newline at end of file
+    
+    @Query("SELECT rt.id, rt.totalRooms FROM RoomType rt")
+    List<Object[]> findAllCapacities();
+    
+    /**
+     * Keyset pagination theo id cho job đối soát: [id, hotelId, name, totalRooms, availableRooms]
+     */
+    @Query("SELECT rt.id, rt.hotel.id, rt.name, rt.totalRooms, rt.availableRooms FROM RoomType rt " +
+           "WHERE (:afterId IS NULL OR rt.id > :afterId) ORDER BY rt.id")
+    List<Object[]> findReconcileChunk(@Param("afterId") UUID afterId, Pageable pageable);
+    
+    /**
+     * Compare-and-set: chỉ ghi khi availableRooms chưa bị request khác thay đổi kể từ lúc đọc
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RoomType rt SET rt.availableRooms = :actual " +
+           "WHERE rt.id = :roomTypeId AND rt.availableRooms = :expected")
+    int correctAvailableRooms(@Param("roomTypeId") UUID roomTypeId,
+                              @Param("expected") Integer expected,
+                              @Param("actual") Integer actual);
+    
+    // Atomic counter updates (tránh read-modify-write khi nhiều booking cùng lúc)
+    @Modifying
+    @Query("UPDATE RoomType rt SET rt.availableRooms = rt.availableRooms - 1 " +
+           "WHERE rt.id = :roomTypeId AND rt.availableRooms > 0")
+    int decrementAvailableRooms(@Param("roomTypeId") UUID roomTypeId);
+    
+    @Modifying
+    @Query("UPDATE RoomType rt SET rt.availableRooms = " +
+           "CASE WHEN rt.availableRooms > :quantity THEN rt.availableRooms - :quantity ELSE 0 END " +
+           "WHERE rt.id = :roomTypeId")
+    int decrementAvailableRoomsBy(@Param("roomTypeId") UUID roomTypeId, @Param("quantity") Integer quantity);
+    
+    @Modifying
+    @Query("UPDATE RoomType rt SET rt.availableRooms = rt.availableRooms + 1 " +
+           "WHERE rt.id = :roomTypeId AND rt.availableRooms < rt.totalRooms")
+    int incrementAvailableRooms(@Param("roomTypeId") UUID roomTypeId);
+}
@@ -5,9 +5,12 @@ import net.blwsmartware.booking.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,4 +22,10 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Page<User> findByRole(Role role, Pageable pageable);
     
     Long countByCreateAtBetween(Instant startDate, Instant endDate);
+
+    // [year, month, count] người dùng mới trong [startDate, endDate)
+    @Query("SELECT YEAR(u.createAt), MONTH(u.createAt), COUNT(u) FROM User u " +
+           "WHERE u.createAt >= :startDate AND u.createAt < :endDate " +
+           "GROUP BY YEAR(u.createAt), MONTH(u.createAt)")
+    List<Object[]> countNewUsersByMonth(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 }
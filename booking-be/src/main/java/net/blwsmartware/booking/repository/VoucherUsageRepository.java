@@ -20,6 +20,7 @@ public interface VoucherUsageRepository extends JpaRepository<VoucherUsage, UUID
     List<VoucherUsage> findByVoucherId(UUID voucherId);
     List<VoucherUsage> findByUserId(UUID userId);
     Optional<VoucherUsage> findByBookingId(UUID bookingId);
+    Optional<VoucherUsage> findByGroupReference(String groupReference);
     void deleteByBookingId(UUID bookingId);
     List<VoucherUsage> findByVoucherIdAndUserId(UUID voucherId, UUID userId);
     boolean existsByVoucherIdAndUserId(UUID voucherId, UUID userId);
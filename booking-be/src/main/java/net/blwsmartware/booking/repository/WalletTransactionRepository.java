@@ -4,8 +4,12 @@ import net.blwsmartware.booking.entity.User;
 import net.blwsmartware.booking.entity.WalletTransaction;
 import net.blwsmartware.booking.enums.TransactionStatus;
 import net.blwsmartware.booking.enums.TransactionType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,6 +24,8 @@ public interface WalletTransactionRepository extends JpaRepository<WalletTransac
     
     Page<WalletTransaction> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     
+    Window<WalletTransaction> findByUser(User user, ScrollPosition position, Sort sort, Limit limit);
+    
     List<WalletTransaction> findByUserAndStatusOrderByCreatedAtDesc(User user, TransactionStatus status);
     
     @Query("SELECT SUM(wt.amount) FROM WalletTransaction wt WHERE wt.user = :user AND wt.status = :status AND wt.transactionType = :type")
@@ -0,0 +1,27 @@
+package net.blwsmartware.booking.service;
+
+import java.util.List;
+
+public interface AmenityService {
+
+    /**
+     * Tên hiển thị của mọi tiện ích trong từ điển, sắp xếp theo tên
+     */
+    List<String> getAmenityNames();
+
+    /**
+     * Bitmask của chuỗi tiện ích (phân tách bằng dấu phẩy) khi ghi khách sạn; tiện ích mới được thêm vào từ điển
+     */
+    long registerAmenities(String amenities);
+
+    /**
+     * Bitmask dùng để lọc: 0 nếu không lọc, null nếu chắc chắn không khách sạn nào khớp
+     * (AND có tiện ích không tồn tại, hoặc OR mà mọi tiện ích đều không tồn tại)
+     */
+    Long resolveFilterMask(String amenities, boolean matchAll);
+
+    /**
+     * Tính amenityMask cho các khách sạn chưa có (dữ liệu trước khi có từ điển)
+     */
+    void backfillHotelMasks();
+}
@@ -0,0 +1,12 @@
+package net.blwsmartware.booking.service;
+
+import net.blwsmartware.booking.dto.response.AvailabilityReconcileResponse;
+
+public interface AvailabilityReconcileService {
+
+    /**
+     * Tính lại availableRooms của mọi loại phòng từ các booking đang giữ phòng.
+     * fix = false chỉ báo cáo độ lệch, fix = true ghi lại giá trị đúng.
+     */
+    AvailabilityReconcileResponse reconcile(boolean fix);
+}
@@ -1,11 +1,16 @@
 package net.blwsmartware.booking.service;
 
+import net.blwsmartware.booking.dto.request.AvailabilityBatchRequest;
 import net.blwsmartware.booking.dto.request.BookingCreateRequest;
 import net.blwsmartware.booking.dto.request.BookingUpdateRequest;
 import net.blwsmartware.booking.dto.request.CancellationRequest;
+import net.blwsmartware.booking.dto.request.GroupBookingCreateRequest;
+import net.blwsmartware.booking.dto.response.AvailabilityBatchResponse;
 import net.blwsmartware.booking.dto.response.BookingResponse;
 import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.dto.response.GroupBookingResponse;
 import net.blwsmartware.booking.dto.response.HostDashboardResponse;
+import net.blwsmartware.booking.dto.response.MonthAvailabilityResponse;
 import net.blwsmartware.booking.enums.BookingStatus;
 import net.blwsmartware.booking.enums.PaymentStatus;
 
@@ -17,6 +22,8 @@ import java.util.UUID;
 public interface BookingService {
 
     BookingResponse createBooking(BookingCreateRequest request);
+    // Đặt nhiều phòng (một hoặc nhiều loại phòng) trong một transaction, trả về mã đoàn
+    GroupBookingResponse createGroupBooking(GroupBookingCreateRequest request);
 
     DataResponse<BookingResponse> getMyBookings(Integer pageNumber, Integer pageSize, String sortBy);
     BookingResponse getMyBookingById(UUID bookingId);
@@ -35,6 +42,8 @@ public interface BookingService {
                                                      Integer pageNumber, Integer pageSize, String sortBy);
     DataResponse<BookingResponse> getAllBookings(String status, String paymentStatus, 
                                                  Integer pageNumber, Integer pageSize, String sortBy);
+    DataResponse<BookingResponse> getAllBookingsAfter(String status, String paymentStatus,
+                                                      String after, Integer pageSize, String sortBy);
     BookingResponse getBookingById(UUID bookingId);
     BookingResponse updateBooking(UUID bookingId, BookingUpdateRequest request);
     void deleteBooking(UUID bookingId);
@@ -63,7 +72,12 @@ public interface BookingService {
     // ===== UTILITY METHODS =====
     boolean isRoomAvailable(UUID roomTypeId, LocalDate checkInDate, LocalDate checkOutDate);
     boolean isRoomAvailable(UUID roomTypeId, LocalDate checkInDate, LocalDate checkOutDate, UUID excludeBookingId);
+    AvailabilityBatchResponse checkAvailabilityBatch(AvailabilityBatchRequest request);
+    // Số phòng còn trống theo từng đêm của mỗi loại phòng trong [startDate, startDate + days)
+    MonthAvailabilityResponse getMonthAvailability(UUID hotelId, LocalDate startDate, int days);
     String generateBookingReference();
+    // Hủy các booking chưa thanh toán đã hết hạn giữ phòng, trả về số booking đã hủy
+    int expireHolds(List<UUID> bookingIds);
     // Thêm hàm save booking
     void save(net.blwsmartware.booking.entity.Booking booking);
 
@@ -0,0 +1,14 @@
+package net.blwsmartware.booking.service;
+
+import net.blwsmartware.booking.dto.response.HostDashboardResponse;
+
+import java.util.UUID;
+
+public interface HostDashboardService {
+
+    /**
+     * Dựng dashboard của host: các phần độc lập chạy song song, phần nào quá hạn thì giữ giá trị mặc định
+     * và được liệt kê trong unavailableSections.
+     */
+    HostDashboardResponse getDashboard(UUID hostId);
+}
@@ -0,0 +1,32 @@
+package net.blwsmartware.booking.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Hàm xếp hạng khách sạn cho tìm kiếm. Mỗi bean là một giá trị sortBy (getName()),
+ * thêm cách xếp hạng mới chỉ cần khai báo thêm bean.
+ */
+public interface HotelRankingFunction {
+
+    String getName();
+
+    /**
+     * Điểm càng cao càng lên đầu; minPrice/maxPrice là khoảng giá người dùng lọc (có thể null)
+     */
+    double score(Signals signals, BigDecimal minPrice, BigDecimal maxPrice);
+
+    @Value
+    @Builder
+    class Signals {
+        UUID hotelId;
+        double averageRating;
+        long reviewCount;
+        long recentBookings; // số booking trong HotelRanker.VELOCITY_DAYS ngày gần nhất
+        boolean featured;
+        BigDecimal minRoomPrice;
+    }
+}
@@ -2,9 +2,13 @@ package net.blwsmartware.booking.service;
 
 import net.blwsmartware.booking.dto.request.HotelCreateRequest;
 import net.blwsmartware.booking.dto.request.HotelUpdateRequest;
+import net.blwsmartware.booking.dto.response.AutocompleteSuggestionResponse;
+import net.blwsmartware.booking.dto.response.CacheStatsResponse;
 import net.blwsmartware.booking.dto.response.CityStatsResponse;
 import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.dto.response.HotelGeoResponse;
 import net.blwsmartware.booking.dto.response.HotelResponse;
+import net.blwsmartware.booking.dto.response.HotelSearchResponse;
 import net.blwsmartware.booking.dto.response.HostDashboardResponse;
 
 import java.math.BigDecimal;
@@ -52,28 +56,54 @@ public interface HotelService {
     
     // ===== PUBLIC OPERATIONS =====
     HotelResponse getHotelById(UUID id);
+    // sortBy = "relevance": xếp theo điểm của chỉ mục tìm kiếm; cột khác: sắp giảm dần theo cột đó
     DataResponse<HotelResponse> searchHotels(String keyword, Integer pageNumber, Integer pageSize, String sortBy);
+    // Nạp lại chỉ mục tìm kiếm khách sạn trong bộ nhớ (chạy lúc khởi động)
+    void warmUpSearchIndex();
+    // Gợi ý tên khách sạn/thành phố khi gõ, đọc từ chỉ mục tiền tố trong bộ nhớ
+    List<AutocompleteSuggestionResponse> autocomplete(String query, int limit);
     DataResponse<HotelResponse> getHotelsByCity(String city, Integer pageNumber, Integer pageSize, String sortBy);
     DataResponse<HotelResponse> getHotelsByCountry(String country, Integer pageNumber, Integer pageSize, String sortBy);
     DataResponse<HotelResponse> getHotelsByStarRating(Integer starRating, Integer pageNumber, Integer pageSize, String sortBy);
     DataResponse<HotelResponse> getActiveHotels(Integer pageNumber, Integer pageSize, String sortBy);
+    // Phân trang cursor (keyset): after là nextCursor của trang trước, rỗng cho trang đầu
+    DataResponse<HotelResponse> getActiveHotelsAfter(String after, Integer pageSize, String sortBy);
     DataResponse<HotelResponse> getFeaturedHotels(Integer pageNumber, Integer pageSize, String sortBy);
     
-    // New search with filters method
-    DataResponse<HotelResponse> searchHotelsWithFilters(
+    // New search with filters method; matchAllAmenities = true: có đủ mọi tiện ích, false: có ít nhất một
+    // includeFacets = true: kèm số khách sạn theo thành phố/hạng sao/khoảng giá của tập kết quả
+    HotelSearchResponse searchHotelsWithFilters(
             String city, String country, Integer starRating, 
-            BigDecimal minPrice, BigDecimal maxPrice, String amenities,
-            Integer pageNumber, Integer pageSize, String sortBy);
+            BigDecimal minPrice, BigDecimal maxPrice, String amenities, boolean matchAllAmenities,
+            boolean includeFacets, Integer pageNumber, Integer pageSize, String sortBy);
     
     // Get available amenities
     List<String> getAvailableAmenities();
     
+    // Tìm khách sạn gần một điểm / trong khung bản đồ từ chỉ mục không gian trong bộ nhớ
+    List<HotelGeoResponse> findNearbyHotels(double latitude, double longitude, int limit, Double radiusKm,
+                                            String city, Integer starRating,
+                                            BigDecimal minPrice, BigDecimal maxPrice);
+    List<HotelGeoResponse> findHotelsInBounds(double minLatitude, double minLongitude,
+                                              double maxLatitude, double maxLongitude, int limit,
+                                              String city, Integer starRating,
+                                              BigDecimal minPrice, BigDecimal maxPrice);
+    
     // Get top cities by hotel count for homepage
     List<CityStatsResponse> getTopCitiesByHotelCount(int limit);
     
+    // Số liệu hit/miss của các cache khách sạn trong bộ nhớ
+    List<CacheStatsResponse> getCacheStats();
+    
     // ===== UTILITY METHODS =====
     boolean isHotelNameExistsInCity(String name, String city);
 
+    /**
+     * Tìm khách sạn trong thành phố còn ít nhất 1 loại phòng trống cho khoảng ngày và số khách
+     */
+    DataResponse<HotelResponse> searchAvailableHotels(String city, LocalDate checkInDate, LocalDate checkOutDate,
+                                                      Integer guests, Integer pageNumber, Integer pageSize, String sortBy);
+    
     /**
      * Đếm số phòng trống thực tế của khách sạn dựa trên booking trong khoảng ngày
      */
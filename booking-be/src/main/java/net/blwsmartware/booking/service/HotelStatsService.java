@@ -0,0 +1,39 @@
+package net.blwsmartware.booking.service;
+
+import net.blwsmartware.booking.entity.HotelStats;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+public interface HotelStatsService {
+
+    /**
+     * Thống kê của nhiều khách sạn trong 1 query, chỉ đọc; khách sạn chưa có dòng thống kê được tính lại
+     * từ dữ liệu gốc và lưu trong transaction riêng (lỗi lưu không ảnh hưởng transaction của nơi gọi)
+     */
+    Map<UUID, HotelStats> getStats(Collection<UUID> hotelIds);
+
+    void onReviewCreated(UUID hotelId, int rating);
+
+    void onReviewUpdated(UUID hotelId, int oldRating, int newRating);
+
+    void onReviewDeleted(UUID hotelId, int rating);
+
+    /**
+     * Tính lại phần thống kê phòng (số loại phòng, tổng phòng, min/max giá) khi loại phòng thay đổi
+     */
+    void refreshRoomStats(UUID hotelId);
+
+    /**
+     * Tính khoảng giá phòng (hotels.min_room_price/max_room_price) cho khách sạn cũ chưa có
+     */
+    void backfillRoomPriceRanges();
+
+    /**
+     * Cộng delta vào số phòng trống khi booking giữ/trả phòng
+     */
+    void onAvailableRoomsChanged(UUID hotelId, int delta);
+
+    void delete(UUID hotelId);
+}
@@ -0,0 +1,24 @@
+package net.blwsmartware.booking.service;
+
+import net.blwsmartware.booking.entity.Booking;
+
+import java.time.LocalDate;
+
+public interface RevenueRollupService {
+
+    /**
+     * Tính lại dòng hotel_daily_revenue của ngày tạo booking khi booking được thanh toán, hoàn tiền hoặc hủy.
+     * Chạy sau khi transaction của nơi gọi commit, trong transaction riêng có khóa dòng của ngày đó.
+     */
+    void refresh(Booking booking);
+
+    /**
+     * Tính lại toàn bộ bảng tổng hợp cho [startDate, endDate] từ bookings, trả về số dòng đã ghi
+     */
+    int backfill(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Backfill toàn bộ lịch sử nếu bảng tổng hợp còn trống (chạy lúc khởi động)
+     */
+    void backfillIfEmpty();
+}
@@ -0,0 +1,67 @@
+package net.blwsmartware.booking.service;
+
+import net.blwsmartware.booking.entity.Booking;
+import net.blwsmartware.booking.entity.RoomType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface RoomInventoryService {
+
+    /**
+     * Booking bắt đầu giữ 1 phòng cho mọi đêm trong [checkIn, checkOut).
+     * Ném NO_ROOMS_AVAILABLE nếu có đêm đã hết phòng (transaction sẽ rollback toàn bộ).
+     */
+    void reserve(Booking booking, LocalDate checkInDate, LocalDate checkOutDate);
+
+    /**
+     * Giữ quantity phòng cùng lúc cho mọi đêm trong [checkIn, checkOut) (đặt phòng theo đoàn).
+     * Phải gọi trước khi lưu các booking của đoàn để phép đếm khi seed không tính trùng chúng.
+     */
+    void reserveRooms(RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate, int quantity);
+
+    /**
+     * Booking trả lại phòng đã giữ cho các đêm trong [checkIn, checkOut)
+     */
+    void release(Booking booking, LocalDate checkInDate, LocalDate checkOutDate);
+
+    /**
+     * Chuyển phòng đang giữ của booking từ khoảng ngày cũ sang khoảng ngày mới
+     */
+    void move(Booking booking, LocalDate oldCheckInDate, LocalDate oldCheckOutDate,
+              LocalDate newCheckInDate, LocalDate newCheckOutDate);
+
+    /**
+     * Số phòng còn trống thấp nhất trong các đêm của khoảng [checkIn, checkOut).
+     * Nếu excludedBooking khác null, phòng nó đang giữ (theo ngày hiện tại) được tính là còn trống.
+     * Chỉ đọc: đêm chưa có trong sổ tồn kho được đếm từ bookings, không tạo dòng mới.
+     */
+    int getRemainingRooms(RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate, Booking excludedBooking);
+
+    /**
+     * Số phòng còn trống lấy từ lịch phòng trong bộ nhớ (không truy vấn DB),
+     * trả về -1 nếu lịch chưa có dữ liệu cho loại phòng hoặc khoảng ngày này.
+     * Chỉ mang tính tham khảo (lịch riêng từng instance), không dùng để từ chối khi tạo booking.
+     */
+    int getCachedRemainingRooms(UUID roomTypeId, LocalDate checkInDate, LocalDate checkOutDate);
+
+    /**
+     * Nạp lại lịch phòng trong bộ nhớ từ DB (chạy lúc khởi động)
+     */
+    void warmUpCalendar();
+
+    /**
+     * Bắt đầu theo dõi loại phòng mới tạo trong lịch phòng
+     */
+    void registerRoomType(RoomType roomType);
+
+    /**
+     * Đồng bộ capacity của các đêm từ hôm nay trở đi khi totalRooms thay đổi
+     */
+    void syncCapacity(RoomType roomType);
+
+    /**
+     * Xóa toàn bộ sổ tồn kho của loại phòng (khi xóa room type)
+     */
+    void deleteByRoomType(UUID roomTypeId);
+}
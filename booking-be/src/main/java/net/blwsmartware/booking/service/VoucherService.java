@@ -39,6 +39,8 @@ public interface VoucherService {
     
     // ===== VOUCHER USAGE OPERATIONS =====
     VoucherResponse applyVoucher(String voucherCode, UUID userId, UUID bookingId, BigDecimal originalAmount, UUID hotelId);
+    VoucherResponse applyGroupVoucher(String voucherCode, UUID userId, String groupReference, UUID anchorBookingId,
+                                      BigDecimal subtotal, UUID hotelId);
     void removeVoucherUsage(UUID bookingId);
     void deleteVoucherUsageByBookingId(UUID bookingId);
     BigDecimal calculateDiscount(UUID voucherId, BigDecimal bookingAmount);
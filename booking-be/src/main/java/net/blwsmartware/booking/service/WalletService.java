@@ -2,6 +2,7 @@ package net.blwsmartware.booking.service;
 
 import net.blwsmartware.booking.dto.request.BankAccountRequest;
 import net.blwsmartware.booking.dto.request.WithdrawalRequest;
+import net.blwsmartware.booking.dto.response.DataResponse;
 import net.blwsmartware.booking.dto.response.WalletResponse;
 import net.blwsmartware.booking.dto.response.WalletTransactionResponse;
 import org.springframework.data.domain.Page;
@@ -31,6 +32,11 @@ public interface WalletService {
      */
     Page<WalletTransactionResponse> getTransactionHistory(int pageNumber, int pageSize);
     
+    /**
+     * Lịch sử giao dịch theo cursor (keyset), không đếm tổng
+     */
+    DataResponse<WalletTransactionResponse> getTransactionHistoryAfter(String after, int pageSize);
+    
     /**
      * Thêm tiền vào ví (khi hoàn tiền booking)
      */
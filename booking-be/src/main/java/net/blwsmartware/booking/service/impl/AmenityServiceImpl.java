@@ -0,0 +1,202 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.entity.Amenity;
+import net.blwsmartware.booking.repository.AmenityRepository;
+import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.service.AmenityService;
+import net.blwsmartware.booking.util.TextUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Từ điển tiện ích được giữ trong bộ nhớ (bản sao bất biến, thay cả map khi có tiện ích mới).
+ * <p>
+ * Tiện ích mới được ghi trong transaction riêng (REQUIRES_NEW) để bit đã cấp không bị mất khi
+ * transaction ghi khách sạn rollback. Nếu node khác đã chiếm bit/code đó thì nạp lại từ DB và thử lại.
+ * Từ điển tối đa 64 tiện ích (BIGINT); tiện ích vượt quá được bỏ qua khi tính mask.
+ */
+@Service
+@Slf4j
+public class AmenityServiceImpl implements AmenityService {
+
+    static final int MAX_AMENITIES = Long.SIZE;
+    static final long RELOAD_INTERVAL_MS = 60_000;
+    static final int MAX_NAME_LENGTH = 100;
+
+    final AmenityRepository amenityRepository;
+    final HotelRepository hotelRepository;
+    final TransactionTemplate requiresNew;
+
+    volatile Map<String, Amenity> dictionary;
+    volatile long lastReloadMillis;
+
+    public AmenityServiceImpl(AmenityRepository amenityRepository,
+                              HotelRepository hotelRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.amenityRepository = amenityRepository;
+        this.hotelRepository = hotelRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public List<String> getAmenityNames() {
+        return getDictionary().values().stream()
+                .map(Amenity::getName)
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .toList();
+    }
+
+    @Override
+    public long registerAmenities(String amenities) {
+        Map<String, String> parsed = parse(amenities);
+        if (parsed.isEmpty()) {
+            return 0L;
+        }
+        Map<String, Amenity> current = getDictionary();
+        if (!current.keySet().containsAll(parsed.keySet())) {
+            current = addMissing(parsed);
+        }
+        return toMask(parsed.keySet(), current);
+    }
+
+    @Override
+    public Long resolveFilterMask(String amenities, boolean matchAll) {
+        Set<String> codes = parse(amenities).keySet();
+        if (codes.isEmpty()) {
+            return 0L;
+        }
+        Map<String, Amenity> current = getDictionary();
+        if (!current.keySet().containsAll(codes)) {
+            // Có thể node khác vừa thêm tiện ích → nạp lại, nhưng không quá 1 lần mỗi RELOAD_INTERVAL_MS
+            current = reloadIfStale();
+        }
+
+        long mask = toMask(codes, current);
+        boolean allKnown = current.keySet().containsAll(codes);
+        if (mask == 0L || (matchAll && !allKnown)) {
+            return null;
+        }
+        return mask;
+    }
+
+    @Override
+    @Transactional
+    public void backfillHotelMasks() {
+        List<Object[]> rows = hotelRepository.findAmenitiesWithoutMask();
+        for (Object[] row : rows) {
+            hotelRepository.updateAmenityMask((UUID) row[0], registerAmenities((String) row[1]));
+        }
+        log.info("Amenity dictionary: {} amenities, backfilled masks for {} hotels",
+                getDictionary().size(), rows.size());
+    }
+
+    // ===== HELPER METHODS =====
+
+    private Map<String, Amenity> getDictionary() {
+        Map<String, Amenity> current = dictionary;
+        if (current == null) {
+            synchronized (this) {
+                if (dictionary == null) {
+                    reload();
+                }
+                current = dictionary;
+            }
+        }
+        return current;
+    }
+
+    private synchronized Map<String, Amenity> reloadIfStale() {
+        if (System.currentTimeMillis() - lastReloadMillis >= RELOAD_INTERVAL_MS) {
+            reload();
+        }
+        return dictionary;
+    }
+
+    private void reload() {
+        Map<String, Amenity> loaded = new HashMap<>();
+        for (Amenity amenity : amenityRepository.findAll()) {
+            loaded.put(amenity.getCode(), amenity);
+        }
+        dictionary = Collections.unmodifiableMap(loaded);
+        lastReloadMillis = System.currentTimeMillis();
+    }
+
+    private synchronized Map<String, Amenity> addMissing(Map<String, String> parsed) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Map<String, Amenity> next = new HashMap<>(dictionary);
+            List<Amenity> created = new ArrayList<>();
+            BitSet used = new BitSet(MAX_AMENITIES);
+            next.values().forEach(amenity -> used.set(amenity.getBitIndex()));
+
+            for (Map.Entry<String, String> entry : parsed.entrySet()) {
+                if (next.containsKey(entry.getKey())) {
+                    continue;
+                }
+                int bit = used.nextClearBit(0);
+                if (bit >= MAX_AMENITIES) {
+                    log.warn("Amenity dictionary is full, ignoring amenity '{}'", entry.getValue());
+                    continue;
+                }
+                used.set(bit);
+                Amenity amenity = Amenity.builder()
+                        .bitIndex(bit)
+                        .code(entry.getKey())
+                        .name(entry.getValue())
+                        .build();
+                created.add(amenity);
+                next.put(amenity.getCode(), amenity);
+            }
+            if (created.isEmpty()) {
+                return dictionary;
+            }
+
+            try {
+                requiresNew.executeWithoutResult(status -> created.forEach(amenity ->
+                        amenityRepository.insert(amenity.getBitIndex(), amenity.getCode(), amenity.getName())));
+                dictionary = Collections.unmodifiableMap(next);
+                return dictionary;
+            } catch (DataIntegrityViolationException e) {
+                log.info("Amenity dictionary changed concurrently, reloading: {}", e.getMessage());
+                reload();
+            }
+        }
+        return dictionary;
+    }
+
+    private static long toMask(Collection<String> codes, Map<String, Amenity> current) {
+        long mask = 0L;
+        for (String code : codes) {
+            Amenity amenity = current.get(code);
+            if (amenity != null) {
+                mask |= 1L << amenity.getBitIndex();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * code → tên hiển thị (lần xuất hiện đầu tiên). Chấp nhận cả dạng JSON array ["Wifi","Hồ bơi"]
+     */
+    static Map<String, String> parse(String amenities) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        if (amenities == null || amenities.isBlank()) {
+            return parsed;
+        }
+        for (String part : amenities.split(",")) {
+            String name = part.replaceAll("[\\[\\]\"]", "").trim();
+            String code = String.join(" ", TextUtils.foldForSearch(name));
+            if (!code.isEmpty() && name.length() <= MAX_NAME_LENGTH) {
+                parsed.putIfAbsent(code, name);
+            }
+        }
+        return parsed;
+    }
+}
@@ -5,7 +5,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import net.blwsmartware.booking.dto.response.AdminAnalyticsResponse;
-import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelDailyRevenueRepository;
 import net.blwsmartware.booking.repository.HotelRepository;
 import net.blwsmartware.booking.repository.UserRepository;
 import net.blwsmartware.booking.service.AnalyticsService;
@@ -19,9 +19,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -30,7 +31,7 @@ import java.util.UUID;
 @Slf4j
 public class AnalyticsServiceImpl implements AnalyticsService {
     
-    BookingRepository bookingRepository;
+    HotelDailyRevenueRepository hotelDailyRevenueRepository;
     HotelRepository hotelRepository;
     UserRepository userRepository;
 
@@ -47,12 +48,28 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
         
-        // Get advanced analytics stats
-        BigDecimal totalRevenue = bookingRepository.getTotalRevenueByDateRange(startDateTime, endDateTime);
-        if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
-        
-        Long totalBookings = bookingRepository.countPaidBookingsByDateRange(startDateTime, endDateTime);
-        if (totalBookings == null) totalBookings = 0L;
+        // Một lần quét bảng tổng hợp theo ngày, phủ trọn các tháng của biểu đồ
+        YearMonth firstMonth = YearMonth.from(startDate);
+        YearMonth lastMonth = YearMonth.from(endDate);
+        List<Object[]> dailyRows = hotelDailyRevenueRepository.sumByDate(firstMonth.atDay(1), lastMonth.atEndOfMonth());
+        
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalBookings = 0L;
+        Map<YearMonth, BigDecimal> revenueByMonth = new HashMap<>();
+        Map<YearMonth, Long> bookingsByMonth = new HashMap<>();
+        for (Object[] row : dailyRows) {
+            LocalDate day = (LocalDate) row[0];
+            BigDecimal revenue = toBigDecimal(row[1]).subtract(toBigDecimal(row[2]));
+            long bookings = row[4] != null ? ((Number) row[4]).longValue() : 0L;
+            
+            YearMonth month = YearMonth.from(day);
+            revenueByMonth.merge(month, revenue, BigDecimal::add);
+            bookingsByMonth.merge(month, bookings, Long::sum);
+            if (!day.isBefore(startDate) && !day.isAfter(endDate)) {
+                totalRevenue = totalRevenue.add(revenue);
+                totalBookings += bookings;
+            }
+        }
         
         BigDecimal averageBookingValue = BigDecimal.ZERO;
         if (totalBookings > 0) {
@@ -60,12 +77,22 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         }
         
         // Get monthly chart data
-        List<AdminAnalyticsResponse.MonthlyData> monthlyRevenue = getMonthlyRevenue(startDate, endDate);
-        List<AdminAnalyticsResponse.MonthlyData> monthlyBookings = getMonthlyBookings(startDate, endDate);
-        List<AdminAnalyticsResponse.MonthlyData> monthlyNewUsers = getMonthlyNewUsers(startDate, endDate);
+        Map<YearMonth, Long> newUsersByMonth = getNewUsersByMonth(firstMonth, lastMonth);
+        List<AdminAnalyticsResponse.MonthlyData> monthlyRevenue = new ArrayList<>();
+        List<AdminAnalyticsResponse.MonthlyData> monthlyBookings = new ArrayList<>();
+        List<AdminAnalyticsResponse.MonthlyData> monthlyNewUsers = new ArrayList<>();
+        
+        YearMonth current = firstMonth;
+        while (!current.isAfter(lastMonth) && monthlyRevenue.size() < 12) {
+            String label = "T" + current.getMonthValue();
+            monthlyRevenue.add(monthlyData(label, revenueByMonth.getOrDefault(current, BigDecimal.ZERO)));
+            monthlyBookings.add(monthlyData(label, BigDecimal.valueOf(bookingsByMonth.getOrDefault(current, 0L))));
+            monthlyNewUsers.add(monthlyData(label, BigDecimal.valueOf(newUsersByMonth.getOrDefault(current, 0L))));
+            current = current.plusMonths(1);
+        }
         
         // Get top performers
-        List<AdminAnalyticsResponse.TopHotelData> topHotels = getTopHotels(startDateTime, endDateTime);
+        List<AdminAnalyticsResponse.TopHotelData> topHotels = getTopHotels(startDate, endDate);
         List<AdminAnalyticsResponse.TopLocationData> topLocations = getTopLocations(startDateTime, endDateTime);
         
         return AdminAnalyticsResponse.builder()
@@ -80,95 +107,43 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 .build();
     }
     
-    private List<AdminAnalyticsResponse.MonthlyData> getMonthlyRevenue(LocalDate startDate, LocalDate endDate) {
-        List<AdminAnalyticsResponse.MonthlyData> monthlyData = new ArrayList<>();
-        
-        YearMonth start = YearMonth.from(startDate);
-        YearMonth end = YearMonth.from(endDate);
-        
-        YearMonth current = start;
-        while (!current.isAfter(end) && monthlyData.size() < 12) {
-            LocalDateTime monthStart = current.atDay(1).atStartOfDay();
-            LocalDateTime monthEnd = current.atEndOfMonth().atTime(23, 59, 59);
-            
-            BigDecimal revenue = bookingRepository.getTotalRevenueByDateRange(monthStart, monthEnd);
-            if (revenue == null) revenue = BigDecimal.ZERO;
-            
-            monthlyData.add(AdminAnalyticsResponse.MonthlyData.builder()
-                    .month("T" + current.getMonthValue())
-                    .value(revenue)
-                    .build());
-            
-            current = current.plusMonths(1);
+    private Map<YearMonth, Long> getNewUsersByMonth(YearMonth firstMonth, YearMonth lastMonth) {
+        Map<YearMonth, Long> newUsers = new HashMap<>();
+        List<Object[]> rows = userRepository.countNewUsersByMonth(
+                firstMonth.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC),
+                lastMonth.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            newUsers.put(month, ((Number) row[2]).longValue());
         }
-        
-        return monthlyData;
+        return newUsers;
     }
     
-    private List<AdminAnalyticsResponse.MonthlyData> getMonthlyBookings(LocalDate startDate, LocalDate endDate) {
-        List<AdminAnalyticsResponse.MonthlyData> monthlyData = new ArrayList<>();
-        
-        YearMonth start = YearMonth.from(startDate);
-        YearMonth end = YearMonth.from(endDate);
-        
-        YearMonth current = start;
-        while (!current.isAfter(end) && monthlyData.size() < 12) {
-            LocalDateTime monthStart = current.atDay(1).atStartOfDay();
-            LocalDateTime monthEnd = current.atEndOfMonth().atTime(23, 59, 59);
-            
-            Long bookings = bookingRepository.countPaidBookingsByDateRange(monthStart, monthEnd);
-            if (bookings == null) bookings = 0L;
-            
-            monthlyData.add(AdminAnalyticsResponse.MonthlyData.builder()
-                    .month("T" + current.getMonthValue())
-                    .value(BigDecimal.valueOf(bookings))
-                    .build());
-            
-            current = current.plusMonths(1);
-        }
-        
-        return monthlyData;
+    private AdminAnalyticsResponse.MonthlyData monthlyData(String month, BigDecimal value) {
+        return AdminAnalyticsResponse.MonthlyData.builder()
+                .month(month)
+                .value(value)
+                .build();
     }
     
-    private List<AdminAnalyticsResponse.MonthlyData> getMonthlyNewUsers(LocalDate startDate, LocalDate endDate) {
-        List<AdminAnalyticsResponse.MonthlyData> monthlyData = new ArrayList<>();
-        
-        YearMonth start = YearMonth.from(startDate);
-        YearMonth end = YearMonth.from(endDate);
-        
-        YearMonth current = start;
-        while (!current.isAfter(end) && monthlyData.size() < 12) {
-            LocalDateTime monthStart = current.atDay(1).atStartOfDay();
-            LocalDateTime monthEnd = current.atEndOfMonth().atTime(23, 59, 59);
-            
-            Long newUsers = userRepository.countByCreateAtBetween(monthStart.toInstant(java.time.ZoneOffset.UTC), monthEnd.toInstant(java.time.ZoneOffset.UTC));
-            if (newUsers == null) newUsers = 0L;
-            
-            monthlyData.add(AdminAnalyticsResponse.MonthlyData.builder()
-                    .month("T" + current.getMonthValue())
-                    .value(BigDecimal.valueOf(newUsers))
-                    .build());
-            
-            current = current.plusMonths(1);
-        }
-        
-        return monthlyData;
+    private BigDecimal toBigDecimal(Object value) {
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
     }
     
-    private List<AdminAnalyticsResponse.TopHotelData> getTopHotels(LocalDateTime startDate, LocalDateTime endDate) {
+    private List<AdminAnalyticsResponse.TopHotelData> getTopHotels(LocalDate startDate, LocalDate endDate) {
         List<AdminAnalyticsResponse.TopHotelData> topHotels = new ArrayList<>();
         
         try {
             // Get top 5 hotels by revenue
             Pageable pageable = PageRequest.of(0, 5);
-            List<Object[]> results = bookingRepository.findTopHotelsByRevenue(startDate, endDate, pageable);
+            List<Object[]> results = hotelDailyRevenueRepository.findTopHotelsByRevenue(startDate, endDate, pageable);
             
             for (Object[] result : results) {
                 UUID hotelId = (UUID) result[0];
                 String hotelName = (String) result[1];
                 String location = (String) result[2];
-                BigDecimal revenue = (BigDecimal) result[3];
-                Long bookings = (Long) result[4];
+                BigDecimal revenue = toBigDecimal(result[3]);
+                Long bookings = result[4] != null ? ((Number) result[4]).longValue() : 0L;
                 
                 topHotels.add(AdminAnalyticsResponse.TopHotelData.builder()
                         .id(hotelId.toString())
@@ -0,0 +1,132 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lịch phòng trong bộ nhớ: với mỗi loại phòng lưu số phòng đã giữ theo từng đêm
+ * trong mảng nguyên thủy dạng vòng (ring buffer) đánh chỉ số theo epoch day.
+ * <p>
+ * Booking tối đa check-in sau 2 năm và ở 30 đêm nên HORIZON_DAYS = 800 đủ để một ô
+ * chỉ bị tái sử dụng khi đêm cũ đã qua. Mỗi ô lưu kèm epoch day của nó (slotDay) để phân biệt
+ * ô cũ với ô hiện tại, không cần đồng hồ.
+ * <p>
+ * Ghi được đồng bộ theo từng loại phòng; đọc không khóa và không cấp phát bộ nhớ.
+ * <p>
+ * Giả định một instance: lịch chỉ nhận thay đổi do chính instance này commit (afterCommit trong
+ * RoomInventoryServiceImpl) và được nạp lại từ DB lúc khởi động. Khi chạy nhiều instance, booking giữ/trả
+ * phòng ở instance khác không đến được đây nên lịch có thể lệch theo cả hai chiều cho tới lần khởi động sau.
+ * Vì vậy kết quả đọc chỉ dùng cho các API xem phòng trống (isRoomAvailable, checkAvailabilityBatch); tạo booking
+ * luôn kiểm tra sổ tồn kho trong DB và UPDATE có điều kiện trên room_inventory mới là nguồn quyết định.
+ */
+@Component
+@Slf4j
+public class AvailabilityCalendar {
+
+    static final int HORIZON_DAYS = 800;
+    static final int UNKNOWN = -1;
+
+    final Map<UUID, RoomCalendar> calendars = new ConcurrentHashMap<>();
+    volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public void clear() {
+        ready = false;
+        calendars.clear();
+    }
+
+    public void setCapacity(UUID roomTypeId, int capacity) {
+        calendars.computeIfAbsent(roomTypeId, id -> new RoomCalendar()).capacity = capacity;
+    }
+
+    public void remove(UUID roomTypeId) {
+        calendars.remove(roomTypeId);
+    }
+
+    /**
+     * Cộng delta (+1 giữ phòng, -1 trả phòng) cho mọi đêm trong [fromDate, toDate)
+     */
+    public void apply(UUID roomTypeId, LocalDate fromDate, LocalDate toDate, int delta) {
+        RoomCalendar calendar = calendars.get(roomTypeId);
+        if (calendar == null) {
+            return;
+        }
+        calendar.apply(fromDate.toEpochDay(), toDate.toEpochDay(), delta);
+    }
+
+    /**
+     * Số phòng còn trống thấp nhất trong [fromDate, toDate), hoặc -1 nếu lịch chưa sẵn sàng,
+     * loại phòng chưa được theo dõi hoặc khoảng ngày nằm ngoài horizon.
+     */
+    public int getRemainingRooms(UUID roomTypeId, LocalDate fromDate, LocalDate toDate) {
+        if (!ready) {
+            return UNKNOWN;
+        }
+        RoomCalendar calendar = calendars.get(roomTypeId);
+        if (calendar == null) {
+            return UNKNOWN;
+        }
+        return calendar.remaining(fromDate.toEpochDay(), toDate.toEpochDay());
+    }
+
+    static final class RoomCalendar {
+        final short[] booked = new short[HORIZON_DAYS];
+        final int[] slotDay = new int[HORIZON_DAYS];
+        volatile int capacity;
+
+        RoomCalendar() {
+            Arrays.fill(slotDay, Integer.MIN_VALUE);
+        }
+
+        synchronized void apply(long fromDay, long toDay, int delta) {
+            for (long day = fromDay; day < toDay; day++) {
+                int slot = slot(day);
+                if (slotDay[slot] > day) {
+                    // Ô đã thuộc về một đêm mới hơn, đêm này đã quá xa trong quá khứ
+                    continue;
+                }
+                if (slotDay[slot] < day) {
+                    slotDay[slot] = (int) day;
+                    booked[slot] = 0;
+                }
+                int value = booked[slot] + delta;
+                booked[slot] = (short) Math.max(0, Math.min(Short.MAX_VALUE, value));
+            }
+        }
+
+        int remaining(long fromDay, long toDay) {
+            if (toDay - fromDay > HORIZON_DAYS) {
+                return UNKNOWN;
+            }
+            int cap = capacity;
+            int remaining = cap;
+            for (long day = fromDay; day < toDay; day++) {
+                int slot = slot(day);
+                int owner = slotDay[slot];
+                if (owner > day) {
+                    return UNKNOWN;
+                }
+                int used = owner == day ? booked[slot] : 0;
+                remaining = Math.min(remaining, cap - used);
+            }
+            return Math.max(remaining, 0);
+        }
+
+        private static int slot(long day) {
+            return (int) Math.floorMod(day, (long) HORIZON_DAYS);
+        }
+    }
+}
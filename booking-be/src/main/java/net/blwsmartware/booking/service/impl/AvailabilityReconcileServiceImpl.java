@@ -0,0 +1,177 @@
+package net.blwsmartware.booking.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.dto.response.AvailabilityReconcileResponse;
+import net.blwsmartware.booking.enums.ErrorResponse;
+import net.blwsmartware.booking.exception.AppRuntimeException;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.RoomTypeRepository;
+import net.blwsmartware.booking.service.AvailabilityReconcileService;
+import net.blwsmartware.booking.service.HotelStatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Đối soát availableRooms (số liệu hiển thị) với số booking đang giữ phòng thực tế.
+ * <p>
+ * Đọc RoomType theo keyset pagination (id > id cuối của trang trước), mỗi trang là một chunk
+ * được xử lý song song trên executor giới hạn: một query COUNT gộp cho cả chunk, sau đó sửa
+ * bằng UPDATE compare-and-set để không ghi đè thay đổi đồng thời từ các booking mới.
+ */
+@Service
+@Slf4j
+public class AvailabilityReconcileServiceImpl implements AvailabilityReconcileService {
+
+    static final int MAX_REPORTED_DRIFTS = 500;
+
+    final RoomTypeRepository roomTypeRepository;
+    final BookingRepository bookingRepository;
+    final HotelStatsService hotelStatsService;
+    final HotelCacheInvalidator hotelCacheInvalidator;
+    final ExecutorService executor;
+    final int chunkSize;
+    final AtomicBoolean running = new AtomicBoolean(false);
+
+    public AvailabilityReconcileServiceImpl(RoomTypeRepository roomTypeRepository,
+                                            BookingRepository bookingRepository,
+                                            HotelStatsService hotelStatsService,
+                                            HotelCacheInvalidator hotelCacheInvalidator,
+                                            @Value("${booking.reconcile.threads:4}") int threads,
+                                            @Value("${booking.reconcile.chunk-size:200}") int chunkSize) {
+        this.roomTypeRepository = roomTypeRepository;
+        this.bookingRepository = bookingRepository;
+        this.hotelStatsService = hotelStatsService;
+        this.hotelCacheInvalidator = hotelCacheInvalidator;
+        this.chunkSize = chunkSize;
+        // Hàng đợi giới hạn + CallerRunsPolicy: thread đọc trang sẽ tự xử lý chunk khi executor đã đầy
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Scheduled(cron = "${booking.reconcile.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        try {
+            reconcile(true);
+        } catch (AppRuntimeException e) {
+            log.warn("Skipping scheduled availability reconcile: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public AvailabilityReconcileResponse reconcile(boolean fix) {
+        if (!running.compareAndSet(false, true)) {
+            throw new AppRuntimeException(ErrorResponse.RECONCILE_IN_PROGRESS);
+        }
+        try {
+            return doReconcile(fix);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private AvailabilityReconcileResponse doReconcile(boolean fix) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+
+        AtomicInteger checked = new AtomicInteger();
+        AtomicInteger driftCount = new AtomicInteger();
+        AtomicInteger fixedCount = new AtomicInteger();
+        Queue<AvailabilityReconcileResponse.RoomTypeDrift> drifts = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        UUID afterId = null;
+        while (true) {
+            List<Object[]> chunk = roomTypeRepository.findReconcileChunk(afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            afterId = (UUID) chunk.get(chunk.size() - 1)[0];
+            futures.add(executor.submit(() -> reconcileChunk(chunk, today, fix, checked, driftCount, fixedCount, drifts)));
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Availability reconcile interrupted", e);
+            } catch (ExecutionException e) {
+                log.error("Availability reconcile chunk failed: {}", e.getCause().getMessage());
+            }
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Availability reconcile done in {} ms: {} room types checked, {} drifted, {} fixed",
+                duration, checked.get(), driftCount.get(), fixedCount.get());
+
+        return AvailabilityReconcileResponse.builder()
+                .startedAt(startedAt)
+                .durationMs(duration)
+                .fixApplied(fix)
+                .roomTypesChecked(checked.get())
+                .driftCount(driftCount.get())
+                .fixedCount(fixedCount.get())
+                .drifts(new ArrayList<>(drifts))
+                .build();
+    }
+
+    private void reconcileChunk(List<Object[]> chunk, LocalDate today, boolean fix,
+                                AtomicInteger checked, AtomicInteger driftCount, AtomicInteger fixedCount,
+                                Queue<AvailabilityReconcileResponse.RoomTypeDrift> drifts) {
+        List<UUID> ids = new ArrayList<>(chunk.size());
+        for (Object[] row : chunk) {
+            ids.add((UUID) row[0]);
+        }
+
+        Map<UUID, Long> activeCounts = new HashMap<>();
+        for (Object[] row : bookingRepository.countActiveBookingsByRoomTypeIds(ids, today)) {
+            activeCounts.put((UUID) row[0], (Long) row[1]);
+        }
+
+        for (Object[] row : chunk) {
+            UUID roomTypeId = (UUID) row[0];
+            int totalRooms = row[3] != null ? (Integer) row[3] : 0;
+            Integer stored = (Integer) row[4];
+            int actual = (int) Math.max(0, totalRooms - activeCounts.getOrDefault(roomTypeId, 0L));
+            checked.incrementAndGet();
+
+            if (stored != null && stored == actual) {
+                continue;
+            }
+            if (driftCount.incrementAndGet() <= MAX_REPORTED_DRIFTS) {
+                drifts.add(AvailabilityReconcileResponse.RoomTypeDrift.builder()
+                        .roomTypeId(roomTypeId)
+                        .hotelId((UUID) row[1])
+                        .roomTypeName((String) row[2])
+                        .totalRooms(totalRooms)
+                        .storedAvailableRooms(stored)
+                        .actualAvailableRooms(actual)
+                        .build());
+            }
+            if (fix && stored != null && roomTypeRepository.correctAvailableRooms(roomTypeId, stored, actual) == 1) {
+                hotelStatsService.onAvailableRoomsChanged((UUID) row[1], actual - stored);
+                hotelCacheInvalidator.onAvailableRoomsChanged((UUID) row[1]);
+                fixedCount.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hàng đợi hạn giữ phòng trong bộ nhớ (DelayQueue): chỉ những booking đã đến hạn mới được lấy ra,
+ * không cần quét bảng bookings. Mất khi restart nên BookingHoldSweeper còn quét bù theo index hold_expires_at.
+ */
+@Component
+public class BookingHoldQueue {
+
+    final DelayQueue<HoldEntry> queue = new DelayQueue<>();
+
+    /**
+     * Đưa booking vào hàng đợi sau khi transaction tạo booking commit thành công
+     */
+    public void schedule(UUID bookingId, LocalDateTime expiresAt) {
+        long expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        HoldEntry entry = new HoldEntry(bookingId, expiresAtMillis);
+
+        TransactionUtils.afterCommit(() -> queue.add(entry));
+    }
+
+    /**
+     * Lấy tối đa maxItems booking đã hết hạn giữ phòng
+     */
+    public List<UUID> drainExpired(int maxItems) {
+        List<HoldEntry> entries = new ArrayList<>();
+        queue.drainTo(entries, maxItems);
+        List<UUID> bookingIds = new ArrayList<>(entries.size());
+        for (HoldEntry entry : entries) {
+            bookingIds.add(entry.bookingId);
+        }
+        return bookingIds;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    static final class HoldEntry implements Delayed {
+        final UUID bookingId;
+        final long expiresAtMillis;
+
+        HoldEntry(UUID bookingId, long expiresAtMillis) {
+            this.bookingId = bookingId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtMillis, ((HoldEntry) other).expiresAtMillis);
+        }
+    }
+}
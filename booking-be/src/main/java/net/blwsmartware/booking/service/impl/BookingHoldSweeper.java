@@ -0,0 +1,103 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.service.BookingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tự động hủy booking chưa thanh toán khi hết hạn giữ phòng và trả phòng về sổ tồn kho theo từng batch.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class BookingHoldSweeper {
+
+    BookingHoldQueue bookingHoldQueue;
+    BookingService bookingService;
+    BookingRepository bookingRepository;
+
+    @Value("${booking.hold.batch-size:200}")
+    @NonFinal
+    int batchSize;
+
+    /**
+     * Xử lý các hold đã đến hạn trong hàng đợi bộ nhớ
+     */
+    @Scheduled(fixedDelayString = "${booking.hold.sweep-interval-ms:5000}")
+    public void sweepDueHolds() {
+        int expired = 0;
+        List<UUID> bookingIds;
+        while (!(bookingIds = bookingHoldQueue.drainExpired(batchSize)).isEmpty()) {
+            expired += expireBatch(bookingIds);
+        }
+        if (expired > 0) {
+            log.info("Expired {} unpaid booking holds ({} holds still queued)", expired, bookingHoldQueue.size());
+        }
+    }
+
+    /**
+     * Quét bù theo index hold_expires_at cho các hold bị mất khỏi hàng đợi (restart, nhiều instance).
+     * Đi tiếp bằng keyset (holdExpiresAt, id) nên booking không hủy được không chặn các hold phía sau.
+     */
+    @Scheduled(initialDelayString = "${booking.hold.recovery-initial-delay-ms:30000}",
+               fixedDelayString = "${booking.hold.recovery-interval-ms:300000}")
+    public void recoverExpiredHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, batchSize);
+        int expired = 0;
+        List<Object[]> rows = bookingRepository.findExpiredHolds(now, page);
+        while (!rows.isEmpty()) {
+            List<UUID> bookingIds = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                bookingIds.add((UUID) row[0]);
+            }
+            expired += expireBatch(bookingIds);
+
+            Object[] last = rows.get(rows.size() - 1);
+            rows = bookingRepository.findExpiredHoldsAfter(now, (LocalDateTime) last[1], (UUID) last[0], page);
+        }
+        if (expired > 0) {
+            log.info("Recovered {} expired booking holds from database", expired);
+        }
+    }
+
+    /**
+     * Hủy cả batch trong một transaction; nếu lỗi thì thử lại từng booking để một dòng lỗi không kéo theo cả batch
+     */
+    private int expireBatch(List<UUID> bookingIds) {
+        try {
+            return bookingService.expireHolds(bookingIds);
+        } catch (Exception e) {
+            log.warn("Failed to expire booking holds as a batch, retrying one by one: {}", e.getMessage());
+        }
+
+        int expired = 0;
+        List<UUID> failedIds = new ArrayList<>();
+        for (UUID bookingId : bookingIds) {
+            try {
+                expired += bookingService.expireHolds(List.of(bookingId));
+            } catch (Exception e) {
+                failedIds.add(bookingId);
+                log.error("Failed to expire booking hold {}: {}", bookingId, e.getMessage());
+            }
+        }
+        if (!failedIds.isEmpty()) {
+            log.error("Skipped {} booking holds that could not be expired: {}", failedIds.size(), failedIds);
+        }
+        return expired;
+    }
+}
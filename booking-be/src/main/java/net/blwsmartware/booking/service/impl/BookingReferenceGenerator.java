@@ -0,0 +1,168 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Sinh mã booking duy nhất mà không cần truy vấn DB mỗi lần sinh.
+ * <p>
+ * Mã có dạng BK + epoch day (3 ký tự) + node id (2 ký tự) + mốc thời gian trong ngày kèm
+ * số thứ tự (8 ký tự), mã hóa Crockford base32 (không có I, L, O, U nên dễ đọc qua điện thoại).
+ * Mốc thời gian là millisecond trong ngày dịch trái SEQUENCE_BITS bit, cộng số thứ tự trong cùng
+ * millisecond; trong một process giá trị luôn tăng nên đồng hồ lùi cũng không sinh lại mã cũ.
+ * Khi khởi động, mốc được seed từ mã lớn nhất của node trong DB để restart với đồng hồ chậm hơn
+ * cũng không sinh lại mã đã dùng.
+ * <p>
+ * Epoch day chỉ có 15 bit (3 ký tự base32) nên quay vòng sau 32768 ngày (tháng 9/2059); mã chỉ
+ * duy nhất và tăng dần trong một vòng đó.
+ * <p>
+ * Các node khác nhau phải được cấu hình booking.reference.node-id khác nhau (0..1023); khi
+ * booking.reference.multi-node = true mà không cấu hình node-id thì ứng dụng không khởi động.
+ */
+@Component
+@Slf4j
+public class BookingReferenceGenerator {
+
+    static final String PREFIX = "BK";
+    static final String GROUP_PREFIX = "GB";
+    static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    static final int SEQUENCE_BITS = 10;
+    static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    static final int MAX_NODE_ID = 1023;
+    static final long MILLIS_PER_DAY = 86_400_000L;
+
+    final int nodeId;
+    long lastMillis = -1;
+    long sequence = 0;
+
+    @Autowired
+    public BookingReferenceGenerator(@Value("${booking.reference.node-id:}") Integer nodeId,
+                                     @Value("${booking.reference.multi-node:false}") boolean multiNode,
+                                     BookingRepository bookingRepository) {
+        this(resolveNodeId(nodeId, multiNode));
+        String node = nodeCode(this.nodeId);
+        bookingRepository.findLatestBookingReferenceStamp(node).ifPresent(this::seed);
+        bookingRepository.findLatestGroupReferenceStamp(node).ifPresent(this::seed);
+    }
+
+    BookingReferenceGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("booking.reference.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        log.info("Booking reference generator initialized for node {}", nodeId);
+    }
+
+    private static int resolveNodeId(Integer nodeId, boolean multiNode) {
+        if (nodeId != null) {
+            return nodeId;
+        }
+        if (multiNode) {
+            // Mọi node cùng dùng node 0 sẽ sinh trùng mã → dừng khởi động thay vì chạy sai
+            throw new IllegalStateException("booking.reference.node-id must be configured when booking.reference.multi-node=true");
+        }
+        return 0;
+    }
+
+    /**
+     * Mã node 2 ký tự như trong mã booking (dùng để tìm mã lớn nhất của node trong DB)
+     */
+    static String nodeCode(int nodeId) {
+        char[] out = new char[2];
+        encode(nodeId, 2, out, 0);
+        return new String(out);
+    }
+
+    /**
+     * Đẩy mốc logic lên ít nhất bằng mốc của một mã đã phát hành (phần sau tiền tố, 13 ký tự)
+     */
+    synchronized void seed(String stampPart) {
+        if (stampPart == null || stampPart.length() != 13) {
+            return;
+        }
+        long epochDay = decode(stampPart, 0, 3);
+        long stamp = decode(stampPart, 5, 8);
+        if (epochDay < 0 || stamp < 0) {
+            return;
+        }
+        long millis = epochDay * MILLIS_PER_DAY + (stamp >>> SEQUENCE_BITS);
+        long seq = stamp & MAX_SEQUENCE;
+        if (millis > lastMillis || (millis == lastMillis && seq > sequence)) {
+            lastMillis = millis;
+            sequence = seq;
+            log.info("Booking reference generator for node {} seeded from {}", nodeId, stampPart);
+        }
+    }
+
+    public String next() {
+        return next(PREFIX);
+    }
+
+    /**
+     * Mã chung cho một đoàn đặt phòng, cùng cơ chế sinh nhưng tiền tố GB
+     */
+    public String nextGroup() {
+        return next(GROUP_PREFIX);
+    }
+
+    private String next(String prefix) {
+        long packed = nextPackedStamp();
+        long millis = packed >>> SEQUENCE_BITS;
+        long epochDay = millis / MILLIS_PER_DAY;
+        long stamp = ((millis % MILLIS_PER_DAY) << SEQUENCE_BITS) | (packed & MAX_SEQUENCE);
+
+        char[] out = new char[prefix.length() + 3 + 2 + 8];
+        prefix.getChars(0, prefix.length(), out, 0);
+        int pos = encode(epochDay, 3, out, prefix.length());
+        pos = encode(nodeId, 2, out, pos);
+        encode(stamp, 8, out, pos);
+        return new String(out);
+    }
+
+    /**
+     * Millisecond logic (không bao giờ giảm) dịch trái SEQUENCE_BITS bit cộng số thứ tự.
+     * Hết số thứ tự trong một millisecond thì "mượn" millisecond kế tiếp thay vì chờ.
+     */
+    private synchronized long nextPackedStamp() {
+        long now = currentTimeMillis();
+        if (now > lastMillis) {
+            lastMillis = now;
+            sequence = 0;
+        } else if (sequence < MAX_SEQUENCE) {
+            sequence++;
+        } else {
+            lastMillis++;
+            sequence = 0;
+        }
+        return (lastMillis << SEQUENCE_BITS) | sequence;
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static long decode(String text, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = Arrays.binarySearch(ALPHABET, text.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+
+    private static int encode(long value, int length, char[] out, int offset) {
+        for (int i = length - 1; i >= 0; i--) {
+            out[offset + i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return offset + length;
+    }
+}
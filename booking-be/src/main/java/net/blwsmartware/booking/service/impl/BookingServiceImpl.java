@@ -3,13 +3,20 @@ package net.blwsmartware.booking.service.impl;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.dto.request.AvailabilityBatchRequest;
 import net.blwsmartware.booking.dto.request.BookingCreateRequest;
 import net.blwsmartware.booking.dto.request.BookingUpdateRequest;
 import net.blwsmartware.booking.dto.request.CancellationRequest;
+import net.blwsmartware.booking.dto.request.GroupBookingCreateRequest;
+import net.blwsmartware.booking.dto.response.AvailabilityBatchResponse;
 import net.blwsmartware.booking.dto.response.BookingResponse;
 import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.dto.response.GroupBookingResponse;
 import net.blwsmartware.booking.dto.response.HostDashboardResponse;
+import net.blwsmartware.booking.dto.response.MonthAvailabilityResponse;
+import net.blwsmartware.booking.dto.response.VoucherResponse;
 import net.blwsmartware.booking.entity.Booking;
 import net.blwsmartware.booking.entity.Hotel;
 import net.blwsmartware.booking.entity.RoomType;
@@ -20,6 +27,7 @@ import net.blwsmartware.booking.exception.AppRuntimeException;
 import net.blwsmartware.booking.enums.ErrorResponse;
 import net.blwsmartware.booking.mapper.BookingMapper;
 import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelDailyRevenueRepository;
 import net.blwsmartware.booking.repository.HotelRepository;
 import net.blwsmartware.booking.repository.RoomTypeRepository;
 import net.blwsmartware.booking.repository.UserRepository;
@@ -27,14 +35,20 @@ import net.blwsmartware.booking.repository.VNPayTransactionRepository;
 import net.blwsmartware.booking.service.BookingService;
 import net.blwsmartware.booking.service.VoucherService;
 import net.blwsmartware.booking.service.WalletService;
+import net.blwsmartware.booking.service.RevenueRollupService;
 import net.blwsmartware.booking.service.RevenueService;
+import net.blwsmartware.booking.service.RoomInventoryService;
 import net.blwsmartware.booking.util.DataResponseUtils;
 import net.blwsmartware.booking.validator.IsAdmin;
 import net.blwsmartware.booking.validator.IsHost;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -43,10 +57,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.time.temporal.ChronoUnit;
 
@@ -58,6 +72,7 @@ public class BookingServiceImpl implements BookingService {
     
     BookingRepository bookingRepository;
     HotelRepository hotelRepository;
+    HotelDailyRevenueRepository hotelDailyRevenueRepository;
     RoomTypeRepository roomTypeRepository;
     UserRepository userRepository;
     VNPayTransactionRepository vnPayTransactionRepository;
@@ -65,6 +80,20 @@ public class BookingServiceImpl implements BookingService {
     VoucherService voucherService;
     WalletService walletService;
     RevenueService revenueService;
+    RevenueRollupService revenueRollupService;
+    RoomInventoryService roomInventoryService;
+    BookingHoldQueue bookingHoldQueue;
+    BookingReferenceGenerator bookingReferenceGenerator;
+    
+    static final int MAX_CALENDAR_DAYS = 62;
+    // Cột sắp xếp không null mới dùng được cho keyset pagination
+    static final Set<String> CURSOR_SORT_FIELDS = Set.of("createdAt", "checkInDate");
+    // Chỉ booking thanh toán online mới giữ phòng có thời hạn; trả tiền tại khách sạn (CASH_ON_CHECKIN) thì không
+    static final Set<String> ONLINE_PAYMENT_METHODS = Set.of("VNPAY");
+    
+    @Value("${booking.hold.ttl-minutes:20}")
+    @NonFinal
+    long holdTtlMinutes;
     
     // ===== GUEST OPERATIONS =====
     
@@ -98,15 +127,9 @@ public class BookingServiceImpl implements BookingService {
         validateGuestCount(request.getGuests(), roomType.getMaxOccupancy());
         
         // 7. Enhanced room availability check with conflict detection
-        validateRoomAvailability(request.getRoomTypeId(), request.getCheckInDate(), request.getCheckOutDate());
-        
-        // 8. Kiểm tra availableRooms trước khi book
-        if (roomType.getAvailableRooms() <= 0) {
-            log.warn("Cannot create booking - no available rooms for roomType: {}", roomType.getId());
-            throw new AppRuntimeException(ErrorResponse.NO_ROOMS_AVAILABLE);
-        }
+        validateRoomAvailability(roomType, request.getCheckInDate(), request.getCheckOutDate());
         
-        // 9. Create booking entity with authenticated user info
+        // 8. Create booking entity with authenticated user info
         Booking booking = bookingMapper.toEntity(request);
         booking.setHotel(hotel);
         booking.setRoomType(roomType);
@@ -120,21 +143,23 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(BookingStatus.PENDING);
         booking.setPaymentStatus(PaymentStatus.PENDING);
         booking.setBookingReference(generateBookingReference());
+        booking.setCommissionRateAtBooking(hotel.getCommissionRate());
+        booking.setHoldExpiresAt(newHoldExpiry(booking.getPaymentMethod()));
         
         if (currentUser != null) {
             booking.setCreatedBy(currentUser.getId());
         }
         
-        // 10. Cập nhật số lượng phòng có sẵn (giảm 1 phòng)
-        roomType.setAvailableRooms(roomType.getAvailableRooms() - 1);
-        roomTypeRepository.save(roomType);
-        log.info("Room availability updated for roomType {}: {} -> {}", 
-                roomType.getId(), roomType.getAvailableRooms() + 1, roomType.getAvailableRooms());
-        
-        // 11. Save booking
+        // 9. Save booking
         booking = bookingRepository.save(booking);
         
-        // 12. Apply voucher if provided
+        // 10. Giữ phòng trên sổ tồn kho theo đêm (UPDATE có điều kiện, hết phòng → rollback)
+        roomInventoryService.reserve(booking, booking.getCheckInDate(), booking.getCheckOutDate());
+        if (booking.getHoldExpiresAt() != null) {
+            bookingHoldQueue.schedule(booking.getId(), booking.getHoldExpiresAt());
+        }
+        
+        // 11. Apply voucher if provided
         if (request.getVoucherCode() != null && !request.getVoucherCode().trim().isEmpty()) {
             try {
                 log.info("Applying voucher {} to booking {}", request.getVoucherCode(), booking.getId());
@@ -160,6 +185,111 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.toResponse(booking);
     }
     
+    @Override
+    @Transactional
+    public GroupBookingResponse createGroupBooking(GroupBookingCreateRequest request) {
+        log.info("Creating group booking for hotel: {} with {} room lines", request.getHotelId(), request.getRooms().size());
+        
+        User currentUser = getCurrentUserRequired();
+        validateBookingDates(request.getCheckInDate(), request.getCheckOutDate());
+        
+        Hotel hotel = getHotelById(request.getHotelId());
+        if (!hotel.isActive()) {
+            log.warn("Attempt to group-book inactive hotel: {} (ID: {})", hotel.getName(), hotel.getId());
+            throw new AppRuntimeException(ErrorResponse.HOTEL_NOT_AVAILABLE);
+        }
+        
+        // 1. Nạp tất cả loại phòng trong một query và kiểm tra từng dòng
+        Set<UUID> roomTypeIds = new HashSet<>();
+        request.getRooms().forEach(line -> roomTypeIds.add(line.getRoomTypeId()));
+        Map<UUID, RoomType> roomTypes = new HashMap<>();
+        for (RoomType roomType : roomTypeRepository.findAllById(roomTypeIds)) {
+            roomTypes.put(roomType.getId(), roomType);
+        }
+        
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (GroupBookingCreateRequest.RoomLine line : request.getRooms()) {
+            RoomType roomType = roomTypes.get(line.getRoomTypeId());
+            if (roomType == null || !roomType.getHotel().getId().equals(hotel.getId())) {
+                throw new AppRuntimeException(ErrorResponse.ROOM_TYPE_NOT_FOUND);
+            }
+            validateGuestCount(line.getGuestsPerRoom(), roomType.getMaxOccupancy());
+            quantities.merge(roomType.getId(), line.getQuantity(), Integer::sum);
+        }
+        
+        // 2. Giữ phòng cho cả đoàn: mỗi loại phòng một UPDATE có điều kiện, thiếu phòng → rollback tất cả
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            RoomType roomType = roomTypes.get(entry.getKey());
+            roomInventoryService.reserveRooms(roomType, request.getCheckInDate(), request.getCheckOutDate(),
+                    entry.getValue());
+        }
+        
+        // 3. Tạo các booking và lưu bằng JDBC batch insert
+        long nights = ChronoUnit.DAYS.between(request.getCheckInDate(), request.getCheckOutDate());
+        String groupReference = bookingReferenceGenerator.nextGroup();
+        LocalDateTime holdExpiresAt = newHoldExpiry(request.getPaymentMethod());
+        BigDecimal subtotal = BigDecimal.ZERO;
+        
+        List<Booking> bookings = new ArrayList<>();
+        for (GroupBookingCreateRequest.RoomLine line : request.getRooms()) {
+            RoomType roomType = roomTypes.get(line.getRoomTypeId());
+            BigDecimal amount = roomType.getPricePerNight().multiply(BigDecimal.valueOf(nights));
+            for (int i = 0; i < line.getQuantity(); i++) {
+                bookings.add(Booking.builder()
+                        .hotel(hotel)
+                        .roomType(roomType)
+                        .user(currentUser)
+                        .guestName(currentUser.getName())
+                        .guestEmail(currentUser.getEmail())
+                        .guestPhone(currentUser.getTel())
+                        .checkInDate(request.getCheckInDate())
+                        .checkOutDate(request.getCheckOutDate())
+                        .guests(line.getGuestsPerRoom())
+                        .totalAmount(amount)
+                        .commissionRateAtBooking(hotel.getCommissionRate())
+                        .status(BookingStatus.PENDING)
+                        .paymentStatus(PaymentStatus.PENDING)
+                        .paymentMethod(request.getPaymentMethod())
+                        .specialRequests(request.getSpecialRequests())
+                        .bookingReference(bookingReferenceGenerator.next())
+                        .groupReference(groupReference)
+                        .holdExpiresAt(holdExpiresAt)
+                        .createdBy(currentUser.getId())
+                        .build());
+                subtotal = subtotal.add(amount);
+            }
+        }
+        bookings = bookingRepository.saveAll(bookings);
+        
+        // 4. Voucher chỉ áp dụng một lần cho cả đoàn (gắn với mã đoàn); voucher lỗi → rollback toàn bộ đoàn
+        BigDecimal discount = BigDecimal.ZERO;
+        if (request.getVoucherCode() != null && !request.getVoucherCode().trim().isEmpty()) {
+            VoucherResponse voucher = voucherService.applyGroupVoucher(request.getVoucherCode(), currentUser.getId(),
+                    groupReference, bookings.get(0).getId(), subtotal, hotel.getId());
+            discount = voucherService.calculateDiscount(voucher.getId(), subtotal);
+            distributeDiscount(bookings, subtotal, discount);
+        }
+        
+        // Một hold cho cả đoàn: expireHolds hủy mọi booking cùng mã đoàn khi hold hết hạn
+        if (holdExpiresAt != null) {
+            bookingHoldQueue.schedule(bookings.get(0).getId(), holdExpiresAt);
+        }
+        
+        log.info("Group booking {} created with {} rooms for hotel {}", groupReference, bookings.size(), hotel.getId());
+        
+        return GroupBookingResponse.builder()
+                .groupReference(groupReference)
+                .hotelId(hotel.getId())
+                .checkInDate(request.getCheckInDate())
+                .checkOutDate(request.getCheckOutDate())
+                .totalRooms(bookings.size())
+                .subtotalAmount(subtotal)
+                .discountAmount(discount)
+                .totalAmount(subtotal.subtract(discount))
+                .bookings(bookings.stream().map(bookingMapper::toResponse).toList())
+                .build();
+    }
+    
     @Override
     public DataResponse<BookingResponse> getMyBookings(Integer pageNumber, Integer pageSize, String sortBy) {
         log.info("Getting user bookings");
@@ -214,6 +344,9 @@ public class BookingServiceImpl implements BookingService {
             }
         }
         
+        LocalDate oldCheckInDate = booking.getCheckInDate();
+        LocalDate oldCheckOutDate = booking.getCheckOutDate();
+        
         // Validate guest count if provided
         if (request.getGuests() != null && request.getGuests() > booking.getRoomType().getMaxOccupancy()) {
             throw new AppRuntimeException(ErrorResponse.INVALID_GUEST_COUNT);
@@ -228,6 +361,9 @@ public class BookingServiceImpl implements BookingService {
         if (request.getGuests() != null) booking.setGuests(request.getGuests());
         if (request.getSpecialRequests() != null) booking.setSpecialRequests(request.getSpecialRequests());
         
+        // Chuyển phòng đang giữ sang các đêm mới nếu đổi ngày
+        handleRoomAvailabilityChange(booking, BookingStatus.PENDING, oldCheckInDate, oldCheckOutDate);
+        
         booking.setUpdatedBy(currentUser.getId());
         booking = bookingRepository.save(booking);
         
@@ -255,7 +391,8 @@ public class BookingServiceImpl implements BookingService {
             throw new AppRuntimeException(ErrorResponse.BOOKING_CANNOT_BE_CANCELLED);
         }
         
-        // Store original payment status for refund logic
+        // Store original status/payment status for room release and refund logic
+        BookingStatus oldStatus = booking.getStatus();
         PaymentStatus originalPaymentStatus = booking.getPaymentStatus();
         
         // Update booking status to cancelled by guest
@@ -301,9 +438,7 @@ public class BookingServiceImpl implements BookingService {
         }
         
         // Restore room availability when booking is cancelled
-        RoomType roomType = booking.getRoomType();
-        roomType.setAvailableRooms(roomType.getAvailableRooms() + 1);
-        roomTypeRepository.save(roomType);
+        handleRoomAvailabilityOnStatusChange(booking, oldStatus);
         
         booking.setUpdatedBy(currentUser.getId());
         booking = bookingRepository.save(booking);
@@ -368,23 +503,62 @@ public class BookingServiceImpl implements BookingService {
     }
     
     /**
-     * Enhanced room availability validation with conflict detection
+     * Chia tiền giảm giá của đoàn theo tỷ lệ giá trị từng booking (làm tròn xuống tới đồng xu),
+     * phần dư do làm tròn dồn vào booking cuối để tổng giảm đúng bằng discount
+     */
+    private void distributeDiscount(List<Booking> bookings, BigDecimal subtotal, BigDecimal discount) {
+        if (discount.signum() <= 0 || subtotal.signum() <= 0) {
+            return;
+        }
+        BigDecimal remaining = discount.min(subtotal);
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            BigDecimal share = i == bookings.size() - 1
+                    ? remaining
+                    : discount.multiply(booking.getTotalAmount()).divide(subtotal, 2, RoundingMode.DOWN);
+            share = share.min(booking.getTotalAmount());
+            booking.setTotalAmount(booking.getTotalAmount().subtract(share));
+            remaining = remaining.subtract(share);
+        }
+    }
+    
+    /**
+     * Thêm các booking cùng đoàn để hold của đoàn hết hạn cùng lúc
      */
-    private void validateRoomAvailability(UUID roomTypeId, LocalDate checkInDate, LocalDate checkOutDate) {
-        // Check basic availability using the comprehensive isRoomAvailable method
-        if (!isRoomAvailable(roomTypeId, checkInDate, checkOutDate)) {
+    private List<Booking> withGroupMembers(List<Booking> bookings) {
+        Set<String> groupReferences = new HashSet<>();
+        for (Booking booking : bookings) {
+            if (booking.getGroupReference() != null) {
+                groupReferences.add(booking.getGroupReference());
+            }
+        }
+        if (groupReferences.isEmpty()) {
+            return bookings;
+        }
+        Map<UUID, Booking> byId = new LinkedHashMap<>();
+        bookings.forEach(booking -> byId.put(booking.getId(), booking));
+        bookingRepository.findByGroupReferenceIn(groupReferences).forEach(member -> byId.putIfAbsent(member.getId(), member));
+        return new ArrayList<>(byId.values());
+    }
+    
+    /**
+     * Enhanced room availability validation with conflict detection.
+     * Lúc đặt phòng luôn đọc sổ tồn kho trong DB, không dùng lịch phòng trong bộ nhớ: lịch của instance này
+     * có thể cũ (instance khác vừa giữ/trả phòng) và không được phép từ chối nhầm booking hợp lệ.
+     */
+    private void validateRoomAvailability(RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (roomInventoryService.getRemainingRooms(roomType, checkInDate, checkOutDate, null) <= 0) {
             throw new AppRuntimeException(ErrorResponse.NO_ROOMS_AVAILABLE);
         }
         
         // Additional validation: Check for maintenance periods (if implemented)
-        if (isRoomUnderMaintenance(roomTypeId, checkInDate, checkOutDate)) {
+        if (isRoomUnderMaintenance(roomType.getId(), checkInDate, checkOutDate)) {
             throw new AppRuntimeException(ErrorResponse.ROOM_UNDER_MAINTENANCE);
         }
         
-        // Note: Conflict detection is already handled in isRoomAvailable() method
-        // which properly considers totalRooms vs conflicting bookings
+        // Kiểm tra này chỉ để báo lỗi sớm; quyết định cuối cùng là UPDATE có điều kiện trong reserve()
         log.info("Room availability validated successfully for roomType {} between {} and {}", 
-                roomTypeId, checkInDate, checkOutDate);
+                roomType.getId(), checkInDate, checkOutDate);
     }
     
     /**
@@ -396,6 +570,15 @@ public class BookingServiceImpl implements BookingService {
         return false;
     }
     
+    /**
+     * Hạn giữ phòng cho booking mới: chỉ phương thức thanh toán online, null nếu trả tiền tại khách sạn
+     */
+    private LocalDateTime newHoldExpiry(String paymentMethod) {
+        return paymentMethod != null && ONLINE_PAYMENT_METHODS.contains(paymentMethod.trim().toUpperCase())
+                ? LocalDateTime.now().plusMinutes(holdTtlMinutes)
+                : null;
+    }
+    
     private Hotel getHotelById(UUID hotelId) {
         return hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new AppRuntimeException(ErrorResponse.HOTEL_NOT_FOUND));
@@ -512,15 +695,22 @@ public class BookingServiceImpl implements BookingService {
     }
     
     /**
-     * Xử lý cập nhật availableRooms khi thay đổi trạng thái booking
+     * Xử lý sổ tồn kho khi thay đổi trạng thái booking (ngày không đổi).
+     * booking phải mang trạng thái mới.
      */
-    private void handleRoomAvailabilityOnStatusChange(Booking booking, BookingStatus oldStatus, BookingStatus newStatus) {
+    private void handleRoomAvailabilityOnStatusChange(Booking booking, BookingStatus oldStatus) {
         log.info("Handling room availability change for booking {}: {} -> {}", 
-                booking.getId(), oldStatus, newStatus);
-        
-        RoomType roomType = booking.getRoomType();
-        boolean shouldReleaseRoom = false;
-        boolean shouldReserveRoom = false;
+                booking.getId(), oldStatus, booking.getStatus());
+        handleRoomAvailabilityChange(booking, oldStatus, booking.getCheckInDate(), booking.getCheckOutDate());
+    }
+    
+    /**
+     * Xử lý sổ tồn kho khi booking thay đổi trạng thái và/hoặc ngày ở.
+     * booking phải mang trạng thái và ngày mới; oldStatus, oldCheckInDate, oldCheckOutDate là giá trị trước thay đổi.
+     */
+    private void handleRoomAvailabilityChange(Booking booking, BookingStatus oldStatus,
+                                              LocalDate oldCheckInDate, LocalDate oldCheckOutDate) {
+        BookingStatus newStatus = booking.getStatus();
         
         // Logic xử lý dựa trên trạng thái cũ và mới
         // Các trạng thái "đã sử dụng phòng": PENDING, CONFIRMED
@@ -528,34 +718,26 @@ public class BookingServiceImpl implements BookingService {
         
         boolean oldStatusUsesRoom = isStatusUsingRoom(oldStatus);
         boolean newStatusUsesRoom = isStatusUsingRoom(newStatus);
+        boolean datesChanged = !oldCheckInDate.equals(booking.getCheckInDate())
+                || !oldCheckOutDate.equals(booking.getCheckOutDate());
+        
+        if (newStatusUsesRoom && (datesChanged || !oldStatusUsesRoom)
+                && !booking.getCheckOutDate().isAfter(booking.getCheckInDate())) {
+            throw new AppRuntimeException(ErrorResponse.INVALID_BOOKING_DATES);
+        }
         
         if (oldStatusUsesRoom && !newStatusUsesRoom) {
             // Chuyển từ "đang dùng phòng" sang "không dùng phòng" → Release room
-            shouldReleaseRoom = true;
+            roomInventoryService.release(booking, oldCheckInDate, oldCheckOutDate);
+            log.info("Room released for booking status change {}: {} -> {}", booking.getId(), oldStatus, newStatus);
         } else if (!oldStatusUsesRoom && newStatusUsesRoom) {
             // Chuyển từ "không dùng phòng" sang "đang dùng phòng" → Reserve room
-            shouldReserveRoom = true;
-        }
-        
-        if (shouldReleaseRoom) {
-            if (roomType.getAvailableRooms() < roomType.getTotalRooms()) {
-                roomType.setAvailableRooms(roomType.getAvailableRooms() + 1);
-                roomTypeRepository.save(roomType);
-                log.info("Room released for booking status change {}: {} -> {} (availability: {} -> {})", 
-                        booking.getId(), oldStatus, newStatus, 
-                        roomType.getAvailableRooms() - 1, roomType.getAvailableRooms());
-            }
-        } else if (shouldReserveRoom) {
-            if (roomType.getAvailableRooms() > 0) {
-                roomType.setAvailableRooms(roomType.getAvailableRooms() - 1);
-                roomTypeRepository.save(roomType);
-                log.info("Room reserved for booking status change {}: {} -> {} (availability: {} -> {})", 
-                        booking.getId(), oldStatus, newStatus, 
-                        roomType.getAvailableRooms() + 1, roomType.getAvailableRooms());
-            } else {
-                log.warn("Cannot reserve room for booking {}: no available rooms", booking.getId());
-                throw new AppRuntimeException(ErrorResponse.NO_ROOMS_AVAILABLE);
-            }
+            roomInventoryService.reserve(booking, booking.getCheckInDate(), booking.getCheckOutDate());
+            log.info("Room reserved for booking status change {}: {} -> {}", booking.getId(), oldStatus, newStatus);
+        } else if (oldStatusUsesRoom && datesChanged) {
+            // Vẫn giữ phòng nhưng đổi ngày → chuyển các đêm đang giữ
+            roomInventoryService.move(booking, oldCheckInDate, oldCheckOutDate,
+                    booking.getCheckInDate(), booking.getCheckOutDate());
         }
     }
     
@@ -573,41 +755,201 @@ public class BookingServiceImpl implements BookingService {
     
     @Override
     public boolean isRoomAvailable(UUID roomTypeId, LocalDate checkInDate, LocalDate checkOutDate, UUID excludeBookingId) {
+        // Trả lời từ lịch phòng trong bộ nhớ khi có thể (không truy vấn DB)
+        if (excludeBookingId == null) {
+            int cachedRemaining = roomInventoryService.getCachedRemainingRooms(roomTypeId, checkInDate, checkOutDate);
+            if (cachedRemaining >= 0) {
+                return cachedRemaining > 0;
+            }
+        }
+        
         RoomType roomType = getRoomTypeById(roomTypeId);
         
-        // Kiểm tra availableRooms trước (nhanh hơn)
-        if (roomType.getAvailableRooms() <= 0) {
-            return false;
+        // Booking đang được đổi ngày: phòng nó đang giữ được tính là còn trống
+        Booking excludedBooking = null;
+        if (excludeBookingId != null) {
+            excludedBooking = bookingRepository.findById(excludeBookingId)
+                    .filter(b -> b.getRoomType().getId().equals(roomTypeId))
+                    .filter(b -> isStatusUsingRoom(b.getStatus()))
+                    .orElse(null);
         }
         
-        // Kiểm tra conflict với bookings existing (đảm bảo accuracy)
-        Long conflictingBookings;
-        if (excludeBookingId != null) {
-            conflictingBookings = bookingRepository.countConflictingBookingsExcluding(
-                    roomTypeId, checkInDate, checkOutDate, excludeBookingId);
-        } else {
-            conflictingBookings = bookingRepository.countConflictingBookings(
-                    roomTypeId, checkInDate, checkOutDate);
+        // Đọc sổ tồn kho theo đêm thay vì đếm conflict trên toàn bảng bookings
+        return roomInventoryService.getRemainingRooms(roomType, checkInDate, checkOutDate, excludedBooking) > 0;
+    }
+    
+    @Override
+    public AvailabilityBatchResponse checkAvailabilityBatch(AvailabilityBatchRequest request) {
+        UUID hotelId = request.getHotelId();
+        
+        // Lấy tất cả RoomType của khách sạn một lần cho cả batch
+        List<RoomType> roomTypes = roomTypeRepository.findByHotelId(hotelId);
+        if (roomTypes.isEmpty() && !hotelRepository.existsById(hotelId)) {
+            throw new AppRuntimeException(ErrorResponse.HOTEL_NOT_FOUND);
         }
         
-        return conflictingBookings < roomType.getTotalRooms();
+        // Fallback về query gộp theo khách sạn, chỉ chạy 1 lần cho mỗi khoảng ngày khác nhau
+        Map<String, Map<UUID, Long>> bookedCountsByRange = new HashMap<>();
+        List<AvailabilityBatchResponse.RangeAvailability> results = new ArrayList<>();
+        
+        for (AvailabilityBatchRequest.RangeQuery query : request.getQueries()) {
+            LocalDate checkInDate = query.getCheckInDate();
+            LocalDate checkOutDate = query.getCheckOutDate();
+            if (!checkOutDate.isAfter(checkInDate)) {
+                throw new AppRuntimeException(ErrorResponse.INVALID_BOOKING_DATES);
+            }
+            
+            List<AvailabilityBatchResponse.RoomTypeAvailability> items = new ArrayList<>();
+            for (RoomType roomType : roomTypes) {
+                if (query.getRoomTypeId() != null && !query.getRoomTypeId().equals(roomType.getId())) {
+                    continue;
+                }
+                
+                int totalRooms = roomType.getTotalRooms() != null ? roomType.getTotalRooms() : 0;
+                int remaining = roomInventoryService.getCachedRemainingRooms(roomType.getId(), checkInDate, checkOutDate);
+                if (remaining < 0) {
+                    Map<UUID, Long> bookedCounts = bookedCountsByRange.computeIfAbsent(
+                            checkInDate + "_" + checkOutDate,
+                            key -> toBookedCountMap(bookingRepository.countActiveBookingsByHotelAndDateRange(
+                                    hotelId, checkInDate, checkOutDate)));
+                    remaining = (int) Math.max(totalRooms - bookedCounts.getOrDefault(roomType.getId(), 0L), 0);
+                }
+                
+                items.add(AvailabilityBatchResponse.RoomTypeAvailability.builder()
+                        .roomTypeId(roomType.getId())
+                        .roomTypeName(roomType.getName())
+                        .totalRooms(totalRooms)
+                        .remainingRooms(remaining)
+                        .available(remaining > 0)
+                        .build());
+            }
+            
+            if (query.getRoomTypeId() != null && items.isEmpty()) {
+                throw new AppRuntimeException(ErrorResponse.ROOM_TYPE_NOT_FOUND);
+            }
+            
+            results.add(AvailabilityBatchResponse.RangeAvailability.builder()
+                    .roomTypeId(query.getRoomTypeId())
+                    .checkInDate(checkInDate)
+                    .checkOutDate(checkOutDate)
+                    .roomTypes(items)
+                    .build());
+        }
+        
+        return AvailabilityBatchResponse.builder()
+                .hotelId(hotelId)
+                .results(results)
+                .build();
     }
     
     @Override
-    public String generateBookingReference() {
-        String prefix = "BK";
-        String datePart = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String randomPart = String.format("%04d", new Random().nextInt(10000));
+    @Transactional
+    public int expireHolds(List<UUID> bookingIds) {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        
+        for (Booking booking : withGroupMembers(bookingRepository.findAllById(bookingIds))) {
+            if (booking.getStatus() != BookingStatus.PENDING
+                    || booking.getHoldExpiresAt() == null
+                    || booking.getHoldExpiresAt().isAfter(now)) {
+                continue;
+            }
+            
+            PaymentStatus currentPaymentStatus = booking.getPaymentStatus();
+            PaymentStatus newPaymentStatus;
+            if (currentPaymentStatus == PaymentStatus.PENDING) {
+                newPaymentStatus = PaymentStatus.NO_PAYMENT;
+            } else if (currentPaymentStatus == PaymentStatus.FAILED) {
+                newPaymentStatus = PaymentStatus.CANCELLED;
+            } else {
+                continue;
+            }
+            
+            // UPDATE có điều kiện: bỏ qua nếu booking vừa được thanh toán/xác nhận ở transaction khác
+            int updated = bookingRepository.expireHold(booking.getId(), currentPaymentStatus, newPaymentStatus,
+                    BookingStatus.CANCELLED, "Payment hold expired", now);
+            if (updated == 0) {
+                continue;
+            }
+            
+            roomInventoryService.release(booking, booking.getCheckInDate(), booking.getCheckOutDate());
+            expired++;
+        }
+        
+        log.info("Expired {}/{} booking holds", expired, bookingIds.size());
+        return expired;
+    }
+    
+    @Override
+    public MonthAvailabilityResponse getMonthAvailability(UUID hotelId, LocalDate startDate, int days) {
+        if (days <= 0 || days > MAX_CALENDAR_DAYS) {
+            throw new AppRuntimeException(ErrorResponse.INVALID_BOOKING_DATES);
+        }
         
-        String reference = prefix + datePart + randomPart;
+        List<RoomType> roomTypes = roomTypeRepository.findByHotelId(hotelId);
+        if (roomTypes.isEmpty() && !hotelRepository.existsById(hotelId)) {
+            throw new AppRuntimeException(ErrorResponse.HOTEL_NOT_FOUND);
+        }
+        
+        LocalDate endDate = startDate.plusDays(days);
+        
+        // Sweep-line: +1 tại đêm check-in, -1 tại ngày check-out (cắt theo cửa sổ), cộng dồn ra số phòng đã giữ
+        Map<UUID, int[]> deltas = new HashMap<>();
+        for (RoomType roomType : roomTypes) {
+            deltas.put(roomType.getId(), new int[days + 1]);
+        }
+        for (Object[] row : bookingRepository.findActiveStayRangesByHotel(hotelId, startDate, endDate)) {
+            int[] delta = deltas.get((UUID) row[0]);
+            if (delta == null) {
+                continue;
+            }
+            long from = Math.max(0, ChronoUnit.DAYS.between(startDate, (LocalDate) row[1]));
+            long to = Math.min(days, ChronoUnit.DAYS.between(startDate, (LocalDate) row[2]));
+            delta[(int) from]++;
+            delta[(int) to]--;
+        }
         
-        // Ensure uniqueness
-        while (bookingRepository.existsByBookingReference(reference)) {
-            randomPart = String.format("%04d", new Random().nextInt(10000));
-            reference = prefix + datePart + randomPart;
+        List<MonthAvailabilityResponse.RoomTypeNights> items = new ArrayList<>(roomTypes.size());
+        for (RoomType roomType : roomTypes) {
+            int totalRooms = roomType.getTotalRooms() != null ? roomType.getTotalRooms() : 0;
+            int[] delta = deltas.get(roomType.getId());
+            int[] remaining = new int[days];
+            int booked = 0;
+            for (int i = 0; i < days; i++) {
+                booked += delta[i];
+                remaining[i] = Math.max(0, totalRooms - booked);
+            }
+            items.add(MonthAvailabilityResponse.RoomTypeNights.builder()
+                    .roomTypeId(roomType.getId())
+                    .roomTypeName(roomType.getName())
+                    .totalRooms(totalRooms)
+                    .remaining(remaining)
+                    .build());
         }
         
-        return reference;
+        return MonthAvailabilityResponse.builder()
+                .hotelId(hotelId)
+                .startDate(startDate)
+                .days(days)
+                .roomTypes(items)
+                .build();
+    }
+    
+    /**
+     * Chuyển kết quả [roomTypeId, count] của query gộp thành map
+     */
+    private Map<UUID, Long> toBookedCountMap(List<Object[]> rows) {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((UUID) row[0], row[1] != null ? (Long) row[1] : 0L);
+        }
+        return counts;
+    }
+    
+    @Override
+    public String generateBookingReference() {
+        // Mã sinh theo node + mốc thời gian (seed từ DB lúc khởi động) nên duy nhất, không cần kiểm tra trùng mỗi lần
+        return bookingReferenceGenerator.next();
     }
     
     // ===== HOST OPERATIONS =====
@@ -667,17 +1009,17 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findByIdAndHotelOwnerId(bookingId, currentUser.getId())
                 .orElseThrow(() -> new AppRuntimeException(ErrorResponse.BOOKING_NOT_FOUND));
         
-        // Lưu status cũ để so sánh
+        // Lưu status và ngày cũ để so sánh
         BookingStatus oldStatus = booking.getStatus();
+        LocalDate oldCheckInDate = booking.getCheckInDate();
+        LocalDate oldCheckOutDate = booking.getCheckOutDate();
         
         // Host can update more fields than regular users
         bookingMapper.updateEntity(booking, request);
         booking.setUpdatedBy(currentUser.getId());
         
-        // Xử lý cập nhật availableRooms khi thay đổi status
-        if (request.getStatus() != null && !oldStatus.equals(request.getStatus())) {
-            handleRoomAvailabilityOnStatusChange(booking, oldStatus, request.getStatus());
-        }
+        // Xử lý sổ tồn kho khi thay đổi status và/hoặc ngày ở
+        handleRoomAvailabilityChange(booking, oldStatus, oldCheckInDate, oldCheckOutDate);
         
         booking = bookingRepository.save(booking);
         
@@ -704,6 +1046,7 @@ public class BookingServiceImpl implements BookingService {
         }
         
         booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setHoldExpiresAt(null); // Host đã xác nhận → không tự động hủy nữa
         booking.setUpdatedBy(currentUser.getId());
         booking = bookingRepository.save(booking);
         
@@ -733,7 +1076,8 @@ public class BookingServiceImpl implements BookingService {
             throw new AppRuntimeException(ErrorResponse.BOOKING_CANNOT_BE_CANCELLED);
         }
 
-        // Store original payment status for refund logic
+        // Store original status/payment status for room release and refund logic
+        BookingStatus oldStatus = booking.getStatus();
         PaymentStatus originalPaymentStatus = booking.getPaymentStatus();
         
         // Update booking status to cancelled by host
@@ -780,9 +1124,7 @@ public class BookingServiceImpl implements BookingService {
         }
         
         // Restore room availability when booking is cancelled
-        RoomType roomType = booking.getRoomType();
-        roomType.setAvailableRooms(roomType.getAvailableRooms() + 1);
-        roomTypeRepository.save(roomType);
+        handleRoomAvailabilityOnStatusChange(booking, oldStatus);
         
         booking.setUpdatedBy(currentUser.getId());
         booking = bookingRepository.save(booking);
@@ -830,7 +1172,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setUpdatedAt(LocalDateTime.now());
         
         // Xử lý cập nhật availableRooms khi complete booking (khách trả phòng)
-        handleRoomAvailabilityOnStatusChange(booking, oldStatus, BookingStatus.COMPLETED);
+        handleRoomAvailabilityOnStatusChange(booking, oldStatus);
         
         booking = bookingRepository.save(booking);
         
@@ -877,6 +1219,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setPaymentStatus(PaymentStatus.PAID);
         booking.setUpdatedAt(LocalDateTime.now());
         booking = bookingRepository.save(booking);
+        revenueRollupService.refresh(booking);
         
         log.info("Successfully confirmed payment for booking: {}", bookingId);
         return bookingMapper.toResponse(booking);
@@ -905,6 +1248,9 @@ public class BookingServiceImpl implements BookingService {
             throw new AppRuntimeException(ErrorResponse.BOOKING_CANNOT_BE_CANCELLED);
         }
         
+        BookingStatus oldStatus = booking.getStatus();
+        boolean wasPaid = booking.getPaymentStatus() == PaymentStatus.PAID;
+        
         // Process refund if payment was made
         if (booking.getPaymentStatus() == PaymentStatus.PAID && booking.getUser() != null) {
             if (request.getRefundAmount() != null && request.getRefundAmount().compareTo(BigDecimal.ZERO) > 0) {
@@ -954,12 +1300,15 @@ public class BookingServiceImpl implements BookingService {
         booking.setUpdatedBy(currentUser.getId());
         
         // Restore room availability
-        RoomType roomType = booking.getRoomType();
-        roomType.setAvailableRooms(roomType.getAvailableRooms() + 1);
-        roomTypeRepository.save(roomType);
+        handleRoomAvailabilityOnStatusChange(booking, oldStatus);
         
         booking = bookingRepository.save(booking);
         
+        // Hủy không hoàn tiền không đi qua revertHotelRevenue → tự tính lại bảng tổng hợp doanh thu
+        if (wasPaid && booking.getPaymentStatus() == PaymentStatus.CANCELLED) {
+            revenueRollupService.refresh(booking);
+        }
+        
         // Revert commission based on refund amount or full amount if no refund specified
         if (booking.getPaymentStatus() == PaymentStatus.PAID || 
             booking.getPaymentStatus() == PaymentStatus.REFUNDED ||
@@ -1041,6 +1390,37 @@ public class BookingServiceImpl implements BookingService {
         return DataResponseUtils.convertPageInfo(bookingPage, bookingResponses);
     }
     
+    @Override
+    @IsAdmin
+    public DataResponse<BookingResponse> getAllBookingsAfter(String status, String paymentStatus,
+                                                             String after, Integer pageSize, String sortBy) {
+        if (!CURSOR_SORT_FIELDS.contains(sortBy)) {
+            throw new AppRuntimeException(ErrorResponse.CURSOR_INVALID);
+        }
+        Sort sort = Sort.by(Sort.Direction.DESC, sortBy, "id");
+        ScrollPosition position = DataResponseUtils.decodeCursor(after, Set.of(sortBy, "id"));
+        Limit limit = Limit.of(pageSize);
+        
+        Window<Booking> window;
+        if (status != null && paymentStatus != null) {
+            window = bookingRepository.findByStatusAndPaymentStatus(BookingStatus.valueOf(status.toUpperCase()),
+                    PaymentStatus.valueOf(paymentStatus.toUpperCase()), position, sort, limit);
+        } else if (status != null) {
+            window = bookingRepository.findByStatus(BookingStatus.valueOf(status.toUpperCase()), position, sort, limit);
+        } else if (paymentStatus != null) {
+            window = bookingRepository.findByPaymentStatus(PaymentStatus.valueOf(paymentStatus.toUpperCase()),
+                    position, sort, limit);
+        } else {
+            window = bookingRepository.findAllBy(position, sort, limit);
+        }
+        
+        List<BookingResponse> bookingResponses = window.getContent().stream()
+                .map(bookingMapper::toResponse)
+                .toList();
+        
+        return DataResponseUtils.convertWindowInfo(window, pageSize, bookingResponses);
+    }
+    
     @Override
     @IsAdmin
     public BookingResponse getBookingById(UUID bookingId) {
@@ -1063,16 +1443,16 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new AppRuntimeException(ErrorResponse.BOOKING_NOT_FOUND));
         
-        // Lưu status cũ để so sánh (Admin có thể thay đổi status)
+        // Lưu status và ngày cũ để so sánh (Admin có thể thay đổi status và ngày)
         BookingStatus oldStatus = booking.getStatus();
+        LocalDate oldCheckInDate = booking.getCheckInDate();
+        LocalDate oldCheckOutDate = booking.getCheckOutDate();
         
         bookingMapper.updateEntity(booking, request);
         booking.setUpdatedBy(currentUser.getId());
         
-        // Xử lý cập nhật availableRooms khi Admin thay đổi status
-        if (request.getStatus() != null && !oldStatus.equals(request.getStatus())) {
-            handleRoomAvailabilityOnStatusChange(booking, oldStatus, request.getStatus());
-        }
+        // Xử lý sổ tồn kho khi Admin thay đổi status và/hoặc ngày ở
+        handleRoomAvailabilityChange(booking, oldStatus, oldCheckInDate, oldCheckOutDate);
         
         booking = bookingRepository.save(booking);
         
@@ -1088,15 +1468,10 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new AppRuntimeException(ErrorResponse.BOOKING_NOT_FOUND));
         
-        // Cập nhật availableRooms nếu booking đang sử dụng phòng
+        // Trả phòng về sổ tồn kho nếu booking đang sử dụng phòng
         if (isStatusUsingRoom(booking.getStatus())) {
-            RoomType roomType = booking.getRoomType();
-            if (roomType.getAvailableRooms() < roomType.getTotalRooms()) {
-                roomType.setAvailableRooms(roomType.getAvailableRooms() + 1);
-                roomTypeRepository.save(roomType);
-                log.info("Room availability restored after booking deletion {}: {} -> {}", 
-                        booking.getId(), roomType.getAvailableRooms() - 1, roomType.getAvailableRooms());
-            }
+            roomInventoryService.release(booking, booking.getCheckInDate(), booking.getCheckOutDate());
+            log.info("Room availability restored after booking deletion: {}", booking.getId());
         }
         
         // Delete VNPay transaction records before deleting booking
@@ -1229,9 +1604,11 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @IsHost
     public BigDecimal getHostRevenueByDateRange(UUID hostId, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-        return bookingRepository.getRevenueByHostAndDateRange(hostId, startDateTime, endDateTime);
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (Object[] row : hotelDailyRevenueRepository.sumByDateForHost(hostId, startDate, endDate)) {
+            revenue = revenue.add(rollupRevenue(row));
+        }
+        return revenue;
     }
 
     @Override
@@ -1244,9 +1621,11 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @IsHost
     public BigDecimal getHostCommissionByDateRange(UUID hostId, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-        return bookingRepository.getCommissionByHostAndDateRange(hostId, startDateTime, endDateTime);
+        BigDecimal commission = BigDecimal.ZERO;
+        for (Object[] row : hotelDailyRevenueRepository.sumByDateForHost(hostId, startDate, endDate)) {
+            commission = commission.add(rollupAmount(row[3]));
+        }
+        return commission;
     }
     
     @Override
@@ -1274,23 +1653,11 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @IsHost
     public List<HostDashboardResponse.MonthlyData> getHostMonthlyRevenueData(UUID hostId, int months) {
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusMonths(months);
-        
-        List<Object[]> monthlyData = bookingRepository.getMonthlyRevenueByHost(hostId, startDate, endDate);
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusMonths(months);
         
-        return monthlyData.stream()
-                .map(data -> {
-                    Integer year = (Integer) data[0];
-                    Integer month = (Integer) data[1];
-                    String monthString = String.format("%d-%02d", year, month);
-                    return HostDashboardResponse.MonthlyData.builder()
-                            .month(monthString)
-                            .revenue((BigDecimal) data[2])
-                            .bookings((Long) data[3])
-                            .build();
-                })
-                .toList();
+        return new ArrayList<>(groupHostRollupByMonth(
+                hotelDailyRevenueRepository.sumByDateForHost(hostId, startDate, endDate)).values());
     }
     
     @Override
@@ -1318,27 +1685,9 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @IsHost
     public List<HostDashboardResponse.MonthlyData> getHostMonthlyAnalytics(UUID hostId, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-        
-        // Get actual data from database
-        List<Object[]> actualData = bookingRepository.getMonthlyAnalyticsByHost(hostId, startDateTime, endDateTime);
-        
-        // Convert to map for easy lookup
-        Map<String, HostDashboardResponse.MonthlyData> dataMap = new HashMap<>();
-        for (Object[] data : actualData) {
-            Integer year = (Integer) data[0];
-            Integer month = (Integer) data[1];
-            String monthString = String.format("%d-%02d", year, month);
-            BigDecimal revenue = (BigDecimal) data[2];
-            Long bookings = (Long) data[3];
-            
-            dataMap.put(monthString, HostDashboardResponse.MonthlyData.builder()
-                    .month(monthString)
-                    .revenue(revenue != null ? revenue : BigDecimal.ZERO)
-                    .bookings(bookings != null ? bookings : 0L)
-                    .build());
-        }
+        // Một lần quét bảng tổng hợp theo ngày rồi gộp theo tháng
+        Map<String, HostDashboardResponse.MonthlyData> dataMap = groupHostRollupByMonth(
+                hotelDailyRevenueRepository.sumByDateForHost(hostId, startDate, endDate));
         
         // Generate all months in the range (similar to Admin Analytics logic)
         List<HostDashboardResponse.MonthlyData> result = new ArrayList<>();
@@ -1364,6 +1713,34 @@ public class BookingServiceImpl implements BookingService {
         return result;
     }
 
+    // Dòng hotel_daily_revenue theo ngày: [ngày, gross, refund, commission, paidBookings, cancellations]
+    private Map<String, HostDashboardResponse.MonthlyData> groupHostRollupByMonth(List<Object[]> dailyRows) {
+        Map<String, HostDashboardResponse.MonthlyData> dataMap = new LinkedHashMap<>();
+        for (Object[] row : dailyRows) {
+            LocalDate day = (LocalDate) row[0];
+            String monthString = String.format("%d-%02d", day.getYear(), day.getMonthValue());
+            long bookings = row[4] != null ? ((Number) row[4]).longValue() : 0L;
+            
+            HostDashboardResponse.MonthlyData monthData = dataMap.computeIfAbsent(monthString,
+                    key -> HostDashboardResponse.MonthlyData.builder()
+                            .month(key)
+                            .revenue(BigDecimal.ZERO)
+                            .bookings(0L)
+                            .build());
+            monthData.setRevenue(monthData.getRevenue().add(rollupRevenue(row)));
+            monthData.setBookings(monthData.getBookings() + bookings);
+        }
+        return dataMap;
+    }
+    
+    private BigDecimal rollupRevenue(Object[] row) {
+        return rollupAmount(row[1]).subtract(rollupAmount(row[2]));
+    }
+    
+    private BigDecimal rollupAmount(Object value) {
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+    }
+
     @Override
     @IsHost
     @Transactional
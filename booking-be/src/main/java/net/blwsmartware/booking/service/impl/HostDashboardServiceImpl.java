@@ -0,0 +1,246 @@
+package net.blwsmartware.booking.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.dto.response.HostDashboardResponse;
+import net.blwsmartware.booking.enums.BookingStatus;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.repository.ReviewRepository;
+import net.blwsmartware.booking.repository.RoomTypeRepository;
+import net.blwsmartware.booking.service.BookingService;
+import net.blwsmartware.booking.service.HostDashboardService;
+import net.blwsmartware.booking.service.HotelService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Dashboard host gồm nhiều phần độc lập; mỗi phần là một task trên executor giới hạn, trả về hàm ghi
+ * kết quả vào response để mọi thao tác trên response diễn ra ở thread của request.
+ * <p>
+ * Các con số cùng nguồn được gộp truy vấn: số khách sạn (tổng/đang hoạt động), số booking theo trạng thái,
+ * doanh thu tổng/tháng này/hoa hồng, điểm trung bình/số review. Cả dashboard dùng chung một deadline;
+ * phần nào bị executor từ chối hoặc chưa xong khi hết hạn bị hủy và giữ giá trị mặc định. Các truy vấn
+ * của dashboard có query timeout nên connection không bị giữ sau khi phần đó đã bị bỏ.
+ */
+@Service
+@Slf4j
+public class HostDashboardServiceImpl implements HostDashboardService {
+
+    static final int RECENT_BOOKINGS = 5;
+    static final int CHART_MONTHS = 12;
+    static final int TOP_HOTELS = 5;
+
+    final HotelRepository hotelRepository;
+    final RoomTypeRepository roomTypeRepository;
+    final BookingRepository bookingRepository;
+    final ReviewRepository reviewRepository;
+    final BookingService bookingService;
+    final HotelService hotelService;
+    final ExecutorService executor;
+    final long timeoutMillis;
+
+    public HostDashboardServiceImpl(HotelRepository hotelRepository,
+                                    RoomTypeRepository roomTypeRepository,
+                                    BookingRepository bookingRepository,
+                                    ReviewRepository reviewRepository,
+                                    BookingService bookingService,
+                                    HotelService hotelService,
+                                    @Value("${booking.host-dashboard.threads:8}") int threads,
+                                    @Value("${booking.host-dashboard.timeout-ms:3000}") long timeoutMillis) {
+        this.hotelRepository = hotelRepository;
+        this.roomTypeRepository = roomTypeRepository;
+        this.bookingRepository = bookingRepository;
+        this.reviewRepository = reviewRepository;
+        this.bookingService = bookingService;
+        this.hotelService = hotelService;
+        this.timeoutMillis = timeoutMillis;
+        // Hàng đợi giới hạn + AbortPolicy: khi quá tải phần đó bị bỏ qua (báo unavailable) thay vì
+        // để thread request tự chạy mà không bị deadline giới hạn
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public HostDashboardResponse getDashboard(UUID hostId) {
+        HostDashboardResponse response = emptyDashboard();
+
+        Map<String, Callable<Consumer<HostDashboardResponse>>> sections = new LinkedHashMap<>();
+        sections.put("hotels", () -> hotelSection(hostId));
+        sections.put("bookings", () -> bookingSection(hostId));
+        sections.put("revenue", () -> revenueSection(hostId));
+        sections.put("reviews", () -> reviewSection(hostId));
+        sections.put("occupancy", () -> occupancySection(hostId));
+        // Các phần dưới gọi lại service có @IsHost nên cần mang SecurityContext sang thread khác
+        sections.put("recentBookings", () -> {
+            List<HostDashboardResponse.RecentBooking> recent = bookingService.getHostRecentBookings(hostId, RECENT_BOOKINGS);
+            return r -> r.setRecentBookings(recent);
+        });
+        sections.put("monthlyRevenue", () -> {
+            List<HostDashboardResponse.MonthlyData> data = bookingService.getHostMonthlyRevenueData(hostId, CHART_MONTHS);
+            return r -> r.setMonthlyRevenueData(data);
+        });
+        sections.put("monthlyBookings", () -> {
+            List<HostDashboardResponse.MonthlyData> data = bookingService.getHostMonthlyBookingData(hostId, CHART_MONTHS);
+            return r -> r.setMonthlyBookingData(data);
+        });
+        sections.put("topHotels", () -> {
+            List<HostDashboardResponse.HotelPerformance> hotels = hotelService.getHostTopPerformingHotels(hostId, TOP_HOTELS);
+            return r -> r.setTopPerformingHotels(hotels);
+        });
+
+        // Deadline tính từ trước khi submit để thời gian chờ hàng đợi cũng nằm trong ngân sách
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Map<String, Future<Consumer<HostDashboardResponse>>> futures = new LinkedHashMap<>();
+        List<String> unavailable = new ArrayList<>();
+        sections.forEach((name, section) -> {
+            try {
+                futures.put(name, executor.submit(DelegatingSecurityContextCallable.create(section, securityContext)));
+            } catch (RejectedExecutionException e) {
+                unavailable.add(name);
+                log.warn("Host dashboard section '{}' rejected for host {}: executor saturated", name, hostId);
+            }
+        });
+
+        for (Map.Entry<String, Future<Consumer<HostDashboardResponse>>> entry : futures.entrySet()) {
+            Future<Consumer<HostDashboardResponse>> future = entry.getValue();
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS).accept(response);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                unavailable.add(entry.getKey());
+                log.warn("Host dashboard section '{}' timed out after {} ms for host {}", entry.getKey(), timeoutMillis, hostId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                unavailable.add(entry.getKey());
+            } catch (ExecutionException e) {
+                unavailable.add(entry.getKey());
+                log.error("Host dashboard section '{}' failed for host {}: {}", entry.getKey(), hostId, e.getCause().getMessage());
+            }
+        }
+
+        if (response.getTotalBookings() > 0) {
+            response.setAverageBookingValue(response.getTotalRevenue()
+                    .divide(BigDecimal.valueOf(response.getTotalBookings()), 2, RoundingMode.HALF_UP));
+        }
+        response.setUnavailableSections(unavailable);
+        return response;
+    }
+
+    // ===== SECTIONS =====
+
+    private Consumer<HostDashboardResponse> hotelSection(UUID hostId) {
+        Object[] counts = firstRow(hotelRepository.countHotelsByOwner(hostId));
+        long totalHotels = toLong(counts[0]);
+        long activeHotels = toLong(counts[1]);
+        long totalRoomTypes = toLong(roomTypeRepository.countByHostId(hostId));
+        return r -> {
+            r.setTotalHotels(totalHotels);
+            r.setActiveHotels(activeHotels);
+            r.setTotalRoomTypes(totalRoomTypes);
+        };
+    }
+
+    private Consumer<HostDashboardResponse> bookingSection(UUID hostId) {
+        Map<BookingStatus, Long> byStatus = new EnumMap<>(BookingStatus.class);
+        long total = 0;
+        for (Object[] row : bookingRepository.countByHotelOwnerIdGroupByStatus(hostId)) {
+            long count = toLong(row[1]);
+            byStatus.put((BookingStatus) row[0], count);
+            total += count;
+        }
+        long totalBookings = total;
+        return r -> {
+            r.setTotalBookings(totalBookings);
+            r.setPendingBookings(byStatus.getOrDefault(BookingStatus.PENDING, 0L));
+            r.setConfirmedBookings(byStatus.getOrDefault(BookingStatus.CONFIRMED, 0L));
+            r.setCancelledBookings(byStatus.getOrDefault(BookingStatus.CANCELLED, 0L));
+            r.setCompletedBookings(byStatus.getOrDefault(BookingStatus.COMPLETED, 0L));
+        };
+    }
+
+    private Consumer<HostDashboardResponse> revenueSection(UUID hostId) {
+        Object[] summary = firstRow(bookingRepository.getRevenueSummaryByHost(hostId,
+                LocalDate.now().withDayOfMonth(1).atStartOfDay()));
+        BigDecimal totalRevenue = toBigDecimal(summary[0]);
+        BigDecimal monthlyRevenue = toBigDecimal(summary[1]);
+        BigDecimal totalCommission = toBigDecimal(summary[2]).setScale(2, RoundingMode.HALF_UP);
+        return r -> {
+            r.setTotalRevenue(totalRevenue);
+            r.setMonthlyRevenue(monthlyRevenue);
+            r.setTotalCommission(totalCommission);
+        };
+    }
+
+    private Consumer<HostDashboardResponse> reviewSection(UUID hostId) {
+        Object[] summary = firstRow(reviewRepository.getRatingSummaryByHostId(hostId));
+        double averageRating = summary[0] != null ? ((Number) summary[0]).doubleValue() : 0.0;
+        long totalReviews = toLong(summary[1]);
+        return r -> {
+            r.setAverageRating(averageRating);
+            r.setTotalReviews(totalReviews);
+        };
+    }
+
+    private Consumer<HostDashboardResponse> occupancySection(UUID hostId) {
+        long totalRooms = toLong(roomTypeRepository.getTotalRoomsByHost(hostId));
+        long occupiedRooms = toLong(bookingRepository.getOccupiedRoomsByHost(hostId));
+        double occupancyRate = totalRooms == 0 ? 0.0 : ((double) occupiedRooms / totalRooms) * 100;
+        return r -> r.setOccupancyRate(occupancyRate);
+    }
+
+    // ===== HELPER METHODS =====
+
+    private HostDashboardResponse emptyDashboard() {
+        return HostDashboardResponse.builder()
+                .totalHotels(0L)
+                .activeHotels(0L)
+                .totalRoomTypes(0L)
+                .totalBookings(0L)
+                .pendingBookings(0L)
+                .confirmedBookings(0L)
+                .cancelledBookings(0L)
+                .completedBookings(0L)
+                .monthlyRevenue(BigDecimal.ZERO)
+                .totalRevenue(BigDecimal.ZERO)
+                .averageBookingValue(BigDecimal.ZERO)
+                .totalCommission(BigDecimal.ZERO)
+                .averageRating(0.0)
+                .occupancyRate(0.0)
+                .totalReviews(0L)
+                .recentBookings(List.of())
+                .monthlyRevenueData(List.of())
+                .monthlyBookingData(List.of())
+                .topPerformingHotels(List.of())
+                .build();
+    }
+
+    private Object[] firstRow(List<Object[]> rows) {
+        return rows.isEmpty() ? new Object[]{null, null, null} : rows.get(0);
+    }
+
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,280 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.dto.response.AutocompleteSuggestionResponse;
+import net.blwsmartware.booking.entity.Hotel;
+import net.blwsmartware.booking.util.TextUtils;
+import net.blwsmartware.booking.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Chỉ mục gợi ý khi gõ (typeahead) cho tên khách sạn và thành phố, bỏ dấu giống TextUtils.
+ * <p>
+ * Mỗi gợi ý được lưu dưới nhiều khóa trong TreeMap, mỗi khóa là phần cụm từ bắt đầu từ một từ
+ * ("muong thanh da nang", "thanh da nang", "da nang", "nang") nên "nang" cũng gợi ý được "Đà Nẵng".
+ * Truy vấn là một lần subMap theo tiền tố rồi giữ top-K bằng heap. Trọng số: thành phố theo số
+ * khách sạn đang hoạt động, khách sạn theo số review và cờ nổi bật; khớp từ đầu cụm được ưu tiên.
+ */
+@Component
+@Slf4j
+public class HotelAutocompleteIndex {
+
+    static final String TYPE_CITY = "CITY";
+    static final String TYPE_HOTEL = "HOTEL";
+    static final int CITY_WEIGHT = 10; // cho mỗi khách sạn trong thành phố
+    static final int FEATURED_BONUS = 20;
+    static final double INNER_WORD_FACTOR = 0.5;
+    static final char KEY_SEPARATOR = '\u0000';
+
+    final NavigableMap<String, Suggestion> keys = new TreeMap<>();
+    final Map<String, Suggestion> suggestions = new HashMap<>();
+    final Map<UUID, String> hotelCities = new HashMap<>();
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+    volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Nạp lại toàn bộ chỉ mục (chạy lúc khởi động), reviewCounts là độ phổ biến ban đầu của khách sạn
+     */
+    public void rebuild(Collection<Hotel> hotels, Map<UUID, Long> reviewCounts) {
+        lock.writeLock().lock();
+        try {
+            keys.clear();
+            suggestions.clear();
+            hotelCities.clear();
+            for (Hotel hotel : hotels) {
+                if (hotel.isActive()) {
+                    addHotel(hotel, reviewCounts.getOrDefault(hotel.getId(), 0L));
+                }
+            }
+            ready = true;
+            log.info("Hotel autocomplete index built: {} suggestions, {} keys", suggestions.size(), keys.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cập nhật gợi ý của khách sạn (và số khách sạn của thành phố) sau khi transaction commit,
+     * giữ nguyên độ phổ biến đã có
+     */
+    public void indexAfterCommit(Hotel hotel) {
+        UUID hotelId = hotel.getId();
+        boolean active = hotel.isActive();
+        Hotel snapshot = Hotel.builder()
+                .id(hotelId)
+                .name(hotel.getName())
+                .city(hotel.getCity())
+                .isFeatured(hotel.isFeatured())
+                .build();
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Suggestion previous = removeHotel(hotelId);
+                if (active) {
+                    addHotel(snapshot, previous != null ? previous.popularity : 0L);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAfterCommit(UUID hotelId) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeHotel(hotelId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Cộng delta vào độ phổ biến (số review) của khách sạn khi review được tạo/xóa
+     */
+    public void adjustPopularityAfterCommit(UUID hotelId, long delta) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Suggestion suggestion = suggestions.get(hotelKey(hotelId));
+                if (suggestion != null) {
+                    suggestion.popularity = Math.max(0L, suggestion.popularity + delta);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Tối đa limit gợi ý có cụm từ bắt đầu bằng query (đã bỏ dấu), điểm cao trước
+     */
+    public List<AutocompleteSuggestionResponse> suggest(String query, int limit) {
+        String prefix = String.join(" ", TextUtils.foldForSearch(query));
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Duyệt thẳng subMap vào heap nhỏ nhất kích thước limit: bộ nhớ O(limit) kể cả với tiền tố
+            // rất ngắn. Một gợi ý có thể khớp nhiều khóa (đầu cụm và giữa cụm) → chỉ giữ điểm cao nhất
+            PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, Candidate.ORDER);
+            Map<Suggestion, Candidate> inTop = new HashMap<>();
+            for (Map.Entry<String, Suggestion> entry : keys.subMap(prefix, prefix + Character.MAX_VALUE).entrySet()) {
+                Suggestion suggestion = entry.getValue();
+                double factor = entry.getKey().startsWith(suggestion.phrase + KEY_SEPARATOR) ? 1.0 : INNER_WORD_FACTOR;
+                Candidate candidate = new Candidate(suggestion, suggestion.weight() * factor);
+
+                Candidate current = inTop.get(suggestion);
+                if (current != null) {
+                    if (current.score >= candidate.score) {
+                        continue;
+                    }
+                    top.remove(current);
+                }
+                top.offer(candidate);
+                inTop.put(suggestion, candidate);
+                if (top.size() > limit) {
+                    inTop.remove(top.poll().suggestion);
+                }
+            }
+
+            List<AutocompleteSuggestionResponse> result = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                result.add(top.poll().suggestion.toResponse());
+            }
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== HELPER METHODS =====
+
+    private void addHotel(Hotel hotel, long popularity) {
+        String phrase = String.join(" ", TextUtils.foldForSearch(hotel.getName()));
+        if (!phrase.isEmpty()) {
+            Suggestion suggestion = new Suggestion(hotelKey(hotel.getId()), TYPE_HOTEL, hotel.getName().trim(),
+                    hotel.getId(), hotel.getCity(), phrase);
+            suggestion.popularity = popularity;
+            suggestion.featured = hotel.isFeatured();
+            addKeys(suggestion);
+        }
+
+        String cityPhrase = String.join(" ", TextUtils.foldForSearch(hotel.getCity()));
+        if (!cityPhrase.isEmpty()) {
+            String cityKey = "c:" + cityPhrase;
+            Suggestion city = suggestions.get(cityKey);
+            if (city == null) {
+                city = new Suggestion(cityKey, TYPE_CITY, hotel.getCity().trim(), null, hotel.getCity().trim(), cityPhrase);
+                addKeys(city);
+            }
+            city.hotelCount++;
+            hotelCities.put(hotel.getId(), cityKey);
+        }
+    }
+
+    private Suggestion removeHotel(UUID hotelId) {
+        Suggestion removed = suggestions.get(hotelKey(hotelId));
+        if (removed != null) {
+            removeKeys(removed);
+        }
+        String cityKey = hotelCities.remove(hotelId);
+        Suggestion city = cityKey != null ? suggestions.get(cityKey) : null;
+        if (city != null && --city.hotelCount <= 0) {
+            removeKeys(city);
+        }
+        return removed;
+    }
+
+    private void addKeys(Suggestion suggestion) {
+        suggestions.put(suggestion.id, suggestion);
+        String phrase = suggestion.phrase;
+        for (int start = 0; start >= 0; start = nextWordStart(phrase, start)) {
+            keys.put(phrase.substring(start) + KEY_SEPARATOR + suggestion.id, suggestion);
+        }
+    }
+
+    private void removeKeys(Suggestion suggestion) {
+        suggestions.remove(suggestion.id);
+        String phrase = suggestion.phrase;
+        for (int start = 0; start >= 0; start = nextWordStart(phrase, start)) {
+            keys.remove(phrase.substring(start) + KEY_SEPARATOR + suggestion.id);
+        }
+    }
+
+    private static int nextWordStart(String phrase, int from) {
+        int space = phrase.indexOf(' ', from);
+        return space < 0 ? -1 : space + 1;
+    }
+
+    private static String hotelKey(UUID hotelId) {
+        return "h:" + hotelId;
+    }
+
+    /**
+     * Điểm của một gợi ý cho truy vấn hiện tại; thứ tự tăng dần để heap loại ứng viên yếu nhất trước
+     */
+    static final class Candidate {
+        static final Comparator<Candidate> ORDER = Comparator.<Candidate>comparingDouble(candidate -> candidate.score)
+                .thenComparing(candidate -> -candidate.suggestion.label.length())
+                .thenComparing(candidate -> candidate.suggestion.label, Comparator.reverseOrder());
+
+        final Suggestion suggestion;
+        final double score;
+
+        Candidate(Suggestion suggestion, double score) {
+            this.suggestion = suggestion;
+            this.score = score;
+        }
+    }
+
+    static final class Suggestion {
+        final String id;
+        final String type;
+        final String label;
+        final UUID hotelId;
+        final String city;
+        final String phrase;
+        long popularity;
+        boolean featured;
+        int hotelCount;
+
+        Suggestion(String id, String type, String label, UUID hotelId, String city, String phrase) {
+            this.id = id;
+            this.type = type;
+            this.label = label;
+            this.hotelId = hotelId;
+            this.city = city;
+            this.phrase = phrase;
+        }
+
+        double weight() {
+            if (TYPE_CITY.equals(type)) {
+                return (double) hotelCount * CITY_WEIGHT;
+            }
+            return 1.0 + popularity + (featured ? FEATURED_BONUS : 0);
+        }
+
+        AutocompleteSuggestionResponse toResponse() {
+            return AutocompleteSuggestionResponse.builder()
+                    .type(type)
+                    .label(label)
+                    .hotelId(hotelId)
+                    .city(city)
+                    .hotelCount(TYPE_CITY.equals(type) ? hotelCount : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Gom việc xóa các cache/index trong bộ nhớ khi dữ liệu của khách sạn thay đổi,
+ * tách khỏi HotelStatsService (service đó chỉ ghi read model hotel_stats).
+ * Mọi thao tác đều chạy sau khi transaction của nơi gọi commit.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class HotelCacheInvalidator {
+
+    HotelDetailCache hotelDetailCache;
+    HotelRanker hotelRanker;
+    HotelAutocompleteIndex hotelAutocompleteIndex;
+
+    /**
+     * Review thêm/sửa/xóa: điểm đánh giá trên trang chi tiết, tín hiệu xếp hạng và độ phổ biến gợi ý bị cũ
+     */
+    public void onReviewsChanged(UUID hotelId, long reviewCountDelta) {
+        hotelDetailCache.evictAfterCommit(hotelId);
+        hotelRanker.evictAfterCommit(hotelId);
+        if (reviewCountDelta != 0) {
+            hotelAutocompleteIndex.adjustPopularityAfterCommit(hotelId, reviewCountDelta);
+        }
+    }
+
+    /**
+     * Loại phòng thay đổi: danh sách phòng và khoảng giá trên trang chi tiết bị cũ
+     */
+    public void onRoomTypesChanged(UUID hotelId) {
+        hotelDetailCache.evictAfterCommit(hotelId);
+    }
+
+    /**
+     * Booking giữ/trả phòng: số phòng trống trên trang chi tiết và số booking gần đây của xếp hạng bị cũ
+     */
+    public void onAvailableRoomsChanged(UUID hotelId) {
+        hotelDetailCache.evictAfterCommit(hotelId);
+        hotelRanker.evictAfterCommit(hotelId);
+    }
+}
@@ -0,0 +1,60 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.dto.response.HotelResponse;
+import net.blwsmartware.booking.util.LruTtlCache;
+import net.blwsmartware.booking.util.TransactionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Cache HotelResponse đã ghép đầy đủ (loại phòng, review gần nhất, thống kê) của trang chi tiết khách sạn.
+ * Bị xóa sau khi commit mọi thay đổi khách sạn, loại phòng, review hoặc số phòng trống (qua HotelCacheInvalidator).
+ * <p>
+ * HotelResponse là DTO có setter: cache giữ bản sao với danh sách không sửa được và mỗi lần đọc trả về
+ * bản sao nông, nên nơi gọi sửa response (setter, thêm/bớt phần tử) không làm hỏng dữ liệu đang cache.
+ */
+@Component
+@Slf4j
+public class HotelDetailCache {
+
+    final LruTtlCache<UUID, HotelResponse> cache;
+
+    public HotelDetailCache(@Value("${booking.cache.hotel-detail.max-size:1000}") int maxSize,
+                            @Value("${booking.cache.hotel-detail.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new LruTtlCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    public HotelResponse get(UUID hotelId, Function<UUID, HotelResponse> loader) {
+        HotelResponse cached = cache.get(hotelId, id -> freeze(loader.apply(id)));
+        return cached != null ? cached.toBuilder().build() : null;
+    }
+
+    public LruTtlCache<UUID, HotelResponse> getCache() {
+        return cache;
+    }
+
+    public void evictAfterCommit(UUID hotelId) {
+        TransactionUtils.afterCommit(() -> cache.invalidate(hotelId));
+    }
+
+    static HotelResponse freeze(HotelResponse response) {
+        if (response == null) {
+            return null;
+        }
+        return response.toBuilder()
+                .roomTypes(unmodifiable(response.getRoomTypes()))
+                .recentReviews(unmodifiable(response.getRecentReviews()))
+                .build();
+    }
+
+    static <T> List<T> unmodifiable(List<T> list) {
+        return list != null ? Collections.unmodifiableList(new ArrayList<>(list)) : null;
+    }
+}
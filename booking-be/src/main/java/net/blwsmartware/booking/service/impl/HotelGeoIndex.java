@@ -0,0 +1,382 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.dto.response.HotelGeoResponse;
+import net.blwsmartware.booking.entity.Hotel;
+import net.blwsmartware.booking.util.TextUtils;
+import net.blwsmartware.booking.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Chỉ mục không gian trong bộ nhớ cho tìm khách sạn gần một điểm (k-nearest) và trong khung bản đồ.
+ * <p>
+ * Lưới ô CELL_DEGREES x CELL_DEGREES độ: k-nearest duyệt các vòng ô quanh điểm truy vấn và dừng khi
+ * khoảng cách nhỏ nhất có thể của vòng tiếp theo đã lớn hơn kết quả thứ k (heap kích thước k).
+ * Khi số ô phải duyệt vượt quá số khách sạn thì quét toàn bộ sẽ rẻ hơn nên chuyển sang quét tuyến tính.
+ * Chỉ khách sạn đang hoạt động và có tọa độ được đưa vào chỉ mục.
+ */
+@Component
+@Slf4j
+public class HotelGeoIndex {
+
+    static final double CELL_DEGREES = 0.1;
+    static final int LAT_CELLS = (int) Math.round(180 / CELL_DEGREES);
+    static final int LNG_CELLS = (int) Math.round(360 / CELL_DEGREES);
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    final Map<Long, List<GeoPoint>> cells = new HashMap<>();
+    final Map<UUID, GeoPoint> points = new HashMap<>();
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+    volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Nạp lại toàn bộ chỉ mục (chạy lúc khởi động)
+     */
+    public void rebuild(Collection<Hotel> hotels) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            points.clear();
+            for (Hotel hotel : hotels) {
+                GeoPoint point = GeoPoint.of(hotel);
+                if (point != null) {
+                    add(point);
+                }
+            }
+            ready = true;
+            log.info("Hotel geo index built: {} hotels in {} cells", points.size(), cells.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexAfterCommit(Hotel hotel) {
+        UUID hotelId = hotel.getId();
+        GeoPoint point = GeoPoint.of(hotel);
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(hotelId);
+                if (point != null) {
+                    add(point);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Cập nhật khoảng giá loại phòng của khách sạn đã có trong chỉ mục (sau khi loại phòng thay đổi)
+     */
+    public void updatePriceRangeAfterCommit(UUID hotelId, BigDecimal minRoomPrice, BigDecimal maxRoomPrice) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                GeoPoint point = points.get(hotelId);
+                if (point != null) {
+                    remove(hotelId);
+                    add(point.withPriceRange(minRoomPrice, maxRoomPrice));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAfterCommit(UUID hotelId) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(hotelId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Tối đa k khách sạn gần (lat, lng) nhất thỏa filter, trong bán kính maxKm nếu có, gần nhất trước
+     */
+    public List<HotelGeoResponse> nearest(double lat, double lng, int k, Double maxKm, Predicate<GeoPoint> filter) {
+        double limitKm = maxKm != null ? maxKm : Double.MAX_VALUE;
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Candidate::distanceKm).reversed());
+
+        lock.readLock().lock();
+        try {
+            int centerLat = latCell(lat);
+            int centerLng = lngCell(lng);
+            long visited = 0;
+            for (int ring = 0; ; ring++) {
+                if (ring > 0) {
+                    double lowerBoundKm = (ring - 1) * minCellKm(lat, ring);
+                    if (lowerBoundKm > limitKm || (heap.size() == k && lowerBoundKm > heap.peek().distanceKm)) {
+                        break;
+                    }
+                }
+                visited += ring == 0 ? 1 : 8L * ring;
+                if (visited > points.size() || 2 * ring + 1 >= LNG_CELLS) {
+                    heap.clear();
+                    for (GeoPoint point : points.values()) {
+                        offer(heap, k, point, lat, lng, limitKm, filter);
+                    }
+                    break;
+                }
+                for (int dLat = -ring; dLat <= ring; dLat++) {
+                    int row = centerLat + dLat;
+                    if (row < 0 || row >= LAT_CELLS) {
+                        continue;
+                    }
+                    // Hàng trên/dưới cùng của vòng lấy đủ các ô, các hàng giữa chỉ lấy 2 ô ở mép
+                    int step = Math.abs(dLat) == ring ? 1 : Math.max(1, 2 * ring);
+                    for (int dLng = -ring; dLng <= ring; dLng += step) {
+                        List<GeoPoint> cell = cells.get(cellKey(row, Math.floorMod(centerLng + dLng, LNG_CELLS)));
+                        if (cell != null) {
+                            for (GeoPoint point : cell) {
+                                offer(heap, k, point, lat, lng, limitKm, filter);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return toSortedResponses(heap);
+    }
+
+    /**
+     * Khách sạn trong khung bản đồ thỏa filter, tối đa limit khách sạn gần tâm khung nhất.
+     * minLng > maxLng nghĩa là khung vắt qua kinh tuyến 180.
+     */
+    public List<HotelGeoResponse> within(double minLat, double minLng, double maxLat, double maxLng,
+                                         int limit, Predicate<GeoPoint> filter) {
+        boolean wraps = minLng > maxLng;
+        double lngSpan = wraps ? maxLng + 360 - minLng : maxLng - minLng;
+        double centerLat = (minLat + maxLat) / 2;
+        double centerLng = minLng + lngSpan / 2;
+        if (centerLng > 180) {
+            centerLng -= 360;
+        }
+        Predicate<GeoPoint> inBox = point -> point.latitude >= minLat && point.latitude <= maxLat
+                && (wraps ? point.longitude >= minLng || point.longitude <= maxLng
+                          : point.longitude >= minLng && point.longitude <= maxLng);
+        Predicate<GeoPoint> accept = inBox.and(filter);
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Candidate::distanceKm).reversed());
+
+        lock.readLock().lock();
+        try {
+            int fromRow = latCell(minLat);
+            int toRow = latCell(maxLat);
+            int fromCol = lngCell(minLng);
+            int colCount = Math.min(LNG_CELLS, (int) Math.floor(lngSpan / CELL_DEGREES) + 2);
+            long cellCount = (long) (toRow - fromRow + 1) * colCount;
+
+            if (cellCount > points.size()) {
+                for (GeoPoint point : points.values()) {
+                    offer(heap, limit, point, centerLat, centerLng, Double.MAX_VALUE, accept);
+                }
+            } else {
+                for (int row = fromRow; row <= toRow; row++) {
+                    for (int i = 0; i < colCount; i++) {
+                        List<GeoPoint> cell = cells.get(cellKey(row, (fromCol + i) % LNG_CELLS));
+                        if (cell != null) {
+                            for (GeoPoint point : cell) {
+                                offer(heap, limit, point, centerLat, centerLng, Double.MAX_VALUE, accept);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return toSortedResponses(heap);
+    }
+
+    /**
+     * Bộ lọc thành phố (không phân biệt dấu), hạng sao và khoảng giá giống /hotels/search/filters:
+     * khoảng giá loại phòng [minRoomPrice, maxRoomPrice] phải giao với [minPrice, maxPrice]
+     */
+    public static Predicate<GeoPoint> filter(String city, Integer starRating, BigDecimal minPrice, BigDecimal maxPrice) {
+        String cityKey = city != null && !city.isBlank() ? String.join(" ", TextUtils.foldForSearch(city)) : null;
+        return point -> (cityKey == null || cityKey.equals(point.cityKey))
+                && (starRating == null || starRating.equals(point.starRating))
+                && (minPrice == null || (point.maxRoomPrice != null && point.maxRoomPrice.compareTo(minPrice) >= 0))
+                && (maxPrice == null || (point.minRoomPrice != null && point.minRoomPrice.compareTo(maxPrice) <= 0));
+    }
+
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // ===== HELPER METHODS =====
+
+    private static void offer(PriorityQueue<Candidate> heap, int k, GeoPoint point, double lat, double lng,
+                              double limitKm, Predicate<GeoPoint> filter) {
+        if (!filter.test(point)) {
+            return;
+        }
+        double distance = distanceKm(lat, lng, point.latitude, point.longitude);
+        if (distance > limitKm) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(new Candidate(point, distance));
+        } else if (distance < heap.peek().distanceKm) {
+            heap.poll();
+            heap.add(new Candidate(point, distance));
+        }
+    }
+
+    private static List<HotelGeoResponse> toSortedResponses(PriorityQueue<Candidate> heap) {
+        List<Candidate> sorted = new ArrayList<>(heap);
+        sorted.sort(Comparator.comparingDouble(Candidate::distanceKm));
+        List<HotelGeoResponse> result = new ArrayList<>(sorted.size());
+        for (Candidate candidate : sorted) {
+            GeoPoint point = candidate.point;
+            result.add(HotelGeoResponse.builder()
+                    .id(point.id)
+                    .name(point.name)
+                    .address(point.address)
+                    .city(point.city)
+                    .imageUrl(point.imageUrl)
+                    .starRating(point.starRating)
+                    .pricePerNight(point.pricePerNight)
+                    .latitude(point.latitude)
+                    .longitude(point.longitude)
+                    .distanceKm(Math.round(candidate.distanceKm * 100) / 100.0)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Cạnh ngắn nhất (km) của một ô trong phạm vi ring vòng quanh vĩ độ lat (ô kinh độ hẹp dần về phía cực)
+     */
+    private static double minCellKm(double lat, int ring) {
+        double farthestLat = Math.min(90, Math.abs(lat) + ring * CELL_DEGREES);
+        return CELL_DEGREES * KM_PER_DEGREE * Math.min(1.0, Math.cos(Math.toRadians(farthestLat)));
+    }
+
+    private static int latCell(double lat) {
+        return Math.min(LAT_CELLS - 1, Math.max(0, (int) Math.floor((lat + 90) / CELL_DEGREES)));
+    }
+
+    private static int lngCell(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180) / CELL_DEGREES), LNG_CELLS);
+    }
+
+    private static long cellKey(int row, int col) {
+        return (long) row * LNG_CELLS + col;
+    }
+
+    private void add(GeoPoint point) {
+        cells.computeIfAbsent(cellKey(latCell(point.latitude), lngCell(point.longitude)), key -> new ArrayList<>())
+                .add(point);
+        points.put(point.id, point);
+    }
+
+    private void remove(UUID hotelId) {
+        GeoPoint point = points.remove(hotelId);
+        if (point == null) {
+            return;
+        }
+        long key = cellKey(latCell(point.latitude), lngCell(point.longitude));
+        List<GeoPoint> cell = cells.get(key);
+        if (cell != null) {
+            cell.removeIf(existing -> existing.id.equals(hotelId));
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Bản chụp bất biến các trường cần cho lọc và hiển thị trên bản đồ
+     */
+    public static final class GeoPoint {
+        final UUID id;
+        final String name;
+        final String address;
+        final String city;
+        final String cityKey;
+        final String imageUrl;
+        final Integer starRating;
+        final BigDecimal pricePerNight;
+        final BigDecimal minRoomPrice;
+        final BigDecimal maxRoomPrice;
+        final double latitude;
+        final double longitude;
+
+        private GeoPoint(Hotel hotel) {
+            this.id = hotel.getId();
+            this.name = hotel.getName();
+            this.address = hotel.getAddress();
+            this.city = hotel.getCity();
+            this.cityKey = String.join(" ", TextUtils.foldForSearch(hotel.getCity()));
+            this.imageUrl = hotel.getImageUrl();
+            this.starRating = hotel.getStarRating();
+            this.pricePerNight = hotel.getPricePerNight();
+            this.minRoomPrice = hotel.getMinRoomPrice();
+            this.maxRoomPrice = hotel.getMaxRoomPrice();
+            this.latitude = hotel.getLatitude();
+            this.longitude = hotel.getLongitude();
+        }
+
+        private GeoPoint(GeoPoint other, BigDecimal minRoomPrice, BigDecimal maxRoomPrice) {
+            this.id = other.id;
+            this.name = other.name;
+            this.address = other.address;
+            this.city = other.city;
+            this.cityKey = other.cityKey;
+            this.imageUrl = other.imageUrl;
+            this.starRating = other.starRating;
+            this.pricePerNight = other.pricePerNight;
+            this.minRoomPrice = minRoomPrice;
+            this.maxRoomPrice = maxRoomPrice;
+            this.latitude = other.latitude;
+            this.longitude = other.longitude;
+        }
+
+        GeoPoint withPriceRange(BigDecimal minRoomPrice, BigDecimal maxRoomPrice) {
+            return new GeoPoint(this, minRoomPrice, maxRoomPrice);
+        }
+
+        static GeoPoint of(Hotel hotel) {
+            if (!hotel.isActive() || hotel.getLatitude() == null || hotel.getLongitude() == null) {
+                return null;
+            }
+            return new GeoPoint(hotel);
+        }
+    }
+
+    private static final class Candidate {
+        final GeoPoint point;
+        final double distanceKm;
+
+        Candidate(GeoPoint point, double distanceKm) {
+            this.point = point;
+            this.distanceKm = distanceKm;
+        }
+
+        double distanceKm() {
+            return distanceKm;
+        }
+    }
+}
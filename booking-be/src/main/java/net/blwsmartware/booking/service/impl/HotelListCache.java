@@ -0,0 +1,116 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.dto.response.CityStatsResponse;
+import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.dto.response.HotelResponse;
+import net.blwsmartware.booking.util.LruTtlCache;
+import net.blwsmartware.booking.util.TransactionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cache các danh sách của trang chủ (khách sạn nổi bật, đang hoạt động, top thành phố) theo trang/kích thước/sắp xếp.
+ * Mọi thay đổi khách sạn (tạo, sửa, bật/tắt, nổi bật, xóa) xóa toàn bộ sau commit; thống kê trong
+ * danh sách (điểm, phòng trống) có thể cũ tối đa ttl-seconds.
+ * <p>
+ * Giống HotelDetailCache: cache giữ bản không sửa được, mỗi lần đọc trả về bản sao của trang và từng phần tử.
+ */
+@Component
+public class HotelListCache {
+
+    final LruTtlCache<String, DataResponse<HotelResponse>> featuredHotels;
+    final LruTtlCache<String, DataResponse<HotelResponse>> activeHotels;
+    final LruTtlCache<Integer, List<CityStatsResponse>> topCities;
+
+    public HotelListCache(@Value("${booking.cache.hotel-list.max-size:200}") int maxSize,
+                          @Value("${booking.cache.hotel-list.ttl-seconds:60}") long ttlSeconds) {
+        this.featuredHotels = new LruTtlCache<>(maxSize, ttlSeconds * 1000);
+        this.activeHotels = new LruTtlCache<>(maxSize, ttlSeconds * 1000);
+        this.topCities = new LruTtlCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    public static String pageKey(Integer pageNumber, Integer pageSize, String sortBy) {
+        return pageNumber + ":" + pageSize + ":" + sortBy;
+    }
+
+    public DataResponse<HotelResponse> getFeaturedHotels(String key,
+                                                         Function<String, DataResponse<HotelResponse>> loader) {
+        return copyPage(featuredHotels.get(key, k -> freezePage(loader.apply(k))));
+    }
+
+    public DataResponse<HotelResponse> getActiveHotels(String key,
+                                                       Function<String, DataResponse<HotelResponse>> loader) {
+        return copyPage(activeHotels.get(key, k -> freezePage(loader.apply(k))));
+    }
+
+    public List<CityStatsResponse> getTopCities(Integer limit, Function<Integer, List<CityStatsResponse>> loader) {
+        List<CityStatsResponse> cached = topCities.get(limit,
+                l -> HotelDetailCache.unmodifiable(copyCities(loader.apply(l))));
+        return copyCities(cached);
+    }
+
+    public LruTtlCache<String, DataResponse<HotelResponse>> getFeaturedHotels() {
+        return featuredHotels;
+    }
+
+    public LruTtlCache<String, DataResponse<HotelResponse>> getActiveHotels() {
+        return activeHotels;
+    }
+
+    public LruTtlCache<Integer, List<CityStatsResponse>> getTopCities() {
+        return topCities;
+    }
+
+    public void invalidateAllAfterCommit() {
+        TransactionUtils.afterCommit(() -> invalidateAll());
+    }
+
+    private static DataResponse<HotelResponse> freezePage(DataResponse<HotelResponse> page) {
+        if (page == null) {
+            return null;
+        }
+        List<HotelResponse> content = page.getContent() == null ? null
+                : HotelDetailCache.unmodifiable(page.getContent().stream().map(HotelDetailCache::freeze).toList());
+        return withContent(page, content);
+    }
+
+    private static DataResponse<HotelResponse> copyPage(DataResponse<HotelResponse> page) {
+        if (page == null) {
+            return null;
+        }
+        List<HotelResponse> content = null;
+        if (page.getContent() != null) {
+            content = new ArrayList<>(page.getContent().size());
+            for (HotelResponse hotel : page.getContent()) {
+                content.add(hotel != null ? hotel.toBuilder().build() : null);
+            }
+        }
+        return withContent(page, content);
+    }
+
+    private static DataResponse<HotelResponse> withContent(DataResponse<HotelResponse> page, List<HotelResponse> content) {
+        return new DataResponse<>(page.getPageNumber(), page.getPageSize(), page.getTotalElements(),
+                page.getTotalPages(), page.isLastPage(), content, page.getNextCursor());
+    }
+
+    private static List<CityStatsResponse> copyCities(List<CityStatsResponse> cities) {
+        if (cities == null) {
+            return null;
+        }
+        List<CityStatsResponse> copy = new ArrayList<>(cities.size());
+        for (CityStatsResponse city : cities) {
+            copy.add(new CityStatsResponse(city.getCityName(), city.getHotelCount()));
+        }
+        return copy;
+    }
+
+    private void invalidateAll() {
+        featuredHotels.invalidateAll();
+        activeHotels.invalidateAll();
+        topCities.invalidateAll();
+    }
+}
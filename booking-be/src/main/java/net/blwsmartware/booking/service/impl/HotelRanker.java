@@ -0,0 +1,150 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.entity.HotelStats;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelStatsRepository;
+import net.blwsmartware.booking.service.HotelRankingFunction;
+import net.blwsmartware.booking.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bước xếp hạng trong bộ nhớ cho tìm kiếm khách sạn: nhận tập ứng viên đã lọc ở DB
+ * [hotelId, isFeatured, minRoomPrice], chấm điểm bằng HotelRankingFunction và giữ top-K bằng heap.
+ * <p>
+ * Tín hiệu chậm đổi (điểm đánh giá, số review, số booking gần đây) được cache theo khách sạn,
+ * chỉ khách sạn chưa có hoặc đã bị xóa khỏi cache (review/booking mới, hết TTL) mới nạp lại theo lô.
+ */
+@Component
+@Slf4j
+public class HotelRanker {
+
+    static final long SIGNAL_TTL_MILLIS = 10 * 60_000;
+    static final int VELOCITY_DAYS = 30;
+    static final int LOAD_CHUNK_SIZE = 1000;
+
+    final HotelStatsRepository hotelStatsRepository;
+    final BookingRepository bookingRepository;
+    final Map<String, HotelRankingFunction> functions = new HashMap<>();
+    final Map<UUID, CachedSignals> signals = new ConcurrentHashMap<>();
+
+    public HotelRanker(HotelStatsRepository hotelStatsRepository,
+                       BookingRepository bookingRepository,
+                       List<HotelRankingFunction> rankingFunctions) {
+        this.hotelStatsRepository = hotelStatsRepository;
+        this.bookingRepository = bookingRepository;
+        for (HotelRankingFunction function : rankingFunctions) {
+            functions.put(function.getName(), function);
+        }
+    }
+
+    public boolean supports(String sortBy) {
+        return sortBy != null && functions.containsKey(sortBy);
+    }
+
+    /**
+     * k khách sạn điểm cao nhất theo hàm xếp hạng, điểm giảm dần (bằng điểm thì theo id)
+     */
+    public List<UUID> topK(String functionName, List<Object[]> candidates,
+                           BigDecimal minPrice, BigDecimal maxPrice, int k) {
+        HotelRankingFunction function = functions.get(functionName);
+        if (function == null || candidates.isEmpty() || k <= 0) {
+            return List.of();
+        }
+        loadMissing(candidates);
+
+        Comparator<Map.Entry<UUID, Double>> order = Map.Entry.<UUID, Double>comparingByValue()
+                .thenComparing(Map.Entry.<UUID, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<UUID, Double>> top = new PriorityQueue<>(k + 1, order);
+        for (Object[] row : candidates) {
+            UUID hotelId = (UUID) row[0];
+            CachedSignals cached = signals.getOrDefault(hotelId, CachedSignals.EMPTY);
+            HotelRankingFunction.Signals hotelSignals = HotelRankingFunction.Signals.builder()
+                    .hotelId(hotelId)
+                    .averageRating(cached.averageRating)
+                    .reviewCount(cached.reviewCount)
+                    .recentBookings(cached.recentBookings)
+                    .featured(Boolean.TRUE.equals(row[1]))
+                    .minRoomPrice((BigDecimal) row[2])
+                    .build();
+            top.offer(Map.entry(hotelId, function.score(hotelSignals, minPrice, maxPrice)));
+            if (top.size() > k) {
+                top.poll();
+            }
+        }
+
+        List<UUID> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(top.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    /**
+     * Xóa tín hiệu của khách sạn sau khi transaction commit, lần xếp hạng sau sẽ nạp lại
+     */
+    public void evictAfterCommit(UUID hotelId) {
+        TransactionUtils.afterCommit(() -> signals.remove(hotelId));
+    }
+
+    // ===== HELPER METHODS =====
+
+    private void loadMissing(List<Object[]> candidates) {
+        long now = System.currentTimeMillis();
+        List<UUID> missing = new ArrayList<>();
+        for (Object[] row : candidates) {
+            UUID hotelId = (UUID) row[0];
+            CachedSignals cached = signals.get(hotelId);
+            if (cached == null || now - cached.loadedAt > SIGNAL_TTL_MILLIS) {
+                missing.add(hotelId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusDays(VELOCITY_DAYS);
+        for (int from = 0; from < missing.size(); from += LOAD_CHUNK_SIZE) {
+            List<UUID> chunk = missing.subList(from, Math.min(from + LOAD_CHUNK_SIZE, missing.size()));
+            Map<UUID, HotelStats> stats = new HashMap<>();
+            for (HotelStats row : hotelStatsRepository.findAllById(chunk)) {
+                stats.put(row.getHotelId(), row);
+            }
+            Map<UUID, Long> bookings = new HashMap<>();
+            for (Object[] row : bookingRepository.countRecentBookingsByHotelIds(chunk, since)) {
+                bookings.put((UUID) row[0], ((Number) row[1]).longValue());
+            }
+            for (UUID hotelId : chunk) {
+                HotelStats row = stats.get(hotelId);
+                signals.put(hotelId, new CachedSignals(
+                        row != null ? row.getAverageRating() : 0.0,
+                        row != null ? row.getReviewCount() : 0L,
+                        bookings.getOrDefault(hotelId, 0L),
+                        now));
+            }
+        }
+        log.debug("Loaded ranking signals for {} hotels", missing.size());
+    }
+
+    static final class CachedSignals {
+        static final CachedSignals EMPTY = new CachedSignals(0.0, 0L, 0L, 0L);
+
+        final double averageRating;
+        final long reviewCount;
+        final long recentBookings;
+        final long loadedAt;
+
+        CachedSignals(double averageRating, long reviewCount, long recentBookings, long loadedAt) {
+            this.averageRating = averageRating;
+            this.reviewCount = reviewCount;
+            this.recentBookings = recentBookings;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.entity.Hotel;
+import net.blwsmartware.booking.util.TextUtils;
+import net.blwsmartware.booking.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Chỉ mục đảo ngược (inverted index) trong bộ nhớ cho tìm kiếm khách sạn theo tên, địa chỉ,
+ * thành phố và quốc gia. Từ khóa được bỏ dấu giống TextUtils nên "Đà Nẵng" khớp với "da nang".
+ * <p>
+ * Mỗi từ của truy vấn khớp theo tiền tố (TreeMap.subMap), các từ được kết hợp bằng AND.
+ * Điểm = trọng số trường chứa từ (tên > thành phố > địa chỉ > quốc gia) x idf, khớp chính xác
+ * được điểm cao hơn khớp tiền tố. Chỉ khách sạn đang hoạt động được đưa vào chỉ mục.
+ */
+@Component
+@Slf4j
+public class HotelSearchIndex {
+
+    static final int NAME_WEIGHT = 8;
+    static final int CITY_WEIGHT = 4;
+    static final int ADDRESS_WEIGHT = 2;
+    static final int COUNTRY_WEIGHT = 1;
+    static final double PREFIX_FACTOR = 0.6;
+
+    final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+    final Map<UUID, Set<String>> documentTerms = new HashMap<>();
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+    volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Nạp lại toàn bộ chỉ mục (chạy lúc khởi động)
+     */
+    public void rebuild(Collection<Hotel> hotels) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            for (Hotel hotel : hotels) {
+                if (hotel.isActive()) {
+                    addDocument(hotel);
+                }
+            }
+            ready = true;
+            log.info("Hotel search index built: {} hotels, {} terms", documentTerms.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cập nhật chỉ mục cho khách sạn sau khi transaction ghi khách sạn commit thành công
+     */
+    public void indexAfterCommit(Hotel hotel) {
+        UUID hotelId = hotel.getId();
+        boolean active = hotel.isActive();
+        Hotel snapshot = Hotel.builder()
+                .id(hotelId)
+                .name(hotel.getName())
+                .address(hotel.getAddress())
+                .city(hotel.getCity())
+                .country(hotel.getCountry())
+                .build();
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(hotelId);
+                if (active) {
+                    addDocument(snapshot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAfterCommit(UUID hotelId) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(hotelId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Id các khách sạn khớp với mọi từ của keyword, sắp xếp theo điểm liên quan giảm dần
+     */
+    public List<UUID> search(String keyword) {
+        String[] tokens = TextUtils.foldForSearch(keyword);
+        if (tokens.length == 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<UUID, Double> scores = null;
+            int documentCount = Math.max(1, documentTerms.size());
+            for (String token : tokens) {
+                Map<UUID, Double> tokenScores = scoreToken(token, documentCount);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<UUID, Double> merged = new HashMap<>();
+                    for (Map.Entry<UUID, Double> entry : scores.entrySet()) {
+                        Double tokenScore = tokenScores.get(entry.getKey());
+                        if (tokenScore != null) {
+                            merged.put(entry.getKey(), entry.getValue() + tokenScore);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<UUID, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<UUID, Double>comparingByValue().reversed());
+            List<UUID> result = new ArrayList<>(ranked.size());
+            for (Map.Entry<UUID, Double> entry : ranked) {
+                result.add(entry.getKey());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== HELPER METHODS =====
+
+    /**
+     * Điểm cao nhất của mỗi khách sạn cho một từ, xét mọi term có tiền tố là từ đó
+     */
+    private Map<UUID, Double> scoreToken(String token, int documentCount) {
+        Map<UUID, Double> scores = new HashMap<>();
+        SortedMap<String, Map<UUID, Integer>> matches = postings.subMap(token, token + Character.MAX_VALUE);
+        for (Map.Entry<String, Map<UUID, Integer>> term : matches.entrySet()) {
+            Map<UUID, Integer> docs = term.getValue();
+            double idf = Math.log(1.0 + (double) documentCount / docs.size());
+            double factor = term.getKey().equals(token) ? 1.0 : PREFIX_FACTOR;
+            for (Map.Entry<UUID, Integer> doc : docs.entrySet()) {
+                double score = doc.getValue() * idf * factor;
+                scores.merge(doc.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void addDocument(Hotel hotel) {
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, hotel.getName(), NAME_WEIGHT);
+        addField(weights, hotel.getCity(), CITY_WEIGHT);
+        addField(weights, hotel.getAddress(), ADDRESS_WEIGHT);
+        addField(weights, hotel.getCountry(), COUNTRY_WEIGHT);
+
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(hotel.getId(), entry.getValue());
+        }
+        documentTerms.put(hotel.getId(), weights.keySet());
+    }
+
+    private void addField(Map<String, Integer> weights, String text, int weight) {
+        for (String term : TextUtils.foldForSearch(text)) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private void removeDocument(UUID hotelId) {
+        Set<String> terms = documentTerms.remove(hotelId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<UUID, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(hotelId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+}
@@ -6,30 +6,45 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import net.blwsmartware.booking.dto.request.HotelCreateRequest;
 import net.blwsmartware.booking.dto.request.HotelUpdateRequest;
+import net.blwsmartware.booking.dto.response.AutocompleteSuggestionResponse;
+import net.blwsmartware.booking.dto.response.CacheStatsResponse;
 import net.blwsmartware.booking.dto.response.CityStatsResponse;
 import net.blwsmartware.booking.dto.response.DataResponse;
 import net.blwsmartware.booking.dto.response.HostDashboardResponse;
+import net.blwsmartware.booking.dto.response.HotelFacetsResponse;
+import net.blwsmartware.booking.dto.response.HotelGeoResponse;
 import net.blwsmartware.booking.dto.response.HotelResponse;
+import net.blwsmartware.booking.dto.response.HotelSearchResponse;
 import net.blwsmartware.booking.entity.Hotel;
+import net.blwsmartware.booking.entity.HotelStats;
 import net.blwsmartware.booking.entity.User;
 import net.blwsmartware.booking.entity.RoomType;
 import net.blwsmartware.booking.exception.AppRuntimeException;
 import net.blwsmartware.booking.enums.ErrorResponse;
 import net.blwsmartware.booking.mapper.HotelMapper;
+import net.blwsmartware.booking.mapper.ReviewMapper;
+import net.blwsmartware.booking.mapper.RoomTypeMapper;
 import net.blwsmartware.booking.repository.HotelRepository;
 import net.blwsmartware.booking.repository.ReviewRepository;
 import net.blwsmartware.booking.repository.RoomTypeRepository;
 import net.blwsmartware.booking.repository.UserRepository;
 import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.service.AmenityService;
 import net.blwsmartware.booking.service.HotelService;
+import net.blwsmartware.booking.service.HotelStatsService;
+import net.blwsmartware.booking.service.RoomInventoryService;
 import net.blwsmartware.booking.util.DataResponseUtils;
+import net.blwsmartware.booking.util.LruTtlCache;
 import net.blwsmartware.booking.util.TextUtils;
 import net.blwsmartware.booking.validator.IsAdmin;
 import net.blwsmartware.booking.validator.IsHost;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -37,8 +52,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -46,12 +62,41 @@ import java.util.UUID;
 @Slf4j
 public class HotelServiceImpl implements HotelService {
     
+    static final int MAX_GEO_RESULTS = 500;
+    static final int MAX_AUTOCOMPLETE_RESULTS = 20;
+    // Số khách sạn khớp tìm kiếm (theo độ liên quan) tối đa được sắp xếp lại theo sortBy
+    static final int MAX_SEARCH_CANDIDATES = 500;
+    static final int RECENT_REVIEWS_LIMIT = 10;
+    // Cột sắp xếp không null mới dùng được cho keyset pagination
+    static final Set<String> CURSOR_SORT_FIELDS = Set.of("name", "createdAt");
+    // sortBy của searchHotels: xếp theo điểm của chỉ mục tìm kiếm thay vì một cột
+    static final String RELEVANCE_SORT = "relevance";
+    // Sắp xếp theo giá phòng rẻ nhất: tăng dần (rẻ nhất trước), các trường khác giữ mặc định giảm dần
+    static final String PRICE_SORT_FIELD = "minRoomPrice";
+    // Mốc khoảng giá (VND/đêm) của facet giá: [0, 500k), [500k, 1tr), [1tr, 2tr), [2tr, 5tr), [5tr, ∞);
+    // phải khớp với CASE trong HotelRepository.countFacetsWithFiltersAndAmenities
+    static final BigDecimal[] PRICE_FACET_EDGES = {
+            BigDecimal.ZERO, new BigDecimal("500000"), new BigDecimal("1000000"),
+            new BigDecimal("2000000"), new BigDecimal("5000000")
+    };
+    
     HotelRepository hotelRepository;
     UserRepository userRepository;
     ReviewRepository reviewRepository;
     RoomTypeRepository roomTypeRepository;
     BookingRepository bookingRepository;
     HotelMapper hotelMapper;
+    RoomTypeMapper roomTypeMapper;
+    ReviewMapper reviewMapper;
+    RoomInventoryService roomInventoryService;
+    HotelStatsService hotelStatsService;
+    HotelSearchIndex hotelSearchIndex;
+    HotelGeoIndex hotelGeoIndex;
+    HotelAutocompleteIndex hotelAutocompleteIndex;
+    HotelRanker hotelRanker;
+    HotelDetailCache hotelDetailCache;
+    HotelListCache hotelListCache;
+    AmenityService amenityService;
     
     @Override
     @IsAdmin
@@ -75,10 +120,8 @@ public class HotelServiceImpl implements HotelService {
                 .map(hotelMapper::toResponse)
                 .toList();
         
-        // Populate review data
-        populateReviewData(hotelResponses);
-        // Populate room data
-        populateRoomData(hotelResponses);
+        // Populate review and room statistics
+        populateStats(hotelResponses);
         
         // Debug: Log mapped responses
         log.info("=== MAPPED RESPONSES DEBUG ===");
@@ -103,7 +146,10 @@ public class HotelServiceImpl implements HotelService {
         log.info("Getting hotels with filters - city: {}, country: {}, stars: {}, active: {}, featured: {}", 
                 city, country, starRating, isActive, isFeatured);
         
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(sortBy).descending());
+        Pageable pageable = PageRequest.of(pageNumber, pageSize, filterSort(sortBy));
+        if (PRICE_SORT_FIELD.equals(sortBy) && minPrice == null) {
+            minPrice = BigDecimal.ZERO;
+        }
         Page<Hotel> hotelPage = hotelRepository.findWithFilters(
                 city, country, starRating, isActive, isFeatured, minPrice, maxPrice, pageable);
         
@@ -111,10 +157,8 @@ public class HotelServiceImpl implements HotelService {
                 .map(hotelMapper::toResponse)
                 .toList();
         
-        // Populate review data
-        populateReviewData(hotelResponses);
-        // Populate room data
-        populateRoomData(hotelResponses);
+        // Populate review and room statistics
+        populateStats(hotelResponses);
         
         return DataResponseUtils.convertPageInfo(hotelPage, hotelResponses);
     }
@@ -123,6 +167,13 @@ public class HotelServiceImpl implements HotelService {
     public HotelResponse getHotelById(UUID id) {
         log.info("Getting hotel by ID: {} (public API)", id);
         
+        return hotelDetailCache.get(id, this::loadHotelDetail);
+    }
+    
+    /**
+     * Ghép trang chi tiết: loại phòng, RECENT_REVIEWS_LIMIT review mới nhất (không nạp toàn bộ review) và thống kê
+     */
+    private HotelResponse loadHotelDetail(UUID id) {
         Hotel hotel = hotelRepository.findById(id)
                 .orElseThrow(() -> new AppRuntimeException(ErrorResponse.HOTEL_NOT_FOUND));
         
@@ -132,9 +183,14 @@ public class HotelServiceImpl implements HotelService {
             throw new AppRuntimeException(ErrorResponse.HOTEL_NOT_FOUND);
         }
         
-        HotelResponse response = hotelMapper.toResponse(hotel);
-        populateReviewData(response);
-        populateRoomData(response);
+        HotelResponse response = hotelMapper.toResponseWithoutRelations(hotel);
+        response.setRoomTypes(roomTypeRepository.findByHotelId(id).stream()
+                .map(roomTypeMapper::toResponse)
+                .toList());
+        response.setRecentReviews(reviewRepository.findRecentReviewsByHotel(id, PageRequest.of(0, RECENT_REVIEWS_LIMIT)).stream()
+                .map(reviewMapper::toResponseWithoutHotel)
+                .toList());
+        populateStats(response);
         
         return response;
     }
@@ -149,8 +205,7 @@ public class HotelServiceImpl implements HotelService {
         
         // Admin can access hotels regardless of status
         HotelResponse response = hotelMapper.toResponse(hotel);
-        populateReviewData(response);
-        populateRoomData(response);
+        populateStats(response);
         
         return response;
     }
@@ -198,8 +253,11 @@ public class HotelServiceImpl implements HotelService {
         hotel.setCreatedBy(getCurrentUserId());
         hotel.setUpdatedBy(getCurrentUserId());
         
+        hotel.setAmenityMask(amenityService.registerAmenities(hotel.getAmenities()));
+        
         // Save hotel
         Hotel savedHotel = hotelRepository.save(hotel);
+        reindexAfterCommit(savedHotel);
         log.info("Admin done");
         return hotelMapper.toResponse(savedHotel);
     }
@@ -249,7 +307,10 @@ public class HotelServiceImpl implements HotelService {
         hotelMapper.updateEntity(hotel, request);
         hotel.setUpdatedBy(getCurrentUserId());
 
+        hotel.setAmenityMask(amenityService.registerAmenities(hotel.getAmenities()));
+
         Hotel updatedHotel = hotelRepository.save(hotel);
+        reindexAfterCommit(updatedHotel);
 
         return hotelMapper.toResponse(updatedHotel);
     }
@@ -267,6 +328,8 @@ public class HotelServiceImpl implements HotelService {
         // For now, we'll allow deletion
         
         hotelRepository.delete(hotel);
+        hotelStatsService.delete(id);
+        unindexAfterCommit(id);
     }
     
     @Override
@@ -293,6 +356,7 @@ public class HotelServiceImpl implements HotelService {
         log.info("  - New isFeatured: {}", hotel.isFeatured());
         
         Hotel updatedHotel = hotelRepository.save(hotel);
+        reindexAfterCommit(updatedHotel);
         
         // Debug: After save
         log.info("After save - Hotel: {} (ID: {})", updatedHotel.getName(), updatedHotel.getId());
@@ -322,6 +386,7 @@ public class HotelServiceImpl implements HotelService {
         hotel.setUpdatedBy(getCurrentUserId());
         
         Hotel updatedHotel = hotelRepository.save(hotel);
+        reindexAfterCommit(updatedHotel);
         
         return hotelMapper.toResponse(updatedHotel);
     }
@@ -339,6 +404,7 @@ public class HotelServiceImpl implements HotelService {
         hotel.setUpdatedBy(getCurrentUserId());
         
         Hotel updatedHotel = hotelRepository.save(hotel);
+        reindexAfterCommit(updatedHotel);
         
         return hotelMapper.toResponse(updatedHotel);
     }
@@ -347,15 +413,35 @@ public class HotelServiceImpl implements HotelService {
     public DataResponse<HotelResponse> searchHotels(String keyword, Integer pageNumber, Integer pageSize, String sortBy) {
         log.info("Searching hotels with keyword: {}", keyword);
         
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(sortBy).descending());
-        Page<Hotel> hotelPage = hotelRepository.searchActiveByNameOrCityOrCountry(keyword, pageable);
+        boolean byRelevance = RELEVANCE_SORT.equals(sortBy);
+        // Không có chỉ mục thì không có điểm liên quan: sắp theo tên
+        Pageable pageable = PageRequest.of(pageNumber, pageSize,
+                Sort.by(byRelevance ? "name" : sortBy).descending());
+        Page<Hotel> hotelPage;
+        if (hotelSearchIndex.isReady()) {
+            List<UUID> matchedIds = hotelSearchIndex.search(keyword);
+            if (byRelevance) {
+                // Chỉ mục trong bộ nhớ: xếp theo độ liên quan, chỉ nạp các khách sạn của trang hiện tại
+                hotelPage = toRankedPage(matchedIds, PageRequest.of(pageNumber, pageSize), matchedIds.size());
+            } else if (matchedIds.isEmpty()) {
+                hotelPage = Page.empty(pageable);
+            } else {
+                // Chỉ giữ các khách sạn liên quan nhất để IN có giới hạn; DB chỉ sắp id theo sortBy,
+                // sau đó nạp đúng các khách sạn của trang hiện tại
+                List<UUID> candidateIds = matchedIds.subList(0, Math.min(MAX_SEARCH_CANDIDATES, matchedIds.size()));
+                List<UUID> sortedIds = hotelRepository.findActiveIdsIn(candidateIds, pageable.getSort());
+                hotelPage = toRankedPage(sortedIds, PageRequest.of(pageNumber, pageSize), sortedIds.size());
+            }
+        } else {
+            hotelPage = hotelRepository.searchActiveByNameOrCityOrCountry(keyword, pageable);
+        }
         
         List<HotelResponse> hotelResponses = hotelPage.getContent().stream()
                 .map(hotelMapper::toResponse)
                 .toList();
         
         // Populate review data
-        populateReviewData(hotelResponses);
+        populateStats(hotelResponses);
         
         return DataResponseUtils.convertPageInfo(hotelPage, hotelResponses);
     }
@@ -372,7 +458,7 @@ public class HotelServiceImpl implements HotelService {
                 .toList();
         
         // Populate review data
-        populateReviewData(hotelResponses);
+        populateStats(hotelResponses);
         
         return DataResponseUtils.convertPageInfo(hotelPage, hotelResponses);
     }
@@ -407,6 +493,11 @@ public class HotelServiceImpl implements HotelService {
     
     @Override
     public DataResponse<HotelResponse> getActiveHotels(Integer pageNumber, Integer pageSize, String sortBy) {
+        return hotelListCache.getActiveHotels(HotelListCache.pageKey(pageNumber, pageSize, sortBy),
+                key -> loadActiveHotels(pageNumber, pageSize, sortBy));
+    }
+    
+    private DataResponse<HotelResponse> loadActiveHotels(Integer pageNumber, Integer pageSize, String sortBy) {
         log.info("Getting active hotels");
         
         Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(sortBy).descending());
@@ -417,13 +508,35 @@ public class HotelServiceImpl implements HotelService {
                 .toList();
         
         // Populate review data
-        populateReviewData(hotelResponses);
+        populateStats(hotelResponses);
         
         return DataResponseUtils.convertPageInfo(hotelPage, hotelResponses);
     }
     
+    @Override
+    public DataResponse<HotelResponse> getActiveHotelsAfter(String after, Integer pageSize, String sortBy) {
+        if (!CURSOR_SORT_FIELDS.contains(sortBy)) {
+            throw new AppRuntimeException(ErrorResponse.CURSOR_INVALID);
+        }
+        Sort sort = Sort.by(Sort.Direction.DESC, sortBy, "id");
+        Window<Hotel> window = hotelRepository.findByIsActiveTrue(
+                DataResponseUtils.decodeCursor(after, Set.of(sortBy, "id")), sort, Limit.of(pageSize));
+        
+        List<HotelResponse> hotelResponses = window.getContent().stream()
+                .map(hotelMapper::toResponse)
+                .toList();
+        populateStats(hotelResponses);
+        
+        return DataResponseUtils.convertWindowInfo(window, pageSize, hotelResponses);
+    }
+    
     @Override
     public DataResponse<HotelResponse> getFeaturedHotels(Integer pageNumber, Integer pageSize, String sortBy) {
+        return hotelListCache.getFeaturedHotels(HotelListCache.pageKey(pageNumber, pageSize, sortBy),
+                key -> loadFeaturedHotels(pageNumber, pageSize, sortBy));
+    }
+    
+    private DataResponse<HotelResponse> loadFeaturedHotels(Integer pageNumber, Integer pageSize, String sortBy) {
         log.info("Getting featured hotels (only active ones for public API)");
         
         Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(sortBy).descending());
@@ -434,7 +547,7 @@ public class HotelServiceImpl implements HotelService {
                 .toList();
         
         // Populate review data
-        populateReviewData(hotelResponses);
+        populateStats(hotelResponses);
         
         return DataResponseUtils.convertPageInfo(hotelPage, hotelResponses);
     }
@@ -539,27 +652,118 @@ public class HotelServiceImpl implements HotelService {
         return UUID.fromString(authentication.getName());
     }
 
-    private void populateReviewData(HotelResponse response) {
-        try {
-            UUID hotelId = UUID.fromString(String.valueOf(response.getId()));
-            
-            // Get average rating
-            Double averageRating = hotelRepository.getAverageRating(hotelId).orElse(0.0);
-            response.setAverageRating(averageRating);
-            
-            // Get total reviews count
-            Long totalReviews = reviewRepository.countByHotelId(hotelId);
-            response.setTotalReviews(totalReviews.intValue());
-            
-        } catch (Exception e) {
-            log.warn("Error populating review data for hotel {}: {}", response.getId(), e.getMessage());
-            response.setAverageRating(0.0);
-            response.setTotalReviews(0);
+    private void populateStats(HotelResponse response) {
+        populateStats(List.of(response));
+    }
+
+    /**
+     * Đọc thống kê từ read model hotel_stats cho cả trang trong 1 query.
+     * getStats chỉ đọc trong transaction của nơi gọi (phần ghi bù chạy ở transaction riêng), nên không bắt
+     * lỗi ở đây: nuốt lỗi sau khi transaction đã bị đánh dấu rollback-only chỉ đổi thành UnexpectedRollbackException.
+     */
+    private void populateStats(List<HotelResponse> responses) {
+        if (responses.isEmpty()) {
+            return;
+        }
+        Map<UUID, HotelStats> stats = hotelStatsService.getStats(collectHotelIds(responses));
+        
+        for (HotelResponse response : responses) {
+            HotelStats row = stats.get(response.getId());
+            response.setAverageRating(row != null ? row.getAverageRating() : 0.0);
+            response.setTotalReviews(row != null ? row.getReviewCount().intValue() : 0);
+            response.setTotalRoomTypes(row != null ? row.getRoomTypeCount() : 0);
+            response.setTotalRooms(row != null ? row.getTotalRooms() : 0);
+            response.setAvailableRooms(row != null ? row.getAvailableRooms() : 0);
+        }
+    }
+    
+    /**
+     * Cắt trang từ danh sách id đã xếp hạng và nạp khách sạn theo đúng thứ tự đó
+     */
+    private Page<Hotel> toRankedPage(List<UUID> rankedIds, Pageable pageable, long total) {
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<UUID> pageIds = rankedIds.subList(from, to);
+        
+        Map<UUID, Hotel> hotelsById = hotelRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Hotel::getId, Function.identity()));
+        List<Hotel> hotels = pageIds.stream()
+                .map(hotelsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(hotels, pageable, total);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void warmUpSearchIndex() {
+        List<Hotel> hotels = hotelRepository.findAll();
+        hotelSearchIndex.rebuild(hotels);
+        hotelGeoIndex.rebuild(hotels);
+        
+        // Độ phổ biến ban đầu của gợi ý = số review, lấy trong 1 query gộp
+        Map<UUID, Long> reviewCounts = new HashMap<>();
+        List<UUID> activeIds = hotels.stream().filter(Hotel::isActive).map(Hotel::getId).toList();
+        if (!activeIds.isEmpty()) {
+            for (Object[] row : reviewRepository.getReviewStatsByHotelIds(activeIds)) {
+                reviewCounts.put((UUID) row[0], ((Number) row[2]).longValue());
+            }
         }
+        hotelAutocompleteIndex.rebuild(hotels, reviewCounts);
+    }
+    
+    @Override
+    public List<AutocompleteSuggestionResponse> autocomplete(String query, int limit) {
+        return hotelAutocompleteIndex.suggest(query, Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_RESULTS)));
+    }
+    
+    /**
+     * Cập nhật các chỉ mục tìm kiếm và xóa cache chi tiết sau khi transaction ghi khách sạn commit
+     */
+    private void reindexAfterCommit(Hotel hotel) {
+        hotelSearchIndex.indexAfterCommit(hotel);
+        hotelGeoIndex.indexAfterCommit(hotel);
+        hotelAutocompleteIndex.indexAfterCommit(hotel);
+        hotelDetailCache.evictAfterCommit(hotel.getId());
+        hotelListCache.invalidateAllAfterCommit();
     }
 
-    private void populateReviewData(List<HotelResponse> responses) {
-        responses.forEach(this::populateReviewData);
+    /**
+     * Gỡ khách sạn đã xóa khỏi các chỉ mục tìm kiếm và cache sau khi transaction xóa commit
+     */
+    private void unindexAfterCommit(UUID hotelId) {
+        hotelSearchIndex.removeAfterCommit(hotelId);
+        hotelGeoIndex.removeAfterCommit(hotelId);
+        hotelAutocompleteIndex.removeAfterCommit(hotelId);
+        hotelDetailCache.evictAfterCommit(hotelId);
+        hotelListCache.invalidateAllAfterCommit();
+    }
+    
+    @Override
+    public List<CacheStatsResponse> getCacheStats() {
+        return List.of(
+                toCacheStats("hotelDetail", hotelDetailCache.getCache()),
+                toCacheStats("featuredHotels", hotelListCache.getFeaturedHotels()),
+                toCacheStats("activeHotels", hotelListCache.getActiveHotels()),
+                toCacheStats("topCities", hotelListCache.getTopCities()));
+    }
+    
+    private static CacheStatsResponse toCacheStats(String name, LruTtlCache<?, ?> cache) {
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        return CacheStatsResponse.builder()
+                .name(name)
+                .size(cache.size())
+                .hits(hits)
+                .misses(misses)
+                .hitRate(hits + misses > 0 ? (double) hits / (hits + misses) : 0.0)
+                .build();
+    }
+    
+    private Set<UUID> collectHotelIds(List<HotelResponse> responses) {
+        Set<UUID> hotelIds = new HashSet<>();
+        responses.forEach(response -> hotelIds.add(response.getId()));
+        return hotelIds;
     }
     
     /**
@@ -637,8 +841,11 @@ public class HotelServiceImpl implements HotelService {
         // Host cannot set featured status - only admin can
         hotel.setFeatured(false);
         
+        hotel.setAmenityMask(amenityService.registerAmenities(hotel.getAmenities()));
+        
         // Save hotel
         Hotel savedHotel = hotelRepository.save(hotel);
+        reindexAfterCommit(savedHotel);
         
         return hotelMapper.toResponse(savedHotel);
     }
@@ -682,7 +889,10 @@ public class HotelServiceImpl implements HotelService {
         // Restore featured status - only admin can change this
         hotel.setFeatured(currentFeaturedStatus);
 
+        hotel.setAmenityMask(amenityService.registerAmenities(hotel.getAmenities()));
+
         Hotel updatedHotel = hotelRepository.save(hotel);
+        reindexAfterCommit(updatedHotel);
 
         return hotelMapper.toResponse(updatedHotel);
     }
@@ -699,6 +909,8 @@ public class HotelServiceImpl implements HotelService {
         // For now, we'll allow deletion
         
         hotelRepository.delete(hotel);
+        hotelStatsService.delete(id);
+        unindexAfterCommit(id);
     }
     
     @Override
@@ -713,6 +925,7 @@ public class HotelServiceImpl implements HotelService {
         hotel.setUpdatedBy(getCurrentUserId());
         
         Hotel updatedHotel = hotelRepository.save(hotel);
+        reindexAfterCommit(updatedHotel);
         
         return hotelMapper.toResponse(updatedHotel);
     }
@@ -756,50 +969,205 @@ public class HotelServiceImpl implements HotelService {
     }
 
     @Override
-    public DataResponse<HotelResponse> searchHotelsWithFilters(
+    public HotelSearchResponse searchHotelsWithFilters(
             String city, String country, Integer starRating, 
-            BigDecimal minPrice, BigDecimal maxPrice, String amenities,
-            Integer pageNumber, Integer pageSize, String sortBy) {
-        log.info("Searching hotels with filters - city: {}, country: {}, stars: {}, minPrice: {}, maxPrice: {}, amenities: {}", 
-                city, country, starRating, minPrice, maxPrice, amenities);
-        
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(sortBy).descending());
-        Page<Hotel> hotelPage = hotelRepository.findActiveWithFiltersAndAmenities(
-                city, country, starRating, null, minPrice, maxPrice, amenities, pageable);
+            BigDecimal minPrice, BigDecimal maxPrice, String amenities, boolean matchAllAmenities,
+            boolean includeFacets, Integer pageNumber, Integer pageSize, String sortBy) {
+        log.info("Searching hotels with filters - city: {}, country: {}, stars: {}, minPrice: {}, maxPrice: {}, amenities: {} ({})", 
+                city, country, starRating, minPrice, maxPrice, amenities, matchAllAmenities ? "all" : "any");
+        
+        Pageable pageable = PageRequest.of(pageNumber, pageSize, filterSort(sortBy));
+        if (PRICE_SORT_FIELD.equals(sortBy) && minPrice == null) {
+            // Khách sạn chưa có loại phòng (giá null) không đặt được → loại khỏi "rẻ nhất trước", quét theo index giá
+            minPrice = BigDecimal.ZERO;
+        }
+        Long amenityMask = amenityService.resolveFilterMask(amenities, matchAllAmenities);
+        if (amenityMask == null) {
+            // Tiện ích không có trong từ điển → không khách sạn nào khớp, khỏi truy vấn DB
+            return new HotelSearchResponse(DataResponseUtils.convertPageInfo(Page.<Hotel>empty(pageable), List.of()),
+                    includeFacets ? toFacets(List.of()) : null);
+        }
+        Page<Hotel> hotelPage;
+        if (hotelRanker.supports(sortBy)) {
+            // Xếp hạng trong bộ nhớ: chỉ giữ top (offset + pageSize) ứng viên bằng heap rồi cắt trang
+            List<Object[]> candidates = hotelRepository.findRankingCandidates(
+                    city, country, starRating, minPrice, maxPrice, amenityMask, matchAllAmenities);
+            int k = (int) Math.min(pageable.getOffset() + pageSize, candidates.size());
+            List<UUID> rankedIds = hotelRanker.topK(sortBy, candidates, minPrice, maxPrice, k);
+            hotelPage = toRankedPage(rankedIds, PageRequest.of(pageNumber, pageSize), candidates.size());
+        } else {
+            hotelPage = hotelRepository.findActiveWithFiltersAndAmenities(
+                    city, country, starRating, null, minPrice, maxPrice, amenityMask, matchAllAmenities, pageable);
+        }
         
         List<HotelResponse> hotelResponses = hotelPage.getContent().stream()
                 .map(hotelMapper::toResponseWithoutRelations)
                 .toList();
         
         // Populate review data
-        populateReviewData(hotelResponses);
+        populateStats(hotelResponses);
         
-        return DataResponseUtils.convertPageInfo(hotelPage, hotelResponses);
+        HotelFacetsResponse facets = null;
+        if (includeFacets) {
+            facets = toFacets(hotelRepository.countFacetsWithFiltersAndAmenities(
+                    city, country, starRating, null, minPrice, maxPrice, amenityMask, matchAllAmenities));
+        }
+        return new HotelSearchResponse(DataResponseUtils.convertPageInfo(hotelPage, hotelResponses), facets);
+    }
+    
+    static Sort filterSort(String sortBy) {
+        if (PRICE_SORT_FIELD.equals(sortBy)) {
+            return Sort.by(Sort.Direction.ASC, PRICE_SORT_FIELD, "id");
+        }
+        return Sort.by(sortBy).descending();
+    }
+    
+    /**
+     * Gom các dòng (khóa thành phố, nhãn, hạng sao, khoảng giá, số khách sạn) thành 3 nhóm facet trong một lượt duyệt
+     */
+    static HotelFacetsResponse toFacets(List<Object[]> rows) {
+        Map<String, Long> cityCounts = new HashMap<>();
+        Map<String, String> cityLabels = new HashMap<>();
+        Map<Integer, Long> stars = new TreeMap<>(Comparator.reverseOrder());
+        long[] priceCounts = new long[PRICE_FACET_EDGES.length];
+        for (Object[] row : rows) {
+            long count = ((Number) row[4]).longValue();
+            String cityKey = (String) row[0];
+            if (cityKey != null && !cityKey.isEmpty()) {
+                cityCounts.merge(cityKey, count, Long::sum);
+                cityLabels.merge(cityKey, (String) row[1], (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+            if (row[2] != null) {
+                stars.merge((Integer) row[2], count, Long::sum);
+            }
+            int bucket = ((Number) row[3]).intValue();
+            if (bucket >= 0) {
+                priceCounts[bucket] += count;
+            }
+        }
+        Map<String, Long> cities = new HashMap<>();
+        cityCounts.forEach((key, count) -> cities.put(cityLabels.get(key), count));
+        
+        List<HotelFacetsResponse.FacetCount> cityFacets = cities.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new HotelFacetsResponse.FacetCount(entry.getKey(), entry.getValue()))
+                .toList();
+        List<HotelFacetsResponse.FacetCount> starFacets = stars.entrySet().stream()
+                .map(entry -> new HotelFacetsResponse.FacetCount(String.valueOf(entry.getKey()), entry.getValue()))
+                .toList();
+        List<HotelFacetsResponse.PriceRangeCount> priceFacets = new ArrayList<>();
+        for (int i = 0; i < PRICE_FACET_EDGES.length; i++) {
+            priceFacets.add(HotelFacetsResponse.PriceRangeCount.builder()
+                    .minPrice(PRICE_FACET_EDGES[i])
+                    .maxPrice(i + 1 < PRICE_FACET_EDGES.length ? PRICE_FACET_EDGES[i + 1] : null)
+                    .count(priceCounts[i])
+                    .build());
+        }
+        
+        return HotelFacetsResponse.builder()
+                .cities(cityFacets)
+                .starRatings(starFacets)
+                .priceRanges(priceFacets)
+                .build();
     }
 
     @Override
-    public List<String> getAvailableAmenities() {
-        log.info("Getting all available amenities from hotels");
-        
-        List<String> rawAmenities = hotelRepository.findAllAmenitiesRaw();
-        
-        // Parse comma-separated amenities and create unique list
-        List<String> allAmenities = rawAmenities.stream()
-                .filter(amenitiesString -> amenitiesString != null && !amenitiesString.trim().isEmpty())
-                .flatMap(amenitiesString -> java.util.Arrays.stream(amenitiesString.split(",")))
-                .map(String::trim)
-                .filter(amenity -> !amenity.isEmpty())
-                .distinct()
-                .sorted()
+    public DataResponse<HotelResponse> searchAvailableHotels(String city, LocalDate checkInDate, LocalDate checkOutDate,
+                                                             Integer guests, Integer pageNumber, Integer pageSize,
+                                                             String sortBy) {
+        log.info("Searching available hotels - city: {}, checkIn: {}, checkOut: {}, guests: {}", 
+                city, checkInDate, checkOutDate, guests);
+        
+        if (!checkOutDate.isAfter(checkInDate)) {
+            throw new AppRuntimeException(ErrorResponse.INVALID_BOOKING_DATES);
+        }
+        int guestCount = guests != null && guests > 0 ? guests : 1;
+        
+        Sort sort = Sort.by(sortBy).descending().and(Sort.by("id"));
+        Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
+        
+        // 1 query lấy các loại phòng ứng viên, lọc theo ngày bằng lịch phòng trong bộ nhớ
+        List<Object[]> candidates = hotelRepository.findBookableRoomTypeCandidates(city, guestCount, sort);
+        LinkedHashSet<UUID> availableHotelIds = new LinkedHashSet<>();
+        boolean calendarMiss = false;
+        for (Object[] row : candidates) {
+            UUID hotelId = (UUID) row[0];
+            if (availableHotelIds.contains(hotelId)) {
+                continue;
+            }
+            int remaining = roomInventoryService.getCachedRemainingRooms((UUID) row[1], checkInDate, checkOutDate);
+            if (remaining < 0) {
+                calendarMiss = true;
+                break;
+            }
+            if (remaining > 0) {
+                availableHotelIds.add(hotelId);
+            }
+        }
+        
+        Page<Hotel> hotelPage;
+        if (calendarMiss) {
+            // Lịch phòng chưa sẵn sàng → để DB lọc và phân trang bằng 1 query set-based
+            hotelPage = hotelRepository.findActiveWithAvailableRooms(
+                    city, checkInDate, checkOutDate, guestCount, pageable);
+        } else {
+            // Id đã theo thứ tự sortBy của query ứng viên: chỉ nạp các khách sạn của trang hiện tại
+            List<UUID> ids = new ArrayList<>(availableHotelIds);
+            hotelPage = toRankedPage(ids, pageable, ids.size());
+        }
+        
+        List<HotelResponse> hotelResponses = hotelPage.getContent().stream()
+                .map(hotelMapper::toResponseWithoutRelations)
                 .toList();
         
-        log.info("Found {} unique amenities from {} hotel records", allAmenities.size(), rawAmenities.size());
+        // Populate review data
+        populateStats(hotelResponses);
         
-        return allAmenities;
+        return DataResponseUtils.convertPageInfo(hotelPage, hotelResponses);
+    }
+
+    @Override
+    public List<String> getAvailableAmenities() {
+        return amenityService.getAmenityNames();
+    }
+
+    @Override
+    public List<HotelGeoResponse> findNearbyHotels(double latitude, double longitude, int limit, Double radiusKm,
+                                                   String city, Integer starRating,
+                                                   BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!isValidCoordinate(latitude, longitude) || (radiusKm != null && radiusKm <= 0)) {
+            throw new AppRuntimeException(ErrorResponse.INVALID_GEO_QUERY);
+        }
+        int k = Math.max(1, Math.min(limit, MAX_GEO_RESULTS));
+        return hotelGeoIndex.nearest(latitude, longitude, k, radiusKm,
+                HotelGeoIndex.filter(city, starRating, minPrice, maxPrice));
+    }
+
+    @Override
+    public List<HotelGeoResponse> findHotelsInBounds(double minLatitude, double minLongitude,
+                                                     double maxLatitude, double maxLongitude, int limit,
+                                                     String city, Integer starRating,
+                                                     BigDecimal minPrice, BigDecimal maxPrice) {
+        // minLongitude > maxLongitude được chấp nhận: khung bản đồ vắt qua kinh tuyến 180
+        if (!isValidCoordinate(minLatitude, minLongitude) || !isValidCoordinate(maxLatitude, maxLongitude)
+                || minLatitude > maxLatitude) {
+            throw new AppRuntimeException(ErrorResponse.INVALID_GEO_QUERY);
+        }
+        int max = Math.max(1, Math.min(limit, MAX_GEO_RESULTS));
+        return hotelGeoIndex.within(minLatitude, minLongitude, maxLatitude, maxLongitude, max,
+                HotelGeoIndex.filter(city, starRating, minPrice, maxPrice));
+    }
+
+    private static boolean isValidCoordinate(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
     }
 
     @Override
     public List<CityStatsResponse> getTopCitiesByHotelCount(int limit) {
+        return hotelListCache.getTopCities(limit, this::loadTopCities);
+    }
+    
+    private List<CityStatsResponse> loadTopCities(int limit) {
         log.info("Getting top {} cities by hotel count", limit);
         
         Pageable pageable = PageRequest.of(0, limit);
@@ -817,38 +1185,6 @@ public class HotelServiceImpl implements HotelService {
         return cityStats;
     }
 
-    private void populateRoomData(HotelResponse response) {
-        try {
-            UUID hotelId = response.getId(); // getId() already returns UUID
-            
-            // Get total room types count
-            Long totalRoomTypes = roomTypeRepository.countByHotelId(hotelId);
-            response.setTotalRoomTypes(totalRoomTypes != null ? totalRoomTypes.intValue() : 0);
-            
-            // Get total rooms count
-            Long totalRooms = roomTypeRepository.getTotalRoomsByHotel(hotelId);
-            response.setTotalRooms(totalRooms != null ? totalRooms.intValue() : 0);
-            
-            // Get available rooms count
-            Long availableRooms = roomTypeRepository.getAvailableRoomsByHotel(hotelId);
-            response.setAvailableRooms(availableRooms != null ? availableRooms.intValue() : 0);
-            
-            log.debug("Room statistics populated for hotel {}: {} room types, {} total rooms, {} available rooms", 
-                    response.getName(), response.getTotalRoomTypes(), response.getTotalRooms(), response.getAvailableRooms());
-                    
-        } catch (Exception e) {
-            log.error("Error populating room data for hotel {}: {}", response.getId(), e.getMessage());
-            // Set default values in case of error
-            response.setTotalRoomTypes(0);
-            response.setTotalRooms(0);
-            response.setAvailableRooms(0);
-        }
-    }
-
-    private void populateRoomData(List<HotelResponse> responses) {
-        responses.forEach(this::populateRoomData);
-    }
-
     @Override
     public int getAvailableRoomsByHotel(UUID hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
         // Lấy tất cả RoomType của khách sạn
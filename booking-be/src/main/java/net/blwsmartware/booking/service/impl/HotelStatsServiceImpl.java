@@ -0,0 +1,187 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.entity.HotelStats;
+import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.repository.HotelStatsRepository;
+import net.blwsmartware.booking.repository.ReviewRepository;
+import net.blwsmartware.booking.repository.RoomTypeRepository;
+import net.blwsmartware.booking.service.HotelStatsService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Read model hotel_stats. Cache/index trong bộ nhớ (trang chi tiết, xếp hạng, gợi ý) do HotelCacheInvalidator xóa.
+ */
+@Service
+@Slf4j
+public class HotelStatsServiceImpl implements HotelStatsService {
+
+    final HotelStatsRepository hotelStatsRepository;
+    final HotelRepository hotelRepository;
+    final ReviewRepository reviewRepository;
+    final RoomTypeRepository roomTypeRepository;
+    // Bộ lọc giá của tìm kiếm bản đồ dùng khoảng giá loại phòng
+    final HotelGeoIndex hotelGeoIndex;
+    final TransactionTemplate requiresNew;
+
+    public HotelStatsServiceImpl(HotelStatsRepository hotelStatsRepository,
+                                 HotelRepository hotelRepository,
+                                 ReviewRepository reviewRepository,
+                                 RoomTypeRepository roomTypeRepository,
+                                 HotelGeoIndex hotelGeoIndex,
+                                 PlatformTransactionManager transactionManager) {
+        this.hotelStatsRepository = hotelStatsRepository;
+        this.hotelRepository = hotelRepository;
+        this.reviewRepository = reviewRepository;
+        this.roomTypeRepository = roomTypeRepository;
+        this.hotelGeoIndex = hotelGeoIndex;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, HotelStats> getStats(Collection<UUID> hotelIds) {
+        Map<UUID, HotelStats> stats = new HashMap<>();
+        if (hotelIds.isEmpty()) {
+            return stats;
+        }
+        for (HotelStats row : hotelStatsRepository.findAllById(hotelIds)) {
+            stats.put(row.getHotelId(), row);
+        }
+
+        // Khách sạn chưa có read model (dữ liệu cũ, khách sạn mới) → tính lại từ dữ liệu gốc
+        Set<UUID> missing = new HashSet<>(hotelIds);
+        missing.removeAll(stats.keySet());
+        if (!missing.isEmpty()) {
+            Map<UUID, HotelStats> rebuilt = compute(missing);
+            stats.putAll(rebuilt);
+            saveInNewTransaction(rebuilt.values());
+        }
+        return stats;
+    }
+
+    @Override
+    @Transactional
+    public void onReviewCreated(UUID hotelId, int rating) {
+        hotelStatsRepository.applyReviewDelta(hotelId, (long) rating, 1L);
+    }
+
+    @Override
+    @Transactional
+    public void onReviewUpdated(UUID hotelId, int oldRating, int newRating) {
+        if (oldRating != newRating) {
+            hotelStatsRepository.applyReviewDelta(hotelId, (long) newRating - oldRating, 0L);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onReviewDeleted(UUID hotelId, int rating) {
+        hotelStatsRepository.applyReviewDelta(hotelId, -(long) rating, -1L);
+    }
+
+    @Override
+    @Transactional
+    public void refreshRoomStats(UUID hotelId) {
+        List<Object[]> rows = roomTypeRepository.getRoomStatsByHotelIds(List.of(hotelId));
+        Object[] row = rows.isEmpty() ? null : rows.get(0);
+
+        BigDecimal minPrice = row != null ? (BigDecimal) row[4] : null;
+        BigDecimal maxPrice = row != null ? (BigDecimal) row[5] : null;
+
+        // Giá thật theo loại phòng được ghi thẳng lên hotels để tìm kiếm lọc/sắp xếp theo giá dùng được index
+        hotelRepository.updateRoomPriceRange(hotelId, minPrice, maxPrice);
+        hotelGeoIndex.updatePriceRangeAfterCommit(hotelId, minPrice, maxPrice);
+        int updated = hotelStatsRepository.updateRoomStats(hotelId,
+                row != null ? ((Number) row[1]).intValue() : 0,
+                toInt(row, 2), toInt(row, 3), minPrice, maxPrice);
+        if (updated == 0) {
+            save(compute(List.of(hotelId)).values());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void backfillRoomPriceRanges() {
+        log.info("Backfilled room price range for {} hotels", hotelRepository.backfillRoomPriceRange());
+    }
+
+    @Override
+    @Transactional
+    public void onAvailableRoomsChanged(UUID hotelId, int delta) {
+        hotelStatsRepository.applyAvailableRoomsDelta(hotelId, delta);
+    }
+
+    @Override
+    @Transactional
+    public void delete(UUID hotelId) {
+        hotelStatsRepository.deleteById(hotelId);
+    }
+
+    // ===== HELPER METHODS =====
+
+    /**
+     * Tính lại đầy đủ thống kê bằng 2 query gộp theo hotel id, chỉ đọc
+     */
+    private Map<UUID, HotelStats> compute(Collection<UUID> hotelIds) {
+        Map<UUID, Object[]> reviewStats = new HashMap<>();
+        for (Object[] row : reviewRepository.getReviewStatsByHotelIds(hotelIds)) {
+            reviewStats.put((UUID) row[0], row);
+        }
+        Map<UUID, Object[]> roomStats = new HashMap<>();
+        for (Object[] row : roomTypeRepository.getRoomStatsByHotelIds(hotelIds)) {
+            roomStats.put((UUID) row[0], row);
+        }
+
+        Map<UUID, HotelStats> result = new HashMap<>();
+        for (UUID hotelId : hotelIds) {
+            Object[] review = reviewStats.get(hotelId);
+            Object[] room = roomStats.get(hotelId);
+            HotelStats stats = HotelStats.builder()
+                    .hotelId(hotelId)
+                    .ratingSum(review != null && review[3] != null ? ((Number) review[3]).longValue() : 0L)
+                    .reviewCount(review != null ? ((Number) review[2]).longValue() : 0L)
+                    .roomTypeCount(room != null ? ((Number) room[1]).intValue() : 0)
+                    .totalRooms(toInt(room, 2))
+                    .availableRooms(toInt(room, 3))
+                    .minPrice(room != null ? (BigDecimal) room[4] : null)
+                    .maxPrice(room != null ? (BigDecimal) room[5] : null)
+                    .build();
+            result.put(hotelId, stats);
+        }
+        return result;
+    }
+
+    private void save(Collection<HotelStats> rows) {
+        for (HotelStats stats : rows) {
+            hotelStatsRepository.upsert(stats.getHotelId(), stats.getRatingSum(), stats.getReviewCount(),
+                    stats.getRoomTypeCount(), stats.getTotalRooms(), stats.getAvailableRooms(),
+                    stats.getMinPrice(), stats.getMaxPrice());
+        }
+        log.info("Rebuilt hotel stats for {} hotels", rows.size());
+    }
+
+    /**
+     * Lưu read model vừa tính cho đường đọc trong transaction riêng: lỗi ghi (deadlock, lock timeout)
+     * chỉ được log, không đánh dấu rollback-only transaction của nơi gọi; lần đọc sau sẽ tính lại.
+     */
+    private void saveInNewTransaction(Collection<HotelStats> rows) {
+        try {
+            requiresNew.executeWithoutResult(status -> save(rows));
+        } catch (RuntimeException e) {
+            log.warn("Could not persist rebuilt hotel stats for {} hotels: {}", rows.size(), e.getMessage());
+        }
+    }
+
+    private int toInt(Object[] row, int index) {
+        return row != null && row[index] != null ? ((Number) row[index]).intValue() : 0;
+    }
+}
@@ -24,6 +24,7 @@ import java.util.UUID;
 public class PaymentFailureRecoveryServiceImpl implements PaymentFailureRecoveryService {
     
     BookingRepository bookingRepository;
+    BookingHoldSweeper bookingHoldSweeper;
     
 
     
@@ -42,8 +43,10 @@ public class PaymentFailureRecoveryServiceImpl implements PaymentFailureRecovery
         if (booking.getPaymentStatus() == PaymentStatus.FAILED && 
             booking.getStatus() == BookingStatus.PENDING) {
             
-            // Check if booking is not expired (within 24 hours of creation)
-            LocalDateTime expiryTime = booking.getCreatedAt().plusHours(24);
+            // Booking mới có hạn giữ phòng; booking cũ vẫn dùng mốc 24 giờ từ lúc tạo
+            LocalDateTime expiryTime = booking.getHoldExpiresAt() != null
+                    ? booking.getHoldExpiresAt()
+                    : booking.getCreatedAt().plusHours(24);
             return LocalDateTime.now().isBefore(expiryTime);
         }
         
@@ -52,10 +55,11 @@ public class PaymentFailureRecoveryServiceImpl implements PaymentFailureRecovery
     
     @Override
     public void autoCancelExpiredFailedBookings() {
-        // This method is kept for manual admin use if needed
-        // No automatic scheduling - host will handle booking decisions
+        // Booking có hạn giữ phòng được hủy tự động bởi BookingHoldSweeper, ở đây chạy bù ngay lập tức
         log.info("Manual cleanup of expired failed bookings requested");
+        bookingHoldSweeper.recoverExpiredHolds();
         
+        // Booking cũ (không có hạn giữ phòng) chỉ được ghi log để admin xem xét
         LocalDateTime cutoffTime = LocalDateTime.now().minusHours(24);
         List<Booking> expiredFailedBookings = bookingRepository
                 .findByPaymentStatusAndStatusAndCreatedAtBefore(
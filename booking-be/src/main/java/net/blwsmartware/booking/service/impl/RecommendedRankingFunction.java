@@ -0,0 +1,65 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.service.HotelRankingFunction;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * sortBy=recommended: trộn điểm đánh giá (trung bình Bayes để khách sạn ít review không vọt lên đầu),
+ * số review, tốc độ đặt phòng gần đây, cờ nổi bật và độ hợp với khoảng giá đang lọc. Mỗi thành phần
+ * được đưa về [0, 1] trước khi nhân trọng số.
+ */
+@Component
+public class RecommendedRankingFunction implements HotelRankingFunction {
+
+    static final double RATING_WEIGHT = 0.40;
+    static final double REVIEWS_WEIGHT = 0.15;
+    static final double VELOCITY_WEIGHT = 0.20;
+    static final double FEATURED_WEIGHT = 0.10;
+    static final double PRICE_FIT_WEIGHT = 0.15;
+
+    static final double PRIOR_RATING = 3.5;
+    static final double PRIOR_REVIEWS = 5;
+    static final double REVIEWS_SATURATION = 500;
+    static final double BOOKINGS_SATURATION = 50;
+
+    @Override
+    public String getName() {
+        return "recommended";
+    }
+
+    @Override
+    public double score(Signals signals, BigDecimal minPrice, BigDecimal maxPrice) {
+        double rating = (signals.getAverageRating() * signals.getReviewCount() + PRIOR_RATING * PRIOR_REVIEWS)
+                / (signals.getReviewCount() + PRIOR_REVIEWS) / 5.0;
+        return RATING_WEIGHT * rating
+                + REVIEWS_WEIGHT * saturate(signals.getReviewCount(), REVIEWS_SATURATION)
+                + VELOCITY_WEIGHT * saturate(signals.getRecentBookings(), BOOKINGS_SATURATION)
+                + FEATURED_WEIGHT * (signals.isFeatured() ? 1.0 : 0.0)
+                + PRICE_FIT_WEIGHT * priceFit(signals.getMinRoomPrice(), minPrice, maxPrice);
+    }
+
+    private static double saturate(long value, double saturation) {
+        return Math.min(1.0, Math.log1p(value) / Math.log1p(saturation));
+    }
+
+    /**
+     * Không có giá phòng → 0, không lọc giá tối đa → trung tính 0.5,
+     * có ngân sách → càng rẻ trong khoảng [minPrice, maxPrice] càng hợp
+     */
+    static double priceFit(BigDecimal price, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (price == null) {
+            return 0.0;
+        }
+        if (maxPrice == null) {
+            return 0.5;
+        }
+        double low = minPrice != null ? minPrice.doubleValue() : 0.0;
+        double span = maxPrice.doubleValue() - low;
+        if (span <= 0) {
+            return 1.0;
+        }
+        return Math.max(0.0, Math.min(1.0, 1.0 - (price.doubleValue() - low) / span));
+    }
+}
@@ -0,0 +1,129 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.entity.Booking;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelDailyRevenueRepository;
+import net.blwsmartware.booking.service.RevenueRollupService;
+import net.blwsmartware.booking.util.TransactionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dòng tổng hợp luôn được tính lại từ bookings của đúng (khách sạn, ngày) đó thay vì cộng dồn delta,
+ * nên gọi lặp lại (IPN gửi lại, hủy sau hoàn tiền một phần) không làm lệch số liệu.
+ * <p>
+ * Việc tính lại chạy sau khi transaction của nơi gọi commit, trong transaction mới: khóa dòng của ngày
+ * (SELECT ... FOR UPDATE) trước khi đọc bookings. Hai thanh toán cùng khách sạn, cùng ngày vì thế tính lại
+ * tuần tự và lần sau luôn thấy booking của lần trước (snapshot REPEATABLE READ được tạo sau khi có khóa).
+ */
+@Service
+@Slf4j
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    final HotelDailyRevenueRepository hotelDailyRevenueRepository;
+    final BookingRepository bookingRepository;
+    final TransactionTemplate requiresNew;
+
+    public RevenueRollupServiceImpl(HotelDailyRevenueRepository hotelDailyRevenueRepository,
+                                    BookingRepository bookingRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.hotelDailyRevenueRepository = hotelDailyRevenueRepository;
+        this.bookingRepository = bookingRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void refresh(Booking booking) {
+        if (booking.getHotel() == null || booking.getCreatedAt() == null) {
+            return;
+        }
+        UUID hotelId = booking.getHotel().getId();
+        LocalDate day = booking.getCreatedAt().toLocalDate();
+
+        TransactionUtils.afterCommit(() -> refreshDay(hotelId, day));
+    }
+
+    void refreshDay(UUID hotelId, LocalDate day) {
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                hotelDailyRevenueRepository.insertEmptyIfAbsent(UUID.randomUUID(), hotelId, day);
+                hotelDailyRevenueRepository.lockDay(hotelId, day);
+
+                List<Object[]> rows = bookingRepository.aggregateDailyRevenue(
+                        hotelId, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+                if (rows.isEmpty()) {
+                    // Booking cuối cùng của ngày rời khỏi tập đã thanh toán (vd. host hủy không hoàn tiền)
+                    hotelDailyRevenueRepository.deleteByHotelAndDate(hotelId, day);
+                    return;
+                }
+                upsert(rows.get(0));
+            });
+        } catch (RuntimeException e) {
+            // Booking đã commit; dòng lệch sẽ được sửa bởi lần refresh sau hoặc backfill
+            log.error("Failed to refresh daily revenue for hotel {} on {}: {}", hotelId, day, e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional
+    public int backfill(LocalDate startDate, LocalDate endDate) {
+        hotelDailyRevenueRepository.deleteByDateRange(startDate, endDate);
+
+        // Từng tháng một để số dòng tổng hợp giữ trong bộ nhớ luôn nhỏ
+        int written = 0;
+        for (LocalDate from = startDate; !from.isAfter(endDate); from = from.plusMonths(1).withDayOfMonth(1)) {
+            LocalDate to = from.plusMonths(1).withDayOfMonth(1);
+            if (to.isAfter(endDate)) {
+                to = endDate.plusDays(1);
+            }
+            for (Object[] row : bookingRepository.aggregateDailyRevenue(null, from.atStartOfDay(), to.atStartOfDay())) {
+                upsert(row);
+                written++;
+            }
+        }
+        log.info("Backfilled {} daily revenue rows from {} to {}", written, startDate, endDate);
+        return written;
+    }
+
+    @Override
+    @Transactional
+    public void backfillIfEmpty() {
+        if (hotelDailyRevenueRepository.count() > 0) {
+            return;
+        }
+        bookingRepository.findEarliestCreatedAt()
+                .map(LocalDateTime::toLocalDate)
+                .ifPresent(earliest -> backfill(earliest, LocalDate.now()));
+    }
+
+    // ===== HELPER METHODS =====
+
+    private void upsert(Object[] row) {
+        hotelDailyRevenueRepository.upsert(UUID.randomUUID(),
+                (UUID) row[0],
+                (LocalDate) row[1],
+                toAmount(row[2]),
+                toAmount(row[3]),
+                toAmount(row[4]),
+                row[5] != null ? ((Number) row[5]).longValue() : 0L,
+                row[6] != null ? ((Number) row[6]).longValue() : 0L);
+    }
+
+    private BigDecimal toAmount(Object value) {
+        return value != null
+                ? new BigDecimal(value.toString()).setScale(2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+}
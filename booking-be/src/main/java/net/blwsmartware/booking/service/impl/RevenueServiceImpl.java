@@ -12,6 +12,7 @@ import net.blwsmartware.booking.enums.PaymentStatus;
 import net.blwsmartware.booking.exception.AppRuntimeException;
 import net.blwsmartware.booking.repository.BookingRepository;
 import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.service.RevenueRollupService;
 import net.blwsmartware.booking.service.RevenueService;
 import net.blwsmartware.booking.util.DataResponseUtils;
 import org.springframework.data.domain.Page;
@@ -28,7 +29,9 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -39,6 +42,7 @@ public class RevenueServiceImpl implements RevenueService {
 
     BookingRepository bookingRepository;
     HotelRepository hotelRepository;
+    RevenueRollupService revenueRollupService;
 
     @Override
     @Transactional
@@ -56,7 +60,7 @@ public class RevenueServiceImpl implements RevenueService {
         
         Hotel hotel = booking.getHotel();
         BigDecimal bookingAmount = booking.getTotalAmount();
-        BigDecimal commissionRate = hotel.getCommissionRate();
+        BigDecimal commissionRate = commissionRateOf(booking);
         
         // Tính commission cho booking này
         BigDecimal commissionAmount = bookingAmount
@@ -68,6 +72,7 @@ public class RevenueServiceImpl implements RevenueService {
         hotel.setCommissionEarned(currentCommission.add(commissionAmount));
         
         hotelRepository.save(hotel);
+        revenueRollupService.refresh(booking);
         
         log.info("Added commission {} VND for booking {} to hotel {} (total: {} VND)", 
                 commissionAmount, bookingId, hotel.getName(), hotel.getCommissionEarned());
@@ -91,7 +96,7 @@ public class RevenueServiceImpl implements RevenueService {
         
         Hotel hotel = booking.getHotel();
         BigDecimal refundAmount = booking.getRefundAmount() != null ? booking.getRefundAmount() : booking.getTotalAmount();
-        BigDecimal commissionRate = hotel.getCommissionRate();
+        BigDecimal commissionRate = commissionRateOf(booking);
         
         // Tính commission cần trừ dựa trên số tiền refund
         BigDecimal commissionToRevert = refundAmount
@@ -109,6 +114,7 @@ public class RevenueServiceImpl implements RevenueService {
         
         hotel.setCommissionEarned(newCommission);
         hotelRepository.save(hotel);
+        revenueRollupService.refresh(booking);
         
         log.info("Reverted commission {} VND for booking {} from hotel {} (remaining: {} VND)", 
                 commissionToRevert, bookingId, hotel.getName(), hotel.getCommissionEarned());
@@ -217,24 +223,37 @@ public class RevenueServiceImpl implements RevenueService {
         // Get hotels with filters
         Page<Hotel> hotelPage = hotelRepository.findHotelsForRevenue(search, isActive, pageable);
         
+        // Một truy vấn group by cho cả trang thay vì 3 truy vấn mỗi khách sạn
+        Map<UUID, Object[]> aggregates = new HashMap<>();
+        if (hotelPage.hasContent()) {
+            List<UUID> hotelIds = hotelPage.getContent().stream().map(Hotel::getId).toList();
+            LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : null;
+            LocalDateTime endDateTime = endDate != null ? endDate.plusDays(1).atStartOfDay() : null;
+            for (Object[] row : bookingRepository.aggregateRevenueByHotels(hotelIds, startDateTime, endDateTime)) {
+                aggregates.put((UUID) row[0], row);
+            }
+        }
+        boolean windowed = startDate != null || endDate != null;
+        
         // Convert to HotelRevenueResponse
         List<HotelRevenueResponse> hotelRevenueList = new ArrayList<>();
         
         for (Hotel hotel : hotelPage.getContent()) {
-            // Get booking stats for this hotel
-            Long totalBookings = bookingRepository.countPaidBookingsByHotel(hotel.getId());
+            Object[] aggregate = aggregates.get(hotel.getId());
+            Long totalBookings = aggregate != null ? ((Number) aggregate[1]).longValue() : 0L;
             
             // Tính tổng doanh thu gốc (trước khi trừ hoa hồng) từ bookings
-            BigDecimal totalGrossRevenue = bookingRepository.getTotalRevenueByHotel(hotel.getId());
-            if (totalGrossRevenue == null) totalGrossRevenue = BigDecimal.ZERO;
+            BigDecimal totalGrossRevenue = aggregate != null ? toBigDecimal(aggregate[2]) : BigDecimal.ZERO;
             
-            // Lấy commission đã lưu trong DB
-            BigDecimal commissionEarned = hotel.getCommissionEarned() != null ? hotel.getCommissionEarned() : BigDecimal.ZERO;
+            // Có khoảng thời gian thì tính hoa hồng trong khoảng đó, không thì lấy commission đã lưu trong DB
+            BigDecimal commissionEarned = windowed
+                    ? (aggregate != null ? toBigDecimal(aggregate[3]).setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO)
+                    : (hotel.getCommissionEarned() != null ? hotel.getCommissionEarned() : BigDecimal.ZERO);
             
             // Tính doanh thu ròng = tổng doanh thu - hoa hồng
             BigDecimal netRevenue = totalGrossRevenue.subtract(commissionEarned);
             
-            LocalDateTime lastBookingDate = bookingRepository.findLastBookingDateByHotel(hotel.getId()).orElse(null);
+            LocalDateTime lastBookingDate = aggregate != null ? (LocalDateTime) aggregate[4] : null;
             
             HotelRevenueResponse hotelRevenue = HotelRevenueResponse.builder()
                     .id(hotel.getId())
@@ -243,7 +262,7 @@ public class RevenueServiceImpl implements RevenueService {
                     .totalBookings(totalBookings)
                     .totalRevenue(totalGrossRevenue)  // Tổng doanh thu gốc từ bookings
                     .commissionRate(hotel.getCommissionRate())
-                    .commissionAmount(commissionEarned)  // Hoa hồng đã lưu trong DB
+                    .commissionAmount(commissionEarned)
                     .netRevenue(netRevenue)           // Tính lại: gross - commission
                     .city(hotel.getCity())
                     .country(hotel.getCountry())
@@ -292,25 +311,25 @@ public class RevenueServiceImpl implements RevenueService {
     private BigDecimal calculateCommissionByDateRange(LocalDateTime startDateTime, LocalDateTime endDateTime) {
         log.info("Calculating commission for date range: {} to {}", startDateTime, endDateTime);
         
-        // Lấy tất cả bookings đã thanh toán trong khoảng thời gian
-        List<Booking> paidBookings = bookingRepository.findPaidBookingsByDateRange(startDateTime, endDateTime);
+        // Cộng dồn trong DB thay vì nạp toàn bộ bookings đã thanh toán lên bộ nhớ
+        BigDecimal totalCommission = bookingRepository.getCommissionByDateRange(startDateTime, endDateTime);
+        if (totalCommission == null) totalCommission = BigDecimal.ZERO;
         
-        BigDecimal totalCommission = BigDecimal.ZERO;
-        
-        for (Booking booking : paidBookings) {
-            Hotel hotel = booking.getHotel();
-            BigDecimal bookingAmount = booking.getTotalAmount();
-            BigDecimal commissionRate = hotel.getCommissionRate();
-            
-            // Tính commission cho booking này
-            BigDecimal commissionAmount = bookingAmount
-                    .multiply(commissionRate)
-                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-            
-            totalCommission = totalCommission.add(commissionAmount);
-        }
-        
-        log.info("Total commission calculated: {} VND from {} bookings", totalCommission, paidBookings.size());
+        totalCommission = totalCommission.setScale(2, RoundingMode.HALF_UP);
+        log.info("Total commission calculated: {} VND", totalCommission);
         return totalCommission;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Tỷ lệ hoa hồng chốt lúc đặt phòng; booking cũ chưa có thì dùng tỷ lệ hiện tại của khách sạn
+     */
+    private BigDecimal commissionRateOf(Booking booking) {
+        return booking.getCommissionRateAtBooking() != null
+                ? booking.getCommissionRateAtBooking()
+                : booking.getHotel().getCommissionRate();
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+    }
+}
@@ -18,6 +18,7 @@ import net.blwsmartware.booking.repository.BookingRepository;
 import net.blwsmartware.booking.repository.HotelRepository;
 import net.blwsmartware.booking.repository.ReviewRepository;
 import net.blwsmartware.booking.repository.UserRepository;
+import net.blwsmartware.booking.service.HotelStatsService;
 import net.blwsmartware.booking.service.ReviewService;
 import net.blwsmartware.booking.util.DataResponseUtils;
 import net.blwsmartware.booking.validator.IsAdmin;
@@ -45,6 +46,8 @@ public class ReviewServiceImpl implements ReviewService {
     HotelRepository hotelRepository;
     BookingRepository bookingRepository;
     ReviewMapper reviewMapper;
+    HotelStatsService hotelStatsService;
+    HotelCacheInvalidator hotelCacheInvalidator;
     
     @Override
     @IsAdmin
@@ -100,6 +103,8 @@ public class ReviewServiceImpl implements ReviewService {
                 .orElseThrow(() -> new AppRuntimeException(ErrorResponse.REVIEW_NOT_FOUND));
         
         reviewRepository.delete(review);
+        hotelStatsService.onReviewDeleted(review.getHotel().getId(), review.getRating());
+        hotelCacheInvalidator.onReviewsChanged(review.getHotel().getId(), -1L);
     }
     
 
@@ -163,6 +168,8 @@ public class ReviewServiceImpl implements ReviewService {
                 .build();
         
         Review savedReview = reviewRepository.save(review);
+        hotelStatsService.onReviewCreated(hotel.getId(), savedReview.getRating());
+        hotelCacheInvalidator.onReviewsChanged(hotel.getId(), 1L);
         
         return reviewMapper.toResponse(savedReview);
     }
@@ -181,11 +188,15 @@ public class ReviewServiceImpl implements ReviewService {
             throw new AppRuntimeException(ErrorResponse.UNAUTHORIZED);
         }
         
+        int oldRating = review.getRating();
+        
         // Update review
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         
         Review updatedReview = reviewRepository.save(review);
+        hotelStatsService.onReviewUpdated(updatedReview.getHotel().getId(), oldRating, updatedReview.getRating());
+        hotelCacheInvalidator.onReviewsChanged(updatedReview.getHotel().getId(), 0L);
         
         return reviewMapper.toResponse(updatedReview);
     }
@@ -205,6 +216,8 @@ public class ReviewServiceImpl implements ReviewService {
         }
         
         reviewRepository.delete(review);
+        hotelStatsService.onReviewDeleted(review.getHotel().getId(), review.getRating());
+        hotelCacheInvalidator.onReviewsChanged(review.getHotel().getId(), -1L);
         log.info("Successfully deleted review: {}", id);
     }
     
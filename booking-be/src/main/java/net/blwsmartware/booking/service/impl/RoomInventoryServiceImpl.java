@@ -0,0 +1,261 @@
+package net.blwsmartware.booking.service.impl;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import net.blwsmartware.booking.entity.Booking;
+import net.blwsmartware.booking.entity.RoomInventory;
+import net.blwsmartware.booking.entity.RoomType;
+import net.blwsmartware.booking.enums.ErrorResponse;
+import net.blwsmartware.booking.exception.AppRuntimeException;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.RoomInventoryRepository;
+import net.blwsmartware.booking.repository.RoomTypeRepository;
+import net.blwsmartware.booking.service.HotelStatsService;
+import net.blwsmartware.booking.service.RoomInventoryService;
+import net.blwsmartware.booking.util.TransactionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class RoomInventoryServiceImpl implements RoomInventoryService {
+
+    RoomInventoryRepository roomInventoryRepository;
+    RoomTypeRepository roomTypeRepository;
+    BookingRepository bookingRepository;
+    // Lịch phòng trong bộ nhớ chỉ được cập nhật khi transaction commit thành công
+    AvailabilityCalendar availabilityCalendar;
+    HotelStatsService hotelStatsService;
+    HotelCacheInvalidator hotelCacheInvalidator;
+
+    @Override
+    @Transactional
+    public void reserve(Booking booking, LocalDate checkInDate, LocalDate checkOutDate) {
+        RoomType roomType = booking.getRoomType();
+        ensureNights(roomType, checkInDate, checkOutDate, booking.getId(), null, null);
+        claimNights(roomType, checkInDate, checkOutDate);
+
+        // availableRooms chỉ còn là số liệu hiển thị, cập nhật nguyên tử thay vì read-modify-write
+        if (roomTypeRepository.decrementAvailableRooms(roomType.getId()) == 1) {
+            hotelStatsService.onAvailableRoomsChanged(roomType.getHotel().getId(), -1);
+            hotelCacheInvalidator.onAvailableRoomsChanged(roomType.getHotel().getId());
+        }
+        TransactionUtils.afterCommit(() -> availabilityCalendar.apply(roomType.getId(), checkInDate, checkOutDate, 1));
+        log.info("Reserved roomType {} for booking {} ({} -> {})",
+                roomType.getId(), booking.getId(), checkInDate, checkOutDate);
+    }
+
+    @Override
+    @Transactional
+    public void reserveRooms(RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate, int quantity) {
+        ensureNights(roomType, checkInDate, checkOutDate, null, null, null);
+
+        long nights = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+        int claimed = roomInventoryRepository.reserveNightsQuantity(
+                roomType.getId(), checkInDate, checkOutDate, quantity);
+        if (claimed != nights) {
+            log.warn("Cannot reserve {} rooms of roomType {} for {} -> {}: only {}/{} nights available",
+                    quantity, roomType.getId(), checkInDate, checkOutDate, claimed, nights);
+            throw new AppRuntimeException(ErrorResponse.NO_ROOMS_AVAILABLE);
+        }
+
+        roomTypeRepository.decrementAvailableRoomsBy(roomType.getId(), quantity);
+        hotelStatsService.refreshRoomStats(roomType.getHotel().getId());
+        hotelCacheInvalidator.onAvailableRoomsChanged(roomType.getHotel().getId());
+        TransactionUtils.afterCommit(() -> availabilityCalendar.apply(roomType.getId(), checkInDate, checkOutDate, quantity));
+        log.info("Reserved {} rooms of roomType {} ({} -> {})", quantity, roomType.getId(), checkInDate, checkOutDate);
+    }
+
+    @Override
+    @Transactional
+    public void release(Booking booking, LocalDate checkInDate, LocalDate checkOutDate) {
+        RoomType roomType = booking.getRoomType();
+        ensureNights(roomType, checkInDate, checkOutDate, booking.getId(), checkInDate, checkOutDate);
+        roomInventoryRepository.releaseNights(roomType.getId(), checkInDate, checkOutDate);
+
+        if (roomTypeRepository.incrementAvailableRooms(roomType.getId()) == 1) {
+            hotelStatsService.onAvailableRoomsChanged(roomType.getHotel().getId(), 1);
+            hotelCacheInvalidator.onAvailableRoomsChanged(roomType.getHotel().getId());
+        }
+        TransactionUtils.afterCommit(() -> availabilityCalendar.apply(roomType.getId(), checkInDate, checkOutDate, -1));
+        log.info("Released roomType {} for booking {} ({} -> {})",
+                roomType.getId(), booking.getId(), checkInDate, checkOutDate);
+    }
+
+    @Override
+    @Transactional
+    public void move(Booking booking, LocalDate oldCheckInDate, LocalDate oldCheckOutDate,
+                     LocalDate newCheckInDate, LocalDate newCheckOutDate) {
+        RoomType roomType = booking.getRoomType();
+        ensureNights(roomType, oldCheckInDate, oldCheckOutDate, booking.getId(), oldCheckInDate, oldCheckOutDate);
+        ensureNights(roomType, newCheckInDate, newCheckOutDate, booking.getId(), oldCheckInDate, oldCheckOutDate);
+
+        roomInventoryRepository.releaseNights(roomType.getId(), oldCheckInDate, oldCheckOutDate);
+        claimNights(roomType, newCheckInDate, newCheckOutDate);
+        TransactionUtils.afterCommit(() -> {
+            availabilityCalendar.apply(roomType.getId(), oldCheckInDate, oldCheckOutDate, -1);
+            availabilityCalendar.apply(roomType.getId(), newCheckInDate, newCheckOutDate, 1);
+        });
+        log.info("Moved booking {} on roomType {}: {} -> {} to {} -> {}", booking.getId(), roomType.getId(),
+                oldCheckInDate, oldCheckOutDate, newCheckInDate, newCheckOutDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getRemainingRooms(RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate,
+                                 Booking excludedBooking) {
+        List<RoomInventory> nights = roomInventoryRepository
+                .findByRoomTypeIdAndStayDateGreaterThanEqualAndStayDateLessThanOrderByStayDate(
+                        roomType.getId(), checkInDate, checkOutDate);
+
+        int remaining = roomType.getTotalRooms();
+        Set<LocalDate> ledgerDates = new HashSet<>();
+        for (RoomInventory night : nights) {
+            int free = night.getCapacity() - night.getSold();
+            if (excludedBooking != null && isWithin(night.getStayDate(),
+                    excludedBooking.getCheckInDate(), excludedBooking.getCheckOutDate())) {
+                free++;
+            }
+            remaining = Math.min(remaining, free);
+            ledgerDates.add(night.getStayDate());
+        }
+
+        int nightCount = (int) ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+        if (ledgerDates.size() < nightCount) {
+            // Đêm chưa có trong sổ: đếm từ bookings, không ghi (chỉ reserve/release/move mới tạo đêm)
+            int[] sold = countSoldNights(roomType, checkInDate, checkOutDate, excludedBooking);
+            for (int i = 0; i < nightCount; i++) {
+                if (!ledgerDates.contains(checkInDate.plusDays(i))) {
+                    remaining = Math.min(remaining, roomType.getTotalRooms() - sold[i]);
+                }
+            }
+        }
+        return Math.max(remaining, 0);
+    }
+
+    @Override
+    public int getCachedRemainingRooms(UUID roomTypeId, LocalDate checkInDate, LocalDate checkOutDate) {
+        return availabilityCalendar.getRemainingRooms(roomTypeId, checkInDate, checkOutDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void warmUpCalendar() {
+        long start = System.currentTimeMillis();
+        availabilityCalendar.clear();
+
+        List<Object[]> capacities = roomTypeRepository.findAllCapacities();
+        for (Object[] row : capacities) {
+            availabilityCalendar.setCapacity((UUID) row[0], row[1] != null ? (Integer) row[1] : 0);
+        }
+
+        List<Object[]> stays = bookingRepository.findActiveStayRanges(LocalDate.now());
+        for (Object[] row : stays) {
+            availabilityCalendar.apply((UUID) row[0], (LocalDate) row[1], (LocalDate) row[2], 1);
+        }
+
+        availabilityCalendar.markReady();
+        log.info("Availability calendar warmed up: {} room types, {} active bookings in {} ms",
+                capacities.size(), stays.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void registerRoomType(RoomType roomType) {
+        UUID roomTypeId = roomType.getId();
+        int capacity = roomType.getTotalRooms();
+        TransactionUtils.afterCommit(() -> availabilityCalendar.setCapacity(roomTypeId, capacity));
+    }
+
+    @Override
+    @Transactional
+    public void syncCapacity(RoomType roomType) {
+        int updated = roomInventoryRepository.updateCapacityFrom(
+                roomType.getId(), LocalDate.now(), roomType.getTotalRooms());
+        log.info("Synced capacity {} for {} inventory nights of roomType {}",
+                roomType.getTotalRooms(), updated, roomType.getId());
+
+        UUID roomTypeId = roomType.getId();
+        int capacity = roomType.getTotalRooms();
+        TransactionUtils.afterCommit(() -> availabilityCalendar.setCapacity(roomTypeId, capacity));
+    }
+
+    @Override
+    @Transactional
+    public void deleteByRoomType(UUID roomTypeId) {
+        roomInventoryRepository.deleteByRoomTypeId(roomTypeId);
+        TransactionUtils.afterCommit(() -> availabilityCalendar.remove(roomTypeId));
+    }
+
+    // ===== HELPER METHODS =====
+
+    /**
+     * Một câu UPDATE có điều kiện cho tất cả các đêm; nếu số dòng cập nhật ít hơn số đêm
+     * thì có đêm đã hết phòng → ném lỗi để transaction rollback cả những đêm đã giữ.
+     */
+    private void claimNights(RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate) {
+        long nights = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+        int claimed = roomInventoryRepository.reserveNights(roomType.getId(), checkInDate, checkOutDate);
+        if (claimed != nights) {
+            log.warn("Cannot reserve roomType {} for {} -> {}: only {}/{} nights available",
+                    roomType.getId(), checkInDate, checkOutDate, claimed, nights);
+            throw new AppRuntimeException(ErrorResponse.NO_ROOMS_AVAILABLE);
+        }
+    }
+
+    /**
+     * Tạo các đêm còn thiếu trong sổ tồn kho. Khi bookingId khác null, booking đó được loại khỏi
+     * phép đếm và cộng lại 1 cho các đêm trong [heldFrom, heldTo) mà nó đang giữ trước thay đổi.
+     */
+    private void ensureNights(RoomType roomType, LocalDate fromDate, LocalDate toDate,
+                              UUID bookingId, LocalDate heldFrom, LocalDate heldTo) {
+        Set<LocalDate> existing = new HashSet<>(
+                roomInventoryRepository.findExistingStayDates(roomType.getId(), fromDate, toDate));
+
+        for (LocalDate date = fromDate; date.isBefore(toDate); date = date.plusDays(1)) {
+            if (existing.contains(date)) {
+                continue;
+            }
+            if (bookingId != null) {
+                int heldOffset = heldFrom != null && isWithin(date, heldFrom, heldTo) ? 1 : 0;
+                roomInventoryRepository.insertNightIfAbsentExcluding(UUID.randomUUID(), roomType.getId(),
+                        date, roomType.getTotalRooms(), bookingId, heldOffset);
+            } else {
+                roomInventoryRepository.insertNightIfAbsent(UUID.randomUUID(), roomType.getId(),
+                        date, roomType.getTotalRooms());
+            }
+        }
+    }
+
+    /**
+     * Số phòng đã giữ của từng đêm trong [fromDate, toDate) theo bookings đang hoạt động, bỏ qua excludedBooking
+     */
+    private int[] countSoldNights(RoomType roomType, LocalDate fromDate, LocalDate toDate, Booking excludedBooking) {
+        int[] sold = new int[(int) ChronoUnit.DAYS.between(fromDate, toDate)];
+        for (Object[] row : bookingRepository.findActiveStayRangesByRoomType(roomType.getId(), fromDate, toDate)) {
+            if (excludedBooking != null && excludedBooking.getId().equals(row[0])) {
+                continue;
+            }
+            LocalDate stayFrom = ((LocalDate) row[1]).isBefore(fromDate) ? fromDate : (LocalDate) row[1];
+            LocalDate stayTo = ((LocalDate) row[2]).isAfter(toDate) ? toDate : (LocalDate) row[2];
+            for (LocalDate date = stayFrom; date.isBefore(stayTo); date = date.plusDays(1)) {
+                sold[(int) ChronoUnit.DAYS.between(fromDate, date)]++;
+            }
+        }
+        return sold;
+    }
+
+    private boolean isWithin(LocalDate date, LocalDate fromDate, LocalDate toDate) {
+        return !date.isBefore(fromDate) && date.isBefore(toDate);
+    }
+}
@@ -16,6 +16,8 @@ import net.blwsmartware.booking.mapper.RoomTypeMapper;
 import net.blwsmartware.booking.repository.HotelRepository;
 import net.blwsmartware.booking.repository.RoomTypeRepository;
 import net.blwsmartware.booking.repository.UserRepository;
+import net.blwsmartware.booking.service.HotelStatsService;
+import net.blwsmartware.booking.service.RoomInventoryService;
 import net.blwsmartware.booking.service.RoomTypeService;
 import net.blwsmartware.booking.util.DataResponseUtils;
 import net.blwsmartware.booking.validator.IsAdmin;
@@ -43,6 +45,9 @@ public class RoomTypeServiceImpl implements RoomTypeService {
     HotelRepository hotelRepository;
     UserRepository userRepository;
     RoomTypeMapper roomTypeMapper;
+    RoomInventoryService roomInventoryService;
+    HotelStatsService hotelStatsService;
+    HotelCacheInvalidator hotelCacheInvalidator;
     
     @Override
     @IsAdmin
@@ -111,8 +116,13 @@ public class RoomTypeServiceImpl implements RoomTypeService {
         
         // Save room type
         RoomType savedRoomType = roomTypeRepository.save(roomType);
+        roomInventoryService.registerRoomType(savedRoomType);
+        // Lập response trước: refreshRoomStats xóa persistence context nên hotel lazy không nạp được nữa
+        RoomTypeResponse response = roomTypeMapper.toResponse(savedRoomType);
+        hotelStatsService.refreshRoomStats(savedRoomType.getHotel().getId());
+        hotelCacheInvalidator.onRoomTypesChanged(savedRoomType.getHotel().getId());
         
-        return roomTypeMapper.toResponse(savedRoomType);
+        return response;
     }
     
     @Override
@@ -131,13 +141,24 @@ public class RoomTypeServiceImpl implements RoomTypeService {
             }
         }
         
+        Integer oldTotalRooms = roomType.getTotalRooms();
+        
         // Update room type
         roomTypeMapper.updateEntity(roomType, request);
         roomType.setUpdatedBy(getCurrentUserId());
         
         RoomType updatedRoomType = roomTypeRepository.save(roomType);
         
-        return roomTypeMapper.toResponse(updatedRoomType);
+        // Đồng bộ capacity của sổ tồn kho khi số phòng thay đổi
+        if (!updatedRoomType.getTotalRooms().equals(oldTotalRooms)) {
+            roomInventoryService.syncCapacity(updatedRoomType);
+        }
+        // Lập response trước: refreshRoomStats xóa persistence context nên hotel lazy không nạp được nữa
+        RoomTypeResponse response = roomTypeMapper.toResponse(updatedRoomType);
+        hotelStatsService.refreshRoomStats(updatedRoomType.getHotel().getId());
+        hotelCacheInvalidator.onRoomTypesChanged(updatedRoomType.getHotel().getId());
+        
+        return response;
     }
     
     @Override
@@ -152,7 +173,10 @@ public class RoomTypeServiceImpl implements RoomTypeService {
         // TODO: Check if room type has any bookings when booking entity is implemented
         // For now, we'll allow deletion
         
+        roomInventoryService.deleteByRoomType(roomType.getId());
         roomTypeRepository.delete(roomType);
+        hotelStatsService.refreshRoomStats(roomType.getHotel().getId());
+        hotelCacheInvalidator.onRoomTypesChanged(roomType.getHotel().getId());
     }
 
     @Override
@@ -382,8 +406,13 @@ public class RoomTypeServiceImpl implements RoomTypeService {
         
         // Save room type
         RoomType savedRoomType = roomTypeRepository.save(roomType);
+        roomInventoryService.registerRoomType(savedRoomType);
+        // Lập response trước: refreshRoomStats xóa persistence context nên hotel lazy không nạp được nữa
+        RoomTypeResponse response = roomTypeMapper.toResponse(savedRoomType);
+        hotelStatsService.refreshRoomStats(savedRoomType.getHotel().getId());
+        hotelCacheInvalidator.onRoomTypesChanged(savedRoomType.getHotel().getId());
         
-        return roomTypeMapper.toResponse(savedRoomType);
+        return response;
     }
     
     @Override
@@ -409,13 +438,24 @@ public class RoomTypeServiceImpl implements RoomTypeService {
             }
         }
         
+        Integer oldTotalRooms = roomType.getTotalRooms();
+        
         // Update room type
         roomTypeMapper.updateEntity(roomType, request);
         roomType.setUpdatedBy(hostId);
         
         RoomType updatedRoomType = roomTypeRepository.save(roomType);
         
-        return roomTypeMapper.toResponse(updatedRoomType);
+        // Đồng bộ capacity của sổ tồn kho khi số phòng thay đổi
+        if (!updatedRoomType.getTotalRooms().equals(oldTotalRooms)) {
+            roomInventoryService.syncCapacity(updatedRoomType);
+        }
+        // Lập response trước: refreshRoomStats xóa persistence context nên hotel lazy không nạp được nữa
+        RoomTypeResponse response = roomTypeMapper.toResponse(updatedRoomType);
+        hotelStatsService.refreshRoomStats(updatedRoomType.getHotel().getId());
+        hotelCacheInvalidator.onRoomTypesChanged(updatedRoomType.getHotel().getId());
+        
+        return response;
     }
     
     @Override
@@ -437,6 +477,9 @@ public class RoomTypeServiceImpl implements RoomTypeService {
         // TODO: Check if room type has any bookings when booking entity is implemented
         // For now, we'll allow deletion
         
+        roomInventoryService.deleteByRoomType(roomType.getId());
         roomTypeRepository.delete(roomType);
+        hotelStatsService.refreshRoomStats(roomType.getHotel().getId());
+        hotelCacheInvalidator.onRoomTypesChanged(roomType.getHotel().getId());
     }
 } 
\ No newline at end of file
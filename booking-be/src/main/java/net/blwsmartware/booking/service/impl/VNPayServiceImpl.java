@@ -8,11 +8,13 @@ import net.blwsmartware.booking.dto.vnpay.VNPayPaymentRequest;
 import net.blwsmartware.booking.dto.vnpay.VNPayPaymentResponse;
 import net.blwsmartware.booking.entity.Booking;
 import net.blwsmartware.booking.entity.VNPayTransaction;
+import net.blwsmartware.booking.enums.BookingStatus;
 import net.blwsmartware.booking.enums.PaymentStatus;
 import net.blwsmartware.booking.exception.AppRuntimeException;
 import net.blwsmartware.booking.enums.ErrorResponse;
 import net.blwsmartware.booking.repository.BookingRepository;
 import net.blwsmartware.booking.repository.VNPayTransactionRepository;
+import net.blwsmartware.booking.service.BookingService;
 import net.blwsmartware.booking.service.RevenueService;
 import net.blwsmartware.booking.service.VNPayService;
 import net.blwsmartware.booking.util.VNPayUtil;
@@ -24,6 +26,7 @@ import java.math.BigDecimal;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
@@ -35,6 +38,11 @@ public class VNPayServiceImpl implements VNPayService {
     private final BookingRepository bookingRepository;
     private final VNPayTransactionRepository vnPayTransactionRepository;
     private final RevenueService revenueService;
+    private final BookingService bookingService;
+    private final BookingHoldQueue bookingHoldQueue;
+    
+    private static final int PAYMENT_EXPIRE_MINUTES = 15;
+    private static final int IPN_GRACE_MINUTES = 5;
     
     @Override
     @Transactional
@@ -51,6 +59,16 @@ public class VNPayServiceImpl implements VNPayService {
                 throw new AppRuntimeException(ErrorResponse.BOOKING_ALREADY_PAID);
             }
             
+            if (booking.getStatus() != BookingStatus.PENDING && booking.getStatus() != BookingStatus.CONFIRMED) {
+                throw new AppRuntimeException(ErrorResponse.INVALID_BOOKING_STATUS);
+            }
+            
+            // Hold đã hết hạn (sweeper có thể chưa kịp hủy) → không cho thanh toán
+            LocalDateTime now = LocalDateTime.now();
+            if (booking.getHoldExpiresAt() != null && booking.getHoldExpiresAt().isBefore(now)) {
+                throw new AppRuntimeException(ErrorResponse.BOOKING_HOLD_EXPIRED);
+            }
+            
             // Generate transaction reference
             String txnRef = VNPayUtil.generateTxnRef();
             
@@ -76,7 +94,7 @@ public class VNPayServiceImpl implements VNPayService {
             
             // Add expire date (15 minutes from now)
             Calendar expireCal = Calendar.getInstance(TimeZone.getTimeZone("Asia/Ho_Chi_Minh"));
-            expireCal.add(Calendar.MINUTE, 15);
+            expireCal.add(Calendar.MINUTE, PAYMENT_EXPIRE_MINUTES);
             SimpleDateFormat formatter = new SimpleDateFormat("yyyyMMddHHmmss");
             formatter.setTimeZone(TimeZone.getTimeZone("Asia/Ho_Chi_Minh"));
             vnpParams.put("vnp_ExpireDate", formatter.format(expireCal.getTime()));
@@ -129,6 +147,19 @@ public class VNPayServiceImpl implements VNPayService {
             // Update booking payment status
             booking.setPaymentStatus(PaymentStatus.PENDING);
             booking.setPaymentMethod("VNPAY");
+            
+            // Giữ phòng ít nhất tới khi link thanh toán hết hạn (cộng thêm thời gian chờ IPN)
+            if (booking.getHoldExpiresAt() != null) {
+                LocalDateTime paymentDeadline = now.plusMinutes(PAYMENT_EXPIRE_MINUTES + IPN_GRACE_MINUTES);
+                if (booking.getHoldExpiresAt().isBefore(paymentDeadline)) {
+                    booking.setHoldExpiresAt(paymentDeadline);
+                    // Booking thuộc đoàn: lùi hạn cho cả đoàn để không phòng nào trong đoàn hết hạn trước
+                    if (booking.getGroupReference() != null) {
+                        bookingRepository.extendGroupHold(booking.getGroupReference(), paymentDeadline);
+                    }
+                    bookingHoldQueue.schedule(booking.getId(), paymentDeadline);
+                }
+            }
             bookingRepository.save(booking);
             
             log.info("VNPay payment URL created successfully for booking: {}, txnRef: {}", 
@@ -195,29 +226,15 @@ public class VNPayServiceImpl implements VNPayService {
             // Update payment status based on response
             Booking booking = transaction.getBooking();
             if ("00".equals(responseCode) && "00".equals(transactionStatus)) {
-                // Chỉ cập nhật nếu booking chưa được thanh toán trước đó
-                if (booking.getPaymentStatus() != PaymentStatus.PAID) {
-                    transaction.setPaymentStatus(PaymentStatus.PAID);
-                    booking.setPaymentStatus(PaymentStatus.PAID);
-                    log.info("Payment successful for booking: {}", booking.getId());
-                    
-                    // Cập nhật revenue cho hotel khi thanh toán thành công (chỉ 1 lần)
-                    try {
-                        revenueService.updateHotelRevenue(booking.getId());
-                    } catch (Exception e) {
-                        log.error("Error updating hotel revenue for booking: {}", booking.getId(), e);
-                    }
-                } else {
-                    log.info("Booking {} already paid, skipping revenue update", booking.getId());
-                }
+                applySuccessfulPayment(transaction, "IPN");
             } else {
                 transaction.setPaymentStatus(PaymentStatus.FAILED);
                 booking.setPaymentStatus(PaymentStatus.FAILED);
+                bookingRepository.save(booking);
                 log.info("Payment failed for booking: {}, responseCode: {}", booking.getId(), responseCode);
             }
             
             vnPayTransactionRepository.save(transaction);
-            bookingRepository.save(booking);
             
             return "00"; // Success
             
@@ -228,6 +245,7 @@ public class VNPayServiceImpl implements VNPayService {
     }
     
     @Override
+    @Transactional
     public VNPayCallbackRequest processReturnUrl(Map<String, String> vnpParams) {
         try {
             log.info("Processing VNPay return URL: {}", vnpParams);
@@ -270,30 +288,16 @@ public class VNPayServiceImpl implements VNPayService {
                             // Update payment status for both transaction and booking
                             Booking booking = transaction.getBooking();
                             if ("00".equals(responseCode) && "00".equals(transactionStatus)) {
-                                // Chỉ cập nhật nếu booking chưa được thanh toán trước đó
-                                if (booking.getPaymentStatus() != PaymentStatus.PAID) {
-                                    transaction.setPaymentStatus(PaymentStatus.PAID);
-                                    booking.setPaymentStatus(PaymentStatus.PAID);
-                                    log.info("Payment successful via return URL for booking: {}", booking.getId());
-                                    
-                                    // Cập nhật revenue cho hotel khi thanh toán thành công (chỉ 1 lần)
-                                    try {
-                                        revenueService.updateHotelRevenue(booking.getId());
-                                    } catch (Exception e) {
-                                        log.error("Error updating hotel revenue for booking: {}", booking.getId(), e);
-                                    }
-                                } else {
-                                    log.info("Booking {} already paid via return URL, skipping revenue update", booking.getId());
-                                }
+                                applySuccessfulPayment(transaction, "return URL");
                             } else {
                                 transaction.setPaymentStatus(PaymentStatus.FAILED);
                                 booking.setPaymentStatus(PaymentStatus.FAILED);
+                                bookingRepository.save(booking);
                                 log.info("Payment failed via return URL for booking: {}, responseCode: {}", 
                                         booking.getId(), responseCode);
                             }
                             
                             vnPayTransactionRepository.save(transaction);
-                            bookingRepository.save(booking);
                         });
             }
             
@@ -305,6 +309,40 @@ public class VNPayServiceImpl implements VNPayService {
         }
     }
     
+    /**
+     * Ghi nhận thanh toán thành công bằng UPDATE có điều kiện. Nếu hold đã hết hạn (sweeper đã hủy hoặc sắp hủy
+     * và trả phòng) thì không xác nhận booking mà đánh dấu khoản tiền chờ hoàn lại.
+     * Booking entity đã nạp trở nên cũ sau UPDATE nên không được save lại ở nơi gọi.
+     */
+    private void applySuccessfulPayment(VNPayTransaction transaction, String source) {
+        UUID bookingId = transaction.getBooking().getId();
+        if (transaction.getBooking().getPaymentStatus() == PaymentStatus.PAID) {
+            transaction.setPaymentStatus(PaymentStatus.PAID);
+            log.info("Booking {} already paid ({}), skipping revenue update", bookingId, source);
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.markPaidIfHoldActive(bookingId, now) == 1) {
+            transaction.setPaymentStatus(PaymentStatus.PAID);
+            log.info("Payment successful via {} for booking: {}", source, bookingId);
+            
+            // Cập nhật revenue cho hotel khi thanh toán thành công (chỉ 1 lần)
+            try {
+                revenueService.updateHotelRevenue(bookingId);
+            } catch (Exception e) {
+                log.error("Error updating hotel revenue for booking: {}", bookingId, e);
+            }
+            return;
+        }
+        
+        // Hold đã hết hạn: hủy nếu sweeper chưa kịp (trả phòng), rồi chuyển khoản tiền sang chờ hoàn
+        bookingService.expireHolds(List.of(bookingId));
+        bookingRepository.flagLatePaymentForRefund(bookingId, now);
+        transaction.setPaymentStatus(PaymentStatus.REFUND_PENDING);
+        log.warn("Payment via {} arrived after hold expired for booking {}, flagged for refund", source, bookingId);
+    }
+    
     @Override
     public boolean verifySignature(Map<String, String> vnpParams, String secureHash) {
         try {
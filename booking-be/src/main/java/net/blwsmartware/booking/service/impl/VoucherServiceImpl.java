@@ -351,7 +351,19 @@ public class VoucherServiceImpl implements VoucherService {
     @Transactional
     public VoucherResponse applyVoucher(String voucherCode, UUID userId, UUID bookingId, BigDecimal originalAmount, UUID hotelId) {
         log.info("Applying voucher {} for user {} on booking {}", voucherCode, userId, bookingId);
-        
+        return applyVoucher(voucherCode, userId, bookingId, null, originalAmount, hotelId);
+    }
+    
+    @Override
+    @Transactional
+    public VoucherResponse applyGroupVoucher(String voucherCode, UUID userId, String groupReference, UUID anchorBookingId,
+                                             BigDecimal subtotal, UUID hotelId) {
+        log.info("Applying voucher {} for user {} on group {}", voucherCode, userId, groupReference);
+        return applyVoucher(voucherCode, userId, anchorBookingId, groupReference, subtotal, hotelId);
+    }
+    
+    private VoucherResponse applyVoucher(String voucherCode, UUID userId, UUID bookingId, String groupReference,
+                                         BigDecimal originalAmount, UUID hotelId) {
         // Use priority-based lookup: Admin ALL_HOTELS > Host SPECIFIC_HOTELS > Admin SPECIFIC_HOTELS
         List<Voucher> vouchers = voucherRepository.findByCodeWithPriority(voucherCode, hotelId);
         
@@ -386,6 +398,7 @@ public class VoucherServiceImpl implements VoucherService {
                 .voucher(voucher)
                 .user(user)
                 .booking(booking)
+                .groupReference(groupReference)
                 .discountAmount(discountAmount)
                 .build();
         
@@ -437,6 +450,22 @@ public class VoucherServiceImpl implements VoucherService {
     public void deleteVoucherUsageByBookingId(UUID bookingId) {
         log.info("Deleting voucher usage records for booking: {}", bookingId);
         
+        // Voucher của cả đoàn: chuyển sang booking còn lại của đoàn thay vì xóa
+        Optional<VoucherUsage> groupUsage = voucherUsageRepository.findByBookingId(bookingId)
+                .filter(usage -> usage.getGroupReference() != null);
+        if (groupUsage.isPresent()) {
+            VoucherUsage usage = groupUsage.get();
+            Optional<Booking> nextAnchor = bookingRepository.findByGroupReference(usage.getGroupReference()).stream()
+                    .filter(member -> !member.getId().equals(bookingId))
+                    .findFirst();
+            if (nextAnchor.isPresent()) {
+                usage.setBooking(nextAnchor.get());
+                voucherUsageRepository.save(usage);
+                log.info("Voucher usage of group {} moved to booking {}", usage.getGroupReference(), nextAnchor.get().getId());
+                return;
+            }
+        }
+        
         // Delete usage records directly without updating voucher counts
         // This is for hard delete scenarios like admin delete booking
         voucherUsageRepository.deleteByBookingId(bookingId);
@@ -6,6 +6,7 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import net.blwsmartware.booking.dto.request.BankAccountRequest;
 import net.blwsmartware.booking.dto.request.WithdrawalRequest;
+import net.blwsmartware.booking.dto.response.DataResponse;
 import net.blwsmartware.booking.dto.response.WalletResponse;
 import net.blwsmartware.booking.dto.response.WalletTransactionResponse;
 import net.blwsmartware.booking.entity.BankAccount;
@@ -21,16 +22,20 @@ import net.blwsmartware.booking.repository.BankAccountRepository;
 import net.blwsmartware.booking.repository.UserRepository;
 import net.blwsmartware.booking.repository.WalletTransactionRepository;
 import net.blwsmartware.booking.service.WalletService;
+import net.blwsmartware.booking.util.DataResponseUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -170,6 +175,18 @@ public class WalletServiceImpl implements WalletService {
         return result;
     }
 
+    @Override
+    public DataResponse<WalletTransactionResponse> getTransactionHistoryAfter(String after, int pageSize) {
+        User user = getCurrentUserRequired();
+        
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        Window<WalletTransaction> transactions = walletTransactionRepository.findByUser(user,
+                DataResponseUtils.decodeCursor(after, Set.of("createdAt", "id")), sort, Limit.of(pageSize));
+        
+        return DataResponseUtils.convertWindowInfo(transactions, pageSize,
+                transactions.getContent().stream().map(walletTransactionMapper::toResponse).toList());
+    }
+
     // ===== INTERNAL METHODS =====
 
     @Override
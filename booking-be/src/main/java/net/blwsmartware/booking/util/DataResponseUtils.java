@@ -1,9 +1,20 @@
 package net.blwsmartware.booking.util;
 
 import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.enums.ErrorResponse;
+import net.blwsmartware.booking.exception.AppRuntimeException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
 
 public class DataResponseUtils {
     public static <T> DataResponse<T> convertPageInfo(Page<?> page, List<T> data) {
@@ -13,8 +24,77 @@ public class DataResponseUtils {
                 page.getTotalElements(),
                 page.getTotalPages(),
                 page.isLast(),
-                data
+                data,
+                null
         );
     }
 
+    /**
+     * Kết quả phân trang keyset: không đếm tổng nên totalElements/totalPages = -1
+     */
+    public static <T> DataResponse<T> convertWindowInfo(Window<?> window, int pageSize, List<T> data) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = encodeCursor((KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+        return new DataResponse<>(0, pageSize, -1, -1, nextCursor == null, data, nextCursor);
+    }
+
+    /**
+     * Giải mã tham số after: rỗng là trang đầu; key trong token phải đúng các trường sắp xếp mong đợi
+     */
+    public static KeysetScrollPosition decodeCursor(String after, Set<String> expectedKeys) {
+        if (after == null || after.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            for (String entry : decoded.split("\n")) {
+                String[] parts = entry.split("\t", 3);
+                keys.put(parts[0], parseValue(parts[1], URLDecoder.decode(parts[2], StandardCharsets.UTF_8)));
+            }
+        } catch (RuntimeException e) {
+            throw new AppRuntimeException(ErrorResponse.CURSOR_INVALID);
+        }
+        if (!keys.keySet().equals(expectedKeys)) {
+            throw new AppRuntimeException(ErrorResponse.CURSOR_INVALID);
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    // Mỗi key một dòng "tên<TAB>kiểu<TAB>giá trị", mã hóa base64 url-safe để client coi là chuỗi mờ
+    private static String encodeCursor(KeysetScrollPosition position) {
+        StringJoiner joiner = new StringJoiner("\n");
+        for (Map.Entry<String, Object> key : position.getKeys().entrySet()) {
+            joiner.add(key.getKey() + "\t" + typeOf(key.getValue()) + "\t"
+                    + URLEncoder.encode(String.valueOf(key.getValue()), StandardCharsets.UTF_8));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String typeOf(Object value) {
+        if (value instanceof UUID) return "U";
+        if (value instanceof LocalDateTime) return "T";
+        if (value instanceof LocalDate) return "D";
+        if (value instanceof BigDecimal) return "N";
+        if (value instanceof Integer) return "I";
+        if (value instanceof Long) return "L";
+        if (value instanceof String) return "S";
+        throw new IllegalStateException("Unsupported cursor value type: " + value);
+    }
+
+    private static Object parseValue(String type, String value) {
+        return switch (type) {
+            case "U" -> UUID.fromString(value);
+            case "T" -> LocalDateTime.parse(value);
+            case "D" -> LocalDate.parse(value);
+            case "N" -> new BigDecimal(value);
+            case "I" -> Integer.valueOf(value);
+            case "L" -> Long.valueOf(value);
+            case "S" -> value;
+            default -> throw new IllegalArgumentException("Unknown cursor value type " + type);
+        };
+    }
 }
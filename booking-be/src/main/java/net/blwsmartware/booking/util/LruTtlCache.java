@@ -0,0 +1,104 @@
+package net.blwsmartware.booking.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache trong bộ nhớ giới hạn số phần tử (bỏ phần tử ít dùng nhất) và thời gian sống của mỗi phần tử.
+ * <p>
+ * Mỗi lần load đăng ký một token cho khóa; invalidate(key) xóa token của đúng khóa đó (invalidateAll xóa hết).
+ * Kết quả load chỉ được lưu nếu token vẫn còn, tránh ghi đè dữ liệu cũ (đọc trước khi transaction ghi commit)
+ * vào cache mà không làm hỏng các lần load đang chạy của khóa khác. Map token chỉ chứa các lần load đang chạy.
+ */
+public class LruTtlCache<K, V> {
+
+    final int maxSize;
+    final long ttlMillis;
+    final LinkedHashMap<K, Entry<V>> entries;
+    final Map<K, Object> loading = new HashMap<>();
+    final AtomicLong hits = new AtomicLong();
+    final AtomicLong misses = new AtomicLong();
+
+    public LruTtlCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > LruTtlCache.this.maxSize;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = currentTimeMillis();
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+        }
+        misses.incrementAndGet();
+
+        Object token = new Object();
+        synchronized (this) {
+            loading.put(key, token);
+        }
+        V value = null;
+        try {
+            value = loader.apply(key);
+        } finally {
+            synchronized (this) {
+                // Hai lần load song song cùng khóa: chỉ lần đăng ký sau cùng được lưu
+                if (loading.remove(key, token) && value != null) {
+                    entries.put(key, new Entry<>(value, currentTimeMillis() + ttlMillis));
+                }
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        synchronized (this) {
+            loading.remove(key);
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            loading.clear();
+            entries.clear();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
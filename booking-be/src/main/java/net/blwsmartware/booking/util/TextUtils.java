@@ -2,6 +2,7 @@ package net.blwsmartware.booking.util;
 
 import java.text.Normalizer;
 import java.util.Arrays;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 public class TextUtils {
@@ -27,6 +28,20 @@ public class TextUtils {
         return capitalized;
     }
     
+    /**
+     * Chuẩn hóa cho tìm kiếm: bỏ dấu, viết thường, tách theo ký tự không phải chữ/số
+     * Ví dụ: "Đà Nẵng, Việt Nam" -> [da, nang, viet, nam]
+     */
+    public static String[] foldForSearch(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        String folded = removeDiacritics(text).toLowerCase(Locale.ROOT);
+        return Arrays.stream(folded.split("[^\\p{Alnum}]+"))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+    
     /**
      * Loại bỏ dấu tiếng Việt
      */
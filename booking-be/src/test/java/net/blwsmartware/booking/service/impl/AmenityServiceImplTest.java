@@ -0,0 +1,52 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.entity.Amenity;
+import net.blwsmartware.booking.repository.AmenityRepository;
+import net.blwsmartware.booking.repository.HotelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AmenityServiceImplTest {
+
+	@Mock AmenityRepository amenityRepository;
+	@Mock HotelRepository hotelRepository;
+	@Mock PlatformTransactionManager transactionManager;
+
+	AmenityServiceImpl amenityService;
+
+	@BeforeEach
+	void setUp() {
+		when(amenityRepository.findAll()).thenReturn(List.of(
+				Amenity.builder().bitIndex(0).code("wifi").name("Wifi").build(),
+				Amenity.builder().bitIndex(1).code("ho boi").name("Hồ bơi").build()));
+		amenityService = new AmenityServiceImpl(amenityRepository, hotelRepository, transactionManager);
+	}
+
+	@Test
+	void resolvesFilterMaskForAllAndAny() {
+		assertEquals(0L, amenityService.resolveFilterMask(" , ", true));
+		assertEquals(3L, amenityService.resolveFilterMask("WIFI, ho boi", true));
+		assertEquals(1L, amenityService.resolveFilterMask("[\"Wifi\",\"Spa\"]", false));
+		assertNull(amenityService.resolveFilterMask("Wifi,Spa", true));
+		assertNull(amenityService.resolveFilterMask("Spa", false));
+	}
+
+	@Test
+	void registersNewAmenitiesOnFreeBits() {
+		assertEquals(0b111L, amenityService.registerAmenities("Hồ Bơi, Spa, wifi, spa"));
+		verify(amenityRepository).insert(2, "spa", "Spa");
+		assertEquals(List.of("Hồ bơi", "Spa", "Wifi"), amenityService.getAmenityNames());
+	}
+}
@@ -0,0 +1,69 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingHoldSweeperTest {
+
+	@Mock BookingHoldQueue bookingHoldQueue;
+	@Mock BookingService bookingService;
+	@Mock BookingRepository bookingRepository;
+	@InjectMocks BookingHoldSweeper bookingHoldSweeper;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(bookingHoldSweeper, "batchSize", 3);
+	}
+
+	@Test
+	void oneFailingHoldDoesNotBlockTheRestOfTheRecoverySweep() {
+		LocalDateTime expiredAt = LocalDateTime.now().minusMinutes(30);
+		UUID ok1 = UUID.randomUUID();
+		UUID broken = UUID.randomUUID();
+		UUID ok2 = UUID.randomUUID();
+		UUID nextPage = UUID.randomUUID();
+		when(bookingRepository.findExpiredHolds(any(LocalDateTime.class), any(Pageable.class)))
+				.thenReturn(List.<Object[]>of(
+						new Object[]{ok1, expiredAt},
+						new Object[]{broken, expiredAt},
+						new Object[]{ok2, expiredAt}));
+		// Booking lỗi vẫn còn trong bảng: trang sau phải bắt đầu sau nó chứ không quay lại trang đầu
+		when(bookingRepository.findExpiredHoldsAfter(any(LocalDateTime.class), eq(expiredAt), eq(ok2), any(Pageable.class)))
+				.thenReturn(List.<Object[]>of(new Object[]{nextPage, expiredAt}));
+		when(bookingRepository.findExpiredHoldsAfter(any(LocalDateTime.class), eq(expiredAt), eq(nextPage), any(Pageable.class)))
+				.thenReturn(List.of());
+
+		when(bookingService.expireHolds(List.of(ok1, broken, ok2)))
+				.thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+		when(bookingService.expireHolds(List.of(ok1))).thenReturn(1);
+		when(bookingService.expireHolds(List.of(broken)))
+				.thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+		when(bookingService.expireHolds(List.of(ok2))).thenReturn(1);
+		when(bookingService.expireHolds(List.of(nextPage))).thenReturn(1);
+
+		bookingHoldSweeper.recoverExpiredHolds();
+
+		verify(bookingService).expireHolds(List.of(ok1));
+		verify(bookingService).expireHolds(List.of(ok2));
+		verify(bookingService).expireHolds(List.of(nextPage));
+	}
+}
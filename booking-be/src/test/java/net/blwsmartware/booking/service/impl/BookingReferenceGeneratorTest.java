@@ -0,0 +1,123 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingReferenceGeneratorTest {
+
+	@Test
+	void generatesUniqueReferencesAcrossThreads() throws Exception {
+		BookingReferenceGenerator generator = new BookingReferenceGenerator(7);
+		int threads = 8;
+		int perThread = 50_000;
+		Set<String> references = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < perThread; i++) {
+						references.add(generator.next());
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(threads * perThread, references.size());
+	}
+
+	@Test
+	void staysMonotonicWhenClockGoesBackwards() {
+		long[] clock = {1_700_000_000_000L};
+		BookingReferenceGenerator generator = new BookingReferenceGenerator(1) {
+			@Override
+			long currentTimeMillis() {
+				return clock[0];
+			}
+		};
+
+		String previous = generator.next();
+		for (int i = 0; i < 5_000; i++) {
+			if (i % 1_000 == 0) {
+				clock[0] -= 10_000;
+			}
+			String current = generator.next();
+			assertTrue(current.compareTo(previous) > 0, current + " should sort after " + previous);
+			previous = current;
+		}
+	}
+
+	@Test
+	void usesFixedLengthCrockfordFormat() {
+		String reference = new BookingReferenceGenerator(1023).next();
+		assertEquals(15, reference.length());
+		assertTrue(reference.matches("BK[0-9A-HJKMNP-TV-Z]{13}"), reference);
+	}
+
+	@Test
+	void rejectsNodeIdOutOfRange() {
+		assertThrows(IllegalArgumentException.class, () -> new BookingReferenceGenerator(1024));
+	}
+
+	@Test
+	void failsStartupWithoutNodeIdInMultiNodeMode() {
+		BookingRepository bookingRepository = mock(BookingRepository.class);
+
+		assertThrows(IllegalStateException.class, () -> new BookingReferenceGenerator(null, true, bookingRepository));
+		assertEquals(0, new BookingReferenceGenerator(null, false, bookingRepository).nodeId);
+	}
+
+	@Test
+	void seedsFromLatestIssuedReferenceSoRestartWithSlowClockDoesNotRepeat() {
+		long[] clock = {1_700_000_000_000L};
+		BookingReferenceGenerator before = new BookingReferenceGenerator(3) {
+			@Override
+			long currentTimeMillis() {
+				return clock[0];
+			}
+		};
+		String issued = before.next();
+
+		// Restart với đồng hồ chậm hơn 1 phút, seed từ mã lớn nhất trong DB
+		clock[0] -= 60_000;
+		BookingRepository bookingRepository = mock(BookingRepository.class);
+		when(bookingRepository.findLatestBookingReferenceStamp(BookingReferenceGenerator.nodeCode(3)))
+				.thenReturn(Optional.of(issued.substring(2)));
+		when(bookingRepository.findLatestGroupReferenceStamp(BookingReferenceGenerator.nodeCode(3)))
+				.thenReturn(Optional.empty());
+		BookingReferenceGenerator after = new BookingReferenceGenerator(3, false, bookingRepository) {
+			@Override
+			long currentTimeMillis() {
+				return clock[0];
+			}
+		};
+
+		String next = after.next();
+		assertTrue(next.compareTo(issued) > 0, next + " should sort after " + issued);
+	}
+}
@@ -0,0 +1,268 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.dto.request.BookingCreateRequest;
+import net.blwsmartware.booking.dto.request.GroupBookingCreateRequest;
+import net.blwsmartware.booking.dto.response.VoucherResponse;
+import net.blwsmartware.booking.entity.Booking;
+import net.blwsmartware.booking.entity.Hotel;
+import net.blwsmartware.booking.entity.RoomType;
+import net.blwsmartware.booking.entity.User;
+import net.blwsmartware.booking.enums.BookingStatus;
+import net.blwsmartware.booking.enums.ErrorResponse;
+import net.blwsmartware.booking.enums.PaymentStatus;
+import net.blwsmartware.booking.exception.AppRuntimeException;
+import net.blwsmartware.booking.mapper.BookingMapper;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.repository.RoomTypeRepository;
+import net.blwsmartware.booking.repository.UserRepository;
+import net.blwsmartware.booking.service.RoomInventoryService;
+import net.blwsmartware.booking.service.VoucherService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingServiceImplTest {
+
+	@Mock BookingRepository bookingRepository;
+	@Mock HotelRepository hotelRepository;
+	@Mock RoomTypeRepository roomTypeRepository;
+	@Mock UserRepository userRepository;
+	@Mock BookingMapper bookingMapper;
+	@Mock RoomInventoryService roomInventoryService;
+	@Mock BookingHoldQueue bookingHoldQueue;
+	@Mock BookingReferenceGenerator bookingReferenceGenerator;
+	@Mock VoucherService voucherService;
+
+	@InjectMocks BookingServiceImpl bookingService;
+
+	User user;
+	Hotel hotel;
+	RoomType roomType;
+	RoomType suite;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(bookingService, "holdTtlMinutes", 20L);
+		user = new User();
+		user.setId(UUID.randomUUID());
+		user.setUsername("guest");
+		hotel = new Hotel();
+		hotel.setId(UUID.randomUUID());
+		hotel.setActive(true);
+		hotel.setCommissionRate(new BigDecimal("12.50"));
+		roomType = new RoomType();
+		roomType.setId(UUID.randomUUID());
+		roomType.setHotel(hotel);
+		roomType.setMaxOccupancy(2);
+		roomType.setPricePerNight(new BigDecimal("300000"));
+		suite = new RoomType();
+		suite.setId(UUID.randomUUID());
+		suite.setHotel(hotel);
+		suite.setMaxOccupancy(2);
+		suite.setPricePerNight(new BigDecimal("500000"));
+
+		Jwt jwt = Jwt.withTokenValue("token").header("alg", "none")
+				.subject(user.getId().toString()).claim("usn", "guest").build();
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt, List.of()));
+		lenient().when(userRepository.findByUsername("guest")).thenReturn(Optional.of(user));
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	private Booking createSingleBooking(String paymentMethod) {
+		BookingCreateRequest request = BookingCreateRequest.builder()
+				.hotelId(hotel.getId())
+				.roomTypeId(roomType.getId())
+				.checkInDate(LocalDate.now().plusDays(3))
+				.checkOutDate(LocalDate.now().plusDays(5))
+				.guests(2)
+				.paymentMethod(paymentMethod)
+				.build();
+		Booking mapped = new Booking();
+		mapped.setId(UUID.randomUUID());
+		mapped.setPaymentMethod(paymentMethod);
+		mapped.setCheckInDate(request.getCheckInDate());
+		mapped.setCheckOutDate(request.getCheckOutDate());
+		when(hotelRepository.findById(hotel.getId())).thenReturn(Optional.of(hotel));
+		when(roomTypeRepository.findById(roomType.getId())).thenReturn(Optional.of(roomType));
+		when(roomInventoryService.getRemainingRooms(eq(roomType), any(), any(), isNull())).thenReturn(1);
+		when(bookingMapper.toEntity(request)).thenReturn(mapped);
+		when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		bookingService.createBooking(request);
+
+		ArgumentCaptor<Booking> saved = ArgumentCaptor.forClass(Booking.class);
+		verify(bookingRepository).save(saved.capture());
+		return saved.getValue();
+	}
+
+	@Test
+	void payAtHotelBookingIsNotHeldForExpiry() {
+		Booking booking = createSingleBooking("CASH_ON_CHECKIN");
+
+		assertNull(booking.getHoldExpiresAt());
+		verify(roomInventoryService).reserve(booking, booking.getCheckInDate(), booking.getCheckOutDate());
+		verify(bookingHoldQueue, never()).schedule(any(), any());
+	}
+
+	@Test
+	void onlinePaymentBookingIsHeldUntilTtl() {
+		Booking booking = createSingleBooking("VNPAY");
+
+		assertNotNull(booking.getHoldExpiresAt());
+		assertTrue(booking.getHoldExpiresAt().isAfter(LocalDateTime.now().plusMinutes(19)));
+		verify(bookingHoldQueue).schedule(booking.getId(), booking.getHoldExpiresAt());
+	}
+
+	@Test
+	void bookingChecksTheDatabaseInventoryInsteadOfTheInMemoryCalendar() {
+		createSingleBooking("VNPAY");
+		createGroupBooking(null, line(roomType, 2));
+
+		// Lịch trong bộ nhớ có thể cũ khi chạy nhiều instance: không được dùng để từ chối booking
+		verify(roomInventoryService, never()).getCachedRemainingRooms(any(), any(), any());
+	}
+
+	@Test
+	void singleBookingLocksInTheHotelCommissionRate() {
+		Booking booking = createSingleBooking("VNPAY");
+
+		assertEquals(new BigDecimal("12.50"), booking.getCommissionRateAtBooking());
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Booking> createGroupBooking(String voucherCode, GroupBookingCreateRequest.RoomLine... lines) {
+		GroupBookingCreateRequest request = GroupBookingCreateRequest.builder()
+				.hotelId(hotel.getId())
+				.checkInDate(LocalDate.now().plusDays(3))
+				.checkOutDate(LocalDate.now().plusDays(5))
+				.rooms(List.of(lines))
+				.paymentMethod("VNPAY")
+				.voucherCode(voucherCode)
+				.build();
+		when(hotelRepository.findById(hotel.getId())).thenReturn(Optional.of(hotel));
+		when(roomTypeRepository.findAllById(any())).thenReturn(List.of(roomType, suite));
+		when(bookingReferenceGenerator.nextGroup()).thenReturn("GRP-1");
+		when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Booking> bookings = invocation.getArgument(0);
+			bookings.forEach(booking -> booking.setId(UUID.randomUUID()));
+			return bookings;
+		});
+
+		bookingService.createGroupBooking(request);
+
+		ArgumentCaptor<List<Booking>> saved = ArgumentCaptor.forClass(List.class);
+		verify(bookingRepository).saveAll(saved.capture());
+		return saved.getValue();
+	}
+
+	private GroupBookingCreateRequest.RoomLine line(RoomType type, int quantity) {
+		return GroupBookingCreateRequest.RoomLine.builder()
+				.roomTypeId(type.getId()).quantity(quantity).guestsPerRoom(2).build();
+	}
+
+	@Test
+	void groupBookingLocksInTheHotelCommissionRate() {
+		List<Booking> bookings = createGroupBooking(null, line(roomType, 2));
+
+		assertEquals(2, bookings.size());
+		bookings.forEach(booking ->
+				assertEquals(new BigDecimal("12.50"), booking.getCommissionRateAtBooking()));
+	}
+
+	@Test
+	void groupBookingHoldsTheWholeGroupUnderOneQueueEntry() {
+		List<Booking> bookings = createGroupBooking(null, line(roomType, 3));
+
+		LocalDateTime holdExpiresAt = bookings.get(0).getHoldExpiresAt();
+		assertNotNull(holdExpiresAt);
+		bookings.forEach(booking -> assertEquals(holdExpiresAt, booking.getHoldExpiresAt()));
+		verify(bookingHoldQueue, times(1)).schedule(any(), any());
+	}
+
+	@Test
+	void groupDiscountIsSplitProRataWithRemainderOnTheLastBooking() {
+		VoucherResponse voucher = VoucherResponse.builder().id(UUID.randomUUID()).build();
+		when(voucherService.applyGroupVoucher(eq("SALE"), eq(user.getId()), eq("GRP-1"), any(),
+				eq(new BigDecimal("2200000")), eq(hotel.getId()))).thenReturn(voucher);
+		when(voucherService.calculateDiscount(voucher.getId(), new BigDecimal("2200000"))).thenReturn(new BigDecimal("100000"));
+
+		// 1 phòng 1.000.000 + 2 phòng 600.000 (2 đêm)
+		List<Booking> bookings = createGroupBooking("SALE", line(suite, 1), line(roomType, 2));
+
+		assertEquals(0, new BigDecimal("954545.46").compareTo(bookings.get(0).getTotalAmount()));
+		assertEquals(0, new BigDecimal("572727.28").compareTo(bookings.get(1).getTotalAmount()));
+		assertEquals(0, new BigDecimal("572727.26").compareTo(bookings.get(2).getTotalAmount()));
+		assertEquals(0, new BigDecimal("2100000").compareTo(bookings.stream()
+				.map(Booking::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add)));
+	}
+
+	@Test
+	void expiringOneGroupBookingExpiresTheWholeGroup() {
+		LocalDateTime expired = LocalDateTime.now().minusMinutes(1);
+		Booking anchor = pendingGroupBooking(expired);
+		Booking member = pendingGroupBooking(expired);
+		when(bookingRepository.findAllById(List.of(anchor.getId()))).thenReturn(List.of(anchor));
+		when(bookingRepository.findByGroupReferenceIn(any())).thenReturn(List.of(anchor, member));
+		when(bookingRepository.expireHold(any(), eq(PaymentStatus.PENDING), eq(PaymentStatus.NO_PAYMENT),
+				eq(BookingStatus.CANCELLED), any(), any())).thenReturn(1);
+
+		assertEquals(2, bookingService.expireHolds(List.of(anchor.getId())));
+		verify(roomInventoryService).release(member, member.getCheckInDate(), member.getCheckOutDate());
+	}
+
+	private Booking pendingGroupBooking(LocalDateTime holdExpiresAt) {
+		Booking booking = new Booking();
+		booking.setId(UUID.randomUUID());
+		booking.setGroupReference("GRP-1");
+		booking.setStatus(BookingStatus.PENDING);
+		booking.setPaymentStatus(PaymentStatus.PENDING);
+		booking.setHoldExpiresAt(holdExpiresAt);
+		return booking;
+	}
+
+	@Test
+	void cursorPagingRejectsSortFieldsWithoutAKeysetIndex() {
+		AppRuntimeException e = assertThrows(AppRuntimeException.class,
+				() -> bookingService.getAllBookingsAfter(null, null, null, 10, "totalAmount"));
+
+		assertEquals(ErrorResponse.CURSOR_INVALID, e.getErrorResponse());
+		verify(bookingRepository, never()).findAllBy(any(), any(), any());
+	}
+}
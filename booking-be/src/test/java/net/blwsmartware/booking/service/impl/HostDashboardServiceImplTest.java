@@ -0,0 +1,120 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.dto.response.HostDashboardResponse;
+import net.blwsmartware.booking.enums.BookingStatus;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.repository.ReviewRepository;
+import net.blwsmartware.booking.repository.RoomTypeRepository;
+import net.blwsmartware.booking.service.BookingService;
+import net.blwsmartware.booking.service.HotelService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HostDashboardServiceImplTest {
+
+	@Mock HotelRepository hotelRepository;
+	@Mock RoomTypeRepository roomTypeRepository;
+	@Mock BookingRepository bookingRepository;
+	@Mock ReviewRepository reviewRepository;
+	@Mock BookingService bookingService;
+	@Mock HotelService hotelService;
+
+	HostDashboardServiceImpl hostDashboardService;
+	UUID hostId = UUID.randomUUID();
+
+	@BeforeEach
+	void setUp() {
+		hostDashboardService = new HostDashboardServiceImpl(hotelRepository, roomTypeRepository, bookingRepository,
+				reviewRepository, bookingService, hotelService, 4, 500);
+		when(hotelRepository.countHotelsByOwner(hostId)).thenReturn(List.<Object[]>of(new Object[]{3L, 2L}));
+		when(roomTypeRepository.countByHostId(hostId)).thenReturn(7L);
+		when(bookingRepository.countByHotelOwnerIdGroupByStatus(hostId)).thenReturn(List.of(
+				new Object[]{BookingStatus.PENDING, 1L}, new Object[]{BookingStatus.COMPLETED, 3L}));
+		when(bookingRepository.getRevenueSummaryByHost(any(), any())).thenReturn(List.<Object[]>of(
+				new Object[]{new BigDecimal("4000000"), new BigDecimal("1000000"), new BigDecimal("600000")}));
+		when(reviewRepository.getRatingSummaryByHostId(hostId)).thenReturn(List.<Object[]>of(new Object[]{4.5, 10L}));
+		when(roomTypeRepository.getTotalRoomsByHost(hostId)).thenReturn(20L);
+		when(bookingRepository.getOccupiedRoomsByHost(hostId)).thenReturn(5L);
+		when(bookingService.getHostRecentBookings(hostId, 5)).thenReturn(List.of());
+		when(bookingService.getHostMonthlyRevenueData(hostId, 12)).thenReturn(List.of());
+		when(bookingService.getHostMonthlyBookingData(hostId, 12)).thenReturn(List.of());
+	}
+
+	@AfterEach
+	void tearDown() {
+		hostDashboardService.shutdown();
+	}
+
+	@Test
+	void assemblesAllSectionsFromCombinedQueries() {
+		when(hotelService.getHostTopPerformingHotels(hostId, 5)).thenReturn(List.of());
+
+		HostDashboardResponse response = hostDashboardService.getDashboard(hostId);
+
+		assertEquals(3L, response.getTotalHotels());
+		assertEquals(2L, response.getActiveHotels());
+		assertEquals(4L, response.getTotalBookings());
+		assertEquals(3L, response.getCompletedBookings());
+		assertEquals(0L, response.getCancelledBookings());
+		assertEquals(new BigDecimal("1000000.00"), response.getAverageBookingValue());
+		assertEquals(25.0, response.getOccupancyRate());
+		assertEquals(List.of(), response.getUnavailableSections());
+	}
+
+	@Test
+	void returnsPartialDashboardWhenSectionsFailOrTimeOut() {
+		when(hotelService.getHostTopPerformingHotels(hostId, 5)).thenThrow(new IllegalStateException("boom"));
+		when(bookingService.getHostMonthlyBookingData(hostId, 12)).thenAnswer(invocation -> {
+			Thread.sleep(5_000);
+			return List.of();
+		});
+
+		HostDashboardResponse response = hostDashboardService.getDashboard(hostId);
+
+		assertEquals(List.of("monthlyBookings", "topHotels"), response.getUnavailableSections());
+		assertEquals(List.of(), response.getTopPerformingHotels());
+		assertEquals(3L, response.getTotalHotels());
+		assertEquals(10L, response.getTotalReviews());
+	}
+
+	@Test
+	void marksSectionsUnavailableWhenExecutorIsSaturated() {
+		hostDashboardService.shutdown();
+		// 1 thread + hàng đợi 4: 5 phần đầu được nhận, 4 phần còn lại bị từ chối
+		hostDashboardService = new HostDashboardServiceImpl(hotelRepository, roomTypeRepository, bookingRepository,
+				reviewRepository, bookingService, hotelService, 1, 2_000);
+		when(hotelRepository.countHotelsByOwner(hostId)).thenAnswer(invocation -> {
+			Thread.sleep(200);
+			return List.<Object[]>of(new Object[]{3L, 2L});
+		});
+
+		HostDashboardResponse response = hostDashboardService.getDashboard(hostId);
+
+		assertEquals(List.of("recentBookings", "monthlyRevenue", "monthlyBookings", "topHotels"),
+				response.getUnavailableSections());
+		assertEquals(3L, response.getTotalHotels());
+		assertEquals(10L, response.getTotalReviews());
+		// Phần bị từ chối không chạy trên thread của request
+		verify(hotelService, never()).getHostTopPerformingHotels(any(), anyInt());
+	}
+}
@@ -0,0 +1,79 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.dto.response.AutocompleteSuggestionResponse;
+import net.blwsmartware.booking.entity.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelAutocompleteIndexTest {
+
+	private Hotel hotel(String name, String city) {
+		Hotel hotel = Hotel.builder()
+				.id(UUID.randomUUID())
+				.name(name)
+				.city(city)
+				.build();
+		hotel.setActive(true);
+		return hotel;
+	}
+
+	@Test
+	void suggestsCitiesAndHotelsByFoldedWordPrefix() {
+		Hotel muongThanh = hotel("Mường Thanh Luxury Đà Nẵng", "Đà Nẵng");
+		Hotel daLat = hotel("Dalat Palace", "Đà Lạt");
+		Hotel novotel = hotel("Novotel Danang", "Đà Nẵng");
+		HotelAutocompleteIndex index = new HotelAutocompleteIndex();
+		index.rebuild(List.of(muongThanh, daLat, novotel), Map.of(novotel.getId(), 50L));
+
+		List<AutocompleteSuggestionResponse> suggestions = index.suggest("da n", 5);
+		assertEquals("Đà Nẵng", suggestions.get(0).getLabel());
+		assertEquals(2, suggestions.get(0).getHotelCount());
+		assertEquals(muongThanh.getId(), suggestions.get(1).getHotelId());
+
+		List<AutocompleteSuggestionResponse> byPopularity = index.suggest("Da", 2);
+		assertEquals(2, byPopularity.size());
+		// Khách sạn nhiều review xếp trên cả thành phố dù chỉ khớp từ giữa tên
+		assertEquals(novotel.getId(), byPopularity.get(0).getHotelId());
+		assertEquals("Đà Nẵng", byPopularity.get(1).getLabel());
+	}
+
+	@Test
+	void updatesCityCountsIncrementally() {
+		Hotel first = hotel("Sofitel Metropole", "Hà Nội");
+		Hotel second = hotel("Hanoi Pearl", "Hà Nội");
+		HotelAutocompleteIndex index = new HotelAutocompleteIndex();
+		index.rebuild(List.of(first, second), Map.of());
+
+		second.setActive(false);
+		index.indexAfterCommit(second);
+		assertEquals(1, index.suggest("ha noi", 5).get(0).getHotelCount());
+
+		index.removeAfterCommit(first.getId());
+		assertTrue(index.suggest("ha", 5).isEmpty());
+		assertTrue(index.keys.isEmpty());
+	}
+
+	@Test
+	void keepsEachSuggestionOnceWithItsBestScore() {
+		// "thanh" khớp cả đầu cụm lẫn từ giữa của cùng một khách sạn
+		Hotel repeated = hotel("Thanh Binh Thanh", "Huế");
+		Hotel other = hotel("Thanh Tam", "Vinh");
+		HotelAutocompleteIndex index = new HotelAutocompleteIndex();
+		index.rebuild(List.of(repeated, other), Map.of(other.getId(), 1L));
+
+		List<AutocompleteSuggestionResponse> suggestions = index.suggest("thanh", 5);
+		assertEquals(2, suggestions.size());
+		assertEquals(other.getId(), suggestions.get(0).getHotelId());
+		assertEquals(repeated.getId(), suggestions.get(1).getHotelId());
+
+		List<AutocompleteSuggestionResponse> limited = index.suggest("thanh", 1);
+		assertEquals(1, limited.size());
+		assertEquals(other.getId(), limited.get(0).getHotelId());
+	}
+}
@@ -0,0 +1,110 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.dto.response.HotelResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HotelDetailCacheTest {
+
+	@Test
+	void servesFromCacheUntilEvicted() {
+		HotelDetailCache cache = new HotelDetailCache(10, 300);
+		UUID hotelId = UUID.randomUUID();
+		AtomicInteger loads = new AtomicInteger();
+
+		HotelResponse first = cache.get(hotelId, id -> {
+			loads.incrementAndGet();
+			return HotelResponse.builder().id(id).build();
+		});
+		assertEquals(first, cache.get(hotelId, id -> HotelResponse.builder().build()));
+		assertEquals(1, loads.get());
+
+		cache.evictAfterCommit(hotelId);
+		HotelResponse reloaded = cache.get(hotelId, id -> {
+			loads.incrementAndGet();
+			return HotelResponse.builder().id(id).build();
+		});
+		assertEquals(2, loads.get());
+		assertEquals(reloaded, cache.get(hotelId, id -> HotelResponse.builder().build()));
+	}
+
+	@Test
+	void doesNotCacheValueLoadedWhileEvictionHappened() {
+		HotelDetailCache cache = new HotelDetailCache(10, 300);
+		UUID hotelId = UUID.randomUUID();
+
+		HotelResponse stale = cache.get(hotelId, id -> {
+			cache.evictAfterCommit(id);
+			return HotelResponse.builder().id(id).name("stale").build();
+		});
+		HotelResponse fresh = cache.get(hotelId, id -> HotelResponse.builder().id(id).name("fresh").build());
+
+		assertEquals("stale", stale.getName());
+		assertEquals("fresh", fresh.getName());
+	}
+
+	@Test
+	void evictingAnotherHotelDoesNotDiscardAnInFlightLoad() {
+		HotelDetailCache cache = new HotelDetailCache(10, 300);
+		UUID hotelId = UUID.randomUUID();
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(hotelId, id -> {
+			loads.incrementAndGet();
+			cache.evictAfterCommit(UUID.randomUUID());
+			return HotelResponse.builder().id(id).build();
+		});
+		cache.get(hotelId, id -> {
+			loads.incrementAndGet();
+			return HotelResponse.builder().id(id).build();
+		});
+
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void callerChangesDoNotLeakIntoTheCachedResponse() {
+		HotelDetailCache cache = new HotelDetailCache(10, 300);
+		UUID hotelId = UUID.randomUUID();
+
+		HotelResponse first = cache.get(hotelId, id -> HotelResponse.builder()
+				.id(id).name("Original").recentReviews(new ArrayList<>()).build());
+		first.setName("Changed");
+		first.setAverageRating(1.0);
+
+		HotelResponse second = cache.get(hotelId, id -> HotelResponse.builder().build());
+		assertNotSame(first, second);
+		assertEquals("Original", second.getName());
+		assertNull(second.getAverageRating());
+		List<?> reviews = second.getRecentReviews();
+		assertThrows(UnsupportedOperationException.class, () -> reviews.clear());
+	}
+
+	@Test
+	void keepsAtMostMaxSizeEntries() {
+		HotelDetailCache cache = new HotelDetailCache(2, 300);
+		UUID a = UUID.randomUUID();
+		UUID b = UUID.randomUUID();
+		UUID c = UUID.randomUUID();
+		AtomicInteger loads = new AtomicInteger();
+
+		for (UUID id : new UUID[]{a, b, a, c, a}) {
+			cache.get(id, key -> {
+				loads.incrementAndGet();
+				return HotelResponse.builder().id(key).build();
+			});
+		}
+		// a được dùng gần đây nên b bị loại khi thêm c; a vẫn nằm trong cache
+		assertEquals(3, loads.get());
+		assertEquals(2, cache.cache.size());
+	}
+}
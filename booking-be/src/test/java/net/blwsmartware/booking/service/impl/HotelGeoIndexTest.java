@@ -0,0 +1,94 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.dto.response.HotelGeoResponse;
+import net.blwsmartware.booking.entity.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelGeoIndexTest {
+
+	private Hotel hotel(double lat, double lng, String city, int stars) {
+		Hotel hotel = Hotel.builder()
+				.id(UUID.randomUUID())
+				.name("Hotel " + lat + "," + lng)
+				.city(city)
+				.starRating(stars)
+				.pricePerNight(BigDecimal.valueOf(100 * stars))
+				.latitude(lat)
+				.longitude(lng)
+				.build();
+		hotel.setActive(true);
+		return hotel;
+	}
+
+	@Test
+	void nearestMatchesBruteForce() {
+		Random random = new Random(42);
+		List<Hotel> hotels = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			hotels.add(hotel(8 + random.nextDouble() * 15, 102 + random.nextDouble() * 8,
+					i % 2 == 0 ? "Đà Nẵng" : "Hà Nội", 1 + i % 5));
+		}
+		HotelGeoIndex index = new HotelGeoIndex();
+		index.rebuild(hotels);
+
+		for (int q = 0; q < 20; q++) {
+			double lat = 8 + random.nextDouble() * 15;
+			double lng = 102 + random.nextDouble() * 8;
+			List<UUID> expected = hotels.stream()
+					.filter(h -> h.getCity().equals("Đà Nẵng") && h.getStarRating() == 4)
+					.sorted(Comparator.comparingDouble(h -> HotelGeoIndex.distanceKm(lat, lng, h.getLatitude(), h.getLongitude())))
+					.limit(10)
+					.map(Hotel::getId)
+					.toList();
+			List<UUID> actual = index.nearest(lat, lng, 10, null, HotelGeoIndex.filter("da nang", 4, null, null)).stream()
+					.map(HotelGeoResponse::getId)
+					.toList();
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	void boundingBoxHandlesAntimeridianAndRadius() {
+		Hotel east = hotel(-17.0, 179.9, "Suva", 3);
+		Hotel west = hotel(-17.0, -179.9, "Suva", 3);
+		Hotel far = hotel(-17.0, 170.0, "Suva", 3);
+		HotelGeoIndex index = new HotelGeoIndex();
+		index.rebuild(List.of(east, west, far));
+
+		List<HotelGeoResponse> inBox = index.within(-18, 179.5, -16, -179.5, 10, HotelGeoIndex.filter(null, null, null, null));
+		assertEquals(2, inBox.size());
+
+		List<HotelGeoResponse> nearby = index.nearest(-17.0, 179.95, 10, 50.0, HotelGeoIndex.filter(null, null, null, null));
+		assertEquals(2, nearby.size());
+		assertTrue(nearby.get(1).getDistanceKm() < 50);
+	}
+
+	@Test
+	void priceFilterMatchesOverlappingRoomPriceRange() {
+		Hotel hotel = hotel(16.0, 108.2, "Đà Nẵng", 4);
+		hotel.setMinRoomPrice(new BigDecimal("500000"));
+		hotel.setMaxRoomPrice(new BigDecimal("2000000"));
+		HotelGeoIndex index = new HotelGeoIndex();
+		index.rebuild(List.of(hotel));
+
+		// Chỉ có phòng đắt (≥ 1.500.000) vẫn phải tìm thấy dù phòng rẻ nhất nằm ngoài khoảng
+		assertEquals(1, index.nearest(16.0, 108.2, 10, null,
+				HotelGeoIndex.filter(null, null, new BigDecimal("1500000"), new BigDecimal("3000000"))).size());
+		assertEquals(0, index.nearest(16.0, 108.2, 10, null,
+				HotelGeoIndex.filter(null, null, new BigDecimal("2500000"), null)).size());
+
+		index.updatePriceRangeAfterCommit(hotel.getId(), new BigDecimal("500000"), new BigDecimal("3000000"));
+		assertEquals(1, index.nearest(16.0, 108.2, 10, null,
+				HotelGeoIndex.filter(null, null, new BigDecimal("2500000"), null)).size());
+	}
+}
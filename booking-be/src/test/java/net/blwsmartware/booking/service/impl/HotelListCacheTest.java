@@ -0,0 +1,154 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.dto.response.CacheStatsResponse;
+import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.dto.response.HotelResponse;
+import net.blwsmartware.booking.entity.Hotel;
+import net.blwsmartware.booking.mapper.HotelMapper;
+import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.service.HotelStatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HotelListCacheTest {
+
+	@Mock HotelRepository hotelRepository;
+	@Mock HotelMapper hotelMapper;
+	@Mock HotelStatsService hotelStatsService;
+	@Spy HotelListCache hotelListCache = new HotelListCache(10, 60);
+	@Spy HotelDetailCache hotelDetailCache = new HotelDetailCache(10, 300);
+
+	@InjectMocks HotelServiceImpl hotelService;
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private void stubActiveHotels() {
+		when(hotelRepository.findByIsActiveTrue(any(Pageable.class))).thenAnswer(invocation -> {
+			Pageable pageable = invocation.getArgument(0);
+			return new PageImpl<Hotel>(List.of(), pageable, 0);
+		});
+	}
+
+	@Test
+	void cachesEachPageSizeAndSortSeparately() {
+		stubActiveHotels();
+		assertEquals("0:10:createdAt", HotelListCache.pageKey(0, 10, "createdAt"));
+
+		hotelService.getActiveHotels(0, 10, "createdAt");
+		hotelService.getActiveHotels(0, 10, "createdAt");
+		verify(hotelRepository, times(1)).findByIsActiveTrue(any(Pageable.class));
+
+		hotelService.getActiveHotels(1, 10, "createdAt");
+		hotelService.getActiveHotels(0, 20, "createdAt");
+		hotelService.getActiveHotels(0, 10, "name");
+		verify(hotelRepository).findByIsActiveTrue(PageRequest.of(1, 10, Sort.by("createdAt").descending()));
+		verify(hotelRepository).findByIsActiveTrue(PageRequest.of(0, 20, Sort.by("createdAt").descending()));
+		verify(hotelRepository).findByIsActiveTrue(PageRequest.of(0, 10, Sort.by("name").descending()));
+		assertEquals(4, hotelListCache.getActiveHotels().size());
+	}
+
+	@Test
+	void invalidatesOnlyAfterTheWritingTransactionCommits() {
+		stubActiveHotels();
+		hotelService.getActiveHotels(0, 10, "createdAt");
+
+		TransactionSynchronizationManager.initSynchronization();
+		hotelListCache.invalidateAllAfterCommit();
+		// Transaction ghi chưa commit: người đọc khác vẫn dùng danh sách đã cache
+		hotelService.getActiveHotels(0, 10, "createdAt");
+		assertEquals(1, hotelListCache.getActiveHotels().size());
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		assertEquals(0, hotelListCache.getActiveHotels().size());
+		hotelService.getActiveHotels(0, 10, "createdAt");
+		verify(hotelRepository, times(2)).findByIsActiveTrue(any(Pageable.class));
+	}
+
+	@Test
+	void rolledBackTransactionKeepsTheCache() {
+		stubActiveHotels();
+		hotelService.getActiveHotels(0, 10, "createdAt");
+
+		TransactionSynchronizationManager.initSynchronization();
+		hotelListCache.invalidateAllAfterCommit();
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		assertEquals(1, hotelListCache.getActiveHotels().size());
+	}
+
+	@Test
+	void callerChangesDoNotLeakIntoTheCachedPage() {
+		Hotel hotel = Hotel.builder().id(UUID.randomUUID()).name("Hotel A").build();
+		when(hotelRepository.findByIsActiveTrue(any(Pageable.class))).thenAnswer(invocation -> {
+			Pageable pageable = invocation.getArgument(0);
+			return new PageImpl<>(List.of(hotel), pageable, 1);
+		});
+		when(hotelMapper.toResponse(hotel)).thenAnswer(invocation ->
+				HotelResponse.builder().id(hotel.getId()).name(hotel.getName()).build());
+
+		DataResponse<HotelResponse> first = hotelService.getActiveHotels(0, 10, "createdAt");
+		first.getContent().get(0).setName("Changed");
+		first.getContent().get(0).setAverageRating(1.0);
+		first.getContent().add(HotelResponse.builder().name("Extra").build());
+		first.setTotalElements(99);
+
+		DataResponse<HotelResponse> second = hotelService.getActiveHotels(0, 10, "createdAt");
+		assertEquals(List.of("Hotel A"), second.getContent().stream().map(HotelResponse::getName).toList());
+		assertNotEquals(1.0, second.getContent().get(0).getAverageRating());
+		assertEquals(1, second.getTotalElements());
+		verify(hotelRepository, times(1)).findByIsActiveTrue(any(Pageable.class));
+	}
+
+	@Test
+	void cacheStatsReportSizeHitsAndMissesPerList() {
+		stubActiveHotels();
+		hotelService.getActiveHotels(0, 10, "createdAt");
+		hotelService.getActiveHotels(0, 10, "createdAt");
+		hotelService.getActiveHotels(0, 10, "createdAt");
+
+		List<CacheStatsResponse> stats = hotelService.getCacheStats();
+
+		assertEquals(List.of("hotelDetail", "featuredHotels", "activeHotels", "topCities"),
+				stats.stream().map(CacheStatsResponse::getName).toList());
+		CacheStatsResponse active = stats.get(2);
+		assertEquals(1, active.getSize());
+		assertEquals(2L, active.getHits());
+		assertEquals(1L, active.getMisses());
+		assertEquals(2.0 / 3, active.getHitRate(), 1e-9);
+		CacheStatsResponse featured = stats.get(1);
+		assertEquals(0, featured.getSize());
+		assertEquals(0.0, featured.getHitRate());
+	}
+}
@@ -0,0 +1,147 @@
+package net.blwsmartware.booking.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.dto.response.HotelResponse;
+import net.blwsmartware.booking.entity.Hotel;
+import net.blwsmartware.booking.entity.Review;
+import net.blwsmartware.booking.entity.RoomType;
+import net.blwsmartware.booking.entity.User;
+import net.blwsmartware.booking.mapper.HotelMapperImpl;
+import net.blwsmartware.booking.mapper.ReviewMapperImpl;
+import net.blwsmartware.booking.mapper.RoomTypeMapperImpl;
+import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.repository.HotelStatsRepository;
+import net.blwsmartware.booking.repository.ReviewRepository;
+import net.blwsmartware.booking.repository.RoomTypeRepository;
+import net.blwsmartware.booking.repository.UserRepository;
+import net.blwsmartware.booking.service.AmenityService;
+import net.blwsmartware.booking.service.RoomInventoryService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Đếm số câu SQL thật (Hibernate Statistics, H2 chế độ MySQL) của trang danh sách khách sạn:
+ * số câu không được tăng theo số khách sạn trong trang (chủ khách sạn, loại phòng, review, thống kê).
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:listing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({HotelServiceImpl.class, HotelStatsServiceImpl.class,
+		HotelMapperImpl.class, RoomTypeMapperImpl.class, ReviewMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HotelListingQueryCountJpaTest {
+
+	static final int HOTELS = 20;
+
+	@Autowired HotelServiceImpl hotelService;
+	@Autowired HotelRepository hotelRepository;
+	@Autowired RoomTypeRepository roomTypeRepository;
+	@Autowired ReviewRepository reviewRepository;
+	@Autowired HotelStatsRepository hotelStatsRepository;
+	@Autowired UserRepository userRepository;
+	@Autowired EntityManagerFactory entityManagerFactory;
+	@Autowired PlatformTransactionManager transactionManager;
+
+	@MockBean RoomInventoryService roomInventoryService;
+	@MockBean HotelSearchIndex hotelSearchIndex;
+	@MockBean HotelGeoIndex hotelGeoIndex;
+	@MockBean HotelAutocompleteIndex hotelAutocompleteIndex;
+	@MockBean HotelRanker hotelRanker;
+	@MockBean HotelDetailCache hotelDetailCache;
+	@MockBean HotelListCache hotelListCache;
+	@MockBean AmenityService amenityService;
+
+	TransactionTemplate tx;
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		tx = new TransactionTemplate(transactionManager);
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		tx.executeWithoutResult(status -> {
+			for (int i = 0; i < HOTELS; i++) {
+				// Mỗi khách sạn một chủ và một người review riêng: trường hợp xấu nhất cho lazy load
+				User owner = userRepository.save(User.builder()
+						.name("Host " + i).username("host-" + i).email("host-" + i + "@example.com").build());
+				User guest = userRepository.save(User.builder()
+						.name("Guest " + i).username("guest-" + i).email("guest-" + i + "@example.com").build());
+				Hotel hotel = new Hotel();
+				hotel.setName("Hotel " + i);
+				hotel.setAddress(i + " Test Street");
+				hotel.setCity("Da Nang");
+				hotel.setOwner(owner);
+				hotel.setActive(true);
+				hotel = hotelRepository.save(hotel);
+				for (int j = 0; j < 2; j++) {
+					RoomType roomType = new RoomType();
+					roomType.setName("Room " + j);
+					roomType.setMaxOccupancy(2);
+					roomType.setTotalRooms(5);
+					roomType.setAvailableRooms(5);
+					roomType.setPricePerNight(new BigDecimal("500000"));
+					roomType.setHotel(hotel);
+					roomTypeRepository.save(roomType);
+					reviewRepository.save(Review.builder()
+							.rating(4 + j).comment("Good").hotel(hotel).user(guest).build());
+				}
+			}
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		hotelStatsRepository.deleteAll();
+		reviewRepository.deleteAll();
+		roomTypeRepository.deleteAll();
+		hotelRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	private long statementsForPage(int pageSize) {
+		statistics.clear();
+		DataResponse<HotelResponse> page = tx.execute(status -> hotelService.getAllHotels(0, pageSize, "createdAt"));
+		assertEquals(pageSize, page.getContent().size());
+		page.getContent().forEach(hotel -> {
+			assertEquals(2, hotel.getRoomTypes().size());
+			assertEquals(2, hotel.getRecentReviews().size());
+			assertEquals(2, hotel.getTotalReviews());
+		});
+		return statistics.getPrepareStatementCount();
+	}
+
+	@Test
+	void listingPageRunsTheSameNumberOfStatementsForAnyPageSize() {
+		// Lần đầu tính và lưu read model hotel_stats cho cả 20 khách sạn
+		statementsForPage(HOTELS);
+
+		long small = statementsForPage(5);
+		long full = statementsForPage(HOTELS);
+
+		assertEquals(small, full);
+		// Trang, count, hotel_stats, loại phòng, review, review gần đây, user: mỗi loại một câu
+		assertTrue(full <= 7, "statements for a full page: " + full);
+	}
+}
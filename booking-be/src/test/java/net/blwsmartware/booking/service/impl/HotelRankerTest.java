@@ -0,0 +1,71 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.entity.HotelStats;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HotelRankerTest {
+
+	@Mock HotelStatsRepository hotelStatsRepository;
+	@Mock BookingRepository bookingRepository;
+
+	private HotelStats stats(UUID hotelId, long ratingSum, long reviewCount) {
+		return HotelStats.builder().hotelId(hotelId).ratingSum(ratingSum).reviewCount(reviewCount).build();
+	}
+
+	@Test
+	void keepsTopKByRecommendedScoreAndCachesSignals() {
+		UUID wellReviewed = UUID.randomUUID();
+		UUID busy = UUID.randomUUID();
+		UUID singleFiveStar = UUID.randomUUID();
+		UUID unknown = UUID.randomUUID();
+		when(hotelStatsRepository.findAllById(anyCollection())).thenReturn(List.of(
+				stats(wellReviewed, 450, 100), stats(busy, 40, 10), stats(singleFiveStar, 5, 1)));
+		when(bookingRepository.countRecentBookingsByHotelIds(anyCollection(), any()))
+				.thenReturn(List.<Object[]>of(new Object[]{busy, 40L}));
+		HotelRanker ranker = new HotelRanker(hotelStatsRepository, bookingRepository,
+				List.of(new RecommendedRankingFunction()));
+
+		List<Object[]> candidates = List.of(
+				new Object[]{unknown, false, new BigDecimal("500000")},
+				new Object[]{singleFiveStar, false, new BigDecimal("500000")},
+				new Object[]{busy, false, new BigDecimal("500000")},
+				new Object[]{wellReviewed, false, new BigDecimal("500000")});
+
+		assertTrue(ranker.supports("recommended"));
+		// Đặt phòng nhiều gần đây vượt lên; khách sạn chỉ có 1 review 5 sao không lọt top
+		assertEquals(List.of(busy, wellReviewed), ranker.topK("recommended", candidates, null, null, 2));
+		assertEquals(4, ranker.topK("recommended", candidates, null, null, 10).size());
+		verify(hotelStatsRepository, times(1)).findAllById(anyCollection());
+
+		ranker.evictAfterCommit(busy);
+		ranker.topK("recommended", candidates, null, null, 1);
+		verify(hotelStatsRepository, times(2)).findAllById(anyCollection());
+	}
+
+	@Test
+	void priceFitPrefersCheaperHotelsWithinBudget() {
+		BigDecimal max = new BigDecimal("1000000");
+		assertEquals(0.5, RecommendedRankingFunction.priceFit(new BigDecimal("300000"), null, null));
+		assertEquals(0.0, RecommendedRankingFunction.priceFit(null, null, max));
+		assertTrue(RecommendedRankingFunction.priceFit(new BigDecimal("300000"), null, max)
+				> RecommendedRankingFunction.priceFit(new BigDecimal("900000"), null, max));
+	}
+}
@@ -0,0 +1,58 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.entity.Hotel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelSearchIndexTest {
+
+	private Hotel hotel(String name, String address, String city, boolean active) {
+		Hotel hotel = Hotel.builder()
+				.id(UUID.randomUUID())
+				.name(name)
+				.address(address)
+				.city(city)
+				.country("Việt Nam")
+				.build();
+		hotel.setActive(active);
+		return hotel;
+	}
+
+	@Test
+	void matchesWithoutDiacriticsAndRanksNameAboveAddress() {
+		Hotel byName = hotel("Khách sạn Đà Nẵng Riverside", "12 Trần Phú", "Đà Nẵng", true);
+		Hotel byCity = hotel("Sea View", "45 Võ Nguyên Giáp", "Đà Nẵng", true);
+		Hotel other = hotel("Hanoi Old Quarter", "1 Hàng Bạc", "Hà Nội", true);
+
+		HotelSearchIndex index = new HotelSearchIndex();
+		index.rebuild(List.of(byName, byCity, other));
+
+		List<UUID> result = index.search("da nang");
+		assertEquals(List.of(byName.getId(), byCity.getId()), result);
+		assertEquals(List.of(other.getId()), index.search("HÀ NỘI"));
+		assertEquals(List.of(byCity.getId()), index.search("vo nguy"));
+	}
+
+	@Test
+	void skipsInactiveHotelsAndAppliesIncrementalUpdates() {
+		Hotel active = hotel("Sunrise Hotel", "1 Lê Lợi", "Huế", true);
+		Hotel inactive = hotel("Sunset Hotel", "2 Lê Lợi", "Huế", false);
+
+		HotelSearchIndex index = new HotelSearchIndex();
+		index.rebuild(List.of(active, inactive));
+		assertEquals(List.of(active.getId()), index.search("hue"));
+
+		inactive.setActive(true);
+		index.indexAfterCommit(inactive);
+		assertEquals(2, index.search("hue").size());
+
+		index.removeAfterCommit(active.getId());
+		assertEquals(List.of(inactive.getId()), index.search("hue"));
+		assertTrue(index.search("sunrise").isEmpty());
+	}
+}
@@ -0,0 +1,182 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.dto.response.HotelFacetsResponse;
+import net.blwsmartware.booking.dto.response.HotelResponse;
+import net.blwsmartware.booking.entity.Hotel;
+import net.blwsmartware.booking.entity.HotelStats;
+import net.blwsmartware.booking.enums.ErrorResponse;
+import net.blwsmartware.booking.exception.AppRuntimeException;
+import net.blwsmartware.booking.mapper.HotelMapper;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.repository.ReviewRepository;
+import net.blwsmartware.booking.repository.RoomTypeRepository;
+import net.blwsmartware.booking.repository.UserRepository;
+import net.blwsmartware.booking.service.HotelStatsService;
+import net.blwsmartware.booking.service.RoomInventoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HotelServiceImplTest {
+
+	@Mock HotelRepository hotelRepository;
+	@Mock UserRepository userRepository;
+	@Mock ReviewRepository reviewRepository;
+	@Mock RoomTypeRepository roomTypeRepository;
+	@Mock BookingRepository bookingRepository;
+	@Mock HotelMapper hotelMapper;
+	@Mock RoomInventoryService roomInventoryService;
+	@Mock HotelStatsService hotelStatsService;
+	@Mock HotelSearchIndex hotelSearchIndex;
+
+	@InjectMocks HotelServiceImpl hotelService;
+
+	@Test
+	void listingPageReadsStatisticsForWholePageAtOnce() {
+		List<Hotel> hotels = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			hotels.add(Hotel.builder().id(UUID.randomUUID()).name("Hotel " + i).build());
+		}
+		Hotel rated = hotels.get(0);
+
+		when(hotelRepository.findAll(any(Pageable.class)))
+				.thenReturn(new PageImpl<>(hotels, PageRequest.of(0, 50), hotels.size()));
+		when(hotelMapper.toResponse(any(Hotel.class))).thenAnswer(invocation -> {
+			Hotel hotel = invocation.getArgument(0);
+			return HotelResponse.builder().id(hotel.getId()).name(hotel.getName()).build();
+		});
+		when(hotelStatsService.getStats(anyCollection())).thenReturn(Map.of(rated.getId(), HotelStats.builder()
+				.hotelId(rated.getId())
+				.ratingSum(9L)
+				.reviewCount(2L)
+				.roomTypeCount(3)
+				.totalRooms(20)
+				.availableRooms(7)
+				.build()));
+
+		DataResponse<HotelResponse> page = hotelService.getAllHotels(0, 50, "createdAt");
+
+		verify(hotelStatsService, times(1)).getStats(anyCollection());
+		verify(hotelRepository, times(1)).findAll(any(Pageable.class));
+		verifyNoMoreInteractions(hotelStatsService, reviewRepository, roomTypeRepository, hotelRepository);
+
+		HotelResponse first = page.getContent().get(0);
+		assertEquals(4.5, first.getAverageRating());
+		assertEquals(2, first.getTotalReviews());
+		assertEquals(3, first.getTotalRoomTypes());
+		assertEquals(20, first.getTotalRooms());
+		assertEquals(7, first.getAvailableRooms());
+
+		HotelResponse other = page.getContent().get(1);
+		assertEquals(0.0, other.getAverageRating());
+		assertEquals(0, other.getTotalRooms());
+	}
+
+	@Test
+	void facetsAreAggregatedFromGroupedRows() {
+		List<Object[]> rows = List.of(
+				new Object[]{"da nang", "Da Nang", 4, 1, 3L},
+				new Object[]{"da nang", "Da nang", 5, 3, 1L},
+				new Object[]{"da nang", "Da Nang", 5, 3, 1L},
+				new Object[]{"ha noi", "Ha Noi", 4, 0, 1L},
+				new Object[]{"ha noi", "Ha Noi", null, -1, 1L});
+
+		HotelFacetsResponse facets = HotelServiceImpl.toFacets(rows);
+
+		assertEquals("Da Nang", facets.getCities().get(0).getValue());
+		assertEquals(5, facets.getCities().get(0).getCount());
+		assertEquals(2, facets.getCities().get(1).getCount());
+		assertEquals("5", facets.getStarRatings().get(0).getValue());
+		assertEquals(4, facets.getStarRatings().get(1).getCount());
+		assertEquals(List.of(1L, 3L, 0L, 2L, 0L), facets.getPriceRanges().stream()
+				.map(HotelFacetsResponse.PriceRangeCount::getCount)
+				.toList());
+	}
+
+	@Test
+	void indexedSearchAppliesTheRequestedSortAndLoadsOnlyThePage() {
+		Hotel first = Hotel.builder().id(UUID.randomUUID()).name("Alpha").build();
+		Hotel second = Hotel.builder().id(UUID.randomUUID()).name("Beta").build();
+		Hotel third = Hotel.builder().id(UUID.randomUUID()).name("Gamma").build();
+		Sort byName = Sort.by("name").descending();
+		when(hotelSearchIndex.isReady()).thenReturn(true);
+		when(hotelSearchIndex.search("da nang")).thenReturn(List.of(first.getId(), second.getId(), third.getId()));
+		when(hotelRepository.findActiveIdsIn(List.of(first.getId(), second.getId(), third.getId()), byName))
+				.thenReturn(List.of(third.getId(), second.getId(), first.getId()));
+		when(hotelRepository.findAllById(List.of(first.getId()))).thenReturn(List.of(first));
+		when(hotelMapper.toResponse(any(Hotel.class))).thenAnswer(invocation -> {
+			Hotel hotel = invocation.getArgument(0);
+			return HotelResponse.builder().id(hotel.getId()).name(hotel.getName()).build();
+		});
+
+		DataResponse<HotelResponse> page = hotelService.searchHotels("da nang", 1, 2, "name");
+
+		assertEquals(List.of("Alpha"), page.getContent().stream().map(HotelResponse::getName).toList());
+		assertEquals(3, page.getTotalElements());
+	}
+
+	@Test
+	void indexedSearchSortsOnlyTheMostRelevantCandidates() {
+		List<UUID> matched = new ArrayList<>();
+		for (int i = 0; i < HotelServiceImpl.MAX_SEARCH_CANDIDATES + 50; i++) {
+			matched.add(UUID.randomUUID());
+		}
+		when(hotelSearchIndex.isReady()).thenReturn(true);
+		when(hotelSearchIndex.search("hotel")).thenReturn(matched);
+		when(hotelRepository.findActiveIdsIn(any(), any(Sort.class))).thenReturn(List.of());
+
+		hotelService.searchHotels("hotel", 0, 10, "createdAt");
+
+		verify(hotelRepository).findActiveIdsIn(matched.subList(0, HotelServiceImpl.MAX_SEARCH_CANDIDATES),
+				Sort.by("createdAt").descending());
+	}
+
+	@Test
+	void relevanceSortKeepsTheIndexOrder() {
+		Hotel best = Hotel.builder().id(UUID.randomUUID()).name("Best").build();
+		Hotel other = Hotel.builder().id(UUID.randomUUID()).name("Other").build();
+		when(hotelSearchIndex.isReady()).thenReturn(true);
+		when(hotelSearchIndex.search("da nang")).thenReturn(List.of(best.getId(), other.getId()));
+		when(hotelRepository.findAllById(List.of(best.getId(), other.getId()))).thenReturn(List.of(other, best));
+		when(hotelMapper.toResponse(any(Hotel.class))).thenAnswer(invocation -> {
+			Hotel hotel = invocation.getArgument(0);
+			return HotelResponse.builder().id(hotel.getId()).name(hotel.getName()).build();
+		});
+
+		DataResponse<HotelResponse> page = hotelService.searchHotels("da nang", 0, 10, "relevance");
+
+		assertEquals(List.of("Best", "Other"), page.getContent().stream().map(HotelResponse::getName).toList());
+	}
+
+	@Test
+	void cursorPagingRejectsSortFieldsWithoutAKeysetIndex() {
+		AppRuntimeException e = assertThrows(AppRuntimeException.class,
+				() -> hotelService.getActiveHotelsAfter(null, 10, "starRating"));
+
+		assertEquals(ErrorResponse.CURSOR_INVALID, e.getErrorResponse());
+		verifyNoMoreInteractions(hotelRepository);
+	}
+}
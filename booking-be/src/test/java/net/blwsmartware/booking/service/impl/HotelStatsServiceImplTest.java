@@ -0,0 +1,61 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.entity.HotelStats;
+import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.repository.HotelStatsRepository;
+import net.blwsmartware.booking.repository.ReviewRepository;
+import net.blwsmartware.booking.repository.RoomTypeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HotelStatsServiceImplTest {
+
+	@Mock HotelStatsRepository hotelStatsRepository;
+	@Mock HotelRepository hotelRepository;
+	@Mock ReviewRepository reviewRepository;
+	@Mock RoomTypeRepository roomTypeRepository;
+	@Mock HotelGeoIndex hotelGeoIndex;
+	@Mock PlatformTransactionManager transactionManager;
+	@InjectMocks HotelStatsServiceImpl hotelStatsService;
+
+	@Test
+	void getStatsReturnsRecomputedStatsWhenSavingTheReadModelFails() {
+		UUID hotelId = UUID.randomUUID();
+		Set<UUID> ids = Set.of(hotelId);
+		when(hotelStatsRepository.findAllById(ids)).thenReturn(List.of());
+		when(reviewRepository.getReviewStatsByHotelIds(ids))
+				.thenReturn(List.<Object[]>of(new Object[]{hotelId, 4.5, 2L, 9L}));
+		when(roomTypeRepository.getRoomStatsByHotelIds(ids))
+				.thenReturn(List.<Object[]>of(new Object[]{hotelId, 3L, 10, 7,
+						new BigDecimal("500000"), new BigDecimal("900000")}));
+		when(hotelStatsRepository.upsert(any(), any(), any(), any(), any(), any(), any(), any()))
+				.thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+
+		Map<UUID, HotelStats> stats = hotelStatsService.getStats(ids);
+
+		HotelStats row = stats.get(hotelId);
+		assertEquals(2L, row.getReviewCount());
+		assertEquals(9L, row.getRatingSum());
+		assertEquals(10, row.getTotalRooms());
+		assertEquals(7, row.getAvailableRooms());
+		// Lỗi ghi nằm trong transaction riêng, đã rollback ở đó
+		verify(transactionManager).rollback(any());
+	}
+}
@@ -0,0 +1,143 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.entity.Booking;
+import net.blwsmartware.booking.entity.Hotel;
+import net.blwsmartware.booking.entity.HotelDailyRevenue;
+import net.blwsmartware.booking.entity.RoomType;
+import net.blwsmartware.booking.entity.User;
+import net.blwsmartware.booking.enums.BookingStatus;
+import net.blwsmartware.booking.enums.PaymentStatus;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelDailyRevenueRepository;
+import net.blwsmartware.booking.repository.HotelRepository;
+import net.blwsmartware.booking.repository.RoomTypeRepository;
+import net.blwsmartware.booking.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chạy trên H2 (chế độ MySQL) để kiểm tra giá trị thật được ghi vào hotel_daily_revenue:
+ * câu tổng hợp JPQL, INSERT IGNORE / ON DUPLICATE KEY UPDATE và việc tính lại sau commit.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:rollup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RevenueRollupServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RevenueRollupServiceImplJpaTest {
+
+	@Autowired RevenueRollupServiceImpl revenueRollupService;
+	@Autowired HotelDailyRevenueRepository hotelDailyRevenueRepository;
+	@Autowired BookingRepository bookingRepository;
+	@Autowired RoomTypeRepository roomTypeRepository;
+	@Autowired HotelRepository hotelRepository;
+	@Autowired UserRepository userRepository;
+	@Autowired PlatformTransactionManager transactionManager;
+
+	TransactionTemplate tx;
+	Hotel hotel;
+	RoomType roomType;
+
+	@BeforeEach
+	void setUp() {
+		tx = new TransactionTemplate(transactionManager);
+		User owner = userRepository.save(User.builder()
+				.name("Host").username("host-rollup").email("host-rollup@example.com").build());
+		hotel = new Hotel();
+		hotel.setName("Rollup Hotel");
+		hotel.setAddress("1 Test Street");
+		hotel.setOwner(owner);
+		hotel.setCommissionRate(new BigDecimal("10.00"));
+		hotel = hotelRepository.save(hotel);
+		roomType = new RoomType();
+		roomType.setName("Standard");
+		roomType.setMaxOccupancy(2);
+		roomType.setHotel(hotel);
+		roomType = roomTypeRepository.save(roomType);
+	}
+
+	@AfterEach
+	void tearDown() {
+		bookingRepository.deleteAll();
+		hotelDailyRevenueRepository.deleteAll();
+		roomTypeRepository.deleteAll();
+		hotelRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	private Booking saveAndRefresh(String amount, String refund, BookingStatus status, PaymentStatus paymentStatus) {
+		return tx.execute(s -> {
+			Booking booking = new Booking();
+			booking.setGuestName("Guest");
+			booking.setGuestEmail("guest@example.com");
+			booking.setHotel(hotel);
+			booking.setRoomType(roomType);
+			booking.setCheckInDate(LocalDate.now().plusDays(1));
+			booking.setCheckOutDate(LocalDate.now().plusDays(2));
+			booking.setGuests(1);
+			booking.setTotalAmount(new BigDecimal(amount));
+			booking.setRefundAmount(refund != null ? new BigDecimal(refund) : null);
+			booking.setCommissionRateAtBooking(new BigDecimal("10.00"));
+			booking.setStatus(status);
+			booking.setPaymentStatus(paymentStatus);
+			Booking saved = bookingRepository.saveAndFlush(booking);
+			revenueRollupService.refresh(saved);
+			return saved;
+		});
+	}
+
+	@Test
+	void refreshAfterCommitWritesRecomputedTotalsForTheDay() {
+		saveAndRefresh("1000000", null, BookingStatus.CONFIRMED, PaymentStatus.PAID);
+		saveAndRefresh("500000", "200000", BookingStatus.CANCELLED_BY_GUEST, PaymentStatus.PARTIALLY_REFUNDED);
+		// Chưa thanh toán: không được tính
+		saveAndRefresh("700000", null, BookingStatus.PENDING, PaymentStatus.PENDING);
+
+		List<HotelDailyRevenue> rows = hotelDailyRevenueRepository.findAll();
+		assertEquals(1, rows.size());
+		HotelDailyRevenue row = rows.get(0);
+		assertEquals(hotel.getId(), row.getHotelId());
+		assertEquals(LocalDate.now(), row.getRevenueDate());
+		assertEquals(0, new BigDecimal("1500000").compareTo(row.getGrossAmount()));
+		assertEquals(0, new BigDecimal("200000").compareTo(row.getRefundAmount()));
+		// (1.000.000 + 300.000) * 10%
+		assertEquals(0, new BigDecimal("130000").compareTo(row.getCommissionAmount()));
+		assertEquals(2L, row.getPaidBookings());
+		assertEquals(1L, row.getCancellations());
+	}
+
+	@Test
+	void refreshRemovesTheDayWhenNoPaidBookingRemains() {
+		Booking booking = saveAndRefresh("1000000", null, BookingStatus.CONFIRMED, PaymentStatus.PAID);
+		assertEquals(1, hotelDailyRevenueRepository.count());
+
+		tx.executeWithoutResult(s -> {
+			Booking current = bookingRepository.findById(booking.getId()).orElseThrow();
+			current.setStatus(BookingStatus.CANCELLED_BY_HOST);
+			current.setPaymentStatus(PaymentStatus.CANCELLED);
+			revenueRollupService.refresh(bookingRepository.saveAndFlush(current));
+		});
+
+		assertTrue(hotelDailyRevenueRepository.findAll().isEmpty());
+	}
+}
@@ -0,0 +1,70 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.entity.Booking;
+import net.blwsmartware.booking.entity.Hotel;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.HotelDailyRevenueRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RevenueRollupServiceImplTest {
+
+	@Mock HotelDailyRevenueRepository hotelDailyRevenueRepository;
+	@Mock BookingRepository bookingRepository;
+	@Mock PlatformTransactionManager transactionManager;
+	@InjectMocks RevenueRollupServiceImpl revenueRollupService;
+
+	private Booking booking(UUID hotelId, LocalDateTime createdAt) {
+		Booking booking = new Booking();
+		Hotel hotel = new Hotel();
+		hotel.setId(hotelId);
+		booking.setHotel(hotel);
+		booking.setCreatedAt(createdAt);
+		return booking;
+	}
+
+	@Test
+	void refreshOverwritesTheBookingDayWithRecomputedTotals() {
+		UUID hotelId = UUID.randomUUID();
+		LocalDate day = LocalDate.of(2025, 3, 14);
+		when(bookingRepository.aggregateDailyRevenue(hotelId, day.atStartOfDay(), day.plusDays(1).atStartOfDay()))
+				.thenReturn(List.<Object[]>of(new Object[]{hotelId, day, new BigDecimal("1000000"),
+						new BigDecimal("200000"), new BigDecimal("80000"), 2L, 1L}));
+
+		revenueRollupService.refresh(booking(hotelId, day.atTime(10, 30)));
+
+		verify(hotelDailyRevenueRepository).lockDay(hotelId, day);
+		verify(hotelDailyRevenueRepository).upsert(any(UUID.class), eq(hotelId), eq(day),
+				eq(new BigDecimal("1000000.00")), eq(new BigDecimal("200000.00")), eq(new BigDecimal("80000.00")),
+				eq(2L), eq(1L));
+	}
+
+	@Test
+	void refreshDeletesTheRowWhenNoPaidBookingsRemain() {
+		UUID hotelId = UUID.randomUUID();
+		LocalDate day = LocalDate.of(2025, 3, 14);
+		when(bookingRepository.aggregateDailyRevenue(eq(hotelId), any(), any())).thenReturn(List.of());
+
+		revenueRollupService.refresh(booking(hotelId, day.atTime(23, 59)));
+
+		verify(hotelDailyRevenueRepository).deleteByHotelAndDate(hotelId, day);
+		verify(hotelDailyRevenueRepository, never()).upsert(any(), any(), any(), any(), any(), any(), any(), any());
+	}
+}
@@ -0,0 +1,67 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.entity.Booking;
+import net.blwsmartware.booking.entity.RoomInventory;
+import net.blwsmartware.booking.entity.RoomType;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.RoomInventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoomInventoryServiceImplTest {
+
+	static final LocalDate CHECK_IN = LocalDate.of(2026, 12, 20);
+	static final LocalDate CHECK_OUT = LocalDate.of(2026, 12, 23);
+
+	@Mock RoomInventoryRepository roomInventoryRepository;
+	@Mock BookingRepository bookingRepository;
+	@InjectMocks RoomInventoryServiceImpl roomInventoryService;
+
+	@Test
+	void remainingRoomsCountsNightsMissingFromTheLedgerWithoutWriting() {
+		RoomType roomType = new RoomType();
+		roomType.setId(UUID.randomUUID());
+		roomType.setTotalRooms(5);
+		Booking excluded = new Booking();
+		excluded.setId(UUID.randomUUID());
+		excluded.setCheckInDate(CHECK_IN);
+		excluded.setCheckOutDate(CHECK_OUT);
+
+		// Chỉ đêm đầu có trong sổ: 3/5 đã bán, trong đó có booking đang sửa
+		RoomInventory firstNight = new RoomInventory();
+		firstNight.setStayDate(CHECK_IN);
+		firstNight.setCapacity(5);
+		firstNight.setSold(3);
+		when(roomInventoryRepository.findByRoomTypeIdAndStayDateGreaterThanEqualAndStayDateLessThanOrderByStayDate(
+				roomType.getId(), CHECK_IN, CHECK_OUT)).thenReturn(List.of(firstNight));
+		// Đêm 2 và 3 chưa có trong sổ: đêm 2 có 4 booking khác (và booking đang sửa, không tính)
+		when(bookingRepository.findActiveStayRangesByRoomType(roomType.getId(), CHECK_IN, CHECK_OUT))
+				.thenReturn(List.of(
+						new Object[]{excluded.getId(), CHECK_IN, CHECK_OUT},
+						new Object[]{UUID.randomUUID(), CHECK_IN.minusDays(2), CHECK_IN.plusDays(2)},
+						new Object[]{UUID.randomUUID(), CHECK_IN.plusDays(1), CHECK_IN.plusDays(2)},
+						new Object[]{UUID.randomUUID(), CHECK_IN.plusDays(1), CHECK_OUT.plusDays(3)},
+						new Object[]{UUID.randomUUID(), CHECK_IN, CHECK_IN.plusDays(2)}));
+
+		int remaining = roomInventoryService.getRemainingRooms(roomType, CHECK_IN, CHECK_OUT, excluded);
+
+		assertEquals(1, remaining);
+		verify(roomInventoryRepository, never()).insertNightIfAbsent(any(), any(), any(), anyInt());
+		verify(roomInventoryRepository, never()).insertNightIfAbsentExcluding(any(), any(), any(), anyInt(), any(), anyInt());
+	}
+}
@@ -0,0 +1,92 @@
+package net.blwsmartware.booking.service.impl;
+
+import net.blwsmartware.booking.configuration.VNPayConfig;
+import net.blwsmartware.booking.entity.Booking;
+import net.blwsmartware.booking.entity.VNPayTransaction;
+import net.blwsmartware.booking.enums.PaymentStatus;
+import net.blwsmartware.booking.repository.BookingRepository;
+import net.blwsmartware.booking.repository.VNPayTransactionRepository;
+import net.blwsmartware.booking.service.BookingService;
+import net.blwsmartware.booking.service.RevenueService;
+import net.blwsmartware.booking.util.VNPayUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VNPayServiceImplTest {
+
+	static final String SECRET = "TEST_SECRET";
+
+	@Mock VNPayConfig vnPayConfig;
+	@Mock BookingRepository bookingRepository;
+	@Mock VNPayTransactionRepository vnPayTransactionRepository;
+	@Mock RevenueService revenueService;
+	@Mock BookingHoldQueue bookingHoldQueue;
+	@Mock BookingService bookingService;
+	@InjectMocks VNPayServiceImpl vnPayService;
+
+	Booking booking;
+	VNPayTransaction transaction;
+
+	@BeforeEach
+	void setUp() {
+		booking = new Booking();
+		booking.setId(UUID.randomUUID());
+		booking.setPaymentStatus(PaymentStatus.PENDING);
+		transaction = new VNPayTransaction();
+		transaction.setBooking(booking);
+		transaction.setIsIpnReceived(false);
+		when(vnPayConfig.getSecretKey()).thenReturn(SECRET);
+		when(vnPayTransactionRepository.findByVnpTxnRef("TXN1")).thenReturn(Optional.of(transaction));
+	}
+
+	private Map<String, String> successfulIpn() {
+		Map<String, String> params = new HashMap<>();
+		params.put("vnp_TxnRef", "TXN1");
+		params.put("vnp_ResponseCode", "00");
+		params.put("vnp_TransactionStatus", "00");
+		params.put("vnp_SecureHash", VNPayUtil.hashAllFields(new HashMap<>(params), SECRET));
+		return params;
+	}
+
+	@Test
+	void confirmsPaymentOnlyThroughConditionalUpdate() {
+		when(bookingRepository.markPaidIfHoldActive(eq(booking.getId()), any())).thenReturn(1);
+
+		assertEquals("00", vnPayService.processIPN(successfulIpn()));
+
+		assertEquals(PaymentStatus.PAID, transaction.getPaymentStatus());
+		verify(revenueService).updateHotelRevenue(booking.getId());
+		verify(bookingRepository, never()).save(any());
+	}
+
+	@Test
+	void flagsPaymentForRefundWhenHoldAlreadyExpired() {
+		when(bookingRepository.markPaidIfHoldActive(eq(booking.getId()), any())).thenReturn(0);
+
+		assertEquals("00", vnPayService.processIPN(successfulIpn()));
+
+		assertEquals(PaymentStatus.REFUND_PENDING, transaction.getPaymentStatus());
+		verify(bookingService).expireHolds(List.of(booking.getId()));
+		verify(bookingRepository).flagLatePaymentForRefund(eq(booking.getId()), any());
+		verify(revenueService, never()).updateHotelRevenue(any());
+		verify(bookingRepository, never()).save(any());
+	}
+}
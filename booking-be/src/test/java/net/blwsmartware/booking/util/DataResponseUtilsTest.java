@@ -0,0 +1,81 @@
+package net.blwsmartware.booking.util;
+
+import net.blwsmartware.booking.dto.response.DataResponse;
+import net.blwsmartware.booking.enums.ErrorResponse;
+import net.blwsmartware.booking.exception.AppRuntimeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataResponseUtilsTest {
+
+	private static String nextCursor(Map<String, Object> lastKeys) {
+		Window<String> window = Window.from(List.of("a", "b"),
+				index -> index == 1 ? ScrollPosition.forward(lastKeys) : ScrollPosition.keyset(), true);
+		return DataResponseUtils.convertWindowInfo(window, 2, List.of("a", "b")).getNextCursor();
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void assertInvalid(String after, Set<String> expectedKeys) {
+		AppRuntimeException e = assertThrows(AppRuntimeException.class,
+				() -> DataResponseUtils.decodeCursor(after, expectedKeys));
+		assertEquals(ErrorResponse.CURSOR_INVALID, e.getErrorResponse());
+	}
+
+	@Test
+	void cursorRoundTripsEveryKeyWithItsType() {
+		Map<String, Object> keys = new LinkedHashMap<>();
+		keys.put("name", "Khách sạn A&B\t=1");
+		keys.put("createdAt", LocalDateTime.of(2025, 3, 14, 10, 30, 15));
+		keys.put("minRoomPrice", new BigDecimal("750000.00"));
+		keys.put("starRating", 4);
+		keys.put("id", UUID.randomUUID());
+
+		String cursor = nextCursor(keys);
+		KeysetScrollPosition position = DataResponseUtils.decodeCursor(cursor, keys.keySet());
+
+		assertEquals(keys, position.getKeys());
+	}
+
+	@Test
+	void lastWindowHasNoCursorAndBlankCursorIsTheFirstPage() {
+		Window<String> last = Window.from(List.of("a"), index -> ScrollPosition.keyset(), false);
+		DataResponse<String> response = DataResponseUtils.convertWindowInfo(last, 10, List.of("a"));
+
+		assertNull(response.getNextCursor());
+		assertTrue(response.isLastPage());
+		assertTrue(DataResponseUtils.decodeCursor(null, Set.of("name", "id")).isInitial());
+		assertTrue(DataResponseUtils.decodeCursor(" ", Set.of("name", "id")).isInitial());
+	}
+
+	@Test
+	void rejectsMalformedOrTamperedCursors() {
+		Set<String> keys = Set.of("name", "id");
+		assertInvalid("not base64!", keys);
+		assertInvalid(encode("garbage"), keys);
+		assertInvalid(encode("name\tS\tA\nid\tU\tnot-a-uuid"), keys);
+		assertInvalid(encode("name\tX\tA\nid\tU\t" + UUID.randomUUID()), keys);
+		// Token hợp lệ của một cách sắp xếp khác không được dùng cho cách sắp xếp này
+		String createdAtCursor = nextCursor(Map.of("createdAt", LocalDateTime.now(), "id", UUID.randomUUID()));
+		assertInvalid(createdAtCursor, keys);
+	}
+}